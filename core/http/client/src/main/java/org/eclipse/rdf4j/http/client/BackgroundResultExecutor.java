@@ -10,6 +10,7 @@ import org.eclipse.rdf4j.query.GraphQueryResult;
 import org.eclipse.rdf4j.query.QueryResult;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.impl.BackgroundGraphResult;
+import org.eclipse.rdf4j.query.impl.QueueCursor;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultParser;
 import org.eclipse.rdf4j.query.resultio.helpers.BackgroundTupleResult;
 import org.eclipse.rdf4j.rio.RDFParser;
@@ -18,24 +19,58 @@ import org.slf4j.LoggerFactory;
 
 public class BackgroundResultExecutor implements AutoCloseable {
 
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.client.http.resultQueueSize} for specifying the default
+	 * number of results that are parsed ahead of the consumer. Defaults to {@value #DEFAULT_QUEUE_SIZE}.
+	 */
+	public static final String QUEUE_SIZE_PROPERTY = "org.eclipse.rdf4j.client.http.resultQueueSize";
+
+	static final int DEFAULT_QUEUE_SIZE = 10;
+
 	private final Logger logger = LoggerFactory.getLogger(BackgroundResultExecutor.class);
 
 	private final ExecutorService executor;
 
 	private final HashSet<QueryResult<?>> executing = new HashSet<>();
 
+	private volatile int queueSize = Math.max(1, Integer.getInteger(QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE));
+
 	public BackgroundResultExecutor(ExecutorService executor) {
 		this.executor = Objects.requireNonNull(executor, "Executor service was null");
 	}
 
+	/**
+	 * Get the maximum number of results that are parsed ahead of the consumer.
+	 *
+	 * @return number of results
+	 */
+	public int getQueueSize() {
+		return queueSize;
+	}
+
+	/**
+	 * Set the maximum number of results that are parsed ahead of the consumer. When the queue is full, the background
+	 * parser stops reading the response until the consumer catches up, so that a slow consumer does not need to buffer
+	 * the complete result in memory. A larger queue reduces the hand-off overhead for fast consumers.
+	 *
+	 * @param queueSize number of results, at least 1
+	 */
+	public void setQueueSize(int queueSize) {
+		if (queueSize < 1) {
+			throw new IllegalArgumentException("Queue size must be at least 1");
+		}
+		this.queueSize = queueSize;
+	}
+
 	public TupleQueryResult parse(TupleQueryResultParser parser, InputStream in) {
-		BackgroundTupleResult result = new BackgroundTupleResult(parser, in);
+		BackgroundTupleResult result = new BackgroundTupleResult(new QueueCursor<>(queueSize), parser, in);
 		autoCloseRunnable(result, result);
 		return result;
 	}
 
 	public GraphQueryResult parse(RDFParser parser, InputStream in, Charset charset, String baseURI) {
-		BackgroundGraphResult result = new BackgroundGraphResult(parser, in, charset, baseURI);
+		BackgroundGraphResult result = new BackgroundGraphResult(new QueueCursor<>(queueSize), parser, in, charset,
+				baseURI);
 		autoCloseRunnable(result, result);
 		return result;
 	}
@@ -50,6 +50,7 @@ import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.client.methods.RequestBuilder;
 import org.apache.http.client.utils.URIBuilder;
 import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 import org.apache.http.entity.StringEntity;
@@ -919,6 +920,27 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 		upload(contents, baseURI, dataFormat, false, true, Action.DELETE, contexts);
 	}
 
+	/**
+	 * Sends RDF data to the active transaction in a single request. The data is sent with its length, so the request
+	 * can be retried if a pooled connection has been closed by the server in the meantime. Blank node identifiers are
+	 * preserved.
+	 *
+	 * @param data       the serialized data.
+	 * @param dataFormat the format of the data, typically {@link RDFFormat#BINARY}.
+	 * @param action     {@link Action#ADD} to add the statements to the transaction, or {@link Action#DELETE} to remove
+	 *                   them.
+	 * @throws IllegalStateException if no transaction is active.
+	 * @since 3.7.2
+	 */
+	public void uploadTransactionData(byte[] data, RDFFormat dataFormat, Action action)
+			throws IOException, RDFParseException, RepositoryException, UnauthorizedException {
+		if (getTransactionURL() == null) {
+			throw new IllegalStateException("no transaction active");
+		}
+		HttpEntity entity = new ByteArrayEntity(data, ContentType.parse(dataFormat.getDefaultMIMEType()));
+		upload(entity, null, false, true, action);
+	}
+
 	public void upload(InputStream contents, String baseURI, RDFFormat dataFormat, boolean overwrite,
 			boolean preserveNodeIds, Resource... contexts)
 			throws IOException, RDFParseException, RepositoryException, UnauthorizedException {
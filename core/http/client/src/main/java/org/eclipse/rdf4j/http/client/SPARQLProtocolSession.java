@@ -1269,4 +1269,29 @@ public class SPARQLProtocolSession implements HttpClientDependent, AutoCloseable
 	public void setPassThroughEnabled(boolean passThroughEnabled) {
 		this.passThroughEnabled = passThroughEnabled;
 	}
+
+	/**
+	 * Get the maximum number of results of a background query result that are parsed ahead of the consumer.
+	 *
+	 * @return the number of results
+	 * @see BackgroundResultExecutor#getQueueSize()
+	 */
+	public int getResultQueueSize() {
+		return background.getQueueSize();
+	}
+
+	/**
+	 * Set the maximum number of results of a background query result that are parsed ahead of the consumer. Reading the
+	 * response is paused when the queue is full, so that slow consumers put backpressure on the server instead of
+	 * buffering the result.
+	 * <p>
+	 * If not explicitly configured, the setting defaults to the {@value BackgroundResultExecutor#QUEUE_SIZE_PROPERTY}
+	 * system property, or 10.
+	 *
+	 * @param resultQueueSize the number of results, at least 1
+	 * @see BackgroundResultExecutor#setQueueSize(int)
+	 */
+	public void setResultQueueSize(int resultQueueSize) {
+		background.setQueueSize(resultQueueSize);
+	}
 }
@@ -45,6 +45,28 @@ public class SharedHttpClientSessionManager implements HttpClientSessionManager,
 	 */
 	public static final String CORE_POOL_SIZE_PROPERTY = "org.eclipse.rdf4j.client.executors.corePoolSize";
 
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.client.http.maxConnPerRoute} for specifying the maximum
+	 * number of persistent connections to a single server. Defaults to {@value #DEFAULT_MAX_CONN_PER_ROUTE}.
+	 */
+	public static final String MAX_CONN_PER_ROUTE_PROPERTY = "org.eclipse.rdf4j.client.http.maxConnPerRoute";
+
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.client.http.maxConnTotal} for specifying the maximum total
+	 * number of persistent connections. Defaults to {@value #DEFAULT_MAX_CONN_TOTAL}.
+	 */
+	public static final String MAX_CONN_TOTAL_PROPERTY = "org.eclipse.rdf4j.client.http.maxConnTotal";
+
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.client.http.contentCompression} for enabling (default) or
+	 * disabling gzip/deflate compression of the responses.
+	 */
+	public static final String CONTENT_COMPRESSION_PROPERTY = "org.eclipse.rdf4j.client.http.contentCompression";
+
+	static final int DEFAULT_MAX_CONN_PER_ROUTE = 25;
+
+	static final int DEFAULT_MAX_CONN_TOTAL = 50;
+
 	private static final AtomicLong threadCount = new AtomicLong();
 
 	private final Logger logger = LoggerFactory.getLogger(SharedHttpClientSessionManager.class);
@@ -260,11 +282,39 @@ public class SharedHttpClientSessionManager implements HttpClientSessionManager,
 			return nextHttpClientBuilder.build();
 		}
 
-		return HttpClientBuilder.create()
+		HttpClientBuilder builder = HttpClientBuilder.create()
 				.evictExpiredConnections()
 				.setRetryHandler(retryHandlerStale)
 				.useSystemProperties()
-				.setDefaultRequestConfig(RequestConfig.custom().setCookieSpec(CookieSpecs.STANDARD).build())
-				.build();
+				.setDefaultRequestConfig(RequestConfig.custom().setCookieSpec(CookieSpecs.STANDARD).build());
+		configureConnections(builder);
+		return builder.build();
+	}
+
+	/**
+	 * Configure the connection pool and the content compression of a builder, using the system properties.
+	 *
+	 * The pool keeps the connections alive so that concurrent queries on the same server do not need to wait for a
+	 * connection (the HttpClient default is 5 per server), nor open a new one for each request. When the standard
+	 * {@code http.maxConnections} property is set and the RDF4J properties are not, the standard one is used.
+	 *
+	 * @param builder HTTP client builder
+	 * @return the same builder
+	 */
+	static HttpClientBuilder configureConnections(HttpClientBuilder builder) {
+		boolean standard = System.getProperty("http.maxConnections") != null;
+		int perRoute = Integer.getInteger(MAX_CONN_PER_ROUTE_PROPERTY, standard ? 0 : DEFAULT_MAX_CONN_PER_ROUTE);
+		int total = Integer.getInteger(MAX_CONN_TOTAL_PROPERTY, standard ? 0 : DEFAULT_MAX_CONN_TOTAL);
+		if (perRoute > 0) {
+			builder.setMaxConnPerRoute(perRoute);
+		}
+		if (total > 0) {
+			builder.setMaxConnTotal(Math.max(total, perRoute));
+		}
+		// HttpClient sends "Accept-Encoding: gzip,deflate" and decompresses the response transparently
+		if (!Boolean.parseBoolean(System.getProperty(CONTENT_COMPRESSION_PROPERTY, "true"))) {
+			builder.disableContentCompression();
+		}
+		return builder;
 	}
 }
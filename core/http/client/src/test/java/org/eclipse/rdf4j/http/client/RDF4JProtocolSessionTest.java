@@ -9,6 +9,7 @@ package org.eclipse.rdf4j.http.client;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.binaryEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
@@ -20,8 +21,12 @@ import static com.github.tomakehurst.wiremock.client.WireMock.put;
 import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
 
 import java.util.HashMap;
 
@@ -30,7 +35,9 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.message.BasicHeader;
 import org.eclipse.rdf4j.IsolationLevels;
 import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.http.protocol.Protocol.Action;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.config.RepositoryConfig;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
@@ -149,6 +156,44 @@ public class RDF4JProtocolSessionTest extends SPARQLProtocolSessionTest {
 				postRequestedFor(urlEqualTo("/rdf4j-server/repositories/test/transactions/1?action=PING")));
 	}
 
+	@Test
+	public void testTransactionDataIsUploaded() throws Exception {
+		beginTransaction();
+		stubFor(put(urlPathEqualTo("/rdf4j-server/repositories/test/transactions/1"))
+				.willReturn(aResponse().withStatus(200)));
+
+		byte[] data = "<urn:a> <urn:b> <urn:c> .\n".getBytes(StandardCharsets.UTF_8);
+		getRDF4JSession().uploadTransactionData(data, RDFFormat.NTRIPLES, Action.ADD);
+
+		verify(putRequestedFor(urlPathEqualTo("/rdf4j-server/repositories/test/transactions/1"))
+				.withQueryParam(Protocol.ACTION_PARAM_NAME, containing(Action.ADD.toString()))
+				.withHeader("Content-Length", containing(Integer.toString(data.length)))
+				.withRequestBody(binaryEqualTo(data)));
+		verifyHeader("/rdf4j-server/repositories/test/transactions/1?preserveNodeId=true&action=ADD");
+	}
+
+	@Test
+	public void testTransactionDataUploadReportsServerError() throws Exception {
+		beginTransaction();
+		stubFor(put(urlPathEqualTo("/rdf4j-server/repositories/test/transactions/1"))
+				.willReturn(aResponse().withStatus(400).withBody("Could not read data")));
+
+		byte[] data = "<urn:a> <urn:b> <urn:c> .\n".getBytes(StandardCharsets.UTF_8);
+		assertThatThrownBy(() -> getRDF4JSession().uploadTransactionData(data, RDFFormat.NTRIPLES, Action.DELETE))
+				.isInstanceOf(RepositoryException.class);
+	}
+
+	private void beginTransaction() throws Exception {
+		String transactionStartUrl = Protocol.getTransactionsLocation(getRDF4JSession().getRepositoryURL());
+
+		stubFor(post(urlEqualTo("/rdf4j-server/repositories/test/transactions"))
+				.willReturn(aResponse().withStatus(201).withHeader("Location", transactionStartUrl + "/1")));
+		stubFor(post("/rdf4j-server/repositories/test/transactions/1?action=PING")
+				.willReturn(aResponse().withStatus(200).withBody("2000")));
+
+		getRDF4JSession().beginTransaction(IsolationLevels.SERIALIZABLE);
+	}
+
 	private void verifyHeader(String path) {
 		verify(anyRequestedFor(urlEqualTo(path)).withHeader(testHeader, containing(testValue)));
 	}
@@ -38,6 +38,8 @@ import org.apache.http.StatusLine;
 import org.apache.http.params.HttpParams;
 import org.eclipse.rdf4j.http.protocol.Protocol;
 import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.TupleQueryResultHandler;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLStarResultsJSONWriter;
@@ -151,6 +153,25 @@ public class SPARQLProtocolSessionTest {
 		assertThat(out.toString()).startsWith("<");
 	}
 
+	@Test
+	public void testTupleQuery_CompressedBackgroundResult() throws Exception {
+		stubFor(post(urlEqualTo("/rdf4j-server/repositories/test"))
+				.willReturn(aResponse().withStatus(200)
+						.withHeader("Content-Type", TupleQueryResultFormat.SPARQL.getDefaultMIMEType())
+						.withBodyFile("repository-list.xml")));
+
+		sparqlSession.setResultQueueSize(1);
+		assertThat(sparqlSession.getResultQueueSize()).isEqualTo(1);
+		try (TupleQueryResult result = sparqlSession.sendTupleQuery(QueryLanguage.SPARQL,
+				"SELECT * WHERE { ?s ?p ?o}", null, null, true, -1)) {
+			assertThat(QueryResults.asList(result)).isNotEmpty();
+		}
+
+		// responses are requested compressed
+		verify(anyRequestedFor(urlEqualTo("/rdf4j-server/repositories/test"))
+				.withHeader("Accept-Encoding", containing("gzip")));
+	}
+
 	@Test
 	public void getContentTypeSerialisationTest() {
 		{
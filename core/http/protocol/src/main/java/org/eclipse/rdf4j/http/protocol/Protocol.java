@@ -80,13 +80,14 @@ public abstract class Protocol {
 	 * Protocol version.
 	 *
 	 * <ul>
+	 * <li>13: since RDF4J 3.7.2 (columnar binary tuple query results)</li>
 	 * <li>12: since RDF4J 3.5.0</li>
 	 * <li>11: since RDF4J 3.3.0</li>
 	 * <li>10: since RDF4J 3.1.0</li>
 	 * <li>9: since RDF4J 3.0.0</li>
 	 * </ul>
 	 */
-	public static final String VERSION = "12";
+	public static final String VERSION = "13";
 
 	/**
 	 * Parameter name for the 'subject' parameter of a statement query.
@@ -149,6 +150,16 @@ public abstract class Protocol {
 
 	public static final String TIMEOUT_PARAM_NAME = "timeout";
 
+	/**
+	 * Parameter name for the sequence number after which changes are requested from a change feed.
+	 */
+	public static final String AFTER_PARAM_NAME = "after";
+
+	/**
+	 * Parameter name for the ID of the change feed from which changes are requested.
+	 */
+	public static final String FEED_PARAM_NAME = "feed";
+
 	/**
 	 * Parameter name for the default remove graph URI parameter.
 	 */
@@ -255,6 +266,16 @@ public abstract class Protocol {
 	 */
 	public static final String SIZE = "size";
 
+	/**
+	 * Relative location of the change feed resource of a repository.
+	 */
+	public static final String CHANGES = "changes";
+
+	/**
+	 * MIME type for the changesets of a change feed: <tt>application/rdf-patch</tt>.
+	 */
+	public static final String RDF_PATCH_MIME_TYPE = "application/rdf-patch";
+
 	/**
 	 * MIME type for transactions: <tt>application/x-rdftransaction</tt>.
 	 */
@@ -425,6 +446,16 @@ public abstract class Protocol {
 		return repositoryLocation + "/" + SIZE;
 	}
 
+	/**
+	 * Get the location of the change feed resource for a specific repository on the specified server.
+	 *
+	 * @param repositoryLocation the location of a repository implementing this REST protocol.
+	 * @return the location of the change feed resource for the specified repository.
+	 */
+	public static final String getChangesLocation(String repositoryLocation) {
+		return repositoryLocation + "/" + CHANGES;
+	}
+
 	/**
 	 * Encodes a value in a canonical serialized string format, for use in a URL query parameter.
 	 *
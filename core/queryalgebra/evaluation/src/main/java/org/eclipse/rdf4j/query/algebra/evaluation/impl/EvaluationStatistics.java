@@ -8,6 +8,7 @@
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
 import java.util.Collection;
+import java.util.Set;
 import java.util.UUID;
 
 import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
@@ -46,6 +47,21 @@ public class EvaluationStatistics {
 		return cc.getCardinality();
 	}
 
+	/**
+	 * Estimates the number of results of a statement pattern for each combination of values of the specified variables,
+	 * which are bound by join arguments that are evaluated before the pattern. Stores that keep statistics on the
+	 * distribution of their values can override this method to improve the join order, the default implementation does
+	 * not provide an estimate.
+	 *
+	 * @param sp        The statement pattern.
+	 * @param boundVars The names of the variables that are bound when the pattern is evaluated.
+	 * @return The estimated number of results per combination of values of the bound variables, or a negative number if
+	 *         no estimate is available.
+	 */
+	public double getCardinality(StatementPattern sp, Set<String> boundVars) {
+		return -1;
+	}
+
 	protected CardinalityCalculator createCardinalityCalculator() {
 		return new CardinalityCalculator();
 	}
@@ -16,25 +16,57 @@ import org.eclipse.rdf4j.query.algebra.Projection;
 import org.eclipse.rdf4j.query.algebra.ProjectionElem;
 import org.eclipse.rdf4j.query.algebra.QueryModelNode;
 import org.eclipse.rdf4j.query.algebra.Reduced;
+import org.eclipse.rdf4j.query.algebra.Slice;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 
 /**
- * Moves the Order node above the Projection when variables are projected.
+ * Moves the Order node above the Projection when variables are projected, and sets the limit of Order nodes that only
+ * need to produce a small number of results, so that these can be evaluated with a bounded heap.
  *
  * @author James Leigh
  */
 public class OrderLimitOptimizer implements QueryOptimizer {
 
+	/**
+	 * The largest limit, including the offset, for which the results of an Order node are selected with a bounded heap
+	 * rather than sorted.
+	 */
+	public static final long DEFAULT_MAX_HEAP_LIMIT = 10_000;
+
+	private final long maxHeapLimit;
+
+	public OrderLimitOptimizer() {
+		this(DEFAULT_MAX_HEAP_LIMIT);
+	}
+
+	/**
+	 * @param maxHeapLimit the largest limit, including the offset, that is set on an Order node. Use <tt>0</tt> to
+	 *                     never set a limit.
+	 */
+	public OrderLimitOptimizer(long maxHeapLimit) {
+		this.maxHeapLimit = maxHeapLimit;
+	}
+
 	@Override
 	public void optimize(TupleExpr tupleExpr, Dataset dataset, BindingSet bindings) {
-		tupleExpr.visit(new OrderOptimizer());
+		tupleExpr.visit(new OrderOptimizer(maxHeapLimit));
 	}
 
 	protected static class OrderOptimizer extends AbstractQueryModelVisitor<RuntimeException> {
 
+		private final long maxHeapLimit;
+
+		public OrderOptimizer() {
+			this(0);
+		}
+
+		OrderOptimizer(long maxHeapLimit) {
+			this.maxHeapLimit = maxHeapLimit;
+		}
+
 		private boolean variablesProjected = true;
 
 		private Projection projection;
@@ -51,6 +83,7 @@ public class OrderLimitOptimizer implements QueryOptimizer {
 			for (OrderElem e : node.getElements()) {
 				e.visit(this);
 			}
+			Order order = node;
 			if (variablesProjected) {
 				QueryModelNode parent = node.getParentNode();
 				if (projection == parent) {
@@ -58,12 +91,42 @@ public class OrderLimitOptimizer implements QueryOptimizer {
 					node.setArg(projection.clone());
 					Order replacement = node.clone();
 					projection.replaceWith(replacement);
+					order = replacement;
 					QueryModelNode distinct = replacement.getParentNode();
 					if (distinct instanceof Distinct) {
-						distinct.replaceWith(new Reduced(replacement.clone()));
+						Reduced reduced = new Reduced(replacement.clone());
+						distinct.replaceWith(reduced);
+						order = (Order) reduced.getArg();
 					}
 				}
 			}
+
+			long limit = getLimit(order);
+			if (maxHeapLimit > 0 && limit <= maxHeapLimit) {
+				order.setLimit(limit);
+			}
+		}
+
+		/**
+		 * Returns the number of results of the node that are needed by its Slice, Distinct and Reduced ancestors, or
+		 * {@link Long#MAX_VALUE} if all results are needed.
+		 */
+		private static long getLimit(QueryModelNode node) {
+			long offset = 0;
+			if (node instanceof Slice) {
+				Slice slice = (Slice) node;
+				if (slice.hasLimit()) {
+					return slice.hasOffset() ? slice.getOffset() + slice.getLimit() : slice.getLimit();
+				} else if (slice.hasOffset()) {
+					offset = slice.getOffset();
+				}
+			}
+			QueryModelNode parent = node.getParentNode();
+			if (parent instanceof Distinct || parent instanceof Reduced || parent instanceof Slice) {
+				long limit = getLimit(parent);
+				return offset > 0 && limit < Long.MAX_VALUE ? offset + limit : limit;
+			}
+			return Long.MAX_VALUE;
 		}
 
 		@Override
@@ -422,8 +422,17 @@ public class QueryJoinOptimizer implements QueryOptimizer {
 			List<Var> constantVars = getConstantVars(vars);
 			int nonConstantVarCount = vars.size() - constantVars.size();
 			if (nonConstantVarCount > 0) {
-				double exp = (double) unboundVars.size() / nonConstantVarCount;
-				cost = Math.pow(cost, exp);
+				double boundCardinality = -1;
+				if (tupleExpr instanceof StatementPattern && unboundVars.size() < nonConstantVarCount) {
+					boundCardinality = statistics.getCardinality((StatementPattern) tupleExpr, boundVars);
+				}
+
+				if (boundCardinality >= 0) {
+					cost = boundCardinality;
+				} else {
+					double exp = (double) unboundVars.size() / nonConstantVarCount;
+					cost = Math.pow(cost, exp);
+				}
 			}
 
 			if (unboundVars.isEmpty()) {
@@ -13,9 +13,16 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.common.iteration.ConvertingIteration;
@@ -131,6 +138,10 @@ import org.eclipse.rdf4j.query.algebra.evaluation.function.Function;
 import org.eclipse.rdf4j.query.algebra.evaluation.function.FunctionRegistry;
 import org.eclipse.rdf4j.query.algebra.evaluation.function.datetime.Now;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BadlyDesignedLeftJoinIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BatchExtensionIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BatchFilterIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BatchIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.BatchProjectionIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.DescribeIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ExtensionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.FilterIterator;
@@ -140,12 +151,17 @@ import org.eclipse.rdf4j.query.algebra.evaluation.iterator.JoinIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.LeftJoinIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.MultiProjectionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.OrderIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ParallelHashJoinIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ParallelUnionIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.PathIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ProjectionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.SPARQLMinusIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.SpillingDistinctIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.TopKIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ZeroLengthPathIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.EvaluationStrategies;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.MemoryBudget;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryEvaluationUtil;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
@@ -156,6 +172,7 @@ import org.eclipse.rdf4j.query.impl.MapBindingSet;
 import org.eclipse.rdf4j.util.UUIDable;
 
 import com.google.common.base.Stopwatch;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Minimally-conforming SPARQL 1.1 Query Evaluation strategy, to evaluate one {@link TupleExpr} on the given
@@ -193,6 +210,18 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 	// track the exeution time of each node in the plan
 	private boolean trackTime;
 
+	// the number of results that filters, projections and extensions process at a time, or 0 to process them one by one
+	private int batchSize;
+
+	// the maximum number of threads that are used to evaluate a query
+	private int parallelism = 1;
+
+	// the number of threads that can still be used for parallel joins and concurrent union evaluation
+	private Semaphore parallelPermits = new Semaphore(1);
+
+	// the memory that GROUP BY and DISTINCT may use before they write intermediate results to disk, or null
+	private MemoryBudget memoryBudget;
+
 	private final UUID uuid;
 
 	private QueryOptimizerPipeline pipeline;
@@ -782,7 +811,11 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 		CloseableIteration<BindingSet, QueryEvaluationException> result;
 
 		result = this.evaluate(projection.getArg(), bindings);
-		result = new ProjectionIterator(projection, result, bindings);
+		if (batchSize > 0) {
+			result = new BatchProjectionIteration(projection, BatchIteration.of(result, batchSize), bindings);
+		} else {
+			result = new ProjectionIterator(projection, result, bindings);
+		}
 		return result;
 	}
 
@@ -798,7 +831,11 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 			throws QueryEvaluationException {
 		CloseableIteration<BindingSet, QueryEvaluationException> result;
 		result = this.evaluate(filter.getArg(), bindings);
-		result = new FilterIterator(filter, result, this);
+		if (batchSize > 0) {
+			result = new BatchFilterIteration(filter, BatchIteration.of(result, batchSize), this);
+		} else {
+			result = new FilterIterator(filter, result, this);
+		}
 		return result;
 	}
 
@@ -829,15 +866,40 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 			result = new EmptyIteration<>();
 		}
 
-		result = new ExtensionIterator(extension, result, this);
+		if (batchSize > 0) {
+			result = new BatchExtensionIteration(extension, BatchIteration.of(result, batchSize), this);
+		} else {
+			result = new ExtensionIterator(extension, result, this);
+		}
 		return result;
 	}
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Distinct distinct, BindingSet bindings)
 			throws QueryEvaluationException {
+		// spilled binding sets are returned after the others, which would break the order of an ordered argument
+		if (memoryBudget != null && !isOrdered(distinct.getArg())) {
+			return new SpillingDistinctIteration(evaluate(distinct.getArg(), bindings), memoryBudget);
+		}
 		return new DistinctIteration<>(evaluate(distinct.getArg(), bindings));
 	}
 
+	/**
+	 * Determines whether the results of an expression are ordered, i.e. whether it has an {@link Order} below it that
+	 * is only followed by unary operators other than {@link Group}.
+	 */
+	private static boolean isOrdered(TupleExpr expr) {
+		while (expr instanceof UnaryTupleOperator) {
+			if (expr instanceof Order) {
+				return true;
+			}
+			if (expr instanceof Group) {
+				return false;
+			}
+			expr = ((UnaryTupleOperator) expr).getArg();
+		}
+		return false;
+	}
+
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Reduced reduced, BindingSet bindings)
 			throws QueryEvaluationException {
 		return new ReducedIteration<>(evaluate(reduced.getArg(), bindings));
@@ -845,7 +907,7 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Group node, BindingSet bindings)
 			throws QueryEvaluationException {
-		return new GroupIterator(this, node, bindings, iterationCacheSyncThreshold);
+		return new GroupIterator(this, node, bindings, iterationCacheSyncThreshold, memoryBudget);
 	}
 
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(Order node, BindingSet bindings)
@@ -853,6 +915,10 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 		ValueComparator vcmp = new ValueComparator();
 		OrderComparator cmp = new OrderComparator(this, node, vcmp);
 		boolean reduced = isReducedOrDistinct(node);
+		if (node.hasLimit()) {
+			// only a few results are needed, see OrderLimitOptimizer
+			return new TopKIterator(evaluate(node.getArg(), bindings), this, node, vcmp, node.getLimit(), reduced);
+		}
 		long limit = getLimit(node);
 		return new OrderIterator(evaluate(node.getArg(), bindings), cmp, limit, reduced, iterationCacheSyncThreshold);
 	}
@@ -886,12 +952,38 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 		}
 
 		if (isOutOfScopeForLeftArgBindings(join.getRightArg())) {
+			int permits = tryAcquireParallelPermits();
+			if (permits > 1) {
+				try {
+					return new ParallelHashJoinIteration(this, join, bindings, ForkJoinPool.commonPool(), permits,
+							parallelPermits);
+				} catch (RuntimeException e) {
+					parallelPermits.release(permits);
+					throw e;
+				}
+			}
+			parallelPermits.release(permits);
 			return new HashJoinIteration(this, join, bindings);
 		} else {
 			return new JoinIterator(this, join, bindings);
 		}
 	}
 
+	/**
+	 * Acquires as many of the available parallel permits as possible, up to the parallelism of this strategy.
+	 *
+	 * @return the number of acquired permits, which must be released by the caller.
+	 */
+	private int tryAcquireParallelPermits() {
+		int permits = 0;
+		if (parallelism > 1) {
+			while (permits < parallelism && parallelPermits.tryAcquire()) {
+				permits++;
+			}
+		}
+		return permits;
+	}
+
 	private boolean isOutOfScopeForLeftArgBindings(TupleExpr expr) {
 		return (TupleExprs.isVariableScopeChange(expr) || TupleExprs.containsSubquery(expr));
 	}
@@ -925,6 +1017,13 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 	@SuppressWarnings("unchecked")
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(final Union union,
 			final BindingSet bindings) throws QueryEvaluationException {
+		if (parallelism > 1 && parallelPermits.tryAcquire(2)) {
+			if (UnionExecutor.INSTANCE.tryReserve(2)) {
+				return new ParallelUnionIteration(this, union, bindings, UnionExecutor.INSTANCE, parallelPermits);
+			}
+			parallelPermits.release(2);
+		}
+
 		Iteration<BindingSet, QueryEvaluationException> leftArg, rightArg;
 
 		leftArg = new DelayedIteration<BindingSet, QueryEvaluationException>() {
@@ -2097,4 +2196,123 @@ public class StrictEvaluationStrategy implements EvaluationStrategy, FederatedSe
 	public void setTrackTime(boolean trackTime) {
 		this.trackTime = trackTime;
 	}
+
+	/**
+	 * Sets the number of results that filters, projections and extensions process at a time. In batch mode, these
+	 * operators pass whole batches of results to each other and evaluate them in a tight loop, which reduces the
+	 * per-result overhead for queries that produce many results. Iterators that do not support batches are adapted
+	 * transparently.
+	 *
+	 * @param batchSize the number of results per batch, or <tt>0</tt> (the default) to process results one by one.
+	 */
+	@Experimental
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 0) {
+			throw new IllegalArgumentException("batch size must not be negative: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	@Experimental
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of threads that are used to evaluate a query with this strategy. With a parallelism
+	 * greater than 1, hash joins build and probe their hash tables in parallel on the common {@link ForkJoinPool}, and
+	 * the arguments of unions are evaluated concurrently. Parallel joins and unions share the parallelism: each holds
+	 * its threads until it is closed, and operators that find no threads available are evaluated sequentially. The
+	 * threads of unions are furthermore limited by a shared pool for all queries. The results of parallel unions are
+	 * returned in no particular order.
+	 * <p>
+	 * Parallel evaluation requires the {@link TripleSource} of this strategy to be thread-safe.
+	 *
+	 * @param parallelism the maximum number of threads, or <tt>1</tt> (the default) for sequential evaluation.
+	 */
+	@Experimental
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		this.parallelism = parallelism;
+		this.parallelPermits = new Semaphore(parallelism);
+	}
+
+	@Experimental
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the amount of memory that the GROUP BY and DISTINCT operators of a query may use for their intermediate
+	 * results. The budget is shared by all operators of the query that is evaluated with this strategy. Once it is
+	 * exhausted, the operators write further intermediate results to hash-partitioned temporary files and process these
+	 * partitions one by one, instead of running out of memory.
+	 * <p>
+	 * Partitions that exceed the budget are partitioned again, up to three times. The partitions of the last level are
+	 * processed in memory regardless of the budget. DISTINCT over ordered results keeps all results in memory, as
+	 * spilling would not preserve their order.
+	 *
+	 * @param memoryBudget the memory budget in bytes, or <tt>0</tt> (the default) to keep all intermediate results in
+	 *                     memory.
+	 */
+	@Experimental
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("memory budget must not be negative: " + memoryBudget);
+		}
+		this.memoryBudget = memoryBudget > 0 ? new MemoryBudget(memoryBudget) : null;
+	}
+
+	@Experimental
+	public long getMemoryBudget() {
+		return memoryBudget == null ? 0 : memoryBudget.getLimit();
+	}
+
+	/**
+	 * Runs the concurrently evaluated union arguments of all queries. These threads mostly wait for their results to be
+	 * consumed, so they do not run on a {@link ForkJoinPool}. The number of threads is bounded, and a thread must be
+	 * reserved before a task is submitted, so that no task waits for a thread. Idle threads are terminated.
+	 */
+	private static class UnionExecutor implements Executor {
+
+		private static final UnionExecutor INSTANCE = new UnionExecutor(
+				4 * Runtime.getRuntime().availableProcessors());
+
+		private final Semaphore threads;
+
+		private final ThreadPoolExecutor executor;
+
+		private UnionExecutor(int maxThreads) {
+			threads = new Semaphore(maxThreads);
+			executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+					new LinkedBlockingQueue<>(),
+					new ThreadFactoryBuilder().setNameFormat("rdf4j-evaluation-union-%d").setDaemon(true).build());
+			executor.allowCoreThreadTimeOut(true);
+		}
+
+		/**
+		 * Reserves threads for the given number of tasks, each reservation is released when its task has finished.
+		 */
+		boolean tryReserve(int tasks) {
+			return threads.tryAcquire(tasks);
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			try {
+				executor.execute(() -> {
+					try {
+						task.run();
+					} finally {
+						threads.release();
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				threads.release();
+				throw e;
+			}
+		}
+	}
 }
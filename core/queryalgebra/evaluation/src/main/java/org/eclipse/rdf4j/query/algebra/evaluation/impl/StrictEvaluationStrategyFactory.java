@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
+import org.eclipse.rdf4j.common.annotation.Experimental;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
@@ -19,6 +20,12 @@ public class StrictEvaluationStrategyFactory extends AbstractEvaluationStrategyF
 
 	private FederatedServiceResolver serviceResolver;
 
+	private int batchSize;
+
+	private int parallelism = 1;
+
+	private long memoryBudget;
+
 	public StrictEvaluationStrategyFactory() {
 	}
 
@@ -35,12 +42,70 @@ public class StrictEvaluationStrategyFactory extends AbstractEvaluationStrategyF
 		return serviceResolver;
 	}
 
+	/**
+	 * Sets the number of results that filters, projections and extensions process at a time in the created strategies.
+	 *
+	 * @see StrictEvaluationStrategy#setBatchSize(int)
+	 */
+	@Experimental
+	public void setBatchSize(int batchSize) {
+		if (batchSize < 0) {
+			throw new IllegalArgumentException("batch size must not be negative: " + batchSize);
+		}
+		this.batchSize = batchSize;
+	}
+
+	@Experimental
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/**
+	 * Sets the maximum number of threads that the created strategies use to evaluate a query.
+	 *
+	 * @see StrictEvaluationStrategy#setParallelism(int)
+	 */
+	@Experimental
+	public void setParallelism(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		this.parallelism = parallelism;
+	}
+
+	@Experimental
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Sets the amount of memory that the GROUP BY and DISTINCT operators of each query may use for their intermediate
+	 * results before writing them to disk.
+	 *
+	 * @see StrictEvaluationStrategy#setMemoryBudget(long)
+	 */
+	@Experimental
+	public void setMemoryBudget(long memoryBudget) {
+		if (memoryBudget < 0) {
+			throw new IllegalArgumentException("memory budget must not be negative: " + memoryBudget);
+		}
+		this.memoryBudget = memoryBudget;
+	}
+
+	@Experimental
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
 	@Override
 	public EvaluationStrategy createEvaluationStrategy(Dataset dataset, TripleSource tripleSource,
 			EvaluationStatistics evaluationStatistics) {
 		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(tripleSource, dataset, serviceResolver,
 				getQuerySolutionCacheThreshold(), evaluationStatistics, isTrackResultSize());
 		getOptimizerPipeline().ifPresent(strategy::setOptimizerPipeline);
+		strategy.setBatchSize(batchSize);
+		strategy.setParallelism(parallelism);
+		strategy.setMemoryBudget(memoryBudget);
 
 		return strategy;
 	}
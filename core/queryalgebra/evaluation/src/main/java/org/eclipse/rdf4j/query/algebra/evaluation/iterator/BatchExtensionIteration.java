@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Extension;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+
+/**
+ * Batch-at-a-time variant of {@link ExtensionIterator}, which replaces the rows of each source batch with their
+ * extensions in place.
+ */
+public class BatchExtensionIteration extends BatchIteration {
+
+	private final BatchIteration source;
+
+	private final Extension extension;
+
+	private final EvaluationStrategy strategy;
+
+	public BatchExtensionIteration(Extension extension, BatchIteration source, EvaluationStrategy strategy) {
+		this.source = source;
+		this.extension = extension;
+		this.strategy = strategy;
+	}
+
+	@Override
+	protected BindingSetBatch fetchBatch() throws QueryEvaluationException {
+		BindingSetBatch batch = source.nextBatch();
+		if (batch != null) {
+			for (int i = 0, size = batch.size(); i < size; i++) {
+				batch.set(i, ExtensionIterator.extend(extension, batch.get(i), strategy));
+			}
+		}
+		return batch;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			source.close();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.Set;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.ValueExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+
+/**
+ * Batch-at-a-time variant of {@link FilterIterator}, which removes the rejected rows from each source batch in place.
+ */
+public class BatchFilterIteration extends BatchIteration {
+
+	private final BatchIteration source;
+
+	private final ValueExpr condition;
+
+	private final EvaluationStrategy strategy;
+
+	/**
+	 * The set of binding names that are "in scope" for the filter, or <tt>null</tt> if the bindings should not be
+	 * limited because the filter is part of a subquery.
+	 *
+	 * @see FilterIterator
+	 */
+	private final Set<String> scopeBindingNames;
+
+	public BatchFilterIteration(Filter filter, BatchIteration source, EvaluationStrategy strategy) {
+		this.source = source;
+		this.condition = filter.getCondition();
+		this.strategy = strategy;
+		this.scopeBindingNames = FilterIterator.isPartOfSubQuery(filter) ? null : filter.getBindingNames();
+	}
+
+	@Override
+	protected BindingSetBatch fetchBatch() throws QueryEvaluationException {
+		BindingSetBatch batch = source.nextBatch();
+		if (batch == null) {
+			return null;
+		}
+
+		int accepted = 0;
+		for (int i = 0, size = batch.size(); i < size; i++) {
+			BindingSet row = batch.get(i);
+			if (accept(row)) {
+				batch.set(accepted++, row);
+			}
+		}
+		batch.truncate(accepted);
+		return batch;
+	}
+
+	private boolean accept(BindingSet bindings) throws QueryEvaluationException {
+		try {
+			QueryBindingSet scopeBindings = new QueryBindingSet(bindings);
+			if (scopeBindingNames != null) {
+				scopeBindings.retainAll(scopeBindingNames);
+			}
+			return strategy.isTrue(condition, scopeBindings);
+		} catch (ValueExprEvaluationException e) {
+			// failed to evaluate condition
+			return false;
+		}
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			source.close();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.NoSuchElementException;
+
+import org.eclipse.rdf4j.common.iteration.AbstractCloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * An iteration that produces its results a batch at a time. Batch-aware operators exchange whole
+ * {@link BindingSetBatch}es through {@link #nextBatch()}, so that the per-result overhead of the iteration protocol is
+ * only paid once per batch and each operator can process a batch in a tight loop. To all other consumers, a batch
+ * iteration is a regular {@link CloseableIteration} of binding sets.
+ */
+public abstract class BatchIteration extends AbstractCloseableIteration<BindingSet, QueryEvaluationException> {
+
+	private BindingSetBatch currentBatch;
+
+	private int position;
+
+	/**
+	 * Returns an iteration that produces the results of the supplied iteration in batches of the specified size. If the
+	 * supplied iteration is a batch iteration, it is returned as is.
+	 */
+	public static BatchIteration of(CloseableIteration<BindingSet, QueryEvaluationException> iter, int batchSize) {
+		if (iter instanceof BatchIteration) {
+			return (BatchIteration) iter;
+		}
+		return new SourceBatchIteration(iter, batchSize);
+	}
+
+	/**
+	 * Returns the next non-empty batch of results, or <tt>null</tt> if there are no more results. If results have
+	 * already been consumed from the current batch with {@link #next()}, only the remaining results are returned. The
+	 * returned batch belongs to the caller until the next call of a method of this iteration.
+	 */
+	public final BindingSetBatch nextBatch() throws QueryEvaluationException {
+		BindingSetBatch batch = currentBatch;
+		if (batch != null && position < batch.size()) {
+			batch.removeFirst(position);
+			currentBatch = null;
+			return batch;
+		}
+		currentBatch = null;
+
+		while (!isClosed()) {
+			batch = fetchBatch();
+			if (batch == null) {
+				close();
+			} else if (!batch.isEmpty()) {
+				return batch;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the next batch of results. The returned batch may be empty, e.g. if all rows of a source batch have been
+	 * filtered out, and it may be the same object as a previously returned batch.
+	 *
+	 * @return The next batch, or <tt>null</tt> if there are no more results.
+	 */
+	protected abstract BindingSetBatch fetchBatch() throws QueryEvaluationException;
+
+	@Override
+	public final boolean hasNext() throws QueryEvaluationException {
+		if (currentBatch != null && position < currentBatch.size()) {
+			return true;
+		}
+		currentBatch = nextBatch();
+		position = 0;
+		return currentBatch != null;
+	}
+
+	@Override
+	public final BindingSet next() throws QueryEvaluationException {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return currentBatch.get(position++);
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		currentBatch = null;
+		super.handleClose();
+	}
+
+	/**
+	 * Adapts a regular iteration by filling batches with its results.
+	 */
+	private static class SourceBatchIteration extends BatchIteration {
+
+		private final CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+		private final BindingSetBatch batch;
+
+		SourceBatchIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter, int batchSize) {
+			this.iter = iter;
+			this.batch = new BindingSetBatch(batchSize);
+		}
+
+		@Override
+		protected BindingSetBatch fetchBatch() throws QueryEvaluationException {
+			batch.clear();
+			while (!batch.isFull() && iter.hasNext()) {
+				batch.add(iter.next());
+			}
+			return batch.isEmpty() ? null : batch;
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+			} finally {
+				iter.close();
+			}
+		}
+	}
+}
@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Projection;
+import org.eclipse.rdf4j.query.algebra.ProjectionElemList;
+
+/**
+ * Batch-at-a-time variant of {@link ProjectionIterator}, which replaces the rows of each source batch with their
+ * projections in place.
+ */
+public class BatchProjectionIteration extends BatchIteration {
+
+	private final BatchIteration source;
+
+	private final ProjectionElemList projElemList;
+
+	private final BindingSet parentBindings;
+
+	private final boolean includeAllParentBindings;
+
+	public BatchProjectionIteration(Projection projection, BatchIteration source, BindingSet parentBindings) {
+		this.source = source;
+		this.projElemList = projection.getProjectionElemList();
+		this.parentBindings = parentBindings;
+		this.includeAllParentBindings = !ProjectionIterator.isOuterProjection(projection);
+	}
+
+	@Override
+	protected BindingSetBatch fetchBatch() throws QueryEvaluationException {
+		BindingSetBatch batch = source.nextBatch();
+		if (batch != null) {
+			for (int i = 0, size = batch.size(); i < size; i++) {
+				batch.set(i, ProjectionIterator.project(projElemList, batch.get(i), parentBindings,
+						includeAllParentBindings));
+			}
+		}
+		return batch;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			source.close();
+		}
+	}
+}
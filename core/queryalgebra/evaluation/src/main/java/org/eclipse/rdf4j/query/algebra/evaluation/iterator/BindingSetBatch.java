@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import org.eclipse.rdf4j.query.BindingSet;
+
+/**
+ * A fixed-capacity batch of {@link BindingSet}s that is exchanged between {@link BatchIteration}s. Operators modify the
+ * rows of a batch in place, so a batch is only valid until the next batch is requested from the iteration that produced
+ * it.
+ */
+public final class BindingSetBatch {
+
+	private final BindingSet[] rows;
+
+	private int size;
+
+	public BindingSetBatch(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.rows = new BindingSet[capacity];
+	}
+
+	public int capacity() {
+		return rows.length;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean isFull() {
+		return size == rows.length;
+	}
+
+	public BindingSet get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException(index + " >= " + size);
+		}
+		return rows[index];
+	}
+
+	public void set(int index, BindingSet row) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException(index + " >= " + size);
+		}
+		rows[index] = row;
+	}
+
+	public void add(BindingSet row) {
+		rows[size++] = row;
+	}
+
+	/**
+	 * Removes the first <tt>count</tt> rows, moving the remaining rows to the front of the batch.
+	 */
+	public void removeFirst(int count) {
+		if (count > 0) {
+			System.arraycopy(rows, count, rows, 0, size - count);
+			truncate(size - count);
+		}
+	}
+
+	/**
+	 * Removes all rows after the first <tt>newSize</tt> rows.
+	 */
+	public void truncate(int newSize) {
+		if (newSize > size) {
+			throw new IllegalArgumentException(newSize + " > " + size);
+		}
+		for (int i = newSize; i < size; i++) {
+			// allow the removed rows to be garbage collected
+			rows[i] = null;
+		}
+		size = newSize;
+	}
+
+	public void clear() {
+		truncate(0);
+	}
+}
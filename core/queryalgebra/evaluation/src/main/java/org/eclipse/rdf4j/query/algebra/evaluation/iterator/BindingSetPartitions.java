@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.eclipse.rdf4j.common.iteration.AbstractCloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+
+/**
+ * Binding sets that have been written to temporary files, distributed over a number of partitions by a hash code, so
+ * that each partition can be processed separately. Binding sets with equal hash codes end up in the same partition.
+ */
+class BindingSetPartitions implements Closeable {
+
+	static final int PARTITION_COUNT = 32;
+
+	/**
+	 * The number of binding sets after which the object streams are reset, so that they do not keep references to all
+	 * written objects.
+	 */
+	private static final int RESET_INTERVAL = 1024;
+
+	private final String prefix;
+
+	private final int level;
+
+	private final File[] files = new File[PARTITION_COUNT];
+
+	private final ObjectOutputStream[] outputs = new ObjectOutputStream[PARTITION_COUNT];
+
+	private final long[] sizes = new long[PARTITION_COUNT];
+
+	/**
+	 * @param prefix the prefix of the names of the temporary files.
+	 * @param level  the number of times that the binding sets have already been partitioned. Each level distributes the
+	 *               binding sets differently over the partitions.
+	 */
+	BindingSetPartitions(String prefix, int level) {
+		this.prefix = prefix;
+		this.level = level;
+	}
+
+	long size(int partition) {
+		return sizes[partition];
+	}
+
+	/**
+	 * Returns the partitions that contain binding sets.
+	 */
+	List<Partition> getPartitions() {
+		List<Partition> result = new ArrayList<>();
+		for (int i = 0; i < PARTITION_COUNT; i++) {
+			if (sizes[i] > 0) {
+				result.add(new Partition(this, i));
+			}
+		}
+		return result;
+	}
+
+	void add(BindingSet bindingSet, int hash) throws QueryEvaluationException {
+		int partition = getPartition(hash);
+		try {
+			ObjectOutputStream output = outputs[partition];
+			if (output == null) {
+				files[partition] = File.createTempFile(prefix, null);
+				output = outputs[partition] = new ObjectOutputStream(
+						new BufferedOutputStream(new FileOutputStream(files[partition])));
+			}
+			output.writeObject(bindingSet);
+			if (++sizes[partition] % RESET_INTERVAL == 0) {
+				output.reset();
+			}
+		} catch (IOException e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	/**
+	 * Reads the binding sets of a partition. No more binding sets can be added once a partition is read.
+	 */
+	CloseableIteration<BindingSet, QueryEvaluationException> read(int partition) throws QueryEvaluationException {
+		try {
+			if (outputs[partition] == null) {
+				return new EmptyIteration<>();
+			}
+			outputs[partition].close();
+			ObjectInputStream input = new ObjectInputStream(
+					new BufferedInputStream(new FileInputStream(files[partition])));
+			return new PartitionIteration(input, sizes[partition]);
+		} catch (IOException e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		IOException exception = null;
+		for (int i = 0; i < PARTITION_COUNT; i++) {
+			try {
+				if (outputs[i] != null) {
+					outputs[i].close();
+				}
+			} catch (IOException e) {
+				exception = e;
+			} finally {
+				if (files[i] != null) {
+					files[i].delete();
+				}
+			}
+		}
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * Closes all partitions in the list and removes them from it.
+	 */
+	static void closeAll(List<BindingSetPartitions> partitions) throws QueryEvaluationException {
+		IOException exception = null;
+		for (BindingSetPartitions p : partitions) {
+			try {
+				p.close();
+			} catch (IOException e) {
+				exception = e;
+			}
+		}
+		partitions.clear();
+		if (exception != null) {
+			throw new QueryEvaluationException(exception);
+		}
+	}
+
+	private int getPartition(int hash) {
+		// finalizer of MurmurHash3, seeded with the level to use different bits on each level
+		int h = hash ^ (level * 0x9e3779b9);
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return Math.floorMod(h, PARTITION_COUNT);
+	}
+
+	static class Partition {
+
+		private final BindingSetPartitions partitions;
+
+		private final int index;
+
+		private Partition(BindingSetPartitions partitions, int index) {
+			this.partitions = partitions;
+			this.index = index;
+		}
+
+		/**
+		 * Returns the level that should be used to partition the binding sets of this partition further.
+		 */
+		int getNextLevel() {
+			return partitions.level + 1;
+		}
+
+		CloseableIteration<BindingSet, QueryEvaluationException> read() throws QueryEvaluationException {
+			return partitions.read(index);
+		}
+	}
+
+	private static class PartitionIteration extends AbstractCloseableIteration<BindingSet, QueryEvaluationException> {
+
+		private final ObjectInputStream input;
+
+		private long remaining;
+
+		PartitionIteration(ObjectInputStream input, long size) {
+			this.input = input;
+			this.remaining = size;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0 && !isClosed();
+		}
+
+		@Override
+		public BindingSet next() throws QueryEvaluationException {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			try {
+				remaining--;
+				return (BindingSet) input.readObject();
+			} catch (IOException | ClassNotFoundException e) {
+				throw new QueryEvaluationException(e);
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+			} finally {
+				try {
+					input.close();
+				} catch (IOException e) {
+					throw new QueryEvaluationException(e);
+				}
+			}
+		}
+	}
+}
@@ -35,6 +35,11 @@ public class ExtensionIterator extends ConvertingIteration<BindingSet, BindingSe
 
 	@Override
 	public BindingSet convert(BindingSet sourceBindings) throws QueryEvaluationException {
+		return extend(extension, sourceBindings, strategy);
+	}
+
+	static BindingSet extend(Extension extension, BindingSet sourceBindings, EvaluationStrategy strategy)
+			throws QueryEvaluationException {
 		QueryBindingSet targetBindings = new QueryBindingSet(sourceBindings);
 
 		for (ExtensionElem extElem : extension.getElements()) {
@@ -53,7 +53,7 @@ public class FilterIterator extends FilterIteration<BindingSet, QueryEvaluationE
 	 * Methods *
 	 *---------*/
 
-	private boolean isPartOfSubQuery(QueryModelNode node) {
+	static boolean isPartOfSubQuery(QueryModelNode node) {
 		if (node instanceof SubQueryValueOperator) {
 			return true;
 		}
@@ -10,10 +10,14 @@ package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Random;
@@ -47,6 +51,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.ExtendedEvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.MemoryBudget;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.mapdb.DB;
@@ -86,6 +91,28 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	 */
 	private final long iterationCacheSyncThreshold;
 
+	/**
+	 * The estimated memory overhead of a group in addition to its first binding set, e.g. for its aggregates.
+	 */
+	private static final int ENTRY_OVERHEAD = 256;
+
+	/**
+	 * The number of times that solutions are partitioned, e.g. because many groups have the same hash code. The groups
+	 * of the partitions of the last level are built in memory, regardless of the budget.
+	 */
+	private static final int MAX_PARTITION_LEVEL = 3;
+
+	/**
+	 * The memory budget of the query, or <tt>null</tt> if all groups are kept in memory.
+	 */
+	private final MemoryBudget memoryBudget;
+
+	private long reservedMemory;
+
+	private final List<BindingSetPartitions> partitions = new ArrayList<>();
+
+	private final Deque<BindingSetPartitions.Partition> pendingPartitions = new ArrayDeque<>();
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -97,7 +124,20 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
 			long iterationCacheSyncThreshold) throws QueryEvaluationException {
+		this(strategy, group, parentBindings, iterationCacheSyncThreshold, null);
+	}
+
+	/**
+	 * Creates a group iterator that keeps groups in memory as long as the memory budget allows. Once the budget is
+	 * exhausted, solutions that do not belong to a group in memory are written to hash-partitioned temporary files,
+	 * which are aggregated one by one after the groups in memory have been returned.
+	 *
+	 * @param memoryBudget the memory budget of the query, or <tt>null</tt> to keep all groups in memory.
+	 */
+	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
+			long iterationCacheSyncThreshold, MemoryBudget memoryBudget) throws QueryEvaluationException {
 		this.strategy = strategy;
+		this.memoryBudget = memoryBudget;
 		this.group = group;
 		this.parentBindings = parentBindings;
 		this.iterationCacheSyncThreshold = iterationCacheSyncThreshold;
@@ -150,8 +190,14 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		try {
 			super.handleClose();
 		} finally {
-			if (db != null) {
-				db.close();
+			try {
+				if (db != null) {
+					db.close();
+				}
+			} finally {
+				releaseMemory();
+				pendingPartitions.clear();
+				BindingSetPartitions.closeAll(partitions);
 			}
 		}
 	}
@@ -165,39 +211,49 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	}
 
 	private Iterator<BindingSet> createIterator() throws QueryEvaluationException {
-		Collection<Entry> entries = buildEntries();
+		Collection<Entry> entries = buildEntries(strategy.evaluate(group.getArg(), parentBindings), 0);
+		if (memoryBudget != null) {
+			return new SpillingResultIterator(entries);
+		}
+
 		Set<BindingSet> bindingSets = createSet("bindingsets");
 
 		for (Entry entry : entries) {
-			QueryBindingSet sol = new QueryBindingSet(parentBindings);
+			bindingSets.add(createSolution(entry));
+		}
 
-			for (String name : group.getGroupBindingNames()) {
-				BindingSet prototype = entry.getPrototype();
-				if (prototype != null) {
-					Value value = prototype.getValue(name);
-					if (value != null) {
-						// Potentially overwrites bindings from super
-						sol.setBinding(name, value);
-					}
-				}
-			}
+		return bindingSets.iterator();
+	}
 
-			entry.bindSolution(sol);
+	private BindingSet createSolution(Entry entry) throws QueryEvaluationException {
+		QueryBindingSet sol = new QueryBindingSet(parentBindings);
 
-			bindingSets.add(sol);
+		for (String name : group.getGroupBindingNames()) {
+			BindingSet prototype = entry.getPrototype();
+			if (prototype != null) {
+				Value value = prototype.getValue(name);
+				if (value != null) {
+					// Potentially overwrites bindings from super
+					sol.setBinding(name, value);
+				}
+			}
 		}
 
-		return bindingSets.iterator();
+		entry.bindSolution(sol);
+		return sol;
 	}
 
-	private Collection<Entry> buildEntries() throws QueryEvaluationException {
-		CloseableIteration<BindingSet, QueryEvaluationException> iter;
-		iter = strategy.evaluate(group.getArg(), parentBindings);
-
+	/**
+	 * Builds the groups for the solutions of the supplied iteration. Solutions that do not fit into the memory budget
+	 * are written to partitions that will be aggregated at the next level.
+	 */
+	private Collection<Entry> buildEntries(CloseableIteration<BindingSet, QueryEvaluationException> iter, int level)
+			throws QueryEvaluationException {
 		try {
 			Map<Key, Entry> entries = new LinkedHashMap<>();
+			BindingSetPartitions spilled = null;
 
-			if (!iter.hasNext()) {
+			if (level == 0 && !iter.hasNext()) {
 				// no solutions, but if we are not explicitly grouping and aggregates are present,
 				// we still need to process them to produce a zero-result.
 				if (group.getGroupBindingNames().isEmpty()) {
@@ -220,6 +276,15 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 				Entry entry = entries.get(key);
 
 				if (entry == null) {
+					if (spilled != null || !reserveMemory(sol, level)) {
+						// all solutions of this group will end up in the same partition
+						if (spilled == null) {
+							spilled = new BindingSetPartitions("group-eval", level);
+							partitions.add(spilled);
+						}
+						spilled.add(sol, key.hashCode());
+						continue;
+					}
 					entry = new Entry(sol);
 					entries.put(key, entry);
 				}
@@ -227,6 +292,9 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 				entry.addSolution(sol);
 			}
 
+			if (spilled != null) {
+				pendingPartitions.addAll(spilled.getPartitions());
+			}
 			return entries.values();
 		} finally {
 			iter.close();
@@ -234,6 +302,59 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	}
 
+	private boolean reserveMemory(BindingSet sol, int level) {
+		if (memoryBudget == null || level >= MAX_PARTITION_LEVEL) {
+			return true;
+		}
+		long size = MemoryBudget.estimateSize(sol) + ENTRY_OVERHEAD;
+		if (memoryBudget.tryReserve(size)) {
+			reservedMemory += size;
+			return true;
+		}
+		return false;
+	}
+
+	private void releaseMemory() {
+		if (memoryBudget != null) {
+			memoryBudget.release(reservedMemory);
+			reservedMemory = 0;
+		}
+	}
+
+	/**
+	 * Returns the solutions of the groups in memory, followed by the solutions of the groups in each partition.
+	 */
+	private class SpillingResultIterator implements Iterator<BindingSet> {
+
+		private Iterator<Entry> entries;
+
+		SpillingResultIterator(Collection<Entry> entries) {
+			this.entries = entries.iterator();
+		}
+
+		@Override
+		public boolean hasNext() throws QueryEvaluationException {
+			while (!entries.hasNext()) {
+				// the groups of the previous level are no longer needed
+				releaseMemory();
+				BindingSetPartitions.Partition partition = pendingPartitions.poll();
+				if (partition == null) {
+					return false;
+				}
+				entries = buildEntries(partition.read(), partition.getNextLevel()).iterator();
+			}
+			return true;
+		}
+
+		@Override
+		public BindingSet next() throws QueryEvaluationException {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return createSolution(entries.next());
+		}
+	}
+
 	/**
 	 * A unique key for a set of existing bindings.
 	 *
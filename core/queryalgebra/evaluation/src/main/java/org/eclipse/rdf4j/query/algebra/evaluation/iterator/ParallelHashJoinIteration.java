@@ -0,0 +1,234 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+
+/**
+ * Hash join that uses multiple threads of a {@link ForkJoinPool}. The results of the right argument are distributed
+ * over a number of partitions by the hash of their join attributes, and the hash tables of the partitions are built in
+ * parallel. The results of the left argument are then read in chunks, which are probed against the hash tables in
+ * parallel. The join results are returned in the order of the left argument, like {@link HashJoinIteration} does.
+ */
+public class ParallelHashJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	/**
+	 * The number of left argument results that are probed by a single task.
+	 */
+	static final int CHUNK_SIZE = 1024;
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> leftIter;
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> rightIter;
+
+	private final String[] joinAttributes;
+
+	private final ForkJoinPool pool;
+
+	private final int parallelism;
+
+	/**
+	 * The permits that have been acquired for the threads of this join, if any.
+	 */
+	private final Semaphore permits;
+
+	private final Deque<ForkJoinTask<List<BindingSet>>> pendingChunks = new ArrayDeque<>();
+
+	private List<Map<BindingSetHashKey, List<BindingSet>>> partitions;
+
+	/**
+	 * All results of the right argument, which are joined with an empty left result.
+	 */
+	private List<BindingSet> rightResults;
+
+	private Iterator<BindingSet> currentChunk = Collections.emptyIterator();
+
+	public ParallelHashJoinIteration(EvaluationStrategy strategy, Join join, BindingSet bindings, ForkJoinPool pool,
+			int parallelism) throws QueryEvaluationException {
+		this(strategy, join, bindings, pool, parallelism, null);
+	}
+
+	/**
+	 * @param parallelism the number of partitions and of concurrently probed chunks.
+	 * @param permits     permits that have been acquired for the parallelism of this join, and that are released when
+	 *                    this iteration is closed. May be <tt>null</tt>. If this constructor fails, the permits are not
+	 *                    released.
+	 */
+	public ParallelHashJoinIteration(EvaluationStrategy strategy, Join join, BindingSet bindings, ForkJoinPool pool,
+			int parallelism, Semaphore permits) throws QueryEvaluationException {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+		}
+		this.pool = pool;
+		this.parallelism = parallelism;
+		this.permits = permits;
+
+		Set<String> joinAttributeNames = new HashSet<>(join.getLeftArg().getBindingNames());
+		joinAttributeNames.retainAll(join.getRightArg().getBindingNames());
+		joinAttributes = joinAttributeNames.toArray(new String[joinAttributeNames.size()]);
+
+		leftIter = strategy.evaluate(join.getLeftArg(), bindings);
+		CloseableIteration<BindingSet, QueryEvaluationException> right;
+		try {
+			right = strategy.evaluate(join.getRightArg(), bindings);
+		} catch (RuntimeException e) {
+			leftIter.close();
+			throw e;
+		}
+		rightIter = right;
+		join.setAlgorithm(this);
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (partitions == null) {
+			buildHashTables();
+		}
+
+		while (!currentChunk.hasNext()) {
+			// keep the pool busy with up to one chunk per thread
+			while (pendingChunks.size() < parallelism && leftIter.hasNext()) {
+				List<BindingSet> chunk = new ArrayList<>(CHUNK_SIZE);
+				while (chunk.size() < CHUNK_SIZE && leftIter.hasNext()) {
+					chunk.add(leftIter.next());
+				}
+				pendingChunks.add(pool.submit(() -> probe(chunk)));
+			}
+
+			ForkJoinTask<List<BindingSet>> next = pendingChunks.poll();
+			if (next == null) {
+				return null;
+			}
+			currentChunk = next.join().iterator();
+		}
+
+		return currentChunk.next();
+	}
+
+	private void buildHashTables() throws QueryEvaluationException {
+		rightResults = new ArrayList<>();
+		List<List<BindingSet>> partitionResults = new ArrayList<>(parallelism);
+		for (int i = 0; i < parallelism; i++) {
+			partitionResults.add(new ArrayList<>());
+		}
+
+		try {
+			while (rightIter.hasNext()) {
+				BindingSet next = rightIter.next();
+				rightResults.add(next);
+				partitionResults.get(getPartition(BindingSetHashKey.create(joinAttributes, next))).add(next);
+			}
+		} finally {
+			rightIter.close();
+		}
+
+		List<ForkJoinTask<Map<BindingSetHashKey, List<BindingSet>>>> tasks = new ArrayList<>(parallelism);
+		for (List<BindingSet> results : partitionResults) {
+			tasks.add(pool.submit(() -> buildHashTable(results)));
+		}
+
+		List<Map<BindingSetHashKey, List<BindingSet>>> hashTables = new ArrayList<>(parallelism);
+		for (ForkJoinTask<Map<BindingSetHashKey, List<BindingSet>>> task : tasks) {
+			hashTables.add(task.join());
+		}
+		partitions = hashTables;
+	}
+
+	private Map<BindingSetHashKey, List<BindingSet>> buildHashTable(List<BindingSet> results) {
+		Map<BindingSetHashKey, List<BindingSet>> hashTable = new HashMap<>(results.size());
+		for (BindingSet bs : results) {
+			hashTable.computeIfAbsent(BindingSetHashKey.create(joinAttributes, bs), k -> new ArrayList<>(1)).add(bs);
+		}
+		return hashTable;
+	}
+
+	private List<BindingSet> probe(List<BindingSet> chunk) {
+		List<BindingSet> results = new ArrayList<>(chunk.size());
+		for (BindingSet leftBindings : chunk) {
+			List<BindingSet> matches;
+			if (leftBindings instanceof EmptyBindingSet) {
+				// the empty binding set is compatible with all results
+				matches = rightResults;
+			} else {
+				BindingSetHashKey key = BindingSetHashKey.create(joinAttributes, leftBindings);
+				matches = partitions.get(getPartition(key)).get(key);
+			}
+
+			if (matches != null) {
+				for (BindingSet rightBindings : matches) {
+					results.add(merge(leftBindings, rightBindings));
+				}
+			}
+		}
+		return results;
+	}
+
+	private int getPartition(BindingSetHashKey key) {
+		return Math.floorMod(key.hashCode(), parallelism);
+	}
+
+	private static BindingSet merge(BindingSet leftBindings, BindingSet rightBindings) {
+		QueryBindingSet result = new QueryBindingSet(leftBindings);
+		for (String name : rightBindings.getBindingNames()) {
+			if (!result.hasBinding(name)) {
+				Value v = rightBindings.getValue(name);
+				if (v != null) {
+					result.addBinding(name, v);
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			for (ForkJoinTask<List<BindingSet>> task : pendingChunks) {
+				task.cancel(false);
+			}
+			pendingChunks.clear();
+			partitions = null;
+			rightResults = null;
+			try {
+				leftIter.close();
+			} finally {
+				try {
+					rightIter.close();
+				} finally {
+					if (permits != null) {
+						permits.release(parallelism);
+					}
+				}
+			}
+		}
+	}
+}
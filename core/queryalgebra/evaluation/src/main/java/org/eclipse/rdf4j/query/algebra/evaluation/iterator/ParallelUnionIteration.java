@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.QueueIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Union;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+
+/**
+ * Evaluates both arguments of a {@link Union} concurrently, each in a separate task, and returns their results as they
+ * become available. The order of the results is therefore not deterministic.
+ */
+public class ParallelUnionIteration extends QueueIteration<BindingSet, QueryEvaluationException> {
+
+	private static final int QUEUE_CAPACITY = 1024;
+
+	private final AtomicInteger runningArgs = new AtomicInteger(2);
+
+	private final Semaphore permits;
+
+	/**
+	 * @param permits Two permits that have been acquired for the evaluation of this union. Each permit is released when
+	 *                the evaluation of an argument has finished.
+	 */
+	public ParallelUnionIteration(EvaluationStrategy strategy, Union union, BindingSet bindings, Executor executor,
+			Semaphore permits) throws QueryEvaluationException {
+		super(QUEUE_CAPACITY);
+		this.permits = permits;
+		start(strategy, union.getLeftArg(), bindings, executor);
+		start(strategy, union.getRightArg(), bindings, executor);
+	}
+
+	private void start(EvaluationStrategy strategy, TupleExpr arg, BindingSet bindings, Executor executor) {
+		try {
+			executor.execute(() -> evaluate(strategy, arg, bindings));
+		} catch (RejectedExecutionException e) {
+			toss(e);
+			argDone();
+		}
+	}
+
+	private void evaluate(EvaluationStrategy strategy, TupleExpr arg, BindingSet bindings) {
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = strategy.evaluate(arg, bindings)) {
+			while (!isClosed() && iter.hasNext()) {
+				put(iter.next());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			toss(e);
+		} finally {
+			argDone();
+		}
+	}
+
+	private void argDone() {
+		permits.release();
+		if (runningArgs.decrementAndGet() == 0) {
+			done();
+		}
+	}
+
+	@Override
+	protected QueryEvaluationException convert(Exception e) {
+		if (e instanceof QueryEvaluationException) {
+			return (QueryEvaluationException) e;
+		}
+		return new QueryEvaluationException(e);
+	}
+}
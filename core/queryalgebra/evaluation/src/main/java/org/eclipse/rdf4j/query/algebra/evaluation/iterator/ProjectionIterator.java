@@ -40,10 +40,10 @@ public class ProjectionIterator extends ConvertingIteration<BindingSet, BindingS
 		super(iter);
 		this.projection = projection;
 		this.parentBindings = parentBindings;
-		this.isOuterProjection = determineOuterProjection();
+		this.isOuterProjection = isOuterProjection(projection);
 	}
 
-	private final boolean determineOuterProjection() {
+	static boolean isOuterProjection(Projection projection) {
 		QueryModelNode ancestor = projection;
 		while (ancestor.getParentNode() != null) {
 			ancestor = ancestor.getParentNode();
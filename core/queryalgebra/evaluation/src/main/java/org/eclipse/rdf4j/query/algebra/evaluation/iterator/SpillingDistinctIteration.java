@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.DistinctIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.MemoryBudget;
+
+/**
+ * A {@link DistinctIteration} for binding sets that keeps the binding sets it has seen in memory as long as the
+ * {@link MemoryBudget} of the query allows. Once the budget is exhausted, binding sets that have not been seen before
+ * are written to hash-partitioned temporary files. After the input has been consumed, the partitions are processed one
+ * by one, each with the full budget available, and partitioned further if necessary. As the partitions are returned
+ * after the binding sets that fit into memory, the order of the input is not preserved.
+ */
+public class SpillingDistinctIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	/**
+	 * The number of times that binding sets are partitioned, e.g. because many binding sets have the same hash code.
+	 * The partitions of the last level are processed in memory, regardless of the budget.
+	 */
+	private static final int MAX_LEVEL = 3;
+
+	private final MemoryBudget budget;
+
+	private final Deque<BindingSetPartitions.Partition> pendingPartitions = new ArrayDeque<>();
+
+	private final List<BindingSetPartitions> allPartitions = new ArrayList<>();
+
+	private CloseableIteration<BindingSet, QueryEvaluationException> source;
+
+	private int level;
+
+	private Set<BindingSet> seen = new HashSet<>();
+
+	private long reserved;
+
+	/**
+	 * The partitions for the binding sets of the current source that exceed the budget.
+	 */
+	private BindingSetPartitions spilled;
+
+	public SpillingDistinctIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			MemoryBudget budget) {
+		this.source = iter;
+		this.budget = budget;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		while (source != null) {
+			while (source.hasNext()) {
+				BindingSet next = source.next();
+				if (seen.contains(next)) {
+					continue;
+				}
+
+				if (spilled == null && reserve(next)) {
+					seen.add(next);
+					return next;
+				}
+
+				// binding sets that are equal to this one can only be found in the same partition
+				if (spilled == null) {
+					spilled = new BindingSetPartitions("distinct-eval", level);
+					allPartitions.add(spilled);
+				}
+				spilled.add(next, next.hashCode());
+			}
+
+			nextSource();
+		}
+		return null;
+	}
+
+	private boolean reserve(BindingSet bindingSet) {
+		if (level >= MAX_LEVEL) {
+			return true;
+		}
+		long size = MemoryBudget.estimateSize(bindingSet);
+		if (budget.tryReserve(size)) {
+			reserved += size;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Frees the memory of the current source and continues with the next partition, if any.
+	 */
+	private void nextSource() throws QueryEvaluationException {
+		source.close();
+		source = null;
+		seen = new HashSet<>();
+		budget.release(reserved);
+		reserved = 0;
+
+		if (spilled != null) {
+			pendingPartitions.addAll(spilled.getPartitions());
+			spilled = null;
+		}
+
+		BindingSetPartitions.Partition partition = pendingPartitions.poll();
+		if (partition != null) {
+			level = partition.getNextLevel();
+			source = partition.read();
+		}
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				if (source != null) {
+					source.close();
+				}
+			} finally {
+				seen = null;
+				budget.release(reserved);
+				reserved = 0;
+				BindingSetPartitions.closeAll(allPartitions);
+			}
+		}
+	}
+}
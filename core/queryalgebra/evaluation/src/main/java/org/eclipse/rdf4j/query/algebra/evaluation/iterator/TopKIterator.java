@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.DelayedIteration;
+import org.eclipse.rdf4j.common.iteration.Iteration;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+
+/**
+ * Returns the first <tt>limit</tt> results of the input in the order of an {@link Order} node, like
+ * {@link OrderIterator} does, but only keeps these results in a bounded heap instead of sorting the whole input.
+ * <p>
+ * The values of the order elements are evaluated once per result and kept as its sort key, so that comparisons do not
+ * need to evaluate them again. Numeric values are additionally kept as doubles, which avoids the datatype dispatch of
+ * the {@link ValueComparator} for most comparisons of numeric keys. Results with equal sort keys are ordered with the
+ * {@link OrderComparator} and then in the order in which they were read, so the results are in the same order as those
+ * of an {@link OrderIterator}.
+ */
+public class TopKIterator extends DelayedIteration<BindingSet, QueryEvaluationException> {
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+	private final EvaluationStrategy strategy;
+
+	private final OrderElem[] elements;
+
+	private final ValueComparator valueComparator;
+
+	private final OrderComparator tieBreaker;
+
+	private final int limit;
+
+	private final boolean distinct;
+
+	/**
+	 * @param limit    the number of results to return, including any offset that is applied afterwards.
+	 * @param distinct whether duplicate results should be removed.
+	 */
+	public TopKIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter, EvaluationStrategy strategy,
+			Order order, ValueComparator valueComparator, long limit, boolean distinct) {
+		if (limit < 0 || limit >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("invalid limit: " + limit);
+		}
+		this.iter = iter;
+		this.strategy = strategy;
+		this.elements = order.getElements().toArray(new OrderElem[0]);
+		this.valueComparator = valueComparator;
+		this.tieBreaker = new OrderComparator(strategy, order, valueComparator);
+		this.limit = (int) limit;
+		this.distinct = distinct;
+	}
+
+	@Override
+	protected Iteration<BindingSet, QueryEvaluationException> createIteration() throws QueryEvaluationException {
+		Comparator<SortKey> comparator = this::compare;
+		// the largest of the results kept so far is at the head of the heap
+		PriorityQueue<SortKey> heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, comparator.reversed());
+		Set<BindingSet> kept = distinct ? new HashSet<>() : null;
+
+		long sequence = 0;
+		try {
+			while (limit > 0 && iter.hasNext()) {
+				BindingSet next = iter.next();
+				if (distinct && kept.contains(next)) {
+					continue;
+				}
+
+				SortKey key = new SortKey(next, sequence++);
+				if (heap.size() < limit) {
+					heap.add(key);
+				} else if (compare(key, heap.peek()) < 0) {
+					SortKey removed = heap.poll();
+					if (distinct) {
+						kept.remove(removed.bindings);
+					}
+					heap.add(key);
+				} else {
+					continue;
+				}
+				if (distinct) {
+					kept.add(next);
+				}
+			}
+		} finally {
+			iter.close();
+		}
+
+		List<SortKey> sorted = new ArrayList<>(heap);
+		Collections.sort(sorted, comparator);
+		List<BindingSet> result = new ArrayList<>(sorted.size());
+		for (SortKey key : sorted) {
+			result.add(key.bindings);
+		}
+		return new CloseableIteratorIteration<>(result.iterator());
+	}
+
+	private int compare(SortKey key1, SortKey key2) {
+		for (int i = 0; i < elements.length; i++) {
+			int compare;
+			double n1 = key1.numbers[i];
+			double n2 = key2.numbers[i];
+			if (n1 < n2) {
+				compare = -1;
+			} else if (n1 > n2) {
+				compare = 1;
+			} else {
+				// not both numeric, or numerically equal but possibly of a different datatype
+				compare = valueComparator.compare(key1.values[i], key2.values[i]);
+			}
+
+			if (compare != 0) {
+				return elements[i].isAscending() ? compare : -compare;
+			}
+		}
+		int compare = tieBreaker.compare(key1.bindings, key2.bindings);
+		if (compare != 0) {
+			return compare;
+		}
+		// keep the input order of results that are equal according to the comparator, like a stable sort
+		return Long.compare(key1.sequence, key2.sequence);
+	}
+
+	@Override
+	public void remove() throws QueryEvaluationException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			iter.close();
+		}
+	}
+
+	/**
+	 * A result together with the values of the order elements.
+	 */
+	private class SortKey {
+
+		private final BindingSet bindings;
+
+		private final Value[] values;
+
+		/**
+		 * The numeric values of the order elements, or <tt>NaN</tt> for values that are not valid numeric literals.
+		 * Comparisons with <tt>NaN</tt> are always false, so only keys that are both numeric are compared as numbers.
+		 */
+		private final double[] numbers;
+
+		/**
+		 * The position of the result in the input.
+		 */
+		private final long sequence;
+
+		SortKey(BindingSet bindings, long sequence) throws QueryEvaluationException {
+			this.bindings = bindings;
+			this.sequence = sequence;
+			this.values = new Value[elements.length];
+			this.numbers = new double[elements.length];
+			for (int i = 0; i < elements.length; i++) {
+				Value value = evaluate(elements[i]);
+				values[i] = value;
+				numbers[i] = toNumber(value);
+			}
+		}
+
+		private Value evaluate(OrderElem element) throws QueryEvaluationException {
+			try {
+				return strategy.evaluate(element.getExpr(), bindings);
+			} catch (ValueExprEvaluationException e) {
+				return null;
+			}
+		}
+
+		private double toNumber(Value value) {
+			if (value instanceof Literal) {
+				Literal literal = (Literal) value;
+				// literals with invalid lexical values are not compared by value
+				if (XMLDatatypeUtil.isNumericDatatype(literal.getDatatype())
+						&& XMLDatatypeUtil.isValidValue(literal.getLabel(), literal.getDatatype())) {
+					return literal.doubleValue();
+				}
+			}
+			return Double.NaN;
+		}
+	}
+}
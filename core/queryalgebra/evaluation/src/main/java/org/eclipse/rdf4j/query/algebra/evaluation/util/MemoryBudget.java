@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+
+/**
+ * The amount of memory that the operators of a query may use to hold intermediate results, such as the groups of a
+ * GROUP BY or the binding sets that have been seen by a DISTINCT. Operators reserve memory for each result that they
+ * hold and release it when they are closed. Operators that cannot reserve more memory write their intermediate results
+ * to disk instead.
+ * <p>
+ * Memory is accounted for using rough estimates of the size of binding sets, see {@link #estimateSize(BindingSet)}.
+ */
+public class MemoryBudget {
+
+	/**
+	 * The estimated memory overhead of a binding set, e.g. for its object header and hash table entry.
+	 */
+	private static final int BINDING_SET_OVERHEAD = 64;
+
+	/**
+	 * The estimated memory overhead of a binding, including its name but excluding the characters of its value.
+	 */
+	private static final int BINDING_OVERHEAD = 48;
+
+	private final long limit;
+
+	private final AtomicLong used = new AtomicLong();
+
+	/**
+	 * @param limit the number of bytes that may be reserved.
+	 */
+	public MemoryBudget(long limit) {
+		if (limit < 0) {
+			throw new IllegalArgumentException("limit must not be negative: " + limit);
+		}
+		this.limit = limit;
+	}
+
+	public long getLimit() {
+		return limit;
+	}
+
+	public long getUsed() {
+		return used.get();
+	}
+
+	/**
+	 * Reserves the specified number of bytes if they are available.
+	 *
+	 * @return <tt>true</tt> if the memory has been reserved, <tt>false</tt> if that would exceed the limit.
+	 */
+	public boolean tryReserve(long bytes) {
+		long current;
+		do {
+			current = used.get();
+			if (current + bytes > limit) {
+				return false;
+			}
+		} while (!used.compareAndSet(current, current + bytes));
+		return true;
+	}
+
+	/**
+	 * Releases memory that has been reserved with {@link #tryReserve(long)}.
+	 */
+	public void release(long bytes) {
+		used.addAndGet(-bytes);
+	}
+
+	/**
+	 * Estimates the number of bytes that the binding set occupies on the heap.
+	 */
+	public static long estimateSize(BindingSet bindingSet) {
+		long size = BINDING_SET_OVERHEAD;
+		for (Binding binding : bindingSet) {
+			size += BINDING_OVERHEAD;
+			Value value = binding.getValue();
+			if (value != null) {
+				size += 2L * value.stringValue().length();
+			}
+		}
+		return size;
+	}
+}
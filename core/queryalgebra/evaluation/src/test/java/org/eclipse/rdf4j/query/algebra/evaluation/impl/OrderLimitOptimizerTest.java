@@ -1,10 +1,21 @@
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.Order;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerTest;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.Test;
 
 public class OrderLimitOptimizerTest extends QueryOptimizerTest {
 
@@ -13,4 +24,31 @@ public class OrderLimitOptimizerTest extends QueryOptimizerTest {
 		return new OrderLimitOptimizer();
 	}
 
+	@Test
+	public void testOrderLimit() {
+		assertThat(getOrderLimit("select ?a where { ?a ?b ?c } order by ?a limit 10 offset 5")).isEqualTo(15);
+		assertThat(getOrderLimit("select distinct ?a where { ?a ?b ?c } order by ?a limit 10")).isEqualTo(10);
+		// the variable ?c is not projected, so DISTINCT applies after the order
+		assertThat(getOrderLimit("select distinct ?a where { ?a ?b ?c } order by ?c limit 10")).isEqualTo(-1);
+		assertThat(getOrderLimit("select ?a where { ?a ?b ?c } order by ?a offset 5")).isEqualTo(-1);
+		assertThat(getOrderLimit("select ?a where { ?a ?b ?c } order by ?a limit 100000")).isEqualTo(-1);
+	}
+
+	private long getOrderLimit(String query) {
+		TupleExpr expr = QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+		getOptimizer().optimize(expr, null, EmptyBindingSet.getInstance());
+
+		List<Order> orders = new ArrayList<>();
+		expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+
+			@Override
+			public void meet(Order node) {
+				orders.add(node);
+				super.meet(node);
+			}
+		});
+		assertThat(orders).hasSize(1);
+		return orders.get(0).getLimit();
+	}
+
 }
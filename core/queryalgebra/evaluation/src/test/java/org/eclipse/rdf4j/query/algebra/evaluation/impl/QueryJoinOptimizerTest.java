@@ -11,6 +11,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
 import org.eclipse.rdf4j.RDF4JException;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
@@ -22,11 +27,13 @@ import org.eclipse.rdf4j.query.algebra.Extension;
 import org.eclipse.rdf4j.query.algebra.Join;
 import org.eclipse.rdf4j.query.algebra.QueryModelNode;
 import org.eclipse.rdf4j.query.algebra.QueryRoot;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
 import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.UnaryTupleOperator;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerTest;
 import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.algebra.helpers.StatementPatternCollector;
 import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 import org.eclipse.rdf4j.query.parser.sparql.SPARQLParser;
@@ -125,6 +132,34 @@ public class QueryJoinOptimizerTest extends QueryOptimizerTest {
 				.isInstanceOf(Extension.class);
 	}
 
+	@Test
+	public void testBoundCardinalityStatistics() throws Exception {
+		String query = "prefix ex: <ex:> select * where { ?x ex:a ?y . ?x ex:b ?z . ?x ex:c ?w }";
+
+		EvaluationStatistics statistics = new EvaluationStatistics() {
+
+			@Override
+			public double getCardinality(StatementPattern sp, Set<String> boundVars) {
+				String pred = sp.getPredicateVar().getValue().stringValue();
+				if (boundVars.contains("x")) {
+					return pred.equals("ex:b") ? 5 : 0.5;
+				}
+				return -1;
+			}
+		};
+
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		QueryRoot optRoot = new QueryRoot(pq.getTupleExpr());
+		new QueryJoinOptimizer(statistics).optimize(optRoot, null, null);
+
+		// ex:c has fewer values per subject than ex:b
+		List<String> predicates = new ArrayList<>();
+		for (StatementPattern sp : StatementPatternCollector.process(optRoot)) {
+			predicates.add(sp.getPredicateVar().getValue().stringValue());
+		}
+		assertEquals(Arrays.asList("ex:a", "ex:c", "ex:b"), predicates);
+	}
+
 	@Override
 	public QueryJoinOptimizer getOptimizer() {
 		return new QueryJoinOptimizer();
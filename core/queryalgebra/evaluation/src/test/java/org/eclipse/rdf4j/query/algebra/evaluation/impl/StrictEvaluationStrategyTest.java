@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -71,6 +72,28 @@ public class StrictEvaluationStrategyTest {
 		assertFalse(bs.hasBinding("y"));
 	}
 
+	@Test
+	public void testDistinctKeepsOrderWithMemoryBudget() throws Exception {
+		StrictEvaluationStrategy budgeted = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+		// enough memory for about 100 binding sets
+		budgeted.setMemoryBudget(15_000);
+
+		StringBuilder values = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			values.append("(").append(i).append(" ").append(i).append(")\n");
+		}
+		String query = "SELECT DISTINCT ?x WHERE { VALUES (?x ?y) {\n" + values + "} } ORDER BY DESC(?y)";
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+
+		List<BindingSet> bindingSets = QueryResults
+				.asList(budgeted.evaluate(pq.getTupleExpr(), new EmptyBindingSet()));
+
+		assertThat(bindingSets).hasSize(2000);
+		for (int i = 0; i < 2000; i++) {
+			assertThat(((Literal) bindingSets.get(i).getValue("x")).intValue()).isEqualTo(1999 - i);
+		}
+	}
+
 	@Test
 	public void testOptimize() throws Exception {
 
@@ -134,4 +157,30 @@ public class StrictEvaluationStrategyTest {
 		assertThat(values).containsExactlyInAnyOrder("foo.bar", "FOO.BAR");
 	}
 
+	@Test
+	public void testBatchEvaluation() throws Exception {
+		StringBuilder values = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			values.append(i).append(' ');
+		}
+		String query = "SELECT ?b ?c WHERE { "
+				+ "VALUES ?a { " + values + "} \n"
+				+ "BIND (?a * 2 AS ?b) \n"
+				+ "BIND (IF(?a < 50, ?a, 1/0) AS ?c) \n"
+				+ "FILTER (?b > 20 && ?b <= 180)}";
+
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		List<BindingSet> expected = QueryResults
+				.asList(strategy.evaluate(pq.getTupleExpr(), new EmptyBindingSet()));
+		assertThat(expected).hasSize(80);
+
+		StrictEvaluationStrategy batchStrategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+		for (int batchSize : new int[] { 1, 7, 100, 1000 }) {
+			batchStrategy.setBatchSize(batchSize);
+			List<BindingSet> actual = QueryResults
+					.asList(batchStrategy.evaluate(pq.getTupleExpr(), new EmptyBindingSet()));
+			assertThat(actual).as("batch size %d", batchSize).isEqualTo(expected);
+		}
+	}
+
 }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.Compare;
+import org.eclipse.rdf4j.query.algebra.Compare.CompareOp;
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.ValueConstant;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EmptyTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.junit.Test;
+
+public class BatchIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testBatches() throws Exception {
+		IterationStub source = createSource(10);
+		BatchIteration iter = BatchIteration.of(source, 4);
+
+		assertEquals(4, iter.nextBatch().size());
+		assertEquals(4, iter.nextBatch().size());
+		assertEquals(2, iter.nextBatch().size());
+		assertNull(iter.nextBatch());
+		assertTrue(iter.isClosed());
+		assertTrue(source.isClosed());
+	}
+
+	@Test
+	public void testMixedAccess() throws Exception {
+		BatchIteration iter = BatchIteration.of(createSource(10), 4);
+
+		assertEquals(0, getValue(iter.next()));
+		// the remainder of the current batch
+		BindingSetBatch batch = iter.nextBatch();
+		assertEquals(3, batch.size());
+		assertEquals(1, getValue(batch.get(0)));
+
+		assertEquals(4, getValue(iter.next()));
+		assertEquals(5, Iterations.asList(iter).size());
+		assertFalse(iter.hasNext());
+	}
+
+	@Test
+	public void testBatchIterationIsNotWrapped() throws Exception {
+		BatchIteration iter = BatchIteration.of(createSource(1), 4);
+		assertSame(iter, BatchIteration.of(iter, 8));
+	}
+
+	@Test
+	public void testFilter() throws Exception {
+		// ?i >= 5
+		Filter filter = new Filter(new StatementPattern(new Var("s"), new Var("p"), new Var("i")),
+				new Compare(new Var("i"), new ValueConstant(vf.createLiteral(5)), CompareOp.GE));
+		StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+
+		BatchIteration iter = new BatchFilterIteration(filter, BatchIteration.of(createSource(20), 3), strategy);
+		List<Integer> values = new ArrayList<>();
+		for (BindingSet bs : Iterations.asList(iter)) {
+			values.add(getValue(bs));
+		}
+
+		assertEquals(15, values.size());
+		for (int i = 0; i < values.size(); i++) {
+			assertEquals(i + 5, values.get(i).intValue());
+		}
+	}
+
+	private static IterationStub createSource(int size) {
+		List<BindingSet> bindingSets = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("i", vf.createLiteral(i));
+			bindingSets.add(bs);
+		}
+		IterationStub source = new IterationStub();
+		source.setIterator(bindingSets.iterator());
+		return source;
+	}
+
+	private static int getValue(BindingSet bs) {
+		return ((Literal) bs.getValue("i")).intValue();
+	}
+}
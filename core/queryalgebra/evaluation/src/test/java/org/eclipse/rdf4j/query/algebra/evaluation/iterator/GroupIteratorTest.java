@@ -11,7 +11,10 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
@@ -31,6 +34,7 @@ import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.MemoryBudget;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.junit.Test;
 
@@ -150,4 +154,42 @@ public class GroupIteratorTest {
 
 		assertThat(gi.next().getBinding("sum").getValue()).isEqualTo(vf.createLiteral("45", XSD.INTEGER));
 	}
+
+	@Test
+	public void testGroupsExceedingMemoryBudget() throws QueryEvaluationException {
+		// 1000 groups of 5 solutions each
+		ArrayList<BindingSet> list = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			QueryBindingSet bindings = new QueryBindingSet();
+			bindings.addBinding("g", vf.createLiteral(i % 1000));
+			bindings.addBinding("a", vf.createLiteral(i));
+			list.add(bindings);
+		}
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		assignment.setBindingSets(list);
+
+		Group group = new Group(assignment);
+		group.addGroupBindingName("g");
+		group.addGroupElement(new GroupElem("count", new Count(new Var("a"))));
+		group.addGroupElement(new GroupElem("sum", new Sum(new Var("a"))));
+
+		// enough memory for about 50 groups
+		MemoryBudget budget = new MemoryBudget(20_000);
+		Map<Integer, BindingSet> results = new HashMap<>();
+		try (GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), 0, budget)) {
+			while (gi.hasNext()) {
+				BindingSet bs = gi.next();
+				assertThat(results.put(((Literal) bs.getValue("g")).intValue(), bs)).isNull();
+			}
+		}
+
+		assertThat(results).hasSize(1000);
+		for (int g = 0; g < 1000; g++) {
+			BindingSet bs = results.get(g);
+			assertThat(((Literal) bs.getValue("count")).intValue()).isEqualTo(5);
+			// g + (g + 1000) + ... + (g + 4000)
+			assertThat(((Literal) bs.getValue("sum")).intValue()).isEqualTo(5 * g + 10_000);
+		}
+		assertThat(budget.getUsed()).isEqualTo(0);
+	}
 }
@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EmptyTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.Test;
+
+public class ParallelEvaluationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+
+	@Test
+	public void testParallelHashJoin() throws Exception {
+		// 5000 left results with 100 distinct join values, each matching 3 right results
+		List<BindingSet> leftBindings = new ArrayList<>();
+		for (int i = 0; i < 5000; i++) {
+			leftBindings.add(bindings("a", i, "i", i % 100));
+		}
+		List<BindingSet> rightBindings = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			rightBindings.add(bindings("b", i, "i", i % 100));
+		}
+		Join join = new Join(assignment(leftBindings), assignment(rightBindings));
+
+		List<BindingSet> expected = Iterations.asList(new HashJoinIteration(strategy, join.getLeftArg(),
+				join.getRightArg(), EmptyBindingSet.getInstance(), false));
+		assertEquals(15_000, expected.size());
+
+		for (int parallelism : new int[] { 1, 3, 8 }) {
+			List<BindingSet> actual = Iterations.asList(new ParallelHashJoinIteration(strategy, join,
+					EmptyBindingSet.getInstance(), ForkJoinPool.commonPool(), parallelism));
+			assertThat(actual).as("parallelism %d", parallelism).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	@Test
+	public void testParallelHashJoinWithoutJoinAttributes() throws Exception {
+		Join join = new Join(assignment(bindings("a", 1), bindings("a", 2)),
+				assignment(bindings("b", 1), bindings("b", 2), bindings("b", 3)));
+
+		List<BindingSet> result = Iterations
+				.asList(new ParallelHashJoinIteration(strategy, join, EmptyBindingSet.getInstance(),
+						ForkJoinPool.commonPool(), 4));
+		assertEquals(6, result.size());
+	}
+
+	@Test
+	public void testParallelJoinsShareParallelism() throws Exception {
+		String query = "SELECT * WHERE { VALUES ?i { 1 2 } { SELECT ?i ?b WHERE { VALUES (?i ?b) { (1 1) (2 2) } } } }";
+		StrictEvaluationStrategy parallelStrategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+		parallelStrategy.setParallelism(4);
+
+		TupleExpr first = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = parallelStrategy.evaluate(first,
+				EmptyBindingSet.getInstance())) {
+			assertEquals(ParallelHashJoinIteration.class.getSimpleName(), findJoin(first).getAlgorithmName());
+
+			// the open join holds all threads, so another join is evaluated sequentially
+			TupleExpr second = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+			assertEquals(2, Iterations.asList(parallelStrategy.evaluate(second, EmptyBindingSet.getInstance())).size());
+			assertEquals(HashJoinIteration.class.getSimpleName(), findJoin(second).getAlgorithmName());
+
+			assertEquals(2, Iterations.asList(iter).size());
+		}
+
+		// the threads are released when the join is closed
+		TupleExpr third = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+		assertEquals(2, Iterations.asList(parallelStrategy.evaluate(third, EmptyBindingSet.getInstance())).size());
+		assertEquals(ParallelHashJoinIteration.class.getSimpleName(), findJoin(third).getAlgorithmName());
+	}
+
+	@Test
+	public void testParallelUnion() throws Exception {
+		String query = "SELECT ?x WHERE { "
+				+ "{ VALUES ?x { 1 2 3 } } UNION { VALUES ?x { 4 5 } } UNION { VALUES ?x { 6 } } UNION { BIND (7 AS ?x) } }";
+		TupleExpr expr = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+
+		List<BindingSet> expected = Iterations.asList(strategy.evaluate(expr, EmptyBindingSet.getInstance()));
+		assertEquals(7, expected.size());
+
+		for (int parallelism : new int[] { 2, 3, 16 }) {
+			StrictEvaluationStrategy parallelStrategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+			parallelStrategy.setParallelism(parallelism);
+			List<BindingSet> actual = Iterations
+					.asList(parallelStrategy.evaluate(expr, EmptyBindingSet.getInstance()));
+			assertThat(actual).as("parallelism %d", parallelism).containsExactlyInAnyOrderElementsOf(expected);
+		}
+	}
+
+	@Test(expected = QueryEvaluationException.class)
+	public void testParallelUnionError() throws Exception {
+		String query = "SELECT ?x WHERE { { VALUES ?x { 1 2 3 } } UNION { SERVICE <urn:unknown> { ?x ?p ?o } } }";
+		TupleExpr expr = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+
+		StrictEvaluationStrategy parallelStrategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+		parallelStrategy.setParallelism(2);
+		try (CloseableIteration<BindingSet, QueryEvaluationException> iter = parallelStrategy.evaluate(expr,
+				EmptyBindingSet.getInstance())) {
+			Iterations.asList(iter);
+		}
+	}
+
+	private static Join findJoin(TupleExpr expr) {
+		List<Join> joins = new ArrayList<>();
+		expr.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+
+			@Override
+			public void meet(Join node) {
+				joins.add(node);
+				super.meet(node);
+			}
+		});
+		return joins.get(0);
+	}
+
+	private static BindingSetAssignment assignment(BindingSet... bindingSets) {
+		List<BindingSet> list = new ArrayList<>();
+		for (BindingSet bs : bindingSets) {
+			list.add(bs);
+		}
+		return assignment(list);
+	}
+
+	private static BindingSetAssignment assignment(List<BindingSet> bindingSets) {
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		assignment.setBindingSets(bindingSets);
+		return assignment;
+	}
+
+	private static BindingSet bindings(Object... namesAndValues) {
+		QueryBindingSet bs = new QueryBindingSet();
+		for (int i = 0; i < namesAndValues.length; i += 2) {
+			bs.addBinding((String) namesAndValues[i], vf.createLiteral((Integer) namesAndValues[i + 1]));
+		}
+		return bs;
+	}
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.MemoryBudget;
+import org.junit.Test;
+
+public class SpillingDistinctIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testWithinBudget() throws Exception {
+		MemoryBudget budget = new MemoryBudget(Long.MAX_VALUE);
+		List<BindingSet> result = Iterations.asList(new SpillingDistinctIteration(createSource(100, 10), budget));
+
+		assertEquals(10, result.size());
+		for (int i = 0; i < 10; i++) {
+			// the first occurrences are returned in order
+			assertEquals(vf.createLiteral(i), result.get(i).getValue("a"));
+		}
+		assertEquals(0, budget.getUsed());
+	}
+
+	@Test
+	public void testExceedingBudget() throws Exception {
+		// enough memory for about 100 binding sets
+		MemoryBudget budget = new MemoryBudget(15_000);
+		SpillingDistinctIteration iter = new SpillingDistinctIteration(createSource(20_000, 5000), budget);
+
+		Set<BindingSet> distinct = new HashSet<>();
+		while (iter.hasNext()) {
+			assertTrue(distinct.add(iter.next()));
+			assertTrue(budget.getUsed() <= budget.getLimit());
+		}
+		iter.close();
+
+		assertEquals(5000, distinct.size());
+		assertEquals(0, budget.getUsed());
+	}
+
+	private static CloseableIteratorIteration<BindingSet, QueryEvaluationException> createSource(int size,
+			int distinct) {
+		List<BindingSet> bindingSets = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			bs.addBinding("a", vf.createLiteral(i % distinct));
+			bindingSets.add(bs);
+		}
+		return new CloseableIteratorIteration<>(bindingSets.iterator());
+	}
+}
@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
+import org.eclipse.rdf4j.query.algebra.SingletonSet;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EmptyTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.junit.Test;
+
+public class TopKIteratorTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final StrictEvaluationStrategy strategy = new StrictEvaluationStrategy(new EmptyTripleSource(), null);
+
+	@Test
+	public void testSameResultsAsOrderIterator() throws Exception {
+		List<BindingSet> input = createInput(2000);
+
+		for (boolean ascending : new boolean[] { true, false }) {
+			Order order = new Order(new SingletonSet(), new OrderElem(new Var("a"), ascending),
+					new OrderElem(new Var("b"), true));
+			OrderComparator comparator = new OrderComparator(strategy, order, new ValueComparator());
+			for (boolean distinct : new boolean[] { false, true }) {
+				for (int limit : new int[] { 1, 10, 500, 5000 }) {
+					String message = "ascending=" + ascending + " distinct=" + distinct + " limit=" + limit;
+					List<BindingSet> expected = sort(input, comparator, limit, distinct);
+					List<BindingSet> actual = topK(input, order, limit, distinct);
+					assertEquals(message, expected.size(), actual.size());
+					// results that are equal according to the comparator, e.g. "0"^^xsd:int and "0"^^xsd:decimal, may
+					// be returned in any order
+					for (int i = 0; i < expected.size(); i++) {
+						assertEquals(message + " index=" + i, 0, comparator.compare(expected.get(i), actual.get(i)));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testZeroLimit() throws Exception {
+		Order order = new Order(new SingletonSet(), new OrderElem(new Var("a"), true));
+		assertTrue(topK(createInput(10), order, 0, false).isEmpty());
+	}
+
+	private List<BindingSet> topK(List<BindingSet> input, Order order, int limit, boolean distinct) {
+		return Iterations.asList(new TopKIterator(new CloseableIteratorIteration<>(input.iterator()), strategy, order,
+				new ValueComparator(), limit, distinct));
+	}
+
+	private List<BindingSet> sort(List<BindingSet> input, OrderComparator comparator, int limit, boolean distinct) {
+		// OrderIterator also removes results that are only equal according to the comparator, so duplicates are removed
+		// from its input instead
+		Collection<BindingSet> source = distinct ? new LinkedHashSet<>(input) : input;
+		return Iterations.asList(
+				new OrderIterator(new CloseableIteratorIteration<>(source.iterator()), comparator, limit, false));
+	}
+
+	/**
+	 * Creates binding sets with a mix of numeric values of different datatypes, other values and unbound values, with
+	 * many duplicates.
+	 */
+	private static List<BindingSet> createInput(int size) {
+		Random random = new Random(42);
+		List<BindingSet> result = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			QueryBindingSet bs = new QueryBindingSet();
+			Value a = createValue(random);
+			if (a != null) {
+				bs.addBinding("a", a);
+			}
+			bs.addBinding("b", vf.createLiteral(random.nextInt(20)));
+			result.add(bs);
+		}
+		return result;
+	}
+
+	private static Value createValue(Random random) {
+		int n = random.nextInt(100);
+		switch (random.nextInt(8)) {
+		case 0:
+			return null;
+		case 1:
+			return vf.createLiteral(n / 10.0);
+		case 2:
+			return vf.createLiteral(BigInteger.valueOf(n));
+		case 3:
+			return vf.createLiteral(Integer.toString(n), XSD.DECIMAL);
+		case 4:
+			return vf.createLiteral(n % 2 == 0);
+		case 5:
+			return vf.createLiteral("string " + n);
+		case 6:
+			return vf.createIRI("urn:iri:" + n);
+		default:
+			return vf.createLiteral(n);
+		}
+	}
+}
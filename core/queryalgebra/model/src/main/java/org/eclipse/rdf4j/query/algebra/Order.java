@@ -23,6 +23,8 @@ public class Order extends UnaryTupleOperator {
 
 	private List<OrderElem> elements = new ArrayList<>();
 
+	private long limit = -1;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -73,6 +75,31 @@ public class Order extends UnaryTupleOperator {
 		pe.setParentNode(this);
 	}
 
+	/**
+	 * Gets the maximum number of ordered results that are needed by the enclosing query, as determined by a query
+	 * optimizer.
+	 *
+	 * @return the limit, or a negative value if all results are needed.
+	 */
+	public long getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Sets the maximum number of ordered results that are needed by the enclosing query, allowing the evaluation to
+	 * keep only the smallest results. This is an optimization hint and does not change the semantics of the query.
+	 */
+	public void setLimit(long limit) {
+		this.limit = limit;
+	}
+
+	/**
+	 * Checks whether a limit on the number of ordered results has been set.
+	 */
+	public boolean hasLimit() {
+		return limit >= 0L;
+	}
+
 	@Override
 	public <X extends Exception> void visit(QueryModelVisitor<X> visitor) throws X {
 		visitor.meet(this);
@@ -99,14 +126,14 @@ public class Order extends UnaryTupleOperator {
 	public boolean equals(Object other) {
 		if (other instanceof Order && super.equals(other)) {
 			Order o = (Order) other;
-			return elements.equals(o.getElements());
+			return limit == o.getLimit() && elements.equals(o.getElements());
 		}
 		return false;
 	}
 
 	@Override
 	public int hashCode() {
-		return super.hashCode() ^ elements.hashCode();
+		return super.hashCode() ^ elements.hashCode() ^ Long.hashCode(limit);
 	}
 
 	@Override
@@ -59,6 +59,14 @@ public class TupleQueryResultFormat extends QueryResultFormat {
 	public static final TupleQueryResultFormat BINARY = new TupleQueryResultFormat("BINARY",
 			"application/x-binary-rdf-results-table", null, "brt", SUPPORTS_RDF_STAR);
 
+	/**
+	 * Columnar binary RDF results table format, with a term dictionary and compressed batches.
+	 *
+	 * @since 3.7.2
+	 */
+	public static final TupleQueryResultFormat BINARY_COLUMNAR = new TupleQueryResultFormat("BINARY/Columnar",
+			"application/x-binary-rdf-results-columnar", null, "brc", SUPPORTS_RDF_STAR);
+
 	/**
 	 * SPARQL Query Results JSON Format.
 	 */
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+/**
+ * Interface defining constants for the columnar binary table result format. Unlike the
+ * {@link BinaryQueryResultConstants binary table result format}, which writes every value of every row, this format
+ * writes the results in batches of rows. Each distinct value is written only once, to a term dictionary that is shared
+ * by all batches, and the rows of a batch are written column by column as term IDs. Batches can be compressed.
+ * <p>
+ * Integers are encoded as specified in {@link java.io.DataOutput}, variable-length integers (varints) use 7 bits per
+ * byte, least significant group first, with the high bit set on all but the last byte. Strings are encoded in UTF-8 and
+ * are preceded by their length in bytes, a 32-bit integer in the header and a varint in the batches.
+ * <p>
+ * The file header consists of:
+ * <ul>
+ * <li>the ASCII codes for the string "BRTC", which stands for Binary RDF Table Columns.
+ * <li>the format version (an integer).
+ * <li>the number of columns (an integer), followed by the column names.
+ * </ul>
+ * Zero or more records follow after the header. Each record starts with a record type marker (a single byte):
+ * <ul>
+ * <li><tt>BATCH</tt> (byte value: 1):<br>
+ * A batch of rows. The marker is followed by a flags byte ({@link #COMPRESSED_FLAG}, {@link #RESET_DICTIONARY_FLAG}),
+ * the length of the stored batch (an integer), the length of the batch after decompression (an integer, only for
+ * compressed batches) and the stored batch itself. A compressed batch is compressed with the DEFLATE algorithm (see
+ * {@link java.util.zip.Deflater}, with zlib header).
+ * <li><tt>ERROR</tt> (byte value: 126):<br>
+ * An error, encoded as in the binary table result format.
+ * <li><tt>TABLE_END</tt> (byte value: 127):<br>
+ * The end of the results table. Any data following this record should be ignored.
+ * </ul>
+ * A (decompressed) batch starts with the number of new terms (a varint), followed by the new terms. New terms are
+ * assigned the next free ID, starting from 1, except for namespaces, which are numbered separately starting from 0.
+ * Terms only refer to terms with a lower ID. When the {@link #RESET_DICTIONARY_FLAG} is set, all terms and namespaces
+ * of the previous batches are discarded before reading the batch. Each term starts with a term type marker:
+ * <ul>
+ * <li><tt>NAMESPACE</tt> (0): a namespace string.
+ * <li><tt>IRI</tt> (1): a namespace ID (varint) and a local name.
+ * <li><tt>BNODE</tt> (2): the blank node ID.
+ * <li><tt>PLAIN_LITERAL</tt> (3): the label.
+ * <li><tt>LANG_LITERAL</tt> (4): the label and the language tag.
+ * <li><tt>DATATYPE_LITERAL</tt> (5): the label and the ID of the datatype IRI (varint).
+ * <li><tt>TRIPLE</tt> (6): the IDs of the subject, predicate and object (varints).
+ * </ul>
+ * The terms are followed by the number of rows in the batch (a varint) and the term IDs of the rows (varints), first
+ * all rows of the first column, then all rows of the second column, etc. ID 0 indicates an unbound value.
+ *
+ * @see BinaryColumnarQueryResultWriter
+ * @see BinaryColumnarQueryResultParser
+ */
+public interface BinaryColumnarQueryResultConstants {
+
+	/**
+	 * Magic number for columnar binary RDF table result files.
+	 */
+	public static final byte[] MAGIC_NUMBER = new byte[] { 'B', 'R', 'T', 'C' };
+
+	/**
+	 * The version number of the current format.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/* RECORD TYPES */
+	public static final int BATCH_RECORD_MARKER = 1;
+
+	public static final int ERROR_RECORD_MARKER = BinaryQueryResultConstants.ERROR_RECORD_MARKER;
+
+	public static final int TABLE_END_RECORD_MARKER = BinaryQueryResultConstants.TABLE_END_RECORD_MARKER;
+
+	/* BATCH FLAGS */
+	public static final int COMPRESSED_FLAG = 1;
+
+	public static final int RESET_DICTIONARY_FLAG = 2;
+
+	/* TERM TYPES */
+	public static final int NAMESPACE_TERM = 0;
+
+	public static final int IRI_TERM = 1;
+
+	public static final int BNODE_TERM = 2;
+
+	public static final int PLAIN_LITERAL_TERM = 3;
+
+	public static final int LANG_LITERAL_TERM = 4;
+
+	public static final int DATATYPE_LITERAL_TERM = 5;
+
+	public static final int TRIPLE_TERM = 6;
+}
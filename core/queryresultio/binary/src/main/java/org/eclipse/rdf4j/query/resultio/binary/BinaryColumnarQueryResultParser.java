@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.BATCH_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.BNODE_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.COMPRESSED_FLAG;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.DATATYPE_LITERAL_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.ERROR_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.FORMAT_VERSION;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.IRI_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.LANG_LITERAL_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.MAGIC_NUMBER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.NAMESPACE_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.PLAIN_LITERAL_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.RESET_DICTIONARY_FLAG;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.TABLE_END_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.TRIPLE_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.MALFORMED_QUERY_ERROR;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.QUERY_EVALUATION_ERROR;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.eclipse.rdf4j.common.io.IOUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.AbstractTupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.QueryResultParseException;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+
+/**
+ * Reader for the columnar binary tuple result format. The format is explained in
+ * {@link BinaryColumnarQueryResultConstants}.
+ */
+public class BinaryColumnarQueryResultParser extends AbstractTupleQueryResultParser {
+
+	private DataInputStream in;
+
+	/**
+	 * The terms of the dictionary, the term with ID n is stored at index n - 1.
+	 */
+	private final List<Value> terms = new ArrayList<>();
+
+	private final List<String> namespaces = new ArrayList<>();
+
+	/**
+	 * The current (decompressed) batch.
+	 */
+	private byte[] buf = new byte[0];
+
+	private int pos;
+
+	private int limit;
+
+	/**
+	 * Creates a new parser for the columnar binary query result format that will use an instance of
+	 * {@link SimpleValueFactory} to create Value objects.
+	 */
+	public BinaryColumnarQueryResultParser() {
+		super();
+	}
+
+	/**
+	 * Creates a new parser for the columnar binary query result format that will use the supplied ValueFactory to
+	 * create Value objects.
+	 */
+	public BinaryColumnarQueryResultParser(ValueFactory valueFactory) {
+		super(valueFactory);
+	}
+
+	@Override
+	public final TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.BINARY_COLUMNAR;
+	}
+
+	@Override
+	public synchronized void parse(InputStream in)
+			throws IOException, QueryResultParseException, TupleQueryResultHandlerException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input stream can not be 'null'");
+		}
+
+		this.in = new DataInputStream(in);
+		terms.clear();
+		namespaces.clear();
+
+		byte[] magicNumber = IOUtil.readBytes(in, MAGIC_NUMBER.length);
+		if (!Arrays.equals(magicNumber, MAGIC_NUMBER)) {
+			throw new QueryResultParseException("File does not contain a columnar binary RDF table result");
+		}
+
+		int formatVersion = this.in.readInt();
+		if (formatVersion > FORMAT_VERSION || formatVersion < 1) {
+			throw new QueryResultParseException("Incompatible format version: " + formatVersion);
+		}
+
+		int columnCount = this.in.readInt();
+		if (columnCount < 0) {
+			throw new QueryResultParseException("Illegal column count specified: " + columnCount);
+		}
+
+		List<String> columnHeaders = new ArrayList<>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			columnHeaders.add(new String(readBytes(this.in.readInt()), StandardCharsets.UTF_8));
+		}
+		columnHeaders = Collections.unmodifiableList(columnHeaders);
+
+		if (handler != null) {
+			handler.startQueryResult(columnHeaders);
+		}
+
+		Inflater inflater = null;
+		try {
+			int recordTypeMarker = this.in.readByte();
+			while (recordTypeMarker != TABLE_END_RECORD_MARKER) {
+				if (recordTypeMarker == BATCH_RECORD_MARKER) {
+					int flags = this.in.readByte();
+					int length = this.in.readInt();
+					if ((flags & COMPRESSED_FLAG) != 0) {
+						if (inflater == null) {
+							inflater = new Inflater();
+						}
+						readCompressedBatch(inflater, length, this.in.readInt());
+					} else {
+						readBatch(length);
+					}
+					if ((flags & RESET_DICTIONARY_FLAG) != 0) {
+						terms.clear();
+						namespaces.clear();
+					}
+					processBatch(columnHeaders);
+				} else if (recordTypeMarker == ERROR_RECORD_MARKER) {
+					processError();
+				} else {
+					throw new QueryResultParseException("Unknown record type: " + recordTypeMarker);
+				}
+				recordTypeMarker = this.in.readByte();
+			}
+		} finally {
+			if (inflater != null) {
+				inflater.end();
+			}
+		}
+
+		if (handler != null) {
+			handler.endQueryResult();
+		}
+	}
+
+	private void readBatch(int length) throws IOException {
+		buf = readBytes(length);
+		pos = 0;
+		limit = length;
+	}
+
+	private void readCompressedBatch(Inflater inflater, int length, int uncompressedLength)
+			throws IOException, QueryResultParseException {
+		byte[] compressed = readBytes(length);
+		if (buf.length < uncompressedLength) {
+			buf = new byte[uncompressedLength];
+		}
+		inflater.reset();
+		inflater.setInput(compressed);
+		try {
+			int n = 0;
+			while (n < uncompressedLength && !inflater.finished()) {
+				int read = inflater.inflate(buf, n, uncompressedLength - n);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				n += read;
+			}
+			if (n != uncompressedLength) {
+				throw new QueryResultParseException("Corrupt batch, expected " + uncompressedLength + " bytes");
+			}
+		} catch (DataFormatException e) {
+			throw new QueryResultParseException(e);
+		}
+		pos = 0;
+		limit = uncompressedLength;
+	}
+
+	private void processBatch(List<String> columnHeaders) throws IOException, QueryResultParseException {
+		int termCount = readVarInt();
+		for (int i = 0; i < termCount; i++) {
+			readTerm();
+		}
+
+		int rowCount = readVarInt();
+		int columnCount = columnHeaders.size();
+		if (columnCount == 0) {
+			for (int row = 0; row < rowCount; row++) {
+				if (handler != null) {
+					handler.handleSolution(EmptyBindingSet.getInstance());
+				}
+			}
+			return;
+		}
+
+		Value[][] rows = new Value[rowCount][columnCount];
+		for (int column = 0; column < columnCount; column++) {
+			for (int row = 0; row < rowCount; row++) {
+				int id = readVarInt();
+				rows[row][column] = (id == 0) ? null : getTerm(id);
+			}
+		}
+		if (pos != limit) {
+			throw new QueryResultParseException("Corrupt batch, " + (limit - pos) + " bytes left");
+		}
+
+		if (handler != null) {
+			for (Value[] row : rows) {
+				handler.handleSolution(new ListBindingSet(columnHeaders, row));
+			}
+		}
+	}
+
+	private void readTerm() throws IOException, QueryResultParseException {
+		int type = readByte();
+		switch (type) {
+		case NAMESPACE_TERM:
+			namespaces.add(readString());
+			return;
+		case IRI_TERM:
+			int nsId = readVarInt();
+			if (nsId >= namespaces.size()) {
+				throw new QueryResultParseException("Unknown namespace ID: " + nsId);
+			}
+			terms.add(valueFactory.createIRI(namespaces.get(nsId), readString()));
+			return;
+		case BNODE_TERM:
+			terms.add(valueFactory.createBNode(readString()));
+			return;
+		case PLAIN_LITERAL_TERM:
+			terms.add(valueFactory.createLiteral(readString()));
+			return;
+		case LANG_LITERAL_TERM:
+			String label = readString();
+			terms.add(valueFactory.createLiteral(label, readString()));
+			return;
+		case DATATYPE_LITERAL_TERM:
+			String dtLabel = readString();
+			Value datatype = getTerm(readVarInt());
+			if (!(datatype instanceof IRI)) {
+				throw new QueryResultParseException("Unexpected value type for datatype: " + datatype);
+			}
+			terms.add(valueFactory.createLiteral(dtLabel, (IRI) datatype));
+			return;
+		case TRIPLE_TERM:
+			Value subject = getTerm(readVarInt());
+			if (!(subject instanceof Resource)) {
+				throw new QueryResultParseException("Unexpected value type: " + subject);
+			}
+			Value predicate = getTerm(readVarInt());
+			if (!(predicate instanceof IRI)) {
+				throw new QueryResultParseException("Unexpected value type: " + predicate);
+			}
+			Value object = getTerm(readVarInt());
+			terms.add(valueFactory.createTriple((Resource) subject, (IRI) predicate, object));
+			return;
+		default:
+			throw new QueryResultParseException("Unknown term type: " + type);
+		}
+	}
+
+	private Value getTerm(int id) throws QueryResultParseException {
+		if (id < 1 || id > terms.size()) {
+			throw new QueryResultParseException("Unknown term ID: " + id);
+		}
+		return terms.get(id - 1);
+	}
+
+	private void processError() throws IOException, QueryResultParseException {
+		byte errTypeFlag = in.readByte();
+
+		QueryErrorType errType = null;
+		if (errTypeFlag == MALFORMED_QUERY_ERROR) {
+			errType = QueryErrorType.MALFORMED_QUERY_ERROR;
+		} else if (errTypeFlag == QUERY_EVALUATION_ERROR) {
+			errType = QueryErrorType.QUERY_EVALUATION_ERROR;
+		} else {
+			throw new QueryResultParseException("Unkown error type: " + errTypeFlag);
+		}
+
+		String msg = new String(readBytes(in.readInt()), StandardCharsets.UTF_8);
+		throw new QueryResultParseException(errType + ": " + msg);
+	}
+
+	private byte[] readBytes(int length) throws IOException {
+		byte[] bytes = IOUtil.readBytes(in, length);
+		if (bytes.length != length) {
+			throw new EOFException(
+					"Attempted to read " + length + " bytes but no more than " + bytes.length + " were available");
+		}
+		return bytes;
+	}
+
+	private int readByte() throws EOFException {
+		if (pos >= limit) {
+			throw new EOFException("Unexpected end of batch");
+		}
+		return buf[pos++] & 0xFF;
+	}
+
+	private int readVarInt() throws EOFException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new EOFException("Malformed variable-length integer");
+	}
+
+	private String readString() throws EOFException {
+		int length = readVarInt();
+		if (length < 0 || length > limit - pos) {
+			throw new EOFException("Unexpected end of batch");
+		}
+		String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+		pos += length;
+		return s;
+	}
+}
@@ -0,0 +1,416 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.BATCH_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.BNODE_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.COMPRESSED_FLAG;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.DATATYPE_LITERAL_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.ERROR_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.FORMAT_VERSION;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.IRI_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.LANG_LITERAL_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.MAGIC_NUMBER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.NAMESPACE_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.PLAIN_LITERAL_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.RESET_DICTIONARY_FLAG;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.TABLE_END_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryColumnarQueryResultConstants.TRIPLE_TERM;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.MALFORMED_QUERY_ERROR;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.QUERY_EVALUATION_ERROR;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.eclipse.rdf4j.common.io.ByteSink;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.util.Literals;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.AbstractQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.rio.RioSetting;
+
+/**
+ * Writer for the columnar binary tuple result format. The format is explained in
+ * {@link BinaryColumnarQueryResultConstants}.
+ * <p>
+ * Every distinct value is serialized only once (until the dictionary is reset), which saves most of the serialization
+ * work and output size for results in which values are repeated, as is typical for large exports. The rows are buffered
+ * in batches of {@link BinaryColumnarQueryResultWriterSettings#BATCH_SIZE} rows.
+ *
+ * @see BinaryColumnarQueryResultWriterSettings
+ */
+public class BinaryColumnarQueryResultWriter extends AbstractQueryResultWriter
+		implements TupleQueryResultWriter, ByteSink {
+
+	/**
+	 * The output stream to write the results table to.
+	 */
+	private final DataOutputStream out;
+
+	/**
+	 * Term IDs of the values in the dictionary, the IDs of namespaces are stored separately.
+	 */
+	private final Map<Value, Integer> dictionary = new HashMap<>();
+
+	private final Map<String, Integer> namespaces = new HashMap<>();
+
+	/**
+	 * The new terms of the current batch.
+	 */
+	private final ByteArrayOutputStream terms = new ByteArrayOutputStream(8192);
+
+	private final ByteArrayOutputStream batch = new ByteArrayOutputStream(8192);
+
+	private int termCount;
+
+	private boolean resetDictionary;
+
+	private List<String> bindingNames;
+
+	/**
+	 * Term IDs of the rows of the current batch, by column.
+	 */
+	private int[][] columns;
+
+	private int rowCount;
+
+	private int batchSize;
+
+	private int dictionarySize;
+
+	private Deflater deflater;
+
+	private byte[] compressed = new byte[0];
+
+	private boolean documentStarted = false;
+
+	protected boolean tupleVariablesFound = false;
+
+	public BinaryColumnarQueryResultWriter(OutputStream out) {
+		this.out = new DataOutputStream(out);
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return out;
+	}
+
+	public final TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.BINARY_COLUMNAR;
+	}
+
+	@Override
+	public final TupleQueryResultFormat getQueryResultFormat() {
+		return getTupleQueryResultFormat();
+	}
+
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		return Arrays.asList(BinaryColumnarQueryResultWriterSettings.BATCH_SIZE,
+				BinaryColumnarQueryResultWriterSettings.DICTIONARY_SIZE,
+				BinaryColumnarQueryResultWriterSettings.COMPRESS);
+	}
+
+	@Override
+	public void startDocument() throws TupleQueryResultHandlerException {
+		documentStarted = true;
+		try {
+			out.write(MAGIC_NUMBER);
+			out.writeInt(FORMAT_VERSION);
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		super.startQueryResult(bindingNames);
+
+		tupleVariablesFound = true;
+
+		if (!documentStarted) {
+			startDocument();
+		}
+
+		this.bindingNames = Collections.unmodifiableList(new ArrayList<>(bindingNames));
+
+		batchSize = (int) Math.max(1,
+				Math.min(1 << 20, getWriterConfig().get(BinaryColumnarQueryResultWriterSettings.BATCH_SIZE)));
+		dictionarySize = (int) Math.max(1,
+				Math.min(Integer.MAX_VALUE,
+						getWriterConfig().get(BinaryColumnarQueryResultWriterSettings.DICTIONARY_SIZE)));
+		if (getWriterConfig().get(BinaryColumnarQueryResultWriterSettings.COMPRESS)) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+		}
+		columns = new int[this.bindingNames.size()][batchSize];
+
+		try {
+			out.writeInt(this.bindingNames.size());
+			for (String bindingName : this.bindingNames) {
+				byte[] bytes = bindingName.getBytes(StandardCharsets.UTF_8);
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Could not end query result as startQueryResult was not called first.");
+		}
+
+		try {
+			if (rowCount > 0) {
+				writeBatch();
+			}
+			out.writeByte(TABLE_END_RECORD_MARKER);
+			endDocument();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void handleSolutionImpl(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Must call startQueryResult before handleSolution");
+		}
+
+		try {
+			for (int i = 0; i < columns.length; i++) {
+				Value value = bindingSet.getValue(bindingNames.get(i));
+				columns[i][rowCount] = (value == null) ? 0 : getId(value);
+			}
+			if (++rowCount == batchSize) {
+				writeBatch();
+			}
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	/**
+	 * Get the term ID of a value, adding the value to the terms of the current batch if it is not in the dictionary.
+	 *
+	 * @param value value
+	 * @return term ID
+	 */
+	private int getId(Value value) throws IOException {
+		Integer id = dictionary.get(value);
+		if (id != null) {
+			return id;
+		}
+
+		if (value instanceof IRI) {
+			IRI iri = (IRI) value;
+			int nsId = getNamespaceId(iri.getNamespace());
+			terms.write(IRI_TERM);
+			writeVarInt(terms, nsId);
+			writeString(terms, iri.getLocalName());
+		} else if (value instanceof BNode) {
+			terms.write(BNODE_TERM);
+			writeString(terms, ((BNode) value).getID());
+		} else if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			if (Literals.isLanguageLiteral(literal)) {
+				terms.write(LANG_LITERAL_TERM);
+				writeString(terms, literal.getLabel());
+				writeString(terms, literal.getLanguage().get());
+			} else {
+				int datatypeId = getId(literal.getDatatype());
+				terms.write(DATATYPE_LITERAL_TERM);
+				writeString(terms, literal.getLabel());
+				writeVarInt(terms, datatypeId);
+			}
+		} else if (value instanceof Triple) {
+			Triple triple = (Triple) value;
+			int subjectId = getId(triple.getSubject());
+			int predicateId = getId(triple.getPredicate());
+			int objectId = getId(triple.getObject());
+			terms.write(TRIPLE_TERM);
+			writeVarInt(terms, subjectId);
+			writeVarInt(terms, predicateId);
+			writeVarInt(terms, objectId);
+		} else {
+			throw new TupleQueryResultHandlerException("Unknown Value object type: " + value.getClass());
+		}
+
+		termCount++;
+		id = dictionary.size() + 1;
+		dictionary.put(value, id);
+		return id;
+	}
+
+	private int getNamespaceId(String namespace) throws IOException {
+		Integer id = namespaces.get(namespace);
+		if (id == null) {
+			terms.write(NAMESPACE_TERM);
+			writeString(terms, namespace);
+			termCount++;
+			id = namespaces.size();
+			namespaces.put(namespace, id);
+		}
+		return id;
+	}
+
+	/**
+	 * Write the buffered terms and rows as a batch record, and reset the dictionary when it is full.
+	 */
+	private void writeBatch() throws IOException {
+		batch.reset();
+		writeVarInt(batch, termCount);
+		terms.writeTo(batch);
+		writeVarInt(batch, rowCount);
+		for (int[] column : columns) {
+			for (int i = 0; i < rowCount; i++) {
+				writeVarInt(batch, column[i]);
+			}
+		}
+
+		int flags = resetDictionary ? RESET_DICTIONARY_FLAG : 0;
+		int length = batch.size();
+		int compressedLength = (deflater == null) ? length : compress(batch);
+		if (compressedLength < length) {
+			out.writeByte(BATCH_RECORD_MARKER);
+			out.writeByte(flags | COMPRESSED_FLAG);
+			out.writeInt(compressedLength);
+			out.writeInt(length);
+			out.write(compressed, 0, compressedLength);
+		} else {
+			out.writeByte(BATCH_RECORD_MARKER);
+			out.writeByte(flags);
+			out.writeInt(length);
+			batch.writeTo(out);
+		}
+
+		terms.reset();
+		termCount = 0;
+		rowCount = 0;
+		resetDictionary = dictionary.size() >= dictionarySize;
+		if (resetDictionary) {
+			dictionary.clear();
+			namespaces.clear();
+		}
+	}
+
+	/**
+	 * Compress the batch into the {@link #compressed} buffer.
+	 *
+	 * @return the compressed length, which is not smaller than the length of the batch when compression does not help
+	 */
+	private int compress(ByteArrayOutputStream batch) {
+		int length = batch.size();
+		if (compressed.length < length) {
+			compressed = new byte[length];
+		}
+		deflater.reset();
+		deflater.setInput(batch.toByteArray());
+		deflater.finish();
+		int compressedLength = 0;
+		while (!deflater.finished() && compressedLength < length) {
+			compressedLength += deflater.deflate(compressed, compressedLength, length - compressedLength);
+		}
+		return deflater.finished() ? compressedLength : length;
+	}
+
+	/**
+	 * Writes an error msg to the stream.
+	 *
+	 * @param errType The error type.
+	 * @param msg     The error message.
+	 * @throws IOException When the error could not be written to the stream.
+	 */
+	public void error(QueryErrorType errType, String msg) throws IOException {
+		out.writeByte(ERROR_RECORD_MARKER);
+
+		if (errType == QueryErrorType.MALFORMED_QUERY_ERROR) {
+			out.writeByte(MALFORMED_QUERY_ERROR);
+		} else {
+			out.writeByte(QUERY_EVALUATION_ERROR);
+		}
+
+		byte[] bytes = msg.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static void writeVarInt(ByteArrayOutputStream os, int value) {
+		while ((value & ~0x7F) != 0) {
+			os.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		os.write(value);
+	}
+
+	private static void writeString(ByteArrayOutputStream os, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(os, bytes.length);
+		os.write(bytes, 0, bytes.length);
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws QueryResultHandlerException {
+		// Binary format does not support explicit setting of namespace prefixes.
+	}
+
+	@Override
+	public void handleStylesheet(String stylesheetUrl) throws QueryResultHandlerException {
+		// Ignored by Binary Query Results format
+	}
+
+	@Override
+	public void startHeader() throws QueryResultHandlerException {
+		// Ignored by Binary Query Results format
+	}
+
+	@Override
+	public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+		// Ignored by Binary Query Results format
+	}
+
+	@Override
+	public void endHeader() throws QueryResultHandlerException {
+		// Ignored by Binary Query Results format
+	}
+
+	private void endDocument() throws IOException {
+		out.flush();
+		documentStarted = false;
+		if (deflater != null) {
+			deflater.end();
+			deflater = null;
+		}
+	}
+
+	@Override
+	public void handleBoolean(boolean value) throws QueryResultHandlerException {
+		throw new UnsupportedOperationException("Cannot handle boolean results");
+	}
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.BooleanRioSetting;
+import org.eclipse.rdf4j.rio.helpers.LongRioSetting;
+
+/**
+ * {@link RioSetting} constants for use with the {@link BinaryColumnarQueryResultWriter}.
+ */
+public class BinaryColumnarQueryResultWriterSettings {
+
+	/**
+	 * The maximum number of rows in a batch.
+	 * <p>
+	 * Defaults to 1024.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.query.resultio.binary.columnar.batchSize}.
+	 */
+	public static final RioSetting<Long> BATCH_SIZE = new LongRioSetting(
+			"org.eclipse.rdf4j.query.resultio.binary.columnar.batchSize", "Maximum number of rows per batch", 1024L);
+
+	/**
+	 * The number of terms in the dictionary after which it is reset, bounding the memory needed by both the writer and
+	 * the parser.
+	 * <p>
+	 * Defaults to 262144.
+	 * <p>
+	 * Can be overridden by setting system property
+	 * {@code org.eclipse.rdf4j.query.resultio.binary.columnar.dictionarySize}.
+	 */
+	public static final RioSetting<Long> DICTIONARY_SIZE = new LongRioSetting(
+			"org.eclipse.rdf4j.query.resultio.binary.columnar.dictionarySize", "Maximum number of dictionary terms",
+			262144L);
+
+	/**
+	 * Whether batches are compressed.
+	 * <p>
+	 * Defaults to true.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.query.resultio.binary.columnar.compress}.
+	 */
+	public static final RioSetting<Boolean> COMPRESS = new BooleanRioSetting(
+			"org.eclipse.rdf4j.query.resultio.binary.columnar.compress", "Compress batches", Boolean.TRUE);
+
+	/**
+	 * Private default constructor.
+	 */
+	private BinaryColumnarQueryResultWriterSettings() {
+	}
+}
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.AbstractTupleQueryResultWriterTest;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserFactory;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriterFactory;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.junit.jupiter.api.Test;
+
+public class BinaryColumnarTupleQueryResultWriterTest extends AbstractTupleQueryResultWriterTest {
+
+	@Override
+	protected TupleQueryResultParserFactory getParserFactory() {
+		return new BinaryColumnarQueryResultParserFactory();
+	}
+
+	@Override
+	protected TupleQueryResultWriterFactory getWriterFactory() {
+		return new BinaryColumnarQueryResultWriterFactory();
+	}
+
+	@Override
+	protected RioSetting<?>[] getExpectedSupportedSettings() {
+		return new RioSetting<?>[] { BinaryColumnarQueryResultWriterSettings.BATCH_SIZE,
+				BinaryColumnarQueryResultWriterSettings.DICTIONARY_SIZE,
+				BinaryColumnarQueryResultWriterSettings.COMPRESS };
+	}
+
+	@Test
+	public void testBatchesAndDictionaryReset() throws Exception {
+		List<String> names = Arrays.asList("s", "o", "t");
+		List<BindingSet> expected = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			Value s = vf.createIRI("http://example.org/s" + (i % 37));
+			Value o = (i % 5 == 0) ? null
+					: (i % 3 == 0) ? vf.createLiteral(i % 11) : vf.createLiteral("label " + (i % 13), "en");
+			Value t = (i % 7 == 0) ? vf.createTriple(vf.createBNode("b" + i), RDF.TYPE, vf.createLiteral("x")) : null;
+			expected.add(new ListBindingSet(names, s, o, t));
+		}
+
+		for (boolean compress : new boolean[] { true, false }) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			TupleQueryResultWriter writer = getWriterFactory().getWriter(out);
+			writer.getWriterConfig().set(BinaryColumnarQueryResultWriterSettings.BATCH_SIZE, 64L);
+			writer.getWriterConfig().set(BinaryColumnarQueryResultWriterSettings.DICTIONARY_SIZE, 50L);
+			writer.getWriterConfig().set(BinaryColumnarQueryResultWriterSettings.COMPRESS, compress);
+			writer.startQueryResult(names);
+			for (BindingSet bs : expected) {
+				writer.handleSolution(bs);
+			}
+			writer.endQueryResult();
+
+			TupleQueryResultParser parser = getParserFactory().getParser();
+			QueryResultCollector collector = new QueryResultCollector();
+			parser.setQueryResultHandler(collector);
+			parser.parseQueryResult(new ByteArrayInputStream(out.toByteArray()));
+
+			assertEquals(names, collector.getBindingNames());
+			assertEquals(expected, collector.getBindingSets());
+		}
+	}
+
+	@Test
+	public void testRepeatedValuesAreWrittenOnce() throws Exception {
+		List<String> names = Arrays.asList("a", "b");
+		ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		TupleQueryResultWriter columnarWriter = getWriterFactory().getWriter(columnar);
+		columnarWriter.getWriterConfig().set(BinaryColumnarQueryResultWriterSettings.COMPRESS, false);
+		TupleQueryResultWriter binaryWriter = new BinaryQueryResultWriter(binary);
+		for (TupleQueryResultWriter writer : Arrays.asList(columnarWriter, binaryWriter)) {
+			writer.startQueryResult(names);
+			for (int i = 0; i < 100; i++) {
+				// alternating values, which are not repeated in the previous row
+				writer.handleSolution(
+						new ListBindingSet(names, vf.createLiteral("literal value " + (i % 2), XSD.STRING),
+								vf.createIRI("http://example.org/local-name-" + (i % 2))));
+			}
+			writer.endQueryResult();
+		}
+
+		assertTrue(columnar.size() * 5 < binary.size());
+	}
+}
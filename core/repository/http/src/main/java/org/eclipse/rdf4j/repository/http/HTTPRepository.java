@@ -79,7 +79,10 @@ public class HTTPRepository extends AbstractRepository implements HttpClientDepe
 
 	private File dataDir;
 
-	private volatile Boolean compatibleMode = null;
+	/**
+	 * The protocol version of the server, 0 when it has not been read yet.
+	 */
+	private volatile int serverProtocolVersion = 0;
 
 	private volatile Map<String, String> additionalHttpHeaders = Collections.emptyMap();
 
@@ -349,15 +352,32 @@ public class HTTPRepository extends AbstractRepository implements HttpClientDepe
 	 * @throws RepositoryException if something went wrong while querying the server for the protocol version.
 	 */
 	boolean useCompatibleMode() throws RepositoryException {
-		Boolean result = compatibleMode;
-		if (result == null) {
+		// protocol version 7 supports the new transaction
+		// handling. If the server is older, we need to run in
+		// backward-compatible mode.
+		return getCachedServerProtocolVersion() < 7;
+	}
+
+	/**
+	 * Verify if tuple query results should be requested in the {@link TupleQueryResultFormat#BINARY_COLUMNAR columnar
+	 * binary format}, which is supported since protocol version 13. Older servers would ignore the preference and might
+	 * fall back to a less efficient format than the default binary format.
+	 *
+	 * @return <code>true</code> if no tuple query result format has been set and the Server supports the columnar
+	 *         binary format, <code>false</code> otherwise.
+	 * @throws RepositoryException if something went wrong while querying the server for the protocol version.
+	 */
+	boolean useColumnarResults() throws RepositoryException {
+		return tupleFormat == null && getCachedServerProtocolVersion() >= 13;
+	}
+
+	private int getCachedServerProtocolVersion() throws RepositoryException {
+		int result = serverProtocolVersion;
+		if (result == 0) {
 			synchronized (this) {
-				result = compatibleMode;
-				if (result == null) {
-					// protocol version 7 supports the new transaction
-					// handling. If the server is older, we need to run in
-					// backward-compatible mode.
-					result = compatibleMode = (getServerProtocolVersion() < 7);
+				result = serverProtocolVersion;
+				if (result == 0) {
+					result = serverProtocolVersion = getServerProtocolVersion();
 				}
 			}
 		}
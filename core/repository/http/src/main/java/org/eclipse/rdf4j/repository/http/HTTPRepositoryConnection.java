@@ -48,6 +48,7 @@ import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleNamespace;
 import org.eclipse.rdf4j.model.vocabulary.SESAME;
@@ -63,6 +64,7 @@ import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.query.Update;
 import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 import org.eclipse.rdf4j.repository.UnknownTransactionStateException;
@@ -74,6 +76,7 @@ import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
 import org.eclipse.rdf4j.rio.RDFParserRegistry;
+import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
@@ -94,15 +97,27 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 	 * Variables *
 	 *-----------*/
 
+	/**
+	 * The number of bytes of serialized statements after which a batch is sent, regardless of its number of statements.
+	 * The binary writer holds back a small number of statements, so a batch may slightly exceed this size.
+	 */
+	private static final int MAX_BATCH_BYTES = 4 * 1024 * 1024;
+
 	private List<TransactionOperation> txn = Collections.synchronizedList(new ArrayList<>());
 
 	private final RDF4JProtocolSession client;
 
 	private boolean active;
 
-	private Model toAdd;
+	/**
+	 * Whether the format in which tuple query results are requested has been chosen.
+	 */
+	private boolean tupleFormatChosen;
 
-	private Model toRemove;
+	/**
+	 * The statements added to or removed from the active transaction that have not been sent yet, if any.
+	 */
+	private StatementBatch batch;
 
 	/*--------------*
 	 * Constructors *
@@ -451,6 +466,8 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		}
 
 		flushTransactionState(Action.ADD);
+		// the data is sent in a request of its own, after the pending statements
+		sendBatch();
 		// Send bytes directly to the server
 		client.upload(in, baseURI, dataFormat, false, false, contexts);
 	}
@@ -492,6 +509,8 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		}
 
 		flushTransactionState(Action.ADD);
+		// the data is sent in a request of its own, after the pending statements
+		sendBatch();
 		client.upload(reader, baseURI, dataFormat, false, false, contexts);
 	}
 
@@ -550,11 +569,7 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		}
 
 		flushTransactionState(Protocol.Action.ADD);
-
-		if (toAdd == null) {
-			toAdd = new LinkedHashModel();
-		}
-		toAdd.add(subject, predicate, object, contexts);
+		addToBatch(Action.ADD, subject, predicate, object, contexts);
 	}
 
 	private void addModel(Model m) throws RepositoryException {
@@ -574,18 +589,16 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		}
 	}
 
-	private void removeModel(Model m) throws RepositoryException {
-		RDFFormat format = RDFFormat.BINARY;
-		try {
-			ByteArrayOutputStream out = new ByteArrayOutputStream();
-			Rio.write(m, out, format);
-			ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
-			client.removeData(in, null, format);
-
-		} catch (RDFHandlerException e) {
-			throw new RepositoryException("error while writing statement", e);
-		} catch (RDFParseException | IOException e) {
-			throw new RepositoryException(e);
+	/**
+	 * Requests tuple query results in the columnar binary format if the server supports it. The server's protocol
+	 * version is read when the first tuple query is evaluated, so that creating a connection does not need a request.
+	 */
+	void chooseTupleQueryResultFormat() throws RepositoryException {
+		if (!tupleFormatChosen) {
+			if (getRepository().useColumnarResults()) {
+				client.setPreferredTupleQueryResultFormat(TupleQueryResultFormat.BINARY_COLUMNAR);
+			}
+			tupleFormatChosen = true;
 		}
 	}
 
@@ -595,49 +608,21 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 			return;
 		}
 
-		if (isActive()) {
-			int maxBufferSize = getParserConfig().get(HTTPRepositorySettings.MAX_STATEMENT_BUFFER_SIZE);
+		if (isActive() && batch != null) {
 			switch (action) {
 			case ADD:
-				if (toRemove != null) {
-					removeModel(toRemove);
-					toRemove = null;
-				}
-				if (toAdd != null && maxBufferSize <= toAdd.size()) {
-					addModel(toAdd);
-					toAdd = null;
-				}
-				break;
 			case DELETE:
-				if (toAdd != null) {
-					addModel(toAdd);
-					toAdd = null;
-				}
-				if (toRemove != null && maxBufferSize <= toRemove.size()) {
-					removeModel(toRemove);
-					toRemove = null;
-				}
-				break;
-			case GET:
-			case UPDATE:
-			case COMMIT:
-			case PREPARE:
-			case QUERY:
-			case SIZE:
-				if (toAdd != null) {
-					addModel(toAdd);
-					toAdd = null;
-				}
-				if (toRemove != null) {
-					removeModel(toRemove);
-					toRemove = null;
+				if (batch.action != action) {
+					sendBatch();
 				}
 				break;
 			case ROLLBACK:
-				toAdd = null;
-				toRemove = null;
+				// the pending statements are discarded with the transaction
+				batch = null;
+				break;
+			default:
+				sendBatch();
 				break;
-
 			}
 		}
 	}
@@ -652,9 +637,6 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 
 		flushTransactionState(Protocol.Action.DELETE);
 
-		if (toRemove == null) {
-			toRemove = new LinkedHashModel();
-		}
 		if (subject == null) {
 			subject = SESAME.WILDCARD;
 		}
@@ -664,7 +646,47 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		if (object == null) {
 			object = SESAME.WILDCARD;
 		}
-		toRemove.add(subject, predicate, object, contexts);
+		addToBatch(Action.DELETE, subject, predicate, object, contexts);
+	}
+
+	/**
+	 * Adds a statement to the batch of the given action, which is sent to the active transaction once it is full, or
+	 * when {@link #flushTransactionState(Action)} is called for another action.
+	 */
+	private void addToBatch(Action action, Resource subject, IRI predicate, Value object, Resource... contexts)
+			throws RepositoryException {
+		if (batch == null) {
+			batch = new StatementBatch(action);
+		}
+		try {
+			batch.add(subject, predicate, object, contexts);
+		} catch (RDFHandlerException e) {
+			batch = null;
+			throw new RepositoryException("error while writing statement", e);
+		}
+		if (batch.isFull(getParserConfig().get(HTTPRepositorySettings.MAX_STATEMENT_BUFFER_SIZE))) {
+			sendBatch();
+		}
+	}
+
+	/**
+	 * Sends the pending statements to the active transaction, if any, and waits for the server to process them.
+	 */
+	private void sendBatch() throws RepositoryException {
+		StatementBatch batch = this.batch;
+		if (batch == null) {
+			return;
+		}
+		this.batch = null;
+		try {
+			batch.send();
+		} catch (RepositoryException e) {
+			throw e;
+		} catch (RDFHandlerException e) {
+			throw new RepositoryException("error while writing statement", e);
+		} catch (RDF4JException | IOException e) {
+			throw new RepositoryException(e);
+		}
 	}
 
 	@Override
@@ -842,4 +864,55 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 	protected RDF4JProtocolSession getSesameSession() {
 		return client;
 	}
+
+	/**
+	 * Collects statements that are added to or removed from the active transaction in the binary RDF format, which is
+	 * much more compact than the statements themselves. The batch is sent in a single request, so that a request is
+	 * only open while its content is being sent, and not while the application is still adding statements.
+	 */
+	private class StatementBatch {
+
+		private final Action action;
+
+		private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		private final RDFWriter writer;
+
+		private int size;
+
+		StatementBatch(Action action) throws RepositoryException {
+			this.action = action;
+			this.writer = Rio.createWriter(RDFFormat.BINARY, out);
+			try {
+				writer.startRDF();
+			} catch (RDFHandlerException e) {
+				throw new RepositoryException("error while writing statement", e);
+			}
+		}
+
+		void add(Resource subject, IRI predicate, Value object, Resource... contexts) throws RDFHandlerException {
+			ValueFactory vf = getValueFactory();
+			if (contexts.length == 0) {
+				writer.handleStatement(vf.createStatement(subject, predicate, object));
+				size++;
+			} else {
+				for (Resource context : contexts) {
+					writer.handleStatement(vf.createStatement(subject, predicate, object, context));
+					size++;
+				}
+			}
+		}
+
+		boolean isFull(int maxSize) {
+			return size >= maxSize || out.size() >= MAX_BATCH_BYTES;
+		}
+
+		/**
+		 * Sends the batch, and waits for the response of the server.
+		 */
+		void send() throws IOException, RDFHandlerException {
+			writer.endRDF();
+			client.uploadTransactionData(out.toByteArray(), RDFFormat.BINARY, action);
+		}
+	}
 }
@@ -44,6 +44,7 @@ public class HTTPTupleQuery extends AbstractHTTPQuery implements TupleQuery {
 		SPARQLProtocolSession client = getHttpClient();
 		try {
 			conn.flushTransactionState(Protocol.Action.QUERY);
+			conn.chooseTupleQueryResultFormat();
 			return client.sendTupleQuery(queryLanguage, queryString, baseURI, dataset, getIncludeInferred(),
 					getMaxExecutionTime(), getBindingsArray());
 		} catch (IOException | RepositoryException | MalformedQueryException e) {
@@ -57,6 +58,7 @@ public class HTTPTupleQuery extends AbstractHTTPQuery implements TupleQuery {
 		SPARQLProtocolSession client = getHttpClient();
 		try {
 			conn.flushTransactionState(Protocol.Action.QUERY);
+			conn.chooseTupleQueryResultFormat();
 			client.sendTupleQuery(queryLanguage, queryString, baseURI, dataset, includeInferred, getMaxExecutionTime(),
 					handler, getBindingsArray());
 		} catch (IOException | RepositoryException | MalformedQueryException e) {
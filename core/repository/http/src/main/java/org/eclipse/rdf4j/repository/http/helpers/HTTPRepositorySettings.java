@@ -23,12 +23,14 @@ public class HTTPRepositorySettings {
 	private static final Logger log = LoggerFactory.getLogger(HTTPRepositorySettings.class);
 
 	/**
-	 * Maximum size (in number of statements) allowed for statement buffers before they are forcibly flushed.
+	 * Maximum number of statements sent to the remote repository in a single request.
 	 * <p>
-	 * By default inner buffers within {@link org.eclipse.rdf4j.repository.http.HTTPRepositoryConnection} keep in memory
-	 * up to 200000 statement before they are flushed to the remote repository.
+	 * Statements that are added or removed in a transaction are collected in the compact binary RDF format, and sent to
+	 * the remote repository once a batch of 200000 statements (by default) or about 4 MB of data has been collected, or
+	 * when another operation is performed on the transaction.
 	 */
 	public static final RioSetting<Integer> MAX_STATEMENT_BUFFER_SIZE = new RioSettingImpl<>(
-			"org.eclipse.rdf4j.http.maxstatementbuffersize", "Maximum number of statement buffered in memory", 200000);
+			"org.eclipse.rdf4j.http.maxstatementbuffersize", "Maximum number of statements sent in a single request",
+			200000);
 
 }
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.repository.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.rdf4j.http.client.RDF4JProtocolSession;
+import org.eclipse.rdf4j.http.protocol.Protocol.Action;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.http.helpers.HTTPRepositorySettings;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+/**
+ * Unit tests for the batching of transaction updates by {@link HTTPRepositoryConnection} and for the choice of the
+ * tuple query result format.
+ */
+public class HTTPRepositoryConnectionTest {
+
+	private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+	private final List<Upload> uploads = new ArrayList<>();
+
+	private boolean failUploads;
+
+	private HTTPRepository repository;
+
+	private RDF4JProtocolSession client;
+
+	private HTTPRepositoryConnection connection;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		repository = spy(new HTTPRepository("http://localhost/rdf4j-server", "test"));
+		doReturn(false).when(repository).useCompatibleMode();
+
+		client = mock(RDF4JProtocolSession.class);
+		doAnswer(invocation -> {
+			if (failUploads) {
+				throw new IOException("upload rejected");
+			}
+			uploads.add(new Upload(invocation.getArgument(2), invocation.getArgument(0)));
+			return null;
+		}).when(client).uploadTransactionData(any(), any(), any());
+
+		connection = new HTTPRepositoryConnection(repository, client);
+	}
+
+	@Test
+	public void testSwitchBetweenAddAndRemove() throws Exception {
+		connection.begin();
+		connection.add(iri("s1"), RDF.TYPE, RDFS.RESOURCE);
+		connection.add(iri("s2"), RDF.TYPE, RDFS.RESOURCE);
+		connection.remove(iri("s1"), RDF.TYPE, RDFS.RESOURCE);
+		connection.add(iri("s3"), RDF.TYPE, RDFS.RESOURCE);
+		connection.commit();
+
+		assertThat(uploads).hasSize(3);
+		assertThat(uploads.get(0).action).isEqualTo(Action.ADD);
+		assertThat(uploads.get(0).subjects()).containsExactly(iri("s1"), iri("s2"));
+		assertThat(uploads.get(1).action).isEqualTo(Action.DELETE);
+		assertThat(uploads.get(1).subjects()).containsExactly(iri("s1"));
+		assertThat(uploads.get(2).action).isEqualTo(Action.ADD);
+		assertThat(uploads.get(2).subjects()).containsExactly(iri("s3"));
+
+		// each batch is sent before the next one, and before the commit
+		InOrder order = inOrder(client);
+		order.verify(client).uploadTransactionData(any(), eq(RDFFormat.BINARY), eq(Action.ADD));
+		order.verify(client).uploadTransactionData(any(), eq(RDFFormat.BINARY), eq(Action.DELETE));
+		order.verify(client).uploadTransactionData(any(), eq(RDFFormat.BINARY), eq(Action.ADD));
+		order.verify(client).commitTransaction();
+	}
+
+	@Test
+	public void testRequestsAreLimitedToMaxStatementBufferSize() throws Exception {
+		connection.getParserConfig().set(HTTPRepositorySettings.MAX_STATEMENT_BUFFER_SIZE, 2);
+
+		connection.begin();
+		for (int i = 0; i < 5; i++) {
+			connection.add(iri("s" + i), RDF.TYPE, RDFS.RESOURCE);
+		}
+		connection.commit();
+
+		assertThat(uploads).hasSize(3);
+		assertThat(uploads).allMatch(upload -> upload.action == Action.ADD);
+		assertThat(uploads.get(0).subjects()).containsExactly(iri("s0"), iri("s1"));
+		assertThat(uploads.get(1).subjects()).containsExactly(iri("s2"), iri("s3"));
+		assertThat(uploads.get(2).subjects()).containsExactly(iri("s4"));
+	}
+
+	@Test
+	public void testNoRequestIsOpenWhileAdding() throws Exception {
+		connection.begin();
+		connection.add(iri("s1"), RDF.TYPE, RDFS.RESOURCE);
+		connection.add(iri("s2"), RDF.TYPE, RDFS.RESOURCE);
+		assertThat(uploads).isEmpty();
+
+		connection.commit();
+		assertThat(uploads).hasSize(1);
+		assertThat(uploads.get(0).subjects()).containsExactly(iri("s1"), iri("s2"));
+	}
+
+	@Test
+	public void testBatchesAreLimitedInBytes() throws Exception {
+		String value = String.join("", Collections.nCopies(16 * 1024, "x"));
+		connection.begin();
+		for (int i = 0; i < 250; i++) {
+			connection.add(iri("s" + i), RDFS.LABEL, VF.createLiteral(value + i));
+		}
+		connection.commit();
+
+		assertThat(uploads).hasSizeGreaterThan(1);
+		List<Resource> subjects = new ArrayList<>();
+		for (Upload upload : uploads) {
+			subjects.addAll(upload.subjects());
+		}
+		assertThat(subjects).hasSize(250);
+	}
+
+	@Test
+	public void testRollbackDiscardsPendingStatements() throws Exception {
+		connection.begin();
+		connection.add(iri("s1"), RDF.TYPE, RDFS.RESOURCE);
+		connection.rollback();
+
+		assertThat(uploads).isEmpty();
+		assertThat(connection.isActive()).isFalse();
+		verify(client).rollbackTransaction();
+		verify(client, never()).commitTransaction();
+
+		// a new transaction starts a new batch
+		connection.begin();
+		connection.add(iri("s2"), RDF.TYPE, RDFS.RESOURCE);
+		connection.commit();
+		assertThat(uploads).hasSize(1);
+		assertThat(uploads.get(0).subjects()).containsExactly(iri("s2"));
+	}
+
+	@Test
+	public void testRejectedBatchFailsCommit() throws Exception {
+		failUploads = true;
+		connection.begin();
+		connection.add(iri("s1"), RDF.TYPE, RDFS.RESOURCE);
+
+		assertThatThrownBy(connection::commit).isInstanceOf(RepositoryException.class)
+				.hasMessageContaining("upload rejected");
+		verify(client, never()).commitTransaction();
+		assertThat(connection.isActive()).isTrue();
+	}
+
+	@Test
+	public void testTupleFormatIsChosenOnFirstQuery() throws Exception {
+		doReturn(13).when(repository).getServerProtocolVersion();
+		verify(repository, never()).getServerProtocolVersion();
+
+		TupleQuery query = connection.prepareTupleQuery("SELECT * WHERE { ?s ?p ?o }");
+		query.evaluate();
+		query.evaluate();
+
+		verify(repository, times(1)).getServerProtocolVersion();
+		verify(client, times(1)).setPreferredTupleQueryResultFormat(TupleQueryResultFormat.BINARY_COLUMNAR);
+	}
+
+	@Test
+	public void testTupleFormatIsKeptForOlderServer() throws Exception {
+		doReturn(12).when(repository).getServerProtocolVersion();
+
+		connection.prepareTupleQuery("SELECT * WHERE { ?s ?p ?o }").evaluate();
+
+		verify(client, never()).setPreferredTupleQueryResultFormat(any());
+	}
+
+	@Test
+	public void testUnreachableServerFailsQuery() throws Exception {
+		doThrow(new RepositoryException("server unreachable")).when(repository).getServerProtocolVersion();
+
+		// creating a connection does not contact the server
+		HTTPRepositoryConnection other = new HTTPRepositoryConnection(repository, client);
+		verify(repository, never()).getServerProtocolVersion();
+
+		assertThatThrownBy(() -> other.prepareTupleQuery("SELECT * WHERE { ?s ?p ?o }").evaluate())
+				.isInstanceOf(QueryEvaluationException.class)
+				.hasMessageContaining("server unreachable");
+		verify(client, never()).setPreferredTupleQueryResultFormat(any());
+	}
+
+	private static IRI iri(String localName) {
+		return VF.createIRI("urn:", localName);
+	}
+
+	/**
+	 * Records the statements that are uploaded for an action.
+	 */
+	private static class Upload {
+
+		private final Action action;
+
+		private final byte[] data;
+
+		Upload(Action action, byte[] data) {
+			this.action = action;
+			this.data = data;
+		}
+
+		List<Resource> subjects() throws IOException {
+			Model statements = Rio.parse(new ByteArrayInputStream(data), "", RDFFormat.BINARY);
+			List<Resource> subjects = new ArrayList<>();
+			statements.forEach(st -> subjects.add(st.getSubject()));
+			return subjects;
+		}
+	}
+}
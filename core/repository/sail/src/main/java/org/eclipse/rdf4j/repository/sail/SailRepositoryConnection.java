@@ -250,8 +250,25 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 
 	@Override
 	public SailQuery prepareQuery(QueryLanguage ql, String queryString, String baseURI) throws MalformedQueryException {
-		ParsedQuery parsedQuery = QueryParserUtil.parseQuery(ql, queryString, baseURI);
+		return prepareQuery(ql, queryString, baseURI, QueryParserUtil.parseQuery(ql, queryString, baseURI));
+	}
 
+	/**
+	 * Prepares a query from the result of parsing the query string, for example a parsed query that is cached and
+	 * reused for many evaluations. Evaluating the query does not modify the parsed query, so it can be shared by
+	 * queries on different connections.
+	 * <p>
+	 * {@link #prepareQuery(QueryLanguage, String, String)} delegates to this method, so subclasses that customize the
+	 * prepared queries should override this method rather than the former.
+	 *
+	 * @param ql          The query language of the query.
+	 * @param queryString The query string.
+	 * @param baseURI     The base URI the query string was parsed with.
+	 * @param parsedQuery The query string parsed with the given query language and base URI.
+	 * @return A query ready to be evaluated on this repository connection.
+	 * @since 3.7.2
+	 */
+	public SailQuery prepareQuery(QueryLanguage ql, String queryString, String baseURI, ParsedQuery parsedQuery) {
 		if (parsedQuery instanceof ParsedTupleQuery) {
 			Optional<TupleExpr> sailTupleExpr = sailConnection.prepareQuery(ql, Query.QueryType.TUPLE, queryString,
 					baseURI);
@@ -9,9 +9,8 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.zip.CheckedInputStream;
-
-import org.eclipse.rdf4j.common.io.UncloseableInputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Log64
@@ -31,7 +30,40 @@ import org.eclipse.rdf4j.common.io.UncloseableInputStream;
  * @author Bart Hanssens
  */
 class HDTArrayLog64 extends HDTArray {
-	private byte buffer[];
+	private ByteBuffer buffer;
+
+	/**
+	 * Constructor
+	 */
+	protected HDTArrayLog64() {
+		super();
+	}
+
+	/**
+	 * Constructor, encoding the values with the minimum number of bits needed for the largest value
+	 *
+	 * @param values positive integer values
+	 */
+	protected HDTArrayLog64(int[] values) {
+		int max = 0;
+		for (int value : values) {
+			max = Math.max(max, value);
+		}
+		nrbits = Math.max(1, 32 - Integer.numberOfLeadingZeros(max));
+		entries = values.length;
+
+		byte[] data = new byte[(int) (((long) nrbits * entries + 7) / 8)];
+		for (int i = 0; i < entries; i++) {
+			long bitPos = (long) i * nrbits;
+			long val = (values[i] & 0xFFFFFFFFL) << (bitPos % 8);
+			// little-endian
+			for (int j = (int) (bitPos / 8); val != 0; j++) {
+				data[j] |= (byte) val;
+				val >>>= 8;
+			}
+		}
+		buffer = ByteBuffer.wrap(data);
+	}
 
 	@Override
 	protected int getType() {
@@ -41,8 +73,8 @@ class HDTArrayLog64 extends HDTArray {
 	@Override
 	protected int get(int i) {
 		// start byte of the value, and start bit in that start byte
-		int bytePos = (i * nrbits) / 8;
-		int bitPos = (i * nrbits) % 8;
+		int bytePos = (int) (((long) i * nrbits) / 8);
+		int bitPos = (int) (((long) i * nrbits) % 8);
 
 		// value bits may be encoded across boundaries of bytes
 		int tmplen = (bitPos + nrbits + 7) / 8;
@@ -50,7 +82,7 @@ class HDTArrayLog64 extends HDTArray {
 		long val = 0L;
 		// little-endian to big-endian
 		for (int j = 0; j < tmplen; j++) {
-			val |= (buffer[bytePos + j] & 0xFFL) << (j * 8);
+			val |= (buffer.get(bytePos + j) & 0xFFL) << (j * 8);
 		}
 
 		val >>= bitPos;
@@ -63,19 +95,20 @@ class HDTArrayLog64 extends HDTArray {
 	protected void parse(InputStream is) throws IOException {
 		super.parse(is);
 
-		// don't close CheckedInputStream, as it will close the underlying inputstream
-		try (UncloseableInputStream uis = new UncloseableInputStream(is);
-				CheckedInputStream cis = new CheckedInputStream(uis, new CRC32())) {
-			// read bytes, minimum 1
-			long bytes = (nrbits * entries + 7) / 8;
-			if (bytes > Integer.MAX_VALUE) {
-				throw new UnsupportedOperationException("Maximum number of bytes in array exceeded: " + bytes);
-			}
+		// read bytes, minimum 1
+		long bytes = ((long) nrbits * entries + 7) / 8;
+		if (bytes > Integer.MAX_VALUE) {
+			throw new UnsupportedOperationException("Maximum number of bytes in array exceeded: " + bytes);
+		}
+		buffer = readData(is, (int) bytes);
+	}
 
-			buffer = new byte[(int) bytes];
-			cis.read(buffer);
+	@Override
+	protected void write(OutputStream os) throws IOException {
+		super.write(os);
 
-			checkCRC(cis, is, 4);
-		}
+		byte[] data = new byte[buffer.limit()];
+		buffer.duplicate().get(data);
+		writeData(os, data);
 	}
 }
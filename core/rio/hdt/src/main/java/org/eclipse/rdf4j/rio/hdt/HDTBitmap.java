@@ -9,19 +9,60 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 import org.eclipse.rdf4j.common.io.UncloseableInputStream;
+import org.eclipse.rdf4j.common.io.UncloseableOutputStream;
 
 /**
+ * HDT Bitmap
+ *
+ * This part starts with a byte indicating the type of the bitmap, followed by the VByte-encoded number of bits.
+ *
+ * Then the 8-bit CRC, followed by the bits (little-endian) and the 32-bit CRC calculated over the bits.
+ *
+ * Structure:
+ *
+ * <pre>
+ * +------+------+------+------+-------+
+ * | type | bits | CRC8 | data | CRC32 |
+ * +------+------+------+------+-------+
+ * </pre>
  *
  * @author Bart Hanssens
  */
 class HDTBitmap extends HDTPart {
 	protected final static int BITMAP1 = 1;
 
+	// number of bits in a block of the rank directory
+	private final static int BLOCK_BITS = 512;
+
 	private int bits;
-	private byte[] buffer;
+	private ByteBuffer buffer;
+
+	// number of 1-bits before each block, calculated when first needed
+	private volatile int[] ranks;
+
+	/**
+	 * Constructor
+	 */
+	protected HDTBitmap() {
+		super();
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param bits   number of bits
+	 * @param buffer the bits, little-endian
+	 */
+	protected HDTBitmap(int bits, byte[] buffer) {
+		this.bits = bits;
+		this.buffer = ByteBuffer.wrap(buffer);
+	}
 
 	/**
 	 * Get bit
@@ -33,7 +74,7 @@ class HDTBitmap extends HDTPart {
 		int bytePos = i / 8;
 		int bitPos = i % 8;
 
-		byte b = buffer[bytePos];
+		byte b = buffer.get(bytePos);
 		return ((b & 0xFF) >> bitPos) & 1;
 	}
 
@@ -46,6 +87,83 @@ class HDTBitmap extends HDTPart {
 		return bits;
 	}
 
+	/**
+	 * Get the number of 1-bits in this bitmap
+	 *
+	 * @return positive integer value
+	 */
+	protected int countOnes() {
+		int[] r = getRanks();
+		return r[r.length - 1];
+	}
+
+	/**
+	 * Get the position of the n-th 1-bit
+	 *
+	 * @param n one-based number of the 1-bit
+	 * @return zero-based position, or -1 if there are less than n 1-bits
+	 */
+	protected int select1(int n) {
+		int[] r = getRanks();
+		if (n < 1 || n > r[r.length - 1]) {
+			return -1;
+		}
+		// find the last block with less than n 1-bits before it
+		int low = 0;
+		int high = r.length - 2;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (r[mid] < n) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		int remaining = n - r[low];
+		for (int bytePos = low * (BLOCK_BITS / 8);; bytePos++) {
+			int b = buffer.get(bytePos) & 0xFF;
+			int ones = Integer.bitCount(b);
+			if (ones >= remaining) {
+				for (int bitPos = 0;; bitPos++) {
+					if (((b >> bitPos) & 1) == 1 && --remaining == 0) {
+						return bytePos * 8 + bitPos;
+					}
+				}
+			}
+			remaining -= ones;
+		}
+	}
+
+	/**
+	 * Get the rank directory, with the number of 1-bits before each block of bits, and the total number of 1-bits as
+	 * last entry.
+	 *
+	 * @return array of ranks
+	 */
+	private int[] getRanks() {
+		int[] r = ranks;
+		if (r == null) {
+			int blocks = (bits + BLOCK_BITS - 1) / BLOCK_BITS;
+			r = new int[blocks + 1];
+			int ones = 0;
+			int bytes = (bits + 7) / 8;
+			for (int i = 0; i < bytes; i++) {
+				if (i % (BLOCK_BITS / 8) == 0) {
+					r[i / (BLOCK_BITS / 8)] = ones;
+				}
+				int b = buffer.get(i) & 0xFF;
+				if (i == bytes - 1 && bits % 8 != 0) {
+					// ignore the padding bits
+					b &= (1 << (bits % 8)) - 1;
+				}
+				ones += Integer.bitCount(b);
+			}
+			r[blocks] = ones;
+			ranks = r;
+		}
+		return r;
+	}
+
 	@Override
 	protected void parse(InputStream is) throws IOException {
 		long bytes = 0L;
@@ -60,24 +178,37 @@ class HDTBitmap extends HDTPart {
 						", but only bitmap v1 is supported");
 			}
 
-			long b = (int) VByte.decode(cis);
+			long b = VByte.decode(cis);
 			if (b > Integer.MAX_VALUE) {
 				throw new UnsupportedOperationException("Maximum number of entries in bitmap exceeded: " + b);
 			}
 			bits = (int) b;
-			bytes = (bits + 7) / 8;
+			bytes = (b + 7) / 8;
 
 			checkCRC(cis, is, 1);
 		}
 
-		// don't close CheckedInputStream, as it will close the underlying inputstream
-		try (UncloseableInputStream uis = new UncloseableInputStream(is);
-				CheckedInputStream cis = new CheckedInputStream(uis, new CRC32())) {
+		buffer = readData(is, (int) bytes);
+	}
 
-			buffer = new byte[(int) bytes];
-			cis.read(buffer);
+	/**
+	 * Write this bitmap to the output stream
+	 *
+	 * @param os output stream
+	 * @throws IOException
+	 */
+	protected void write(OutputStream os) throws IOException {
+		// don't close CheckedOutputStream, as it will close the underlying outputstream
+		try (UncloseableOutputStream uos = new UncloseableOutputStream(os);
+				CheckedOutputStream cos = new CheckedOutputStream(uos, new CRC8())) {
+			cos.write(BITMAP1);
+			VByte.encode(cos, bits);
 
-			checkCRC(cis, is, 4);
+			writeCRC(cos, os, 1);
 		}
+
+		byte[] data = new byte[(bits + 7) / 8];
+		buffer.duplicate().get(data);
+		writeData(os, data);
 	}
 }
@@ -9,6 +9,7 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.CheckedInputStream;
 
@@ -37,6 +38,7 @@ class HDTDictionary extends HDTPart {
 			.getBytes(StandardCharsets.US_ASCII);
 	protected final static String DICT_MAPPING = "mapping";
 	protected final static String DICT_ELEMENTS = "elements";
+	protected final static String DICT_SIZE = "sizeStrings";
 
 	@Override
 	protected void parse(InputStream is) throws IOException {
@@ -52,4 +54,14 @@ class HDTDictionary extends HDTPart {
 			checkCRC(cis, is, 2);
 		}
 	}
+
+	/**
+	 * Write this part to the output stream
+	 *
+	 * @param os output stream
+	 * @throws IOException
+	 */
+	protected void write(OutputStream os) throws IOException {
+		writeControlInfo(os, HDTPart.Type.DICTIONARY, DICT_FORMAT, properties);
+	}
 }
@@ -49,6 +49,14 @@ abstract class HDTDictionarySection extends HDTPart {
 	 */
 	protected abstract byte[] get(int i) throws IOException;
 
+	/**
+	 * Get the index of an entry
+	 *
+	 * @param str entry
+	 * @return one-based index, or 0 when not found
+	 */
+	protected abstract int locate(byte[] str) throws IOException;
+
 	/**
 	 * Constructor
 	 *
@@ -8,14 +8,20 @@
 package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
 
 import org.eclipse.rdf4j.common.io.UncloseableInputStream;
+import org.eclipse.rdf4j.common.io.UncloseableOutputStream;
 
 /**
  * HDT DictionarySection Plain Front Coding.
@@ -51,7 +57,10 @@ import org.eclipse.rdf4j.common.io.UncloseableInputStream;
  * @author Bart Hanssens
  */
 class HDTDictionarySectionPFC extends HDTDictionarySection {
-	private byte[] buffer;
+	// number of strings per block when writing
+	protected final static int STRINGS_BLOCK = 16;
+
+	private ByteBuffer buffer;
 
 	private int totalStrings;
 	private int stringsBlock;
@@ -76,13 +85,59 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 		super(name, pos);
 	}
 
+	/**
+	 * Constructor, encoding a list of strings
+	 *
+	 * @param name
+	 * @param strings strings, sorted by unsigned byte value
+	 */
+	protected HDTDictionarySectionPFC(String name, List<byte[]> strings) {
+		super(name, -1);
+
+		totalStrings = strings.size();
+		stringsBlock = STRINGS_BLOCK;
+
+		int blocks = (totalStrings + stringsBlock - 1) / stringsBlock;
+		int[] starts = new int[blocks + 1];
+
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		byte[] prev = null;
+		for (int i = 0; i < totalStrings; i++) {
+			byte[] str = strings.get(i);
+			if (i % stringsBlock == 0) {
+				// each block starts with a full string
+				starts[i / stringsBlock] = bos.size();
+				bos.write(str, 0, str.length);
+			} else {
+				int common = 0;
+				int max = Math.min(prev.length, str.length);
+				while (common < max && prev[common] == str[common]) {
+					common++;
+				}
+				try {
+					VByte.encode(bos, common);
+				} catch (IOException ioe) {
+					// never thrown by a byte array output stream
+					throw new IllegalStateException(ioe);
+				}
+				bos.write(str, common, str.length - common);
+			}
+			bos.write(0b00);
+			prev = str;
+		}
+		starts[blocks] = bos.size();
+
+		buffer = ByteBuffer.wrap(bos.toByteArray());
+		blockStarts = new HDTArrayLog64(starts);
+	}
+
 	@Override
 	protected int size() {
 		return totalStrings;
 	}
 
 	@Override
-	protected byte[] get(int i) throws IOException {
+	protected synchronized byte[] get(int i) throws IOException {
 		// HDT index start counting from 1
 		int idx = i - 1;
 
@@ -98,6 +153,88 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 		return strings.get(idx - (block * stringsBlock));
 	}
 
+	/**
+	 * Get the index of a string
+	 *
+	 * @param str string
+	 * @return one-based index, or 0 when the string is not in this section
+	 * @throws IOException
+	 */
+	@Override
+	protected int locate(byte[] str) throws IOException {
+		if (totalStrings == 0) {
+			return 0;
+		}
+		// find the last block starting with a string that is not greater than the string to locate
+		int low = 0;
+		int high = (totalStrings - 1) / stringsBlock;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			int cmp = compareFirst(mid, str);
+			if (cmp == 0) {
+				return mid * stringsBlock + 1;
+			}
+			if (cmp < 0) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+
+		int first = low * stringsBlock + 1;
+		int last = Math.min(first + stringsBlock - 1, totalStrings);
+		for (int i = first; i <= last; i++) {
+			int cmp = compare(get(i), str);
+			if (cmp == 0) {
+				return i;
+			}
+			if (cmp > 0) {
+				break;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Compare the first string of a block, which is stored in full, to another string
+	 *
+	 * @param block block number
+	 * @param str   string
+	 * @return negative, zero or positive integer
+	 */
+	private int compareFirst(int block, byte[] str) {
+		int idx = blockStarts.get(block);
+		for (int i = 0; i < str.length; i++, idx++) {
+			int b = buffer.get(idx) & 0xFF;
+			if (b == 0) {
+				// first string is a prefix of the other string
+				return -1;
+			}
+			if (b != (str[i] & 0xFF)) {
+				return b - (str[i] & 0xFF);
+			}
+		}
+		return buffer.get(idx) == 0b00 ? 0 : 1;
+	}
+
+	/**
+	 * Compare two strings by unsigned byte value
+	 *
+	 * @param a string
+	 * @param b string
+	 * @return negative, zero or positive integer
+	 */
+	protected static int compare(byte[] a, byte[] b) {
+		int len = Math.min(a.length, b.length);
+		for (int i = 0; i < len; i++) {
+			int cmp = (a[i] & 0xFF) - (b[i] & 0xFF);
+			if (cmp != 0) {
+				return cmp;
+			}
+		}
+		return a.length - b.length;
+	}
+
 	@Override
 	protected void parse(InputStream is) throws IOException {
 		CRC8 crc8 = new CRC8();
@@ -110,7 +247,7 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 				CheckedInputStream cis = new CheckedInputStream(uis, crc8)) {
 
 			long val = VByte.decode(cis);
-			if (totalStrings > Integer.MAX_VALUE) {
+			if (val > Integer.MAX_VALUE) {
 				throw new UnsupportedOperationException(getDebugPartStr() + " max number of strings exceeded: " + val);
 			}
 			totalStrings = (int) val;
@@ -135,14 +272,32 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 		blockStarts = HDTArrayFactory.parse(is);
 		blockStarts.parse(is);
 
-		// don't close CheckedInputStream, as it will close the underlying inputstream
-		try (UncloseableInputStream uis = new UncloseableInputStream(is);
-				CheckedInputStream cis = new CheckedInputStream(uis, new CRC32())) {
+		buffer = readData(is, buflen);
+	}
+
+	/**
+	 * Write this section to the output stream
+	 *
+	 * @param os output stream
+	 * @throws IOException
+	 */
+	protected void write(OutputStream os) throws IOException {
+		// don't close CheckedOutputStream, as it will close the underlying outputstream
+		try (UncloseableOutputStream uos = new UncloseableOutputStream(os);
+				CheckedOutputStream cos = new CheckedOutputStream(uos, new CRC8())) {
+			cos.write(HDTDictionarySection.Type.FRONT.getValue());
+			VByte.encode(cos, totalStrings);
+			VByte.encode(cos, buffer.limit());
+			VByte.encode(cos, stringsBlock);
 
-			buffer = new byte[buflen];
-			cis.read(buffer);
-			checkCRC(cis, is, 4);
+			writeCRC(cos, os, 1);
 		}
+
+		blockStarts.write(os);
+
+		byte[] data = new byte[buffer.limit()];
+		buffer.duplicate().get(data);
+		writeData(os, data);
 	}
 
 	/**
@@ -159,7 +314,7 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 		// initial string
 		int idx = start;
 		int end = HDTPart.countToNull(buffer, idx);
-		byte[] str = Arrays.copyOfRange(buffer, idx, end);
+		byte[] str = copyOfRange(idx, end);
 		arr.add(str);
 		idx = end + 1;
 
@@ -169,7 +324,7 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 			int common = (int) VByte.decodeFrom(buffer, idx);
 			idx += VByte.encodedLength(common);
 			end = HDTPart.countToNull(buffer, idx);
-			byte[] suffix = Arrays.copyOfRange(buffer, idx, end);
+			byte[] suffix = copyOfRange(idx, end);
 
 			// copy the common part and add the suffix
 			str = Arrays.copyOf(str, common + suffix.length);
@@ -180,4 +335,19 @@ class HDTDictionarySectionPFC extends HDTDictionarySection {
 		}
 		return arr;
 	}
+
+	/**
+	 * Copy a range of bytes from the buffer
+	 *
+	 * @param from start position, inclusive
+	 * @param to   end position, exclusive
+	 * @return byte array
+	 */
+	private byte[] copyOfRange(int from, int to) {
+		byte[] b = new byte[to - from];
+		for (int i = 0; i < b.length; i++) {
+			b[i] = buffer.get(from + i);
+		}
+		return b;
+	}
 }
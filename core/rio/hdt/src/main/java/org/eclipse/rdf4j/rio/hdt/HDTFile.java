@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+
+/**
+ * Random access to the triples of an HDT v1.0 file, without loading the file into memory.
+ *
+ * The dictionaries and triples of the file are memory-mapped, each in a separate buffer, so that the operating system
+ * only reads the parts that are accessed. Triple patterns with a bound subject are answered using the bitmap index of
+ * the triples, other patterns scan all triples.
+ *
+ * Instances are thread-safe.
+ *
+ * @see HDTParser
+ * @see HDTWriter
+ */
+public class HDTFile implements Closeable {
+	private final FileChannel channel;
+	private final ValueFactory valueFactory;
+
+	private HDTDictionarySection shared;
+	private HDTDictionarySection subjects;
+	private HDTDictionarySection predicates;
+	private HDTDictionarySection objects;
+	private HDTTriplesSectionBitmap section;
+
+	private HDTFile(FileChannel channel, ValueFactory valueFactory) {
+		this.channel = channel;
+		this.valueFactory = valueFactory;
+	}
+
+	/**
+	 * Open an HDT file
+	 *
+	 * @param file         HDT file
+	 * @param valueFactory value factory used to create the statements
+	 * @return HDT file
+	 * @throws IOException when the file can not be read or is not a valid HDT file
+	 */
+	public static HDTFile open(Path file, ValueFactory valueFactory) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		HDTFile hdt = new HDTFile(channel, valueFactory);
+		try {
+			hdt.parse(new HDTMappedInputStream(channel));
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+		return hdt;
+	}
+
+	private void parse(HDTMappedInputStream is) throws IOException {
+		new HDTGlobal().parse(is);
+		new HDTHeader().parse(is);
+		new HDTDictionary().parse(is);
+
+		long dpos = is.getPosition();
+		shared = HDTDictionarySectionFactory.parse(is, "S+O", dpos);
+		shared.parse(is);
+
+		dpos = is.getPosition();
+		subjects = HDTDictionarySectionFactory.parse(is, "S", dpos);
+		subjects.parse(is);
+
+		dpos = is.getPosition();
+		predicates = HDTDictionarySectionFactory.parse(is, "P", dpos);
+		predicates.parse(is);
+
+		dpos = is.getPosition();
+		objects = HDTDictionarySectionFactory.parse(is, "O", dpos);
+		objects.parse(is);
+
+		HDTTriples triples = new HDTTriples();
+		triples.parse(is);
+
+		section = (HDTTriplesSectionBitmap) HDTTriplesSectionFactory.parse(new String(HDTTriples.FORMAT_BITMAP));
+		section.parse(is, triples.getOrder());
+	}
+
+	/**
+	 * Get the number of triples
+	 *
+	 * @return number of triples
+	 */
+	public int size() {
+		return section.size();
+	}
+
+	/**
+	 * Get the statements matching a triple pattern
+	 *
+	 * @param subj subject, or null for any subject
+	 * @param pred predicate, or null for any predicate
+	 * @param obj  object, or null for any object
+	 * @return iterator of statements, which throws an {@link UncheckedIOException} when the file can not be read
+	 * @throws IOException
+	 */
+	public Iterator<Statement> getStatements(Resource subj, IRI pred, Value obj) throws IOException {
+		int s = 0;
+		int p = 0;
+		int o = 0;
+
+		if (subj != null) {
+			s = locate(subj, subjects);
+			if (s == 0) {
+				return Collections.emptyIterator();
+			}
+		}
+		if (pred != null) {
+			byte[] b = encode(pred);
+			p = (b == null) ? 0 : predicates.locate(b);
+			if (p == 0) {
+				return Collections.emptyIterator();
+			}
+		}
+		if (obj != null) {
+			o = locate(obj, objects);
+			if (o == 0) {
+				return Collections.emptyIterator();
+			}
+		}
+
+		Iterator<int[]> iter = section.search(s, p, o);
+		return new Iterator<Statement>() {
+			@Override
+			public boolean hasNext() {
+				return iter.hasNext();
+			}
+
+			@Override
+			public Statement next() {
+				int[] t = iter.next();
+				try {
+					return valueFactory.createStatement(
+							HDTValues.createSubject(valueFactory, get(t[0], shared, subjects)),
+							HDTValues.createPredicate(valueFactory, predicates.get(t[1])),
+							HDTValues.createObject(valueFactory, get(t[2], shared, objects)));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Get the ID of a subject or object, which is either in the shared section or in the specific section
+	 *
+	 * @param v     value
+	 * @param other specific section
+	 * @return ID, or 0 when not found
+	 * @throws IOException
+	 */
+	private int locate(Value v, HDTDictionarySection other) throws IOException {
+		byte[] b = encode(v);
+		if (b == null) {
+			return 0;
+		}
+		// literals are never subjects, so they are never in the shared section
+		int id = (v instanceof Literal) ? 0 : shared.locate(b);
+		if (id == 0) {
+			id = other.locate(b);
+			if (id != 0) {
+				id += shared.size();
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Encode a value as HDT string
+	 *
+	 * @param v value
+	 * @return byte array, or null when the value can not be stored in HDT
+	 */
+	private static byte[] encode(Value v) {
+		try {
+			return HDTValues.encode(v);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static byte[] get(int id, HDTDictionarySection shared, HDTDictionarySection other) throws IOException {
+		int size = shared.size();
+		return (id <= size) ? shared.get(id) : other.get(id - size);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -9,6 +9,7 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.zip.CheckedInputStream;
 
@@ -52,4 +53,14 @@ class HDTGlobal extends HDTPart {
 			checkCRC(cis, is, 2);
 		}
 	}
+
+	/**
+	 * Write this part to the output stream
+	 *
+	 * @param os output stream
+	 * @throws IOException
+	 */
+	protected void write(OutputStream os) throws IOException {
+		writeControlInfo(os, HDTPart.Type.GLOBAL, GLOBAL_FORMAT, properties);
+	}
 }
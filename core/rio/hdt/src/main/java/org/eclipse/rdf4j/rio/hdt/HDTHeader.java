@@ -9,7 +9,9 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.zip.CheckedInputStream;
 
 import org.eclipse.rdf4j.common.io.UncloseableInputStream;
@@ -64,6 +66,22 @@ class HDTHeader extends HDTPart {
 		return headerData;
 	}
 
+	/**
+	 * Write this part, followed by the header data with metadata in NTriples format.
+	 *
+	 * @param os         output stream
+	 * @param headerData header data
+	 * @throws IOException
+	 */
+	protected void write(OutputStream os, byte[] headerData) throws IOException {
+		this.headerData = headerData;
+		properties = new HashMap<>();
+		properties.put(HEADER_LENGTH, Integer.toString(headerData.length));
+
+		writeControlInfo(os, HDTPart.Type.HEADER, HEADER_FORMAT, properties);
+		os.write(headerData);
+	}
+
 	/**
 	 * Parse header data with metadata in NTriples format.
 	 *
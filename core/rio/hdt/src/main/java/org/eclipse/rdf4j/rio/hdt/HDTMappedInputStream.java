@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream reading an HDT file through a file channel.
+ *
+ * The small control parts are read (and checked) as usual, but the large data buffers of the dictionaries and triples
+ * are memory-mapped by {@link HDTPart#readData(InputStream, int)}, so that they are only read when they are accessed.
+ *
+ * @see HDTFile
+ */
+class HDTMappedInputStream extends InputStream {
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+	// position in the file of the next byte to read, the buffer starts at this position
+	private long pos;
+
+	/**
+	 * Constructor
+	 *
+	 * @param channel file channel, opened for reading
+	 */
+	protected HDTMappedInputStream(FileChannel channel) {
+		this.channel = channel;
+		buffer.flip();
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!buffer.hasRemaining() && fill() <= 0) {
+			return -1;
+		}
+		pos++;
+		return buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (!buffer.hasRemaining() && fill() <= 0) {
+			return -1;
+		}
+		int n = Math.min(len, buffer.remaining());
+		buffer.get(b, off, n);
+		pos += n;
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = Math.max(0, Math.min(n, channel.size() - pos));
+		pos += skipped;
+		buffer.position(buffer.limit());
+		return skipped;
+	}
+
+	/**
+	 * Skip exactly n bytes.
+	 *
+	 * @param n number of bytes
+	 * @throws IOException when the end of the file is reached
+	 */
+	protected void skipFully(long n) throws IOException {
+		if (skip(n) < n) {
+			throw new EOFException("Unexpected end of file at byte " + pos);
+		}
+	}
+
+	/**
+	 * Memory-map the next bytes of the file, and skip them.
+	 *
+	 * @param len number of bytes
+	 * @return read-only byte buffer
+	 * @throws IOException when the end of the file is reached
+	 */
+	protected ByteBuffer map(int len) throws IOException {
+		if (pos + len > channel.size()) {
+			throw new EOFException("Unexpected end of file at byte " + pos + ", expected " + len + " bytes");
+		}
+		ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, pos, len);
+		skipFully(len);
+		return mapped;
+	}
+
+	/**
+	 * Get the position of the next byte to read.
+	 *
+	 * @return position in the file
+	 */
+	protected long getPosition() {
+		return pos;
+	}
+
+	private int fill() throws IOException {
+		buffer.clear();
+		int n = channel.read(buffer, pos);
+		buffer.flip();
+		return n;
+	}
+}
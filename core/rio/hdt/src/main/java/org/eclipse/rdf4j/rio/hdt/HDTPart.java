@@ -9,11 +9,19 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+
+import org.eclipse.rdf4j.common.io.IOUtil;
+import org.eclipse.rdf4j.common.io.UncloseableInputStream;
+import org.eclipse.rdf4j.common.io.UncloseableOutputStream;
 
 /**
  * Helper class for different HDT parts.
@@ -79,6 +87,15 @@ abstract class HDTPart {
 		return properties;
 	}
 
+	/**
+	 * Set properties to be written
+	 *
+	 * @param properties key, value map
+	 */
+	protected void setProperties(Map<String, String> properties) {
+		this.properties = properties;
+	}
+
 	/**
 	 * Constructor
 	 *
@@ -182,6 +199,151 @@ abstract class HDTPart {
 		throw new IOException("No null byte found in buffer starting at byte " + start);
 	}
 
+	/**
+	 * Get the first position of the NULL byte within a byte buffer
+	 *
+	 * @param b     byte buffer
+	 * @param start position to start from
+	 * @return position of first NULL byte
+	 */
+	protected static int countToNull(ByteBuffer b, int start) throws IOException {
+		for (int i = start; i < b.limit(); i++) {
+			if (b.get(i) == 0b00) {
+				return i;
+			}
+		}
+		throw new IOException("No null byte found in buffer starting at byte " + start);
+	}
+
+	/**
+	 * Read a data buffer, followed by the 32-bit CRC calculated over this data.
+	 *
+	 * When reading from a memory-mapped file, the data is not copied but mapped, and the CRC is not verified, so that
+	 * the data is only read when it is accessed.
+	 *
+	 * @param is  input stream
+	 * @param len number of bytes of the data
+	 * @return byte buffer
+	 * @throws IOException
+	 */
+	protected static ByteBuffer readData(InputStream is, int len) throws IOException {
+		if (is instanceof HDTMappedInputStream) {
+			HDTMappedInputStream mis = (HDTMappedInputStream) is;
+			ByteBuffer buffer = mis.map(len);
+			mis.skipFully(4);
+			return buffer;
+		}
+
+		byte[] buffer = new byte[len];
+		// don't close CheckedInputStream, as it will close the underlying inputstream
+		try (UncloseableInputStream uis = new UncloseableInputStream(is);
+				CheckedInputStream cis = new CheckedInputStream(uis, new CRC32())) {
+			if (IOUtil.readBytes(cis, buffer) < len) {
+				throw new IOException("Unexpected end of data, expected " + len + " bytes");
+			}
+			checkCRC(cis, is, 4);
+		}
+		return ByteBuffer.wrap(buffer);
+	}
+
+	/**
+	 * Write a data buffer, followed by the 32-bit CRC calculated over this data.
+	 *
+	 * @param os   output stream
+	 * @param data data
+	 * @throws IOException
+	 */
+	protected static void writeData(OutputStream os, byte[] data) throws IOException {
+		CRC32 crc32 = new CRC32();
+		crc32.update(data, 0, data.length);
+		os.write(data);
+		writeCRC(crc32, os, 4);
+	}
+
+	/**
+	 * Write the control information of a part: <code>$HDT</code>, the byte indicating the type, the format, the
+	 * properties and the 16-bit CRC calculated over all of these.
+	 *
+	 * @param os     output stream
+	 * @param ctype  control type
+	 * @param format format
+	 * @param props  key, value map
+	 * @throws IOException
+	 */
+	protected static void writeControlInfo(OutputStream os, HDTPart.Type ctype, byte[] format,
+			Map<String, String> props) throws IOException {
+		// don't close CheckedOutputStream, as it will close the underlying outputstream
+		try (UncloseableOutputStream uos = new UncloseableOutputStream(os);
+				CheckedOutputStream cos = new CheckedOutputStream(uos, new CRC16())) {
+			writeControl(cos, ctype);
+			writeFormat(cos, format);
+			writeProperties(cos, props);
+
+			writeCRC(cos, os, 2);
+		}
+	}
+
+	/**
+	 * Write <code>$HDT</code> and the byte indicating the type
+	 *
+	 * @param os    output stream
+	 * @param ctype control type
+	 * @throws IOException
+	 */
+	protected static void writeControl(OutputStream os, HDTPart.Type ctype) throws IOException {
+		os.write(COOKIE);
+		os.write(ctype.getValue());
+	}
+
+	/**
+	 * Write <code>null</code> terminated format string.
+	 *
+	 * @param os     output stream
+	 * @param format format
+	 * @throws IOException
+	 */
+	protected static void writeFormat(OutputStream os, byte[] format) throws IOException {
+		os.write(format);
+		os.write(0b00);
+	}
+
+	/**
+	 * Write the properties as a <code>null</code> terminated <code>key=value;</code> string.
+	 *
+	 * @param os    output stream
+	 * @param props key, value map
+	 * @throws IOException
+	 */
+	protected static void writeProperties(OutputStream os, Map<String, String> props) throws IOException {
+		StringBuilder str = new StringBuilder();
+		for (Map.Entry<String, String> prop : props.entrySet()) {
+			str.append(prop.getKey()).append('=').append(prop.getValue()).append(';');
+		}
+		os.write(str.toString().getBytes(StandardCharsets.US_ASCII));
+		os.write(0b00);
+	}
+
+	/**
+	 * Write the calculated checksum, little-endian.
+	 *
+	 * @param cos checked output stream
+	 * @param os  (unchecked) output stream
+	 * @param len number of bytes of the checksum
+	 * @throws IOException
+	 */
+	protected static void writeCRC(CheckedOutputStream cos, OutputStream os, int len) throws IOException {
+		cos.flush();
+		writeCRC(cos.getChecksum(), os, len);
+	}
+
+	private static void writeCRC(Checksum checksum, OutputStream os, int len) throws IOException {
+		long calc = checksum.getValue();
+		for (int i = 0; i < len; i++) {
+			os.write((int) (calc & 0xFF));
+			calc >>>= 8;
+		}
+	}
+
 	/**
 	 * Get the properties from the input stream, reading at most BUFLEN bytes. The properties are encoded as a
 	 * <code>key=value;</code> string and must be <code>null</code> terminated.
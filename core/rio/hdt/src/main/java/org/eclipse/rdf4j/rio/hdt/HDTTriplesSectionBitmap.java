@@ -9,6 +9,10 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 /**
  * HDT Triples section.
@@ -50,6 +54,151 @@ class HDTTriplesSectionBitmap extends HDTTriplesSection {
 	private int posY = 0;
 	private int posZ = 0;
 
+	/**
+	 * Constructor
+	 */
+	protected HDTTriplesSectionBitmap() {
+		super();
+	}
+
+	/**
+	 * Constructor, encoding triples
+	 *
+	 * @param triples subject, predicate and object IDs of the triples, sorted in SPO order and without duplicates. Each
+	 *                subject ID up to the highest subject ID must be used.
+	 * @param count   number of triples
+	 */
+	protected HDTTriplesSectionBitmap(int[] triples, int count) {
+		byte[] bitsY = new byte[(count + 7) / 8];
+		byte[] bitsZ = new byte[(count + 7) / 8];
+		int[] valuesY = new int[count];
+		int[] valuesZ = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			int s = triples[i * 3];
+			int p = triples[i * 3 + 1];
+			valuesZ[i] = triples[i * 3 + 2];
+
+			boolean lastOfSubject = (i == count - 1) || triples[(i + 1) * 3] != s;
+			boolean lastOfPair = lastOfSubject || triples[(i + 1) * 3 + 1] != p;
+			if (lastOfPair) {
+				bitsZ[i / 8] |= 1 << (i % 8);
+				valuesY[sizeY] = p;
+				if (lastOfSubject) {
+					bitsY[sizeY / 8] |= 1 << (sizeY % 8);
+				}
+				sizeY++;
+			}
+		}
+		sizeZ = count;
+
+		bitmapY = new HDTBitmap(sizeY, bitsY);
+		bitmapZ = new HDTBitmap(sizeZ, bitsZ);
+		arrY = new HDTArrayLog64(Arrays.copyOf(valuesY, sizeY));
+		arrZ = new HDTArrayLog64(valuesZ);
+	}
+
+	/**
+	 * Get the number of triples
+	 *
+	 * @return positive integer value
+	 */
+	protected int size() {
+		return sizeZ;
+	}
+
+	/**
+	 * Search the triples matching a pattern. This iterator is independent of the position of this section, and multiple
+	 * searches can be done concurrently.
+	 *
+	 * @param s subject ID, or 0 for any subject
+	 * @param p predicate ID, or 0 for any predicate
+	 * @param o object ID, or 0 for any object
+	 * @return iterator of subject, predicate and object IDs
+	 */
+	protected Iterator<int[]> search(int s, int p, int o) {
+		if (s == 0) {
+			// no index on predicates and objects, so scan all triples
+			return new Search(1, 0, 0, sizeZ - 1, p, o);
+		}
+		if (s > bitmapY.countOnes()) {
+			return new Search(s, 0, 0, -1, p, o);
+		}
+
+		int startY = (s == 1) ? 0 : bitmapY.select1(s - 1) + 1;
+		int endY = bitmapY.select1(s);
+		if (p != 0) {
+			// predicates of a subject are sorted
+			int y = startY;
+			while (y <= endY && arrY.get(y) < p) {
+				y++;
+			}
+			if (y > endY || arrY.get(y) != p) {
+				return new Search(s, 0, 0, -1, p, o);
+			}
+			startY = y;
+			endY = y;
+		}
+		int startZ = (startY == 0) ? 0 : bitmapZ.select1(startY) + 1;
+		int endZ = bitmapZ.select1(endY + 1);
+		return new Search(s, startY, startZ, endZ, p, o);
+	}
+
+	/**
+	 * Iterator over a range of triples, filtering on predicate and object
+	 */
+	private class Search implements Iterator<int[]> {
+		private final int endZ;
+		private final int p;
+		private final int o;
+
+		private int x;
+		private int y;
+		private int z;
+		private int[] next;
+
+		Search(int x, int y, int z, int endZ, int p, int o) {
+			this.x = x;
+			this.y = y;
+			this.z = z;
+			this.endZ = endZ;
+			this.p = p;
+			this.o = o;
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && z <= endZ) {
+				int valZ = arrZ.get(z);
+				int valY = arrY.get(y);
+				int valX = x;
+
+				if (bitmapZ.get(z) == 1) {
+					if (bitmapY.get(y) == 1) {
+						x++;
+					}
+					y++;
+				}
+				z++;
+
+				if ((p == 0 || p == valY) && (o == 0 || o == valZ)) {
+					next = new int[] { valX, valY, valZ };
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public int[] next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			int[] triple = next;
+			next = null;
+			return triple;
+		}
+	}
+
 	@Override
 	public boolean hasNext() {
 		// we only need to check if we've reach the end of the "lowest" level
@@ -96,4 +245,17 @@ class HDTTriplesSectionBitmap extends HDTTriplesSection {
 		arrZ = HDTArrayFactory.parse(is);
 		arrZ.parse(is);
 	}
+
+	/**
+	 * Write this section to the output stream
+	 *
+	 * @param os output stream
+	 * @throws IOException
+	 */
+	protected void write(OutputStream os) throws IOException {
+		bitmapY.write(os);
+		bitmapZ.write(os);
+		arrY.write(os);
+		arrZ.write(os);
+	}
 }
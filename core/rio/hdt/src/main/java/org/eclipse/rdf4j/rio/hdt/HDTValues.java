@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.util.Literals;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+
+/**
+ * Conversion between RDF values and the strings stored in the HDT dictionaries.
+ *
+ * IRIs are stored as is, blank nodes are prefixed with <code>_:</code> and literals are stored in N-Triples syntax,
+ * without escaping the label.
+ */
+class HDTValues {
+	private final static byte[] BNODE_PREFIX = "_:".getBytes(StandardCharsets.US_ASCII);
+
+	private HDTValues() {
+	}
+
+	/**
+	 * Encode an RDF value as HDT string
+	 *
+	 * @param v IRI, blank node or literal
+	 * @return byte array
+	 */
+	protected static byte[] encode(Value v) {
+		String str;
+		if (v instanceof IRI) {
+			str = v.stringValue();
+		} else if (v instanceof BNode) {
+			str = "_:" + ((BNode) v).getID();
+		} else if (v instanceof Literal) {
+			Literal l = (Literal) v;
+			StringBuilder sb = new StringBuilder(l.getLabel().length() + 2);
+			sb.append('"').append(l.getLabel()).append('"');
+			if (Literals.isLanguageLiteral(l)) {
+				sb.append('@').append(l.getLanguage().get());
+			} else if (!XSD.STRING.equals(l.getDatatype())) {
+				sb.append("^^<").append(l.getDatatype().stringValue()).append('>');
+			}
+			str = sb.toString();
+		} else {
+			throw new IllegalArgumentException("Value can not be stored in HDT: " + v);
+		}
+		return str.getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Check if the string is a blank node
+	 *
+	 * @param b byte buffer
+	 * @return true if blank node
+	 */
+	private static boolean isBNodeID(byte[] b) {
+		// HDT-It generates "genid" for blank nodes in RDF/XML
+		return (b[0] == '_' || (b.length > 5 && b[0] == 'g' && b[1] == 'e'));
+	}
+
+	/**
+	 * Create blank node, removing the <code>_:</code> prefix if present
+	 *
+	 * @param vf value factory
+	 * @param b  byte buffer
+	 * @return blank node
+	 */
+	private static BNode createBNode(ValueFactory vf, byte[] b) {
+		boolean prefixed = b.length > BNODE_PREFIX.length && b[0] == BNODE_PREFIX[0] && b[1] == BNODE_PREFIX[1];
+		return prefixed
+				? vf.createBNode(new String(b, 2, b.length - 2, StandardCharsets.UTF_8))
+				: vf.createBNode(new String(b, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Create subject IRI or blank node
+	 *
+	 * @param vf value factory
+	 * @param b  byte buffer
+	 * @return IRI or blank node
+	 */
+	protected static Resource createSubject(ValueFactory vf, byte[] b) {
+		return isBNodeID(b) ? createBNode(vf, b) : vf.createIRI(new String(b, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Create predicate IRI
+	 *
+	 * @param vf value factory
+	 * @param b  byte buffer
+	 * @return IRI
+	 */
+	protected static IRI createPredicate(ValueFactory vf, byte[] b) {
+		return vf.createIRI(new String(b, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Create object (typed) literal, IRI or blank node
+	 *
+	 * @param vf value factory
+	 * @param b  byte buffer
+	 * @return literal, IRI or blank node
+	 */
+	protected static Value createObject(ValueFactory vf, byte[] b) {
+		if (b[0] == '"') {
+			int i = b.length - 1;
+			for (; i > 1 && b[i] != '"'; i--) {
+				if (b[i] == '@') {
+					String lang = new String(b, i + 1, b.length - i - 1, StandardCharsets.US_ASCII);
+					return vf.createLiteral(new String(b, 1, i - 2, StandardCharsets.UTF_8), lang);
+				} else if (b[i] == '^') {
+					IRI datatype = vf.createIRI(new String(b, i + 2, b.length - i - 3, StandardCharsets.US_ASCII));
+					return vf.createLiteral(new String(b, 1, i - 3, StandardCharsets.UTF_8), datatype);
+				}
+			}
+			return vf.createLiteral(new String(b, 1, i - 1, StandardCharsets.UTF_8));
+		}
+		return createSubject(vf, b);
+	}
+}
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.rdf4j.common.io.ByteSink;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.VOID;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFWriter;
+
+/**
+ * RDF writer for HDT v1.0 files, using a four-section dictionary with plain front coding and bitmap triples in SPO
+ * order, which can be read by the {@link HDTParser} and by HDT-It.
+ *
+ * The dictionaries and triples can only be written when all statements are known, so the terms and (numeric) triples
+ * are kept in memory until {@link #endRDF()} is called. Contexts and namespaces are ignored.
+ *
+ * @see HDTParser
+ */
+public class HDTWriter extends AbstractRDFWriter implements RDFWriter, ByteSink {
+	private final static String SOFTWARE = "RDF4J";
+
+	// roles of a subject / object term
+	private final static byte SUBJECT = 1;
+	private final static byte OBJECT = 2;
+
+	private final OutputStream out;
+	private final String baseURI;
+
+	// subject and object terms, by encoded value
+	private final Map<String, Integer> terms = new HashMap<>();
+	private final List<byte[]> termStrings = new ArrayList<>();
+	private byte[] roles = new byte[1024];
+
+	private final Map<String, Integer> predicates = new HashMap<>();
+	private final List<byte[]> predicateStrings = new ArrayList<>();
+
+	// subject, predicate and object of each triple, using temporary IDs
+	private int[] triples = new int[3 * 1024];
+	private int count = 0;
+
+	/**
+	 * Creates a new HDTWriter
+	 *
+	 * @param out output stream
+	 */
+	public HDTWriter(OutputStream out) {
+		this(out, null);
+	}
+
+	/**
+	 * Creates a new HDTWriter
+	 *
+	 * @param out     output stream
+	 * @param baseURI base URI, stored in the global part
+	 */
+	public HDTWriter(OutputStream out, String baseURI) {
+		this.out = new BufferedOutputStream(out);
+		this.baseURI = baseURI;
+	}
+
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.HDT;
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return out;
+	}
+
+	@Override
+	public void handleComment(String comment) throws RDFHandlerException {
+		checkWritingStarted();
+	}
+
+	@Override
+	protected void consumeStatement(Statement st) {
+		int s = getTermId(st.getSubject(), SUBJECT);
+		int p = getPredicateId(st);
+		int o = getTermId(st.getObject(), OBJECT);
+
+		if (count * 3 == triples.length) {
+			triples = Arrays.copyOf(triples, triples.length * 2);
+		}
+		triples[count * 3] = s;
+		triples[count * 3 + 1] = p;
+		triples[count * 3 + 2] = o;
+		count++;
+	}
+
+	@Override
+	public void endRDF() throws RDFHandlerException {
+		checkWritingStarted();
+		try {
+			write();
+			out.flush();
+		} catch (IOException e) {
+			throw new RDFHandlerException(e);
+		}
+	}
+
+	/**
+	 * Get the temporary ID of a subject or object, and register its role
+	 *
+	 * @param v    value
+	 * @param role subject or object
+	 * @return temporary ID
+	 */
+	private int getTermId(Value v, byte role) {
+		byte[] b = encode(v);
+		String key = new String(b, StandardCharsets.UTF_8);
+		Integer id = terms.get(key);
+		if (id == null) {
+			id = termStrings.size();
+			terms.put(key, id);
+			termStrings.add(b);
+			if (id == roles.length) {
+				roles = Arrays.copyOf(roles, roles.length * 2);
+			}
+		}
+		roles[id] |= role;
+		return id;
+	}
+
+	/**
+	 * Get the temporary ID of a predicate
+	 *
+	 * @param st statement
+	 * @return temporary ID
+	 */
+	private int getPredicateId(Statement st) {
+		byte[] b = encode(st.getPredicate());
+		return predicates.computeIfAbsent(new String(b, StandardCharsets.UTF_8), k -> {
+			predicateStrings.add(b);
+			return predicateStrings.size() - 1;
+		});
+	}
+
+	private static byte[] encode(Value v) {
+		try {
+			return HDTValues.encode(v);
+		} catch (IllegalArgumentException e) {
+			throw new RDFHandlerException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Write the HDT file: sort the dictionary sections, replace the temporary IDs by the HDT IDs and sort the triples.
+	 *
+	 * @throws IOException
+	 */
+	private void write() throws IOException {
+		List<Integer> shared = new ArrayList<>();
+		List<Integer> subjects = new ArrayList<>();
+		List<Integer> objects = new ArrayList<>();
+		for (int i = 0; i < termStrings.size(); i++) {
+			if (roles[i] == (SUBJECT | OBJECT)) {
+				shared.add(i);
+			} else if (roles[i] == SUBJECT) {
+				subjects.add(i);
+			} else {
+				objects.add(i);
+			}
+		}
+
+		// HDT IDs start at 1, subject-only and object-only IDs follow the shared IDs
+		int[] termIds = new int[termStrings.size()];
+		List<byte[]> sharedSection = sort(shared, termStrings, termIds, 1);
+		List<byte[]> subjectSection = sort(subjects, termStrings, termIds, shared.size() + 1);
+		List<byte[]> objectSection = sort(objects, termStrings, termIds, shared.size() + 1);
+
+		List<Integer> preds = new ArrayList<>();
+		for (int i = 0; i < predicateStrings.size(); i++) {
+			preds.add(i);
+		}
+		int[] predicateIds = new int[predicateStrings.size()];
+		List<byte[]> predicateSection = sort(preds, predicateStrings, predicateIds, 1);
+
+		int nrSubjects = shared.size() + subjects.size();
+		int nrTriples = sortTriples(termIds, predicateIds, nrSubjects);
+
+		writeGlobal();
+		writeHeader(nrTriples, predicateSection.size(), nrSubjects, shared.size() + objects.size());
+		writeDictionary(sharedSection, subjectSection, predicateSection, objectSection);
+
+		HDTTriples part = new HDTTriples();
+		Map<String, String> props = new LinkedHashMap<>();
+		props.put(HDTTriples.ORDER, Integer.toString(HDTTriples.Order.SPO.getValue()));
+		props.put(HDTTriples.NUM, Integer.toString(nrTriples));
+		part.setProperties(props);
+		part.write(out);
+
+		new HDTTriplesSectionBitmap(triples, nrTriples).write(out);
+	}
+
+	/**
+	 * Sort the strings of a dictionary section by unsigned byte value, and assign the HDT IDs
+	 *
+	 * @param ids     temporary IDs of the strings in this section
+	 * @param strings strings, by temporary ID
+	 * @param hdtIds  HDT IDs, by temporary ID
+	 * @param first   HDT ID of the first string of this section
+	 * @return sorted strings
+	 */
+	private static List<byte[]> sort(List<Integer> ids, List<byte[]> strings, int[] hdtIds, int first) {
+		ids.sort((a, b) -> HDTDictionarySectionPFC.compare(strings.get(a), strings.get(b)));
+
+		List<byte[]> sorted = new ArrayList<>(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			int id = ids.get(i);
+			hdtIds[id] = first + i;
+			sorted.add(strings.get(id));
+		}
+		return sorted;
+	}
+
+	/**
+	 * Replace the temporary IDs of the triples by HDT IDs, sort the triples in SPO order and remove duplicates.
+	 *
+	 * @param termIds      HDT IDs of subjects and objects, by temporary ID
+	 * @param predicateIds HDT IDs of predicates, by temporary ID
+	 * @param nrSubjects   number of subjects
+	 * @return number of triples
+	 */
+	private int sortTriples(int[] termIds, int[] predicateIds, int nrSubjects) {
+		// counting sort on subject, sorting predicate and object as a single key within each subject
+		int[] starts = new int[nrSubjects + 2];
+		for (int i = 0; i < count; i++) {
+			starts[termIds[triples[i * 3]] + 1]++;
+		}
+		for (int s = 1; s < starts.length; s++) {
+			starts[s] += starts[s - 1];
+		}
+
+		long[] keys = new long[count];
+		int[] pos = Arrays.copyOf(starts, starts.length);
+		for (int i = 0; i < count; i++) {
+			int s = termIds[triples[i * 3]];
+			long p = predicateIds[triples[i * 3 + 1]];
+			long o = termIds[triples[i * 3 + 2]];
+			keys[pos[s]++] = (p << 32) | o;
+		}
+
+		int[] sorted = new int[count * 3];
+		int n = 0;
+		for (int s = 1; s <= nrSubjects; s++) {
+			Arrays.sort(keys, starts[s], starts[s + 1]);
+			for (int i = starts[s]; i < starts[s + 1]; i++) {
+				if (i > starts[s] && keys[i] == keys[i - 1]) {
+					continue;
+				}
+				sorted[n * 3] = s;
+				sorted[n * 3 + 1] = (int) (keys[i] >>> 32);
+				sorted[n * 3 + 2] = (int) keys[i];
+				n++;
+			}
+		}
+		triples = sorted;
+		return n;
+	}
+
+	private void writeGlobal() throws IOException {
+		HDTGlobal global = new HDTGlobal();
+		Map<String, String> props = new LinkedHashMap<>();
+		// properties can not be escaped
+		if (baseURI != null && !baseURI.isEmpty() && baseURI.indexOf(';') < 0 && baseURI.indexOf('=') < 0) {
+			props.put(HDTGlobal.GLOBAL_BASEURI, baseURI);
+		}
+		props.put(HDTGlobal.GLOBAL_SOFTWARE, SOFTWARE);
+		global.setProperties(props);
+		global.write(out);
+	}
+
+	/**
+	 * Write the header, with a minimal VoID description of the dataset
+	 *
+	 * @throws IOException
+	 */
+	private void writeHeader(int nrTriples, int nrPredicates, int nrSubjects, int nrObjects) throws IOException {
+		String dataset = (baseURI != null && !baseURI.isEmpty()) ? "<" + baseURI + ">" : "_:dataset";
+
+		StringBuilder sb = new StringBuilder();
+		appendHeader(sb, dataset, RDF.TYPE.stringValue(), "<" + VOID.DATASET.stringValue() + ">");
+		appendHeader(sb, dataset, VOID.TRIPLES.stringValue(), "\"" + nrTriples + "\"");
+		appendHeader(sb, dataset, VOID.PROPERTIES.stringValue(), "\"" + nrPredicates + "\"");
+		appendHeader(sb, dataset, VOID.DISTINCT_SUBJECTS.stringValue(), "\"" + nrSubjects + "\"");
+		appendHeader(sb, dataset, VOID.DISTINCT_OBJECTS.stringValue(), "\"" + nrObjects + "\"");
+
+		new HDTHeader().write(out, sb.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void appendHeader(StringBuilder sb, String subj, String pred, String obj) {
+		sb.append(subj).append(" <").append(pred).append("> ").append(obj).append(" .\n");
+	}
+
+	private void writeDictionary(List<byte[]> shared, List<byte[]> subjects, List<byte[]> predicates,
+			List<byte[]> objects) throws IOException {
+		long sizeStrings = 0;
+		for (List<byte[]> section : Arrays.asList(shared, subjects, predicates, objects)) {
+			for (byte[] b : section) {
+				sizeStrings += b.length;
+			}
+		}
+
+		HDTDictionary dict = new HDTDictionary();
+		Map<String, String> props = new LinkedHashMap<>();
+		props.put(HDTDictionary.DICT_MAPPING, "1");
+		props.put(HDTDictionary.DICT_SIZE, Long.toString(sizeStrings));
+		props.put(HDTDictionary.DICT_ELEMENTS,
+				Integer.toString(shared.size() + subjects.size() + predicates.size() + objects.size()));
+		dict.setProperties(props);
+		dict.write(out);
+
+		new HDTDictionarySectionPFC("S+O", shared).write(out);
+		new HDTDictionarySectionPFC("S", subjects).write(out);
+		new HDTDictionarySectionPFC("P", predicates).write(out);
+		new HDTDictionarySectionPFC("O", objects).write(out);
+	}
+}
@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import java.io.OutputStream;
+import java.io.Writer;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+import org.eclipse.rdf4j.rio.RDFWriterFactory;
+
+/**
+ * An {@link RDFWriterFactory} for HDT writers.
+ */
+public class HDTWriterFactory implements RDFWriterFactory {
+
+	/**
+	 * Returns {@link RDFFormat#HDT}.
+	 */
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.HDT;
+	}
+
+	/**
+	 * Returns a new instance of {@link HDTWriter}.
+	 */
+	@Override
+	public RDFWriter getWriter(OutputStream out) {
+		return new HDTWriter(out);
+	}
+
+	@Override
+	public RDFWriter getWriter(OutputStream out, String baseURI) {
+		return new HDTWriter(out, baseURI);
+	}
+
+	/**
+	 * throws UnsupportedOperationException
+	 */
+	@Override
+	public RDFWriter getWriter(Writer writer) {
+		throw new UnsupportedOperationException("HDT is binary, text writers not supported.");
+	}
+
+	/**
+	 * throws UnsupportedOperationException
+	 */
+	@Override
+	public RDFWriter getWriter(Writer writer, String baseURI) {
+		throw new UnsupportedOperationException("HDT is binary, text writers not supported.");
+	}
+}
@@ -9,6 +9,8 @@ package org.eclipse.rdf4j.rio.hdt;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 /**
  * Variable byte encoding for numbers.
@@ -92,6 +94,38 @@ public class VByte {
 		return decode(buffer, i);
 	}
 
+	/**
+	 * Decode a maximum of 8 bytes from a byte buffer.
+	 *
+	 * @param b     byte buffer
+	 * @param start starting position
+	 * @return decode value
+	 */
+	public static long decodeFrom(ByteBuffer b, int start) {
+		byte[] buffer = new byte[8];
+
+		int i = 0;
+		do {
+			buffer[i] = b.get(start + i);
+		} while (i < buffer.length && hasNext(buffer[i++]));
+		return decode(buffer, i);
+	}
+
+	/**
+	 * Encode a value to the output stream.
+	 *
+	 * @param os    output stream
+	 * @param value positive numeric value
+	 * @throws IOException
+	 */
+	public static void encode(OutputStream os, long value) throws IOException {
+		while (value > 0x7F) {
+			os.write((int) (value & 0x7F));
+			value >>>= 7;
+		}
+		os.write((int) (value | 0x80));
+	}
+
 	/**
 	 * Calculate the number of bytes needed for encoding a value
 	 *
@@ -99,7 +133,7 @@ public class VByte {
 	 * @return number of bytes
 	 */
 	public static int encodedLength(long value) {
-		if (value < 127) {
+		if (value < 128) {
 			return 1;
 		}
 		if (value < 16_384) {
@@ -111,6 +145,10 @@ public class VByte {
 		if (value < 268_435_456) {
 			return 4;
 		}
-		return 5;
+		int len = 5;
+		for (long v = value >>> 35; v > 0; v >>>= 7) {
+			len++;
+		}
+		return len;
 	}
 }
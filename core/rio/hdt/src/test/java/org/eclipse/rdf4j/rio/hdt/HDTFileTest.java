@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HDTFileTest {
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void searchHDTIt() throws Exception {
+		Model orig;
+		try (InputStream is = HDTFileTest.class.getResourceAsStream("/test-orig.nt")) {
+			orig = Rio.parse(is, "", RDFFormat.NTRIPLES);
+		}
+		Path file = tmp.newFile("test.hdt").toPath();
+		try (InputStream is = HDTFileTest.class.getResourceAsStream("/test.hdt")) {
+			Files.copy(is, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		assertSearch(orig, file);
+	}
+
+	@Test
+	public void searchWritten() throws Exception {
+		Model orig = new LinkedHashModel();
+		for (int i = 0; i < 3000; i++) {
+			IRI s = vf.createIRI("http://example.org/s" + (i % 400));
+			orig.add(s, vf.createIRI("http://example.org/p" + (i % 5)), vf.createIRI("http://example.org/s" + i));
+			orig.add(s, RDF.VALUE, vf.createLiteral("value " + (i % 50)));
+		}
+		Path file = tmp.newFile("written.hdt").toPath();
+		try (OutputStream out = Files.newOutputStream(file)) {
+			Rio.write(orig, out, RDFFormat.HDT);
+		}
+		assertSearch(orig, file);
+	}
+
+	private static void assertSearch(Model orig, Path file) throws Exception {
+		try (HDTFile hdt = HDTFile.open(file, vf)) {
+			assertEquals(orig.size(), hdt.size());
+			assertEquals(orig, search(hdt, null, null, null));
+
+			for (Statement st : orig) {
+				Resource s = st.getSubject();
+				IRI p = st.getPredicate();
+				Value o = st.getObject();
+				assertEquals(orig.filter(s, null, null), search(hdt, s, null, null));
+				assertEquals(orig.filter(s, p, null), search(hdt, s, p, null));
+				assertEquals(orig.filter(s, p, o), search(hdt, s, p, o));
+				assertEquals(orig.filter(s, null, o), search(hdt, s, null, o));
+				assertEquals(orig.filter(null, p, o), search(hdt, null, p, o));
+				assertEquals(orig.filter(null, null, o), search(hdt, null, null, o));
+			}
+			assertEquals(orig.filter(null, RDF.VALUE, null), search(hdt, null, RDF.VALUE, null));
+
+			// unknown values
+			assertFalse(hdt.getStatements(vf.createIRI("http://example.org/unknown"), null, null).hasNext());
+			assertFalse(hdt.getStatements(null, null, vf.createLiteral("unknown")).hasNext());
+		}
+	}
+
+	private static Model search(HDTFile hdt, Resource s, IRI p, Value o) throws Exception {
+		Model m = new LinkedHashModel();
+		for (Iterator<Statement> iter = hdt.getStatements(s, p, o); iter.hasNext();) {
+			m.add(iter.next());
+		}
+		return m;
+	}
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.rio.hdt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.Test;
+
+public class HDTWriterTest {
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void writeSimpleSPO() throws Exception {
+		Model orig;
+		try (InputStream is = HDTWriterTest.class.getResourceAsStream("/test-orig.nt")) {
+			orig = Rio.parse(is, "", RDFFormat.NTRIPLES);
+		}
+		assertEquals("HDT model does not match original", orig, roundTrip(orig));
+	}
+
+	@Test
+	public void writeValues() throws Exception {
+		Model orig = new LinkedHashModel();
+		IRI s = vf.createIRI("http://example.org/s");
+		IRI p = vf.createIRI("http://example.org/p");
+		orig.add(s, p, vf.createLiteral("plain"));
+		orig.add(s, p, vf.createLiteral("label with \"quotes\"", "en"));
+		orig.add(s, p, vf.createLiteral("42", XSD.INT));
+		orig.add(s, p, vf.createBNode("b1"));
+		orig.add(vf.createBNode("b1"), RDF.TYPE, s);
+		orig.add(vf.createBNode("b1"), RDF.TYPE, s);
+
+		assertEquals("HDT model does not match original", orig, roundTrip(orig));
+	}
+
+	@Test
+	public void writeEmpty() throws Exception {
+		Model orig = new LinkedHashModel();
+		assertEquals("HDT model does not match original", orig, roundTrip(orig));
+	}
+
+	@Test
+	public void writeManyBlocks() throws Exception {
+		Model orig = new LinkedHashModel();
+		for (int i = 0; i < 2000; i++) {
+			IRI s = vf.createIRI("http://example.org/s" + (i % 300));
+			orig.add(s, vf.createIRI("http://example.org/p" + (i % 7)), vf.createIRI("http://example.org/s" + i));
+			orig.add(s, RDF.VALUE, vf.createLiteral(i));
+		}
+		assertEquals("HDT model does not match original", orig, roundTrip(orig));
+	}
+
+	private static Model roundTrip(Model model) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Rio.write(model, out, RDFFormat.HDT);
+		return Rio.parse(new ByteArrayInputStream(out.toByteArray()), "", RDFFormat.HDT);
+	}
+}
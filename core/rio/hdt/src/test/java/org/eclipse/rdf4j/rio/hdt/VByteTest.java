@@ -7,10 +7,12 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.rio.hdt;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.junit.Test;
@@ -40,4 +42,22 @@ public class VByteTest {
 			fail(ioe.getMessage());
 		}
 	}
+
+	@Test
+	public void testEncode128() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		VByte.encode(bos, 128);
+		assertArrayEquals("128 not correctly encoded", new byte[] { (byte) 0x00, (byte) 0x81 }, bos.toByteArray());
+		assertEquals("Wrong encoded length", 2, VByte.encodedLength(128));
+	}
+
+	@Test
+	public void testEncodeDecode() throws IOException {
+		for (long l : new long[] { 0, 1, 127, 16383, 16384, Integer.MAX_VALUE, 1L << 40 }) {
+			ByteArrayOutputStream bos = new ByteArrayOutputStream();
+			VByte.encode(bos, l);
+			assertEquals("Wrong encoded length", bos.size(), VByte.encodedLength(l));
+			assertEquals("Not correctly decoded", l, VByte.decode(new ByteArrayInputStream(bos.toByteArray())));
+		}
+	}
 }
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.Statement;
+
+/**
+ * A feed of the changesets that have been committed to a store, in commit order. Each changeset has a sequence number
+ * that is one higher than that of the changeset that was committed before it, so that a consumer can resume the feed
+ * after the last changeset that it has processed.
+ * <p>
+ * The feed is kept in memory and only retains the most recent changesets, up to a total number of statements. A feed
+ * starts empty, with a new {@link #getId() ID}, whenever its store is initialized. Consumers must therefore check that
+ * the position they resume from is still {@link #isAvailable(long) available} and that the ID of the feed has not
+ * changed, and synchronize with the full contents of the store otherwise.
+ */
+public class ChangeFeed {
+
+	private final String id = "urn:uuid:" + UUID.randomUUID();
+
+	private final long capacity;
+
+	private final ArrayDeque<CommittedChangeset> changesets = new ArrayDeque<>();
+
+	/**
+	 * The total number of statements in {@link #changesets}.
+	 */
+	private long retainedStatements;
+
+	private long lastSequenceNumber;
+
+	private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+	/**
+	 * @param capacity the number of statements of the most recent changesets that are retained. The most recent
+	 *                 changeset is always retained, even if it is larger.
+	 */
+	public ChangeFeed(long capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+	}
+
+	/**
+	 * @return an IRI that identifies this feed; the feed of a store that has been restarted has a different ID.
+	 */
+	public String getId() {
+		return id;
+	}
+
+	/**
+	 * @return the sequence number of the last changeset that has been published, or zero if no changes have been
+	 *         committed.
+	 */
+	public synchronized long getLastSequenceNumber() {
+		return lastSequenceNumber;
+	}
+
+	/**
+	 * Checks whether the changesets that follow the specified position can still be retrieved.
+	 *
+	 * @param after the sequence number of the last changeset that the caller has processed, or zero.
+	 * @return <tt>true</tt> if all changesets after the specified position are retained by this feed.
+	 */
+	public synchronized boolean isAvailable(long after) {
+		return after <= lastSequenceNumber && after >= getFirstSequenceNumber() - 1;
+	}
+
+	/**
+	 * Gets the changesets that were committed after the specified position.
+	 *
+	 * @param after the sequence number of the last changeset that the caller has processed, or zero.
+	 * @param limit the maximum number of changesets to return.
+	 * @return the changesets in commit order, which is empty if no changes have been committed after the position.
+	 * @throws IllegalArgumentException if the changesets after the position are not {@link #isAvailable(long)
+	 *                                  available}.
+	 */
+	public synchronized List<CommittedChangeset> getChanges(long after, int limit) {
+		if (!isAvailable(after)) {
+			throw new IllegalArgumentException("Changes after " + after + " are not available in change feed " + id);
+		}
+		if (after == lastSequenceNumber || limit <= 0) {
+			return Collections.emptyList();
+		}
+		List<CommittedChangeset> result = new ArrayList<>((int) Math.min(limit, lastSequenceNumber - after));
+		Iterator<CommittedChangeset> iter = changesets.iterator();
+		for (long skip = after - getFirstSequenceNumber() + 1; skip > 0; skip--) {
+			iter.next();
+		}
+		while (iter.hasNext() && result.size() < limit) {
+			result.add(iter.next());
+		}
+		return result;
+	}
+
+	/**
+	 * Gets the changesets that were committed after the specified position, waiting for a commit if there are none.
+	 *
+	 * @param after   the sequence number of the last changeset that the caller has processed, or zero.
+	 * @param limit   the maximum number of changesets to return.
+	 * @param timeout the maximum time to wait.
+	 * @param unit    the unit of the timeout.
+	 * @return the changesets in commit order, which is empty if nothing was committed before the timeout expired.
+	 * @throws IllegalArgumentException if the changesets after the position are not {@link #isAvailable(long)
+	 *                                  available}.
+	 * @throws InterruptedException     if the current thread was interrupted while waiting.
+	 */
+	public synchronized List<CommittedChangeset> awaitChanges(long after, int limit, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		long remaining = unit.toNanos(timeout);
+		while (after == lastSequenceNumber && remaining > 0) {
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+			remaining = deadline - System.nanoTime();
+		}
+		return getChanges(after, limit);
+	}
+
+	/**
+	 * Registers a listener that is called whenever a changeset has been published, so that a consumer can wait for
+	 * changes without blocking a thread. The listener is called by the committing thread and must return quickly.
+	 */
+	public void addListener(Runnable listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener that was registered with {@link #addListener(Runnable)}.
+	 */
+	public void removeListener(Runnable listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Publishes the changes of a commit as the next changeset of this feed.
+	 */
+	synchronized void publish(List<Statement> added, List<Statement> removed) {
+		CommittedChangeset changeset = new CommittedChangeset(++lastSequenceNumber, System.currentTimeMillis(),
+				added, removed);
+		changesets.addLast(changeset);
+		retainedStatements += changeset.size();
+		while (retainedStatements > capacity && changesets.size() > 1) {
+			retainedStatements -= changesets.removeFirst().size();
+		}
+		notifyAll();
+		for (Runnable listener : listeners) {
+			listener.run();
+		}
+	}
+
+	private long getFirstSequenceNumber() {
+		return changesets.isEmpty() ? lastSequenceNumber + 1 : changesets.getFirst().getSequenceNumber();
+	}
+}
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.Optional;
+
+/**
+ * A Sail that can publish the changes that are committed to it through a {@link ChangeFeed}.
+ */
+public interface ChangeFeedSail {
+
+	/**
+	 * Gets the feed of the changes that have been committed to this Sail since it was initialized.
+	 *
+	 * @return the change feed, or an empty optional if the change feed is not enabled.
+	 * @throws IllegalStateException if the Sail has not been initialized.
+	 */
+	Optional<ChangeFeed> getChangeFeed();
+}
@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.sail.SailException;
+
+/**
+ * A {@link SailStore} wrapper that publishes the explicit statements that are added and removed by each flushed
+ * {@link SailSink} to a {@link ChangeFeed}. Changes of inferred statements are not published.
+ * <p>
+ * Sinks are flushed to the backing store and published while holding the monitor of the feed, so that the sequence
+ * numbers of the feed follow the order in which changes became visible in the store. Statements that are cleared are
+ * listed by reading the backing store before they are removed, and statements that are approved are only published if
+ * the backing store did not already contain them.
+ */
+public class ChangeFeedSailStore implements SailStore {
+
+	private final SailStore backingStore;
+
+	private final ChangeFeed feed;
+
+	/**
+	 * @param backingStore the store to which the changes are applied.
+	 * @param feed         the feed to which the changes to explicit statements are published.
+	 */
+	public ChangeFeedSailStore(SailStore backingStore, ChangeFeed feed) {
+		this.backingStore = backingStore;
+		this.feed = feed;
+	}
+
+	/**
+	 * @return the feed to which changes are published.
+	 */
+	public ChangeFeed getChangeFeed() {
+		return feed;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return backingStore.getValueFactory();
+	}
+
+	@Override
+	public EvaluationStatistics getEvaluationStatistics() {
+		return backingStore.getEvaluationStatistics();
+	}
+
+	@Override
+	public SailSource getExplicitSailSource() {
+		return new ChangeFeedSailSource(backingStore.getExplicitSailSource());
+	}
+
+	@Override
+	public SailSource getInferredSailSource() {
+		return backingStore.getInferredSailSource();
+	}
+
+	@Override
+	public void close() throws SailException {
+		backingStore.close();
+	}
+
+	private final class ChangeFeedSailSource extends BackingSailSource {
+
+		private final SailSource backingSource;
+
+		public ChangeFeedSailSource(SailSource backingSource) {
+			this.backingSource = backingSource;
+		}
+
+		@Override
+		public SailSink sink(IsolationLevel level) throws SailException {
+			return new ChangeFeedSailSink(backingSource, backingSource.sink(level));
+		}
+
+		@Override
+		public SailDataset dataset(IsolationLevel level) throws SailException {
+			return backingSource.dataset(level);
+		}
+	}
+
+	private final class ChangeFeedSailSink implements SailSink {
+
+		private final SailSource backingSource;
+
+		private final SailSink backingSink;
+
+		/**
+		 * The statements that are added by this sink, which are removed from {@link #removed} when they are added
+		 * again, and the other way around.
+		 */
+		private final Set<Statement> added = new LinkedHashSet<>();
+
+		private final Set<Statement> removed = new LinkedHashSet<>();
+
+		/**
+		 * The state of the backing store before the changes of this sink, opened when the first statement is approved.
+		 */
+		private SailDataset before;
+
+		public ChangeFeedSailSink(SailSource backingSource, SailSink backingSink) {
+			this.backingSource = backingSource;
+			this.backingSink = backingSink;
+		}
+
+		@Override
+		public void prepare() throws SailException {
+			backingSink.prepare();
+		}
+
+		@Override
+		public synchronized void flush() throws SailException {
+			synchronized (feed) {
+				backingSink.flush();
+				if (!added.isEmpty() || !removed.isEmpty()) {
+					feed.publish(new ArrayList<>(added), new ArrayList<>(removed));
+				}
+			}
+			added.clear();
+			removed.clear();
+			closeDataset();
+		}
+
+		@Override
+		public synchronized void close() throws SailException {
+			added.clear();
+			removed.clear();
+			try {
+				closeDataset();
+			} finally {
+				backingSink.close();
+			}
+		}
+
+		@Override
+		public void setNamespace(String prefix, String name) throws SailException {
+			backingSink.setNamespace(prefix, name);
+		}
+
+		@Override
+		public void removeNamespace(String prefix) throws SailException {
+			backingSink.removeNamespace(prefix);
+		}
+
+		@Override
+		public void clearNamespaces() throws SailException {
+			backingSink.clearNamespaces();
+		}
+
+		@Override
+		public synchronized void clear(Resource... contexts) throws SailException {
+			List<Resource> contextList = Arrays.asList(contexts);
+			added.removeIf(st -> contexts.length == 0 || contextList.contains(st.getContext()));
+			try (SailDataset dataset = backingSource.dataset(IsolationLevels.NONE);
+					CloseableIteration<? extends Statement, SailException> iter = dataset.getStatements(null, null,
+							null, contexts)) {
+				while (iter.hasNext()) {
+					removed.add(iter.next());
+				}
+			}
+			backingSink.clear(contexts);
+		}
+
+		@Override
+		public void observe(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+			backingSink.observe(subj, pred, obj, contexts);
+		}
+
+		@Override
+		public synchronized void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws SailException {
+			backingSink.approve(subj, pred, obj, ctx);
+			Statement st = ctx == null ? getValueFactory().createStatement(subj, pred, obj)
+					: getValueFactory().createStatement(subj, pred, obj, ctx);
+			approved(st);
+		}
+
+		@Override
+		public synchronized void approve(Statement statement) throws SailException {
+			backingSink.approve(statement);
+			approved(statement);
+		}
+
+		@Override
+		public synchronized void deprecate(Statement statement) throws SailException {
+			backingSink.deprecate(statement);
+			// a statement that was added by this sink did not exist before
+			if (!added.remove(statement)) {
+				removed.add(statement);
+			}
+		}
+
+		/**
+		 * Removals by pattern are not supported, so that the removed statements are deprecated one by one and can be
+		 * published.
+		 */
+		@Override
+		public boolean supportsDeprecateByQuery() {
+			return false;
+		}
+
+		private void approved(Statement st) throws SailException {
+			// a statement that was removed by this sink, or that already existed, is not new
+			if (!removed.remove(st) && !existedBefore(st)) {
+				added.add(st);
+			}
+		}
+
+		private boolean existedBefore(Statement st) throws SailException {
+			if (before == null) {
+				before = backingSource.dataset(IsolationLevels.NONE);
+			}
+			try (CloseableIteration<? extends Statement, SailException> iter = before.getStatements(st.getSubject(),
+					st.getPredicate(), st.getObject(), st.getContext())) {
+				return iter.hasNext();
+			}
+		}
+
+		private void closeDataset() throws SailException {
+			SailDataset toClose = before;
+			before = null;
+			if (toClose != null) {
+				toClose.close();
+			}
+		}
+	}
+}
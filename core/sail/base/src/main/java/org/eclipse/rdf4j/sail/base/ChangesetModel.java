@@ -0,0 +1,573 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.AbstractModel;
+import org.eclipse.rdf4j.model.impl.FilteredModel;
+import org.eclipse.rdf4j.model.impl.SimpleNamespace;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+/**
+ * A {@link Model} that is tuned for the approved and deprecated statements of a {@link Changeset}, which can grow to
+ * millions of statements in a single transaction and are matched against statement patterns for every read of the
+ * transaction.
+ * <p>
+ * Statements are kept as they are added, in an array in insertion order, and are looked up in an open addressing hash
+ * table of array positions, so that the model only needs a few bytes per statement on top of the statements themselves.
+ * Removed statements leave a gap in the array until the array is compacted. Per-component indexes, which map each
+ * subject, predicate, object or context to the positions of the statements that use it, are only built when the model
+ * is first matched against a pattern that binds that component.
+ * <p>
+ * This model is not thread-safe; the {@link Changeset} synchronizes all access to its models.
+ */
+class ChangesetModel extends AbstractModel {
+
+	private static final long serialVersionUID = 4295812587317003265L;
+
+	private static final Resource[] NULL_CTX = new Resource[] { null };
+
+	private static final int SUBJECT = 0;
+
+	private static final int PREDICATE = 1;
+
+	private static final int OBJECT = 2;
+
+	private static final int CONTEXT = 3;
+
+	/**
+	 * Models with at most this many array positions are matched by scanning all statements, without building an index.
+	 */
+	private static final int INDEX_THRESHOLD = 16;
+
+	/** Marks a table slot of a removed statement, so that probing continues past it. */
+	private static final int REMOVED = -1;
+
+	private final Set<Namespace> namespaces = new LinkedHashSet<>();
+
+	/** The statements in insertion order; positions of removed statements are <tt>null</tt>. */
+	private Statement[] statements;
+
+	/** The number of used positions in {@link #statements}. */
+	private int end;
+
+	private int size;
+
+	/**
+	 * Open addressing hash table with linear probing; each slot holds the position of a statement plus one, zero for
+	 * empty slots or {@link #REMOVED}.
+	 */
+	private int[] table;
+
+	/** The number of slots of the table that are not empty. */
+	private int usedSlots;
+
+	/** The lazily built index of each component, which may list positions of statements that have been removed. */
+	@SuppressWarnings("unchecked")
+	private final Map<Value, Positions>[] indexes = new Map[4];
+
+	/** Incremented whenever positions change, so that iterators can detect it. */
+	private int modCount;
+
+	public ChangesetModel() {
+		reset();
+	}
+
+	@Override
+	public Set<Namespace> getNamespaces() {
+		return namespaces;
+	}
+
+	@Override
+	public Optional<Namespace> getNamespace(String prefix) {
+		for (Namespace namespace : namespaces) {
+			if (namespace.getPrefix().equals(prefix)) {
+				return Optional.of(namespace);
+			}
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public Namespace setNamespace(String prefix, String name) {
+		Optional<Namespace> existing = getNamespace(prefix);
+		if (!existing.isPresent() || !existing.get().getName().equals(name)) {
+			Namespace namespace = new SimpleNamespace(prefix, name);
+			setNamespace(namespace);
+			return namespace;
+		}
+		return existing.get();
+	}
+
+	@Override
+	public void setNamespace(Namespace namespace) {
+		removeNamespace(namespace.getPrefix());
+		namespaces.add(namespace);
+	}
+
+	@Override
+	public Optional<Namespace> removeNamespace(String prefix) {
+		Optional<Namespace> result = getNamespace(prefix);
+		result.ifPresent(namespaces::remove);
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean add(Statement st) {
+		if (findPosition(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext()) >= 0) {
+			return false;
+		}
+		append(st);
+		return true;
+	}
+
+	@Override
+	public boolean add(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		if (subj == null || pred == null || obj == null) {
+			throw new UnsupportedOperationException("Incomplete statement");
+		}
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		Resource[] ctxs = notNull(contexts);
+		if (ctxs.length == 0) {
+			ctxs = NULL_CTX;
+		}
+		boolean changed = false;
+		for (Resource ctx : ctxs) {
+			if (findPosition(subj, pred, obj, ctx) < 0) {
+				append(ctx == null ? vf.createStatement(subj, pred, obj) : vf.createStatement(subj, pred, obj, ctx));
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (o instanceof Statement) {
+			Statement st = (Statement) o;
+			return findPosition(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext()) >= 0;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		contexts = notNull(contexts);
+		if (subj != null && pred != null && obj != null && contexts.length == 1) {
+			return findPosition(subj, pred, obj, contexts[0]) >= 0;
+		}
+		return match(subj, pred, obj, contexts).hasNext();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (o instanceof Statement) {
+			Statement st = (Statement) o;
+			int position = findPosition(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext());
+			if (position >= 0) {
+				removePosition(position);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean remove(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		contexts = notNull(contexts);
+		if (subj == null && pred == null && obj == null && contexts.length == 0) {
+			if (isEmpty()) {
+				return false;
+			}
+			clear();
+			return true;
+		}
+		boolean changed = false;
+		Iterator<Statement> iter = match(subj, pred, obj, contexts);
+		while (iter.hasNext()) {
+			iter.next();
+			iter.remove();
+			changed = true;
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		reset();
+		modCount++;
+	}
+
+	@Override
+	public Iterator<Statement> iterator() {
+		return new PositionIterator(null, null, null, null, new Resource[0]);
+	}
+
+	@Override
+	public Iterable<Statement> getStatements(Resource subject, IRI predicate, Value object, Resource... contexts) {
+		Resource[] ctxs = notNull(contexts);
+		return () -> match(subject, predicate, object, ctxs);
+	}
+
+	@Override
+	public Model filter(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		return new FilteredModel(this, subj, pred, obj, contexts) {
+
+			private static final long serialVersionUID = -4839180427645196711L;
+
+			@Override
+			public Iterator<Statement> iterator() {
+				return match(subj, pred, obj, contexts);
+			}
+
+			@Override
+			protected void removeFilteredTermIteration(Iterator<Statement> iter, Resource subj, IRI pred, Value obj,
+					Resource... contexts) {
+				ChangesetModel.this.removeTermIteration(iter, subj, pred, obj, contexts);
+			}
+		};
+	}
+
+	@Override
+	public void removeTermIteration(Iterator<Statement> iter, Resource subj, IRI pred, Value obj,
+			Resource... contexts) {
+		remove(subj, pred, obj, contexts);
+	}
+
+	/**
+	 * Returns an iterator over the statements that match the specified pattern, using the index of the most selective
+	 * bound component.
+	 */
+	private Iterator<Statement> match(Resource subj, IRI pred, Value obj, Resource[] contexts) {
+		Positions positions = null;
+		if (end > INDEX_THRESHOLD) {
+			int component = -1;
+			Value key = null;
+			if (subj != null) {
+				component = SUBJECT;
+				key = subj;
+			} else if (obj != null) {
+				component = OBJECT;
+				key = obj;
+			} else if (contexts.length == 1) {
+				component = CONTEXT;
+				key = contexts[0];
+			} else if (pred != null) {
+				component = PREDICATE;
+				key = pred;
+			}
+			if (component >= 0) {
+				positions = getIndex(component).get(key);
+				if (positions == null) {
+					return Collections.emptyIterator();
+				}
+			}
+		}
+		return new PositionIterator(positions, subj, pred, obj, contexts);
+	}
+
+	private Map<Value, Positions> getIndex(int component) {
+		Map<Value, Positions> index = indexes[component];
+		if (index == null) {
+			index = new HashMap<>();
+			for (int position = 0; position < end; position++) {
+				Statement st = statements[position];
+				if (st != null) {
+					index.computeIfAbsent(getComponent(st, component), k -> new Positions()).add(position);
+				}
+			}
+			indexes[component] = index;
+		}
+		return index;
+	}
+
+	private void append(Statement st) {
+		if (end == statements.length) {
+			if (size < end / 2) {
+				compact();
+			} else {
+				statements = Arrays.copyOf(statements, statements.length * 2);
+			}
+		}
+		int position = end++;
+		statements[position] = st;
+		size++;
+
+		int mask = table.length - 1;
+		int slot = hash(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext()) & mask;
+		while (table[slot] > 0) {
+			slot = (slot + 1) & mask;
+		}
+		if (table[slot] == 0) {
+			usedSlots++;
+		}
+		table[slot] = position + 1;
+		if (usedSlots > table.length / 2) {
+			rehash(size > table.length / 4 ? table.length * 2 : table.length);
+		}
+
+		for (int component = 0; component < indexes.length; component++) {
+			if (indexes[component] != null) {
+				indexes[component].computeIfAbsent(getComponent(st, component), k -> new Positions()).add(position);
+			}
+		}
+	}
+
+	private void removePosition(int position) {
+		Statement st = statements[position];
+		table[findSlot(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext())] = REMOVED;
+		statements[position] = null;
+		size--;
+	}
+
+	/**
+	 * Removes the gaps that removed statements left in the array, which changes the positions of the remaining
+	 * statements and therefore requires rebuilding the table and dropping the indexes.
+	 */
+	private void compact() {
+		int live = 0;
+		for (int position = 0; position < end; position++) {
+			if (statements[position] != null) {
+				statements[live++] = statements[position];
+			}
+		}
+		Arrays.fill(statements, live, end, null);
+		end = live;
+		Arrays.fill(indexes, null);
+		rehash(table.length);
+		modCount++;
+	}
+
+	private void rehash(int capacity) {
+		table = new int[capacity];
+		usedSlots = 0;
+		int mask = capacity - 1;
+		for (int position = 0; position < end; position++) {
+			Statement st = statements[position];
+			if (st != null) {
+				int slot = hash(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext()) & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = position + 1;
+				usedSlots++;
+			}
+		}
+	}
+
+	private void reset() {
+		statements = new Statement[8];
+		end = 0;
+		size = 0;
+		table = new int[16];
+		usedSlots = 0;
+		Arrays.fill(indexes, null);
+	}
+
+	/**
+	 * @return the position of the specified statement, or <tt>-1</tt> if this model does not contain it.
+	 */
+	private int findPosition(Resource subj, IRI pred, Value obj, Resource ctx) {
+		int slot = findSlot(subj, pred, obj, ctx);
+		return slot < 0 ? -1 : table[slot] - 1;
+	}
+
+	/**
+	 * @return the slot that holds the position of the specified statement, or <tt>-1</tt> if this model does not
+	 *         contain it.
+	 */
+	private int findSlot(Resource subj, IRI pred, Value obj, Resource ctx) {
+		int mask = table.length - 1;
+		int slot = hash(subj, pred, obj, ctx) & mask;
+		while (table[slot] != 0) {
+			if (table[slot] > 0) {
+				Statement st = statements[table[slot] - 1];
+				if (obj.equals(st.getObject()) && subj.equals(st.getSubject()) && pred.equals(st.getPredicate())
+						&& Objects.equals(ctx, st.getContext())) {
+					return slot;
+				}
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	private static int hash(Resource subj, IRI pred, Value obj, Resource ctx) {
+		int h = subj.hashCode();
+		h = 31 * h + pred.hashCode();
+		h = 31 * h + obj.hashCode();
+		h = 31 * h + (ctx == null ? 0 : ctx.hashCode());
+		return h ^ (h >>> 16);
+	}
+
+	private static Value getComponent(Statement st, int component) {
+		switch (component) {
+		case SUBJECT:
+			return st.getSubject();
+		case PREDICATE:
+			return st.getPredicate();
+		case OBJECT:
+			return st.getObject();
+		default:
+			return st.getContext();
+		}
+	}
+
+	private static boolean matches(Statement st, Resource subj, IRI pred, Value obj, Resource[] contexts) {
+		if (subj != null && !subj.equals(st.getSubject())) {
+			return false;
+		}
+		if (pred != null && !pred.equals(st.getPredicate())) {
+			return false;
+		}
+		if (obj != null && !obj.equals(st.getObject())) {
+			return false;
+		}
+		if (contexts.length == 0) {
+			return true;
+		}
+		Resource ctx = st.getContext();
+		for (Resource context : contexts) {
+			if (Objects.equals(context, ctx)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Resource[] notNull(Resource[] contexts) {
+		return contexts == null ? NULL_CTX : contexts;
+	}
+
+	/**
+	 * A growable list of statement positions.
+	 */
+	private static final class Positions implements Serializable {
+
+		private static final long serialVersionUID = -1730420744938406384L;
+
+		private int[] elements = new int[2];
+
+		private int size;
+
+		void add(int position) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+			}
+			elements[size++] = position;
+		}
+	}
+
+	/**
+	 * Iterates over the statements at the positions of an index, or at all positions, that match a pattern. Statements
+	 * that are added during the iteration may or may not be returned.
+	 */
+	private final class PositionIterator implements Iterator<Statement> {
+
+		private final Positions positions;
+
+		private final Resource subj;
+
+		private final IRI pred;
+
+		private final Value obj;
+
+		private final Resource[] contexts;
+
+		private final int expectedModCount = modCount;
+
+		private int cursor;
+
+		private int next = -1;
+
+		private int last = -1;
+
+		PositionIterator(Positions positions, Resource subj, IRI pred, Value obj, Resource[] contexts) {
+			this.positions = positions;
+			this.subj = subj;
+			this.pred = pred;
+			this.obj = obj;
+			this.contexts = contexts;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next >= 0) {
+				return true;
+			}
+			checkForComodification();
+			while (cursor < (positions == null ? end : positions.size)) {
+				int position = positions == null ? cursor : positions.elements[cursor];
+				cursor++;
+				Statement st = statements[position];
+				if (st != null && matches(st, subj, pred, obj, contexts)) {
+					next = position;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Statement next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = -1;
+			return statements[last];
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			if (statements[last] != null) {
+				removePosition(last);
+			}
+			last = -1;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+}
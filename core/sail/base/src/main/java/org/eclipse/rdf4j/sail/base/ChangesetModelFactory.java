@@ -0,0 +1,25 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ModelFactory;
+
+/**
+ * Creates the compact, hash-indexed models that a {@link SailSourceBranch} uses by default to buffer the statements
+ * that are added and removed in a transaction. The models are not thread-safe and are only meant for use by a
+ * {@link Changeset}.
+ */
+public class ChangesetModelFactory implements ModelFactory {
+
+	@Override
+	public Model createEmptyModel() {
+		return new ChangesetModel();
+	}
+
+}
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Statement;
+
+/**
+ * The explicit statements that a single commit has added to and removed from a store, as published by a
+ * {@link ChangeFeed}.
+ */
+public final class CommittedChangeset {
+
+	private final long sequenceNumber;
+
+	private final long commitTime;
+
+	private final List<Statement> addedStatements;
+
+	private final List<Statement> removedStatements;
+
+	CommittedChangeset(long sequenceNumber, long commitTime, List<Statement> addedStatements,
+			List<Statement> removedStatements) {
+		this.sequenceNumber = sequenceNumber;
+		this.commitTime = commitTime;
+		this.addedStatements = Collections.unmodifiableList(addedStatements);
+		this.removedStatements = Collections.unmodifiableList(removedStatements);
+	}
+
+	/**
+	 * @return the position of this changeset in its {@link ChangeFeed}, which is one higher than the position of the
+	 *         changeset that was committed before it.
+	 */
+	public long getSequenceNumber() {
+		return sequenceNumber;
+	}
+
+	/**
+	 * @return the time at which the changeset was committed, in milliseconds since the epoch.
+	 */
+	public long getCommitTime() {
+		return commitTime;
+	}
+
+	/**
+	 * @return the statements that were added by the commit.
+	 */
+	public List<Statement> getAddedStatements() {
+		return addedStatements;
+	}
+
+	/**
+	 * @return the statements that were removed by the commit.
+	 */
+	public List<Statement> getRemovedStatements() {
+		return removedStatements;
+	}
+
+	/**
+	 * @return the number of added and removed statements.
+	 */
+	public int size() {
+		return addedStatements.size() + removedStatements.size();
+	}
+
+	@Override
+	public String toString() {
+		return "CommittedChangeset " + sequenceNumber + " (" + addedStatements.size() + " added, "
+				+ removedStatements.size() + " removed)";
+	}
+}
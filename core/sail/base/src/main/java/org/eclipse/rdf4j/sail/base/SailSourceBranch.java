@@ -24,7 +24,6 @@ import org.eclipse.rdf4j.model.ModelFactory;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
-import org.eclipse.rdf4j.model.impl.DynamicModelFactory;
 import org.eclipse.rdf4j.sail.SailException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -95,7 +94,7 @@ class SailSourceBranch implements SailSource {
 	 * @param backingSource
 	 */
 	public SailSourceBranch(SailSource backingSource) {
-		this(backingSource, new DynamicModelFactory(), false);
+		this(backingSource, new ChangesetModelFactory(), false);
 	}
 
 	/**
@@ -460,12 +460,16 @@ public abstract class SailSourceConnection extends NotifyingSailConnectionBase
 
 	@Override
 	protected void commitInternal() throws SailException {
+		SailSource toFlushExplicitBranch = explicitOnlyBranch;
 		SailSource toCloseInferredBranch = includeInferredBranch;
 		explicitOnlyBranch = null;
 		inferredOnlyBranch = null;
 		includeInferredBranch = null;
 		try {
 			if (toCloseInferredBranch != null) {
+				// flush the explicit changes first, so that a statement that is removed explicitly and inferred in
+				// the same transaction is kept as an inferred statement, rather than ignored as a duplicate
+				toFlushExplicitBranch.flush();
 				toCloseInferredBranch.flush();
 			}
 		} finally {
@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.base.config;
 
+import static org.eclipse.rdf4j.sail.base.config.BaseSailSchema.CHANGE_FEED_CAPACITY;
 import static org.eclipse.rdf4j.sail.base.config.BaseSailSchema.EVALUATION_STRATEGY_FACTORY;
 import static org.eclipse.rdf4j.sail.base.config.BaseSailSchema.NAMESPACE;
 
@@ -23,6 +24,8 @@ public abstract class BaseSailConfig extends AbstractSailImplConfig {
 
 	private String evalStratFactoryClassName;
 
+	private long changeFeedCapacity = 0L;
+
 	protected BaseSailConfig(String type) {
 		super(type);
 	}
@@ -50,6 +53,14 @@ public abstract class BaseSailConfig extends AbstractSailImplConfig {
 		}
 	}
 
+	public long getChangeFeedCapacity() {
+		return changeFeedCapacity;
+	}
+
+	public void setChangeFeedCapacity(long changeFeedCapacity) {
+		this.changeFeedCapacity = changeFeedCapacity;
+	}
+
 	@Override
 	public Resource export(Model graph) {
 		Resource implNode = super.export(graph);
@@ -60,6 +71,12 @@ public abstract class BaseSailConfig extends AbstractSailImplConfig {
 					SimpleValueFactory.getInstance().createLiteral(evalStratFactoryClassName));
 		}
 
+		if (changeFeedCapacity != 0) {
+			graph.setNamespace("sb", NAMESPACE);
+			graph.add(implNode, CHANGE_FEED_CAPACITY,
+					SimpleValueFactory.getInstance().createLiteral(changeFeedCapacity));
+		}
+
 		return implNode;
 	}
 
@@ -73,6 +90,15 @@ public abstract class BaseSailConfig extends AbstractSailImplConfig {
 					.ifPresent(factoryClassName -> {
 						setEvaluationStrategyFactoryClassName(factoryClassName.stringValue());
 					});
+
+			Models.objectLiteral(graph.getStatements(implNode, CHANGE_FEED_CAPACITY, null)).ifPresent(value -> {
+				try {
+					setChangeFeedCapacity(value.longValue());
+				} catch (NumberFormatException e) {
+					throw new SailConfigException(
+							"Long integer value required for " + CHANGE_FEED_CAPACITY + " property, found " + value);
+				}
+			});
 		} catch (ModelException e) {
 			throw new SailConfigException(e.getMessage(), e);
 		}
@@ -22,8 +22,12 @@ public class BaseSailSchema {
 	/** <tt>http://www.openrdf.org/config/sail/base#evaluationStrategyFactory</tt> */
 	public final static IRI EVALUATION_STRATEGY_FACTORY;
 
+	/** <tt>http://www.openrdf.org/config/sail/base#changeFeedCapacity</tt> */
+	public final static IRI CHANGE_FEED_CAPACITY;
+
 	static {
 		ValueFactory factory = SimpleValueFactory.getInstance();
 		EVALUATION_STRATEGY_FACTORY = factory.createIRI(NAMESPACE, "evaluationStrategyFactory");
+		CHANGE_FEED_CAPACITY = factory.createIRI(NAMESPACE, "changeFeedCapacity");
 	}
 }
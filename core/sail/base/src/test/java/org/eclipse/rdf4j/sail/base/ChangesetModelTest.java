@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.junit.Test;
+
+public class ChangesetModelTest {
+
+	private final SimpleValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final IRI graph = vf.createIRI("urn:graph");
+
+	@Test
+	public void testMatchesLikeLinkedHashModel() {
+		ChangesetModel model = new ChangesetModel();
+		Model expected = new LinkedHashModel();
+		for (int i = 0; i < 1000; i++) {
+			IRI subj = vf.createIRI("urn:s" + (i % 100));
+			Statement st = i % 3 == 0 ? vf.createStatement(subj, RDF.TYPE, vf.createIRI("urn:c" + (i % 7)), graph)
+					: vf.createStatement(subj, RDFS.LABEL, vf.createLiteral(i));
+			assertEquals(expected.add(st), model.add(st));
+		}
+		// remove every other statement, which leaves gaps in the array and stale index entries
+		int i = 0;
+		for (Statement st : new LinkedHashModel(expected)) {
+			if (i++ % 2 == 0) {
+				assertTrue(model.remove(st));
+				expected.remove(st);
+			}
+		}
+		assertTrue(model.add(vf.createIRI("urn:s1"), RDF.TYPE, RDFS.CLASS, graph));
+		expected.add(vf.createIRI("urn:s1"), RDF.TYPE, RDFS.CLASS, graph);
+
+		assertEquals(expected.size(), model.size());
+		assertEquals(expected, model);
+		assertMatches(expected, model, vf.createIRI("urn:s1"), null, null);
+		assertMatches(expected, model, null, RDF.TYPE, null);
+		assertMatches(expected, model, null, null, vf.createIRI("urn:c3"));
+		assertMatches(expected, model, null, null, null, graph);
+		assertMatches(expected, model, null, null, null, (Resource) null);
+		assertMatches(expected, model, null, RDFS.LABEL, null, graph, null);
+		assertMatches(expected, model, vf.createIRI("urn:s2"), RDF.TYPE, null, graph);
+		assertMatches(expected, model, vf.createIRI("urn:unknown"), null, null);
+
+		assertTrue(model.contains(vf.createIRI("urn:s1"), RDF.TYPE, RDFS.CLASS, graph));
+		assertFalse(model.contains(vf.createIRI("urn:s1"), RDF.TYPE, RDFS.CLASS, (Resource) null));
+		assertTrue(model.contains(null, null, null, graph));
+	}
+
+	@Test
+	public void testRemoveByPattern() {
+		ChangesetModel model = new ChangesetModel();
+		for (int i = 0; i < 100; i++) {
+			model.add(vf.createIRI("urn:s" + i), RDF.TYPE, RDFS.RESOURCE, graph);
+			model.add(vf.createIRI("urn:s" + i), RDFS.LABEL, vf.createLiteral(i));
+		}
+
+		assertTrue(model.remove(null, null, null, graph));
+		assertFalse(model.contains(null, RDF.TYPE, null));
+		assertEquals(100, model.size());
+
+		assertTrue(model.filter(vf.createIRI("urn:s5"), null, null).remove(vf.createIRI("urn:s5"), null, null));
+		assertEquals(99, model.size());
+
+		model.clear((Resource) null);
+		assertTrue(model.isEmpty());
+		assertFalse(model.iterator().hasNext());
+	}
+
+	@Test
+	public void testKeepsAddedStatements() {
+		ChangesetModel model = new ChangesetModel();
+		Statement st = vf.createStatement(vf.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+		model.add(st);
+
+		assertSame(st, model.iterator().next());
+		assertFalse(model.add(vf.createStatement(vf.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE)));
+	}
+
+	@Test
+	public void testCompaction() {
+		ChangesetModel model = new ChangesetModel();
+		for (int round = 0; round < 100; round++) {
+			for (int i = 0; i < 100; i++) {
+				model.add(vf.createIRI("urn:s" + i), RDF.TYPE, vf.createLiteral(round));
+			}
+			assertEquals(100, model.filter(null, RDF.TYPE, vf.createLiteral(round)).size());
+			model.remove(null, null, vf.createLiteral(round));
+			assertTrue(model.isEmpty());
+		}
+
+		model.add(vf.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+		assertEquals(1, model.size());
+		assertTrue(model.contains(vf.createIRI("urn:s"), null, null));
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testConcurrentModification() {
+		ChangesetModel model = new ChangesetModel();
+		model.add(vf.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+		Iterator<Statement> iter = model.iterator();
+		model.clear();
+		iter.hasNext();
+	}
+
+	private void assertMatches(Model expected, ChangesetModel model, Resource subj, IRI pred, IRI obj,
+			Resource... contexts) {
+		List<Statement> matches = StreamSupport
+				.stream(model.getStatements(subj, pred, obj, contexts).spliterator(), false)
+				.collect(Collectors.toList());
+		Set<Statement> expectedMatches = expected.filter(subj, pred, obj, contexts);
+		assertEquals(expectedMatches.size(), matches.size());
+		assertEquals(expectedMatches, model.filter(subj, pred, obj, contexts));
+		assertTrue(expectedMatches.containsAll(matches));
+	}
+}
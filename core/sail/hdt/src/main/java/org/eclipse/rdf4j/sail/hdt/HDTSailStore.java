@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.hdt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.common.iteration.AbstractCloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.rio.hdt.HDTFile;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.SailReadOnlyException;
+import org.eclipse.rdf4j.sail.base.BackingSailSource;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailSource;
+import org.eclipse.rdf4j.sail.base.SailStore;
+
+/**
+ * A read-only {@link SailStore} of the statements in an {@link HDTFile}. There are no inferred statements, namespaces
+ * or named graphs.
+ */
+class HDTSailStore implements SailStore {
+
+	private final HDTFile file;
+
+	private final ValueFactory vf;
+
+	private final EvaluationStatistics statistics = new EvaluationStatistics();
+
+	HDTSailStore(HDTFile file, ValueFactory vf) {
+		this.file = file;
+		this.vf = vf;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return vf;
+	}
+
+	@Override
+	public EvaluationStatistics getEvaluationStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public SailSource getExplicitSailSource() {
+		return new HDTSailSource(true);
+	}
+
+	@Override
+	public SailSource getInferredSailSource() {
+		return new HDTSailSource(false);
+	}
+
+	@Override
+	public void close() throws SailException {
+		try {
+			file.close();
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	private final class HDTSailSource extends BackingSailSource {
+
+		private final boolean explicit;
+
+		public HDTSailSource(boolean explicit) {
+			this.explicit = explicit;
+		}
+
+		@Override
+		public SailSink sink(IsolationLevel level) throws SailException {
+			return new HDTSailSink();
+		}
+
+		@Override
+		public SailDataset dataset(IsolationLevel level) throws SailException {
+			return new HDTSailDataset(explicit);
+		}
+	}
+
+	private final class HDTSailDataset implements SailDataset {
+
+		private final boolean explicit;
+
+		public HDTSailDataset(boolean explicit) {
+			this.explicit = explicit;
+		}
+
+		@Override
+		public void close() throws SailException {
+			// no-op
+		}
+
+		@Override
+		public CloseableIteration<? extends Namespace, SailException> getNamespaces() throws SailException {
+			return new EmptyIteration<>();
+		}
+
+		@Override
+		public String getNamespace(String prefix) throws SailException {
+			return null;
+		}
+
+		@Override
+		public CloseableIteration<? extends Resource, SailException> getContextIDs() throws SailException {
+			return new EmptyIteration<>();
+		}
+
+		@Override
+		public CloseableIteration<? extends Statement, SailException> getStatements(Resource subj, IRI pred,
+				Value obj, Resource... contexts) throws SailException {
+			if (!explicit || !inDefaultContext(contexts)) {
+				return new EmptyIteration<>();
+			}
+			try {
+				return new StatementIteration(file.getStatements(subj, pred, obj));
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		/**
+		 * @return <code>true</code> if the statements in the default context match the contexts.
+		 */
+		private boolean inDefaultContext(Resource... contexts) {
+			if (contexts == null || contexts.length == 0) {
+				return true;
+			}
+			for (Resource context : contexts) {
+				if (context == null) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	private static final class StatementIteration extends AbstractCloseableIteration<Statement, SailException> {
+
+		private final Iterator<Statement> iter;
+
+		public StatementIteration(Iterator<Statement> iter) {
+			this.iter = iter;
+		}
+
+		@Override
+		public boolean hasNext() throws SailException {
+			if (isClosed()) {
+				return false;
+			}
+			try {
+				return iter.hasNext();
+			} catch (UncheckedIOException e) {
+				throw new SailException(e.getCause());
+			}
+		}
+
+		@Override
+		public Statement next() throws SailException {
+			try {
+				return iter.next();
+			} catch (UncheckedIOException e) {
+				throw new SailException(e.getCause());
+			}
+		}
+
+		@Override
+		public void remove() throws SailException {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	private static final class HDTSailSink implements SailSink {
+
+		@Override
+		public void prepare() throws SailException {
+			// no-op
+		}
+
+		@Override
+		public void flush() throws SailException {
+			// no-op
+		}
+
+		@Override
+		public void close() throws SailException {
+			// no-op
+		}
+
+		@Override
+		public void setNamespace(String prefix, String name) throws SailException {
+			throw readOnly();
+		}
+
+		@Override
+		public void removeNamespace(String prefix) throws SailException {
+			throw readOnly();
+		}
+
+		@Override
+		public void clearNamespaces() throws SailException {
+			throw readOnly();
+		}
+
+		@Override
+		public void clear(Resource... contexts) throws SailException {
+			throw readOnly();
+		}
+
+		@Override
+		public void observe(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+			// no-op
+		}
+
+		@Override
+		public void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws SailException {
+			throw readOnly();
+		}
+
+		@Override
+		public void deprecate(Statement statement) throws SailException {
+			throw readOnly();
+		}
+
+		private SailReadOnlyException readOnly() {
+			return new SailReadOnlyException("An HDT store is read-only");
+		}
+	}
+}
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.hdt;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
+import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategyFactory;
+import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
+import org.eclipse.rdf4j.rio.hdt.HDTFile;
+import org.eclipse.rdf4j.sail.NotifyingSailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailStore;
+import org.eclipse.rdf4j.sail.helpers.AbstractNotifyingSail;
+
+/**
+ * A read-only Sail that answers queries directly from an HDT file.
+ * <p>
+ * The dictionaries and triples of the file are memory-mapped instead of being loaded, so that the store starts quickly
+ * and its memory use does not depend on the size of the file. Triple patterns with a bound subject use the index of the
+ * HDT file; other patterns scan all triples. All statements are in the default context.
+ *
+ * @see org.eclipse.rdf4j.rio.hdt.HDTWriter
+ */
+public class HDTStore extends AbstractNotifyingSail implements FederatedServiceResolverClient {
+
+	private File hdtFile;
+
+	private volatile HDTSailStore store;
+
+	private EvaluationStrategyFactory evalStratFactory;
+
+	/** independent life cycle */
+	private FederatedServiceResolver serviceResolver;
+
+	/** dependent life cycle */
+	private SPARQLServiceResolver dependentServiceResolver;
+
+	/**
+	 * Creates a new HDTStore, the HDT file must be set before the store is initialized.
+	 */
+	public HDTStore() {
+		// all isolation levels are equivalent on read-only data
+		setSupportedIsolationLevels(IsolationLevels.NONE, IsolationLevels.READ_COMMITTED, IsolationLevels.SNAPSHOT_READ,
+				IsolationLevels.SNAPSHOT, IsolationLevels.SERIALIZABLE);
+		setDefaultIsolationLevel(IsolationLevels.NONE);
+	}
+
+	/**
+	 * Creates a new HDTStore.
+	 *
+	 * @param hdtFile the HDT file.
+	 */
+	public HDTStore(File hdtFile) {
+		this();
+		setHdtFile(hdtFile);
+	}
+
+	/**
+	 * @return the HDT file.
+	 */
+	public File getHdtFile() {
+		return hdtFile;
+	}
+
+	/**
+	 * Sets the HDT file. A relative path is resolved against the data directory, if one has been set.
+	 *
+	 * @param hdtFile the HDT file.
+	 */
+	public void setHdtFile(File hdtFile) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been initialized");
+		}
+		this.hdtFile = hdtFile;
+	}
+
+	/**
+	 * @return Returns the {@link EvaluationStrategy}.
+	 */
+	public synchronized EvaluationStrategyFactory getEvaluationStrategyFactory() {
+		if (evalStratFactory == null) {
+			evalStratFactory = new StrictEvaluationStrategyFactory(getFederatedServiceResolver());
+		}
+		evalStratFactory.setQuerySolutionCacheThreshold(getIterationCacheSyncThreshold());
+		evalStratFactory.setTrackResultSize(isTrackResultSize());
+		return evalStratFactory;
+	}
+
+	/**
+	 * Sets the {@link EvaluationStrategy} to use.
+	 */
+	public synchronized void setEvaluationStrategyFactory(EvaluationStrategyFactory factory) {
+		evalStratFactory = factory;
+	}
+
+	/**
+	 * @return Returns the SERVICE resolver.
+	 */
+	public synchronized FederatedServiceResolver getFederatedServiceResolver() {
+		if (serviceResolver == null) {
+			if (dependentServiceResolver == null) {
+				dependentServiceResolver = new SPARQLServiceResolver();
+			}
+			setFederatedServiceResolver(dependentServiceResolver);
+		}
+		return serviceResolver;
+	}
+
+	/**
+	 * Overrides the {@link FederatedServiceResolver} used by this instance, but the given resolver is not shutDown when
+	 * this instance is.
+	 *
+	 * @param resolver The SERVICE resolver to set.
+	 */
+	@Override
+	public synchronized void setFederatedServiceResolver(FederatedServiceResolver resolver) {
+		this.serviceResolver = resolver;
+		if (resolver != null && evalStratFactory instanceof FederatedServiceResolverClient) {
+			((FederatedServiceResolverClient) evalStratFactory).setFederatedServiceResolver(resolver);
+		}
+	}
+
+	@Override
+	protected void initializeInternal() throws SailException {
+		if (hdtFile == null) {
+			throw new SailException("No HDT file has been set");
+		}
+		File file = hdtFile;
+		if (!file.isAbsolute() && getDataDir() != null) {
+			file = new File(getDataDir(), hdtFile.getPath());
+		}
+
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		try {
+			store = new HDTSailStore(HDTFile.open(file.toPath(), vf), vf);
+		} catch (IOException e) {
+			throw new SailException("Unable to open HDT file " + file, e);
+		}
+	}
+
+	@Override
+	protected void shutDownInternal() throws SailException {
+		try {
+			if (store != null) {
+				store.close();
+				store = null;
+			}
+		} finally {
+			if (dependentServiceResolver != null) {
+				dependentServiceResolver.shutDown();
+			}
+		}
+	}
+
+	/**
+	 * An HDTStore is never writable.
+	 */
+	@Override
+	public boolean isWritable() {
+		return false;
+	}
+
+	@Override
+	protected NotifyingSailConnection getConnectionInternal() throws SailException {
+		return new HDTStoreConnection(this);
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return SimpleValueFactory.getInstance();
+	}
+
+	SailStore getSailStore() {
+		return store;
+	}
+}
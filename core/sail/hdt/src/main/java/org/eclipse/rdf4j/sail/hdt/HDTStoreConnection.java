@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.hdt;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.SailReadOnlyException;
+import org.eclipse.rdf4j.sail.base.SailSourceConnection;
+
+/**
+ * Connection to an {@link HDTStore}, which can only be used to read data.
+ */
+public class HDTStoreConnection extends SailSourceConnection {
+
+	protected final HDTStore sail;
+
+	protected HDTStoreConnection(HDTStore sail) {
+		super(sail, sail.getSailStore(), sail.getEvaluationStrategyFactory());
+		this.sail = sail;
+	}
+
+	@Override
+	protected void startTransactionInternal() throws SailException {
+		throw new SailReadOnlyException("Unable to start transaction: an HDT store is read-only");
+	}
+
+	@Override
+	protected void addStatementInternal(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+		throw new SailReadOnlyException("Unable to add statements: an HDT store is read-only");
+	}
+
+	@Override
+	protected void removeStatementsInternal(Resource subj, IRI pred, Value obj, Resource... contexts)
+			throws SailException {
+		throw new SailReadOnlyException("Unable to remove statements: an HDT store is read-only");
+	}
+
+	public HDTStore getSail() {
+		return sail;
+	}
+}
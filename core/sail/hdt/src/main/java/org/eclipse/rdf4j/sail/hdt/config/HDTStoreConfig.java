@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.hdt.config;
+
+import static org.eclipse.rdf4j.sail.hdt.config.HDTStoreSchema.HDT_FILE;
+import static org.eclipse.rdf4j.sail.hdt.config.HDTStoreSchema.NAMESPACE;
+
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.ModelException;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.sail.base.config.BaseSailConfig;
+import org.eclipse.rdf4j.sail.config.SailConfigException;
+
+public class HDTStoreConfig extends BaseSailConfig {
+
+	private String hdtFile;
+
+	public HDTStoreConfig() {
+		super(HDTStoreFactory.SAIL_TYPE);
+	}
+
+	public HDTStoreConfig(String hdtFile) {
+		this();
+		setHdtFile(hdtFile);
+	}
+
+	/**
+	 * @return the path of the HDT file, which is resolved against the data directory of the store if it is relative.
+	 */
+	public String getHdtFile() {
+		return hdtFile;
+	}
+
+	public void setHdtFile(String hdtFile) {
+		this.hdtFile = hdtFile;
+	}
+
+	@Override
+	public void validate() throws SailConfigException {
+		super.validate();
+		if (hdtFile == null || hdtFile.isEmpty()) {
+			throw new SailConfigException("No HDT file specified");
+		}
+	}
+
+	@Override
+	public Resource export(Model graph) {
+		Resource implNode = super.export(graph);
+
+		graph.setNamespace("hdt", NAMESPACE);
+		if (hdtFile != null) {
+			graph.add(implNode, HDT_FILE, SimpleValueFactory.getInstance().createLiteral(hdtFile));
+		}
+
+		return implNode;
+	}
+
+	@Override
+	public void parse(Model graph, Resource implNode) throws SailConfigException {
+		super.parse(graph, implNode);
+
+		try {
+			Models.objectLiteral(graph.getStatements(implNode, HDT_FILE, null))
+					.ifPresent(value -> setHdtFile(value.getLabel()));
+		} catch (ModelException e) {
+			throw new SailConfigException(e.getMessage(), e);
+		}
+	}
+}
@@ -0,0 +1,4 @@
+/**
+ * A read-only Sail implementation that answers queries from a memory-mapped HDT file.
+ */
+package org.eclipse.rdf4j.sail.hdt;
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.hdt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.eclipse.rdf4j.sail.SailReadOnlyException;
+import org.eclipse.rdf4j.sail.hdt.config.HDTStoreConfig;
+import org.eclipse.rdf4j.sail.hdt.config.HDTStoreFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HDTStoreTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	private final Model data = new LinkedHashModel();
+
+	private SailRepository repository;
+
+	@Before
+	public void setUp() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			IRI person = vf.createIRI("http://example.org/person" + i);
+			data.add(person, RDF.TYPE, FOAF.PERSON);
+			data.add(person, FOAF.NAME, vf.createLiteral("Person " + i));
+			data.add(person, FOAF.KNOWS, vf.createIRI("http://example.org/person" + ((i + 1) % 100)));
+			if (i % 10 == 0) {
+				data.add(person, FOAF.AGE, vf.createLiteral(i));
+			}
+		}
+
+		File file = tmp.newFile("data.hdt");
+		try (OutputStream out = new FileOutputStream(file)) {
+			Rio.write(data, out, RDFFormat.HDT);
+		}
+
+		HDTStoreConfig config = new HDTStoreConfig(file.getName());
+		HDTStore store = (HDTStore) new HDTStoreFactory().getSail(config);
+		store.setDataDir(file.getParentFile());
+		repository = new SailRepository(store);
+		repository.init();
+	}
+
+	@After
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testGetStatements() {
+		try (RepositoryConnection conn = repository.getConnection()) {
+			assertEquals(data.size(), conn.size());
+			assertEquals(data, Iterations.addAll(conn.getStatements(null, null, null), new LinkedHashModel()));
+
+			IRI person = vf.createIRI("http://example.org/person5");
+			assertEquals(data.filter(person, null, null),
+					Iterations.addAll(conn.getStatements(person, null, null), new LinkedHashModel()));
+			assertTrue(conn.hasStatement(person, FOAF.NAME, vf.createLiteral("Person 5"), false));
+			assertTrue(conn.hasStatement(person, FOAF.NAME, vf.createLiteral("Person 5"), false, (IRI) null));
+			assertFalse(conn.hasStatement(person, FOAF.NAME, vf.createLiteral("Person 5"), false,
+					vf.createIRI("http://example.org/graph")));
+			assertFalse(conn.hasStatement(person, FOAF.NAME, vf.createLiteral("Person 6"), false));
+		}
+	}
+
+	@Test
+	public void testQuery() {
+		try (RepositoryConnection conn = repository.getConnection()) {
+			List<BindingSet> result = Iterations.asList(conn.prepareTupleQuery(
+					"PREFIX foaf: <http://xmlns.com/foaf/0.1/> "
+							+ "SELECT ?name WHERE { ?p foaf:age ?age ; foaf:knows ?q . ?q foaf:name ?name } "
+							+ "ORDER BY ?age")
+					.evaluate());
+			assertEquals(10, result.size());
+			assertEquals("Person 1", result.get(0).getValue("name").stringValue());
+			assertEquals("Person 91", result.get(9).getValue("name").stringValue());
+		}
+	}
+
+	@Test
+	public void testReadOnly() {
+		try (RepositoryConnection conn = repository.getConnection()) {
+			conn.add(vf.createIRI("http://example.org/s"), RDF.TYPE, FOAF.PERSON);
+			fail("Read-only store was changed");
+		} catch (RepositoryException e) {
+			assertTrue(e.getCause() instanceof SailReadOnlyException);
+		}
+		assertFalse(repository.isWritable());
+	}
+}
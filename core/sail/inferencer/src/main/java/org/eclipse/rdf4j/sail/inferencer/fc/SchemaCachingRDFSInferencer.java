@@ -95,6 +95,9 @@ public class SchemaCachingRDFSInferencer extends NotifyingSailWrapper {
 	// or to the context that the original inserted statement has
 	private boolean addInferredStatementsToDefaultContext = false;
 
+	// The number of threads that infer statements when all statements are inferred again
+	private volatile int inferenceThreads = Runtime.getRuntime().availableProcessors();
+
 	/**
 	 * Instantiate a new SchemaCachingRDFSInferencer
 	 */
@@ -338,39 +341,66 @@ public class SchemaCachingRDFSInferencer extends NotifyingSailWrapper {
 
 	void calculateInferenceMaps(SchemaCachingRDFSInferencerConnection conn, boolean addInferred) {
 		calculateSubClassOf(subClassOfStatements);
-		properties.forEach(predicate -> {
-			if (addInferred) {
-				conn.addInferredStatementInternal(predicate, RDF.TYPE, RDF.PROPERTY);
-			}
-			calculatedProperties.put(predicate, new HashSet<>());
-		});
+		properties.forEach(predicate -> calculatedProperties.put(predicate, new HashSet<>()));
 		calculateSubPropertyOf(subPropertyOfStatements);
 
 		calculateRangeDomain(rangeStatements, calculatedRange);
 		calculateRangeDomain(domainStatements, calculatedDomain);
 
 		if (addInferred) {
-			calculatedTypes.forEach((subClass, superClasses) -> {
-				conn.addInferredStatementInternal(subClass, RDFS.SUBCLASSOF, subClass);
+			getSchemaStatements().forEach(statement -> conn.addInferredStatementInternal(statement.getSubject(),
+					statement.getPredicate(), statement.getObject()));
+		}
+	}
 
-				superClasses.forEach(superClass -> {
-					conn.addInferredStatementInternal(subClass, RDFS.SUBCLASSOF, superClass);
-					conn.addInferredStatementInternal(superClass, RDFS.SUBCLASSOF, superClass);
+	/**
+	 * @return the statements that are inferred from the schema cache alone, in the default context: the rdf:type
+	 *         rdf:Property statements of all properties and the closures of rdfs:subClassOf and rdfs:subPropertyOf.
+	 */
+	Set<Statement> getSchemaStatements() {
+		ValueFactory vf = getValueFactory();
+		Set<Statement> statements = new HashSet<>();
+		properties.forEach(predicate -> statements.add(vf.createStatement(predicate, RDF.TYPE, RDF.PROPERTY)));
 
-				});
+		calculatedTypes.forEach((subClass, superClasses) -> {
+			statements.add(vf.createStatement(subClass, RDFS.SUBCLASSOF, subClass));
+
+			superClasses.forEach(superClass -> {
+				statements.add(vf.createStatement(subClass, RDFS.SUBCLASSOF, superClass));
+				statements.add(vf.createStatement(superClass, RDFS.SUBCLASSOF, superClass));
 			});
-		}
-		if (addInferred) {
-			calculatedProperties.forEach((sub, sups) -> {
-				conn.addInferredStatementInternal(sub, RDFS.SUBPROPERTYOF, sub);
+		});
 
-				sups.forEach(sup -> {
-					conn.addInferredStatementInternal(sub, RDFS.SUBPROPERTYOF, sup);
-					conn.addInferredStatementInternal(sup, RDFS.SUBPROPERTYOF, sup);
+		calculatedProperties.forEach((sub, sups) -> {
+			statements.add(vf.createStatement(sub, RDFS.SUBPROPERTYOF, sub));
 
-				});
+			sups.forEach(sup -> {
+				statements.add(vf.createStatement(sub, RDFS.SUBPROPERTYOF, sup));
+				statements.add(vf.createStatement(sup, RDFS.SUBPROPERTYOF, sup));
 			});
-		}
+		});
+		return statements;
+	}
+
+	/**
+	 * @return a view of the current lookup tables.
+	 */
+	LookupTables getLookupTables() {
+		return new LookupTables(calculatedTypes, calculatedProperties, calculatedRange, calculatedDomain);
+	}
+
+	/**
+	 * @return a copy of the current lookup tables, which is not affected when the schema cache is recalculated.
+	 */
+	LookupTables copyLookupTables() {
+		return new LookupTables(copy(calculatedTypes), copy(calculatedProperties), copy(calculatedRange),
+				copy(calculatedDomain));
+	}
+
+	private static Map<Resource, Set<Resource>> copy(Map<Resource, Set<Resource>> map) {
+		Map<Resource, Set<Resource>> copy = new HashMap<>();
+		map.forEach((key, value) -> copy.put(key, new HashSet<>(value)));
+		return copy;
 	}
 
 	void addSubClassOfStatement(Statement st) {
@@ -637,7 +667,110 @@ public class SchemaCachingRDFSInferencer extends NotifyingSailWrapper {
 		this.addInferredStatementsToDefaultContext = addInferredStatementsToDefaultContext;
 	}
 
+	/**
+	 * @return the number of threads that infer statements when the inferred statements of all explicit statements are
+	 *         recomputed.
+	 * @see #setInferenceThreads(int)
+	 */
+	public int getInferenceThreads() {
+		return inferenceThreads;
+	}
+
+	/**
+	 * <p>
+	 * Sets the number of threads that infer statements when the inferred statements of all explicit statements are
+	 * recomputed, which happens when the schema changes or when statements are removed. The explicit statements are
+	 * read in batches, the statements that are inferred from each batch are resolved in parallel and deduplicated, and
+	 * then added by the committing thread. Statements that are added while the schema is unchanged are inferred
+	 * directly, by the thread that adds them.
+	 * </p>
+	 * <p>
+	 * The default is the number of available processors. Use 1 to infer all statements in the committing thread.
+	 * </p>
+	 *
+	 * @param inferenceThreads the number of threads, at least 1.
+	 */
+	public void setInferenceThreads(int inferenceThreads) {
+		if (inferenceThreads < 1) {
+			throw new IllegalArgumentException("inferenceThreads must be positive: " + inferenceThreads);
+		}
+		this.inferenceThreads = inferenceThreads;
+	}
+
 	boolean usesPredefinedSchema() {
 		return predefinedSchema != null || sharedSchema;
 	}
+
+	/**
+	 * The forward chained schema cache, from which the statements that are inferred from a single statement are
+	 * resolved.
+	 */
+	static final class LookupTables {
+
+		private final Map<Resource, Set<Resource>> types;
+
+		private final Map<Resource, Set<Resource>> properties;
+
+		private final Map<Resource, Set<Resource>> range;
+
+		private final Map<Resource, Set<Resource>> domain;
+
+		private LookupTables(Map<Resource, Set<Resource>> types, Map<Resource, Set<Resource>> properties,
+				Map<Resource, Set<Resource>> range, Map<Resource, Set<Resource>> domain) {
+			this.types = types;
+			this.properties = properties;
+			this.range = range;
+			this.domain = domain;
+		}
+
+		Set<Resource> resolveTypes(Resource value) {
+			return types.getOrDefault(value, Collections.emptySet());
+		}
+
+		Set<Resource> resolveProperties(Resource predicate) {
+			return properties.getOrDefault(predicate, Collections.emptySet());
+		}
+
+		Set<Resource> resolveRangeTypes(IRI predicate) {
+			return range.getOrDefault(predicate, Collections.emptySet());
+		}
+
+		Set<Resource> resolveDomainTypes(IRI predicate) {
+			return domain.getOrDefault(predicate, Collections.emptySet());
+		}
+
+		/**
+		 * @return the classes whose super classes differ between these tables and the other tables.
+		 */
+		Set<Resource> getChangedTypes(LookupTables other) {
+			return getChangedKeys(types, other.types);
+		}
+
+		/**
+		 * @return the properties whose super properties, ranges or domains differ between these tables and the other
+		 *         tables.
+		 */
+		Set<Resource> getChangedProperties(LookupTables other) {
+			Set<Resource> changed = getChangedKeys(properties, other.properties);
+			changed.addAll(getChangedKeys(range, other.range));
+			changed.addAll(getChangedKeys(domain, other.domain));
+			return changed;
+		}
+
+		private static Set<Resource> getChangedKeys(Map<Resource, Set<Resource>> map,
+				Map<Resource, Set<Resource>> other) {
+			Set<Resource> changed = new HashSet<>();
+			map.forEach((key, value) -> {
+				if (!value.equals(other.getOrDefault(key, Collections.emptySet()))) {
+					changed.add(key);
+				}
+			});
+			other.forEach((key, value) -> {
+				if (!value.equals(map.getOrDefault(key, Collections.emptySet()))) {
+					changed.add(key);
+				}
+			});
+			return changed;
+		}
+	}
 }
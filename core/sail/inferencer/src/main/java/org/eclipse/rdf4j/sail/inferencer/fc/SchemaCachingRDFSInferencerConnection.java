@@ -8,8 +8,23 @@
 
 package org.eclipse.rdf4j.sail.inferencer.fc;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.IsolationLevels;
@@ -19,6 +34,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
@@ -28,6 +44,7 @@ import org.eclipse.rdf4j.sail.UnknownSailTransactionStateException;
 import org.eclipse.rdf4j.sail.UpdateContext;
 import org.eclipse.rdf4j.sail.inferencer.InferencerConnection;
 import org.eclipse.rdf4j.sail.inferencer.InferencerConnectionWrapper;
+import org.eclipse.rdf4j.sail.inferencer.fc.SchemaCachingRDFSInferencer.LookupTables;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +57,27 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 
 	private static final Logger logger = LoggerFactory.getLogger(SchemaCachingRDFSInferencerConnection.class);
 
+	/**
+	 * All axioms in RDFS, forward chained w.r.t. RDFS. They are added to the default context.
+	 */
+	private static final Set<Statement> AXIOM_STATEMENTS = createAxiomStatements();
+
+	/**
+	 * The maximum number of removed statements for which the inferred statements are updated incrementally. When more
+	 * statements are removed at once, all inferred statements are recomputed.
+	 */
+	private static final int MAX_INCREMENTAL_REMOVALS = 100_000;
+
+	/**
+	 * The number of explicit statements that are passed to a worker at once when inferring in parallel.
+	 */
+	private static final int INFERENCE_BATCH_SIZE = 1000;
+
+	/**
+	 * The maximum number of inferred statements that are remembered to skip duplicates when inferring in parallel.
+	 */
+	private static final int MAX_DEDUPLICATED_STATEMENTS = 1_000_000;
+
 	private final SchemaCachingRDFSInferencer sail;
 
 	private final NotifyingSailConnection connection;
@@ -65,6 +103,17 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 	 */
 	private boolean schemaChange;
 
+	/**
+	 * The statements that the base Sail reported as removed since the inferred statements were last updated, or null if
+	 * there are too many of them to update the inferred statements incrementally.
+	 */
+	private Set<Statement> removedStatements = new HashSet<>();
+
+	/**
+	 * true while the inferred statements are updated, during which the removal of inferred statements is not recorded.
+	 */
+	private boolean updatingInferred;
+
 	SchemaCachingRDFSInferencerConnection(SchemaCachingRDFSInferencer sail,
 			InferencerConnection connection) {
 
@@ -143,6 +192,7 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 		statementsRemoved = false;
 		statementsAdded = false;
 		schemaChange = false;
+		removedStatements = new HashSet<>();
 
 		sail.releaseExclusiveWriteLock();
 	}
@@ -160,20 +210,116 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 
 		try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(
 				null, null, null, false)) {
-			while (statements.hasNext()) {
-				Statement next = statements.next();
-				addStatement(false, next.getSubject(), next.getPredicate(), next.getObject(),
-						next.getContext());
+			if (sail.getInferenceThreads() > 1) {
+				inferInParallel(statements, sail.getInferenceThreads());
+			} else {
+				while (statements.hasNext()) {
+					Statement next = statements.next();
+					addStatement(false, next.getSubject(), next.getPredicate(), next.getObject(),
+							next.getContext());
+				}
 			}
 		}
 		inferredCleared = false;
 
 	}
 
+	/**
+	 * Adds the statements that are inferred from the explicit statements, which are read by this thread in batches. The
+	 * inferred statements of each batch are resolved by a pool of worker threads, which only read the lookup tables,
+	 * while the inferred statements are added to the underlying connection by this thread. Statements that have already
+	 * been inferred by any worker are skipped, so that each inferred statement is only added once.
+	 *
+	 * @param statements the explicit statements.
+	 * @param threads    the number of worker threads.
+	 */
+	private void inferInParallel(CloseableIteration<? extends Statement, SailException> statements, int threads) {
+		List<Statement> batch = nextBatch(statements);
+		if (!statements.hasNext()) {
+			// not worth starting the workers
+			batch.forEach(st -> addStatement(false, st.getSubject(), st.getPredicate(), st.getObject(),
+					st.getContext()));
+			return;
+		}
+
+		LookupTables lookupTables = sail.getLookupTables();
+		Set<Statement> inferred = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "rdf4j-schemacachingrdfsinferencer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// bounds the number of batches whose inferred statements are held in memory
+		Deque<Future<List<Statement>>> tasks = new ArrayDeque<>();
+		try {
+			while (!batch.isEmpty()) {
+				if (tasks.size() >= 2 * threads) {
+					addInferredStatements(tasks.removeFirst(), inferred);
+				}
+				for (Statement st : batch) {
+					if (!sail.usesPredefinedSchema()) {
+						processForSchemaCache(st);
+					}
+				}
+				List<Statement> explicit = batch;
+				tasks.addLast(executor.submit(() -> {
+					List<Statement> result = new ArrayList<>();
+					InferredStatementHandler handler = collectTo(inferredStatement -> {
+						if (inferred.add(inferredStatement)) {
+							result.add(inferredStatement);
+						}
+					});
+					for (Statement st : explicit) {
+						inferStatements(lookupTables, st, handler);
+					}
+					return result;
+				}));
+				batch = nextBatch(statements);
+			}
+			while (!tasks.isEmpty()) {
+				addInferredStatements(tasks.removeFirst(), inferred);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<Statement> nextBatch(CloseableIteration<? extends Statement, SailException> statements) {
+		List<Statement> batch = new ArrayList<>(INFERENCE_BATCH_SIZE);
+		while (batch.size() < INFERENCE_BATCH_SIZE && statements.hasNext()) {
+			batch.add(statements.next());
+		}
+		return batch;
+	}
+
+	private void addInferredStatements(Future<List<Statement>> task, Set<Statement> inferred) {
+		List<Statement> result;
+		try {
+			result = task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SailException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new SailException(e.getCause());
+		}
+		for (Statement st : result) {
+			addInferredStatementInternal(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext());
+		}
+		if (inferred.size() > MAX_DEDUPLICATED_STATEMENTS) {
+			// the underlying store ignores duplicates as well, this only limits the memory used for deduplication
+			inferred.clear();
+		}
+	}
+
 	private void regenerateCacheAndInferenceMaps(boolean addInferredStatements) {
 		sail.clearInferenceTables();
 		if (addInferredStatements) {
 			addAxiomStatements();
+		} else {
+			AXIOM_STATEMENTS.forEach(this::processForSchemaCache);
 		}
 
 		try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(
@@ -224,11 +370,27 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 			processForSchemaCache(sail.getValueFactory().createStatement(subject, predicate, object));
 		}
 
+		if (actuallyAdd) {
+			connection.addStatement(subject, predicate, object, context);
+
+		}
+
+		inferStatements(sail.getLookupTables(), subject, predicate, object, inferredContext,
+				this::addInferredStatementInternal);
+	}
+
+	/**
+	 * Passes the statements that are inferred from a single statement to a handler. Which statements are inferred
+	 * depends on the statement and the lookup tables only.
+	 */
+	private void inferStatements(LookupTables lookupTables, Resource subject, IRI predicate, Value object,
+			Resource[] inferredContext, InferredStatementHandler handler) {
+
 		if (sail.useAllRdfsRules) {
-			addInferredStatementInternal(subject, RDF.TYPE, RDFS.RESOURCE, inferredContext);
+			handler.handle(subject, RDF.TYPE, RDFS.RESOURCE, inferredContext);
 
 			if (object instanceof Resource) {
-				addInferredStatementInternal((Resource) object, RDF.TYPE, RDFS.RESOURCE, inferredContext);
+				handler.handle((Resource) object, RDF.TYPE, RDFS.RESOURCE, inferredContext);
 			}
 		}
 
@@ -237,14 +399,13 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 			try {
 				int i = Integer.parseInt(predicate.getLocalName().substring(1));
 				if (i >= 1) {
-					addInferredStatementInternal(subject, RDFS.MEMBER, object, inferredContext);
+					handler.handle(subject, RDFS.MEMBER, object, inferredContext);
 
-					addInferredStatementInternal(predicate, RDF.TYPE, RDFS.RESOURCE, inferredContext);
-					addInferredStatementInternal(predicate, RDF.TYPE, RDFS.CONTAINERMEMBERSHIPPROPERTY,
-							inferredContext);
-					addInferredStatementInternal(predicate, RDF.TYPE, RDF.PROPERTY, inferredContext);
-					addInferredStatementInternal(predicate, RDFS.SUBPROPERTYOF, predicate, inferredContext);
-					addInferredStatementInternal(predicate, RDFS.SUBPROPERTYOF, RDFS.MEMBER, inferredContext);
+					handler.handle(predicate, RDF.TYPE, RDFS.RESOURCE, inferredContext);
+					handler.handle(predicate, RDF.TYPE, RDFS.CONTAINERMEMBERSHIPPROPERTY, inferredContext);
+					handler.handle(predicate, RDF.TYPE, RDF.PROPERTY, inferredContext);
+					handler.handle(predicate, RDFS.SUBPROPERTYOF, predicate, inferredContext);
+					handler.handle(predicate, RDFS.SUBPROPERTYOF, RDFS.MEMBER, inferredContext);
 
 				}
 			} catch (NumberFormatException e) {
@@ -258,494 +419,57 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 
 		}
 
-		if (actuallyAdd) {
-			connection.addStatement(subject, predicate, object, context);
-
-		}
-
 		if (predicate.equals(RDF.TYPE)) {
 			if (!(object instanceof Resource)) {
 				throw new SailException("Expected object to a a Resource: " + object.toString());
 			}
 
-			sail.resolveTypes((Resource) object).stream().peek(inferredType -> {
+			lookupTables.resolveTypes((Resource) object).stream().peek(inferredType -> {
 				if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
-					addInferredStatementInternal(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
+					handler.handle(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
 				}
 			})
 					.filter(inferredType -> !inferredType.equals(object))
-					.forEach(
-							inferredType -> addInferredStatementInternal(subject, RDF.TYPE, inferredType,
-									inferredContext));
+					.forEach(inferredType -> handler.handle(subject, RDF.TYPE, inferredType, inferredContext));
 		}
 
-		sail.resolveProperties(predicate)
+		lookupTables.resolveProperties(predicate)
 				.stream()
 				.filter(inferredProperty -> !inferredProperty.equals(predicate))
 				.filter(inferredPropery -> inferredPropery instanceof IRI)
 				.map(inferredPropery -> ((IRI) inferredPropery))
-				.forEach(inferredProperty -> addInferredStatementInternal(subject, inferredProperty, object,
-						inferredContext));
+				.forEach(inferredProperty -> handler.handle(subject, inferredProperty, object, inferredContext));
 
 		if (object instanceof Resource) {
-			sail.resolveRangeTypes(predicate)
+			lookupTables.resolveRangeTypes(predicate)
 					.stream()
 					.peek(inferredType -> {
 						if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
-							addInferredStatementInternal(((Resource) object), RDFS.SUBCLASSOF, RDFS.RESOURCE,
-									inferredContext);
+							handler.handle(((Resource) object), RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
 						}
 					})
-					.forEach(inferredType -> addInferredStatementInternal(((Resource) object), RDF.TYPE, inferredType,
+					.forEach(inferredType -> handler.handle(((Resource) object), RDF.TYPE, inferredType,
 							inferredContext));
 		}
 
-		sail.resolveDomainTypes(predicate)
+		lookupTables.resolveDomainTypes(predicate)
 				.stream()
 				.peek(inferredType -> {
 					if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
-						addInferredStatementInternal(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
+						handler.handle(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
 					}
 				})
-				.forEach(inferredType -> addInferredStatementInternal((subject), RDF.TYPE, inferredType,
-						inferredContext));
+				.forEach(inferredType -> handler.handle((subject), RDF.TYPE, inferredType, inferredContext));
 
 	}
 
 	void addAxiomStatements() {
 		sail.acquireExclusiveWriteLock();
 
-		ValueFactory vf = sail.getValueFactory();
-
-		// This is http://www.w3.org/2000/01/rdf-schema# forward chained
-		// Eg. all axioms in RDFS forward chained w.r.t. RDFS.
-		// All those axioms are simply listed here
-
-		Statement statement = vf.createStatement(RDF.ALT, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.ALT, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.ALT, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.ALT, RDFS.SUBCLASSOF, RDFS.CONTAINER);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.ALT, RDFS.SUBCLASSOF, RDF.ALT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.BAG, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.BAG, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.BAG, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.BAG, RDFS.SUBCLASSOF, RDFS.CONTAINER);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.BAG, RDFS.SUBCLASSOF, RDF.BAG);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.LIST, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.LIST, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.LIST, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.LIST, RDFS.SUBCLASSOF, RDF.LIST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PROPERTY, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PROPERTY, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PROPERTY, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PROPERTY, RDFS.SUBCLASSOF, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SEQ, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SEQ, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SEQ, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SEQ, RDFS.SUBCLASSOF, RDFS.CONTAINER);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SEQ, RDFS.SUBCLASSOF, RDF.SEQ);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.STATEMENT, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.STATEMENT, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.STATEMENT, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.STATEMENT, RDFS.SUBCLASSOF, RDF.STATEMENT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.XMLLITERAL, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.XMLLITERAL, RDF.TYPE, RDFS.DATATYPE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.XMLLITERAL, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.XMLLITERAL, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.XMLLITERAL, RDFS.SUBCLASSOF, RDFS.LITERAL);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.XMLLITERAL, RDFS.SUBCLASSOF, RDF.XMLLITERAL);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.FIRST, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.FIRST, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.FIRST, RDFS.DOMAIN, RDF.LIST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.FIRST, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.FIRST, RDFS.SUBPROPERTYOF, RDF.FIRST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.NIL, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.NIL, RDF.TYPE, RDF.LIST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.OBJECT, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.OBJECT, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.OBJECT, RDFS.DOMAIN, RDF.STATEMENT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.OBJECT, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.OBJECT, RDFS.SUBPROPERTYOF, RDF.OBJECT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PREDICATE, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PREDICATE, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PREDICATE, RDFS.DOMAIN, RDF.STATEMENT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PREDICATE, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.PREDICATE, RDFS.SUBPROPERTYOF, RDF.PREDICATE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.REST, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.REST, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.REST, RDFS.DOMAIN, RDF.LIST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.REST, RDFS.RANGE, RDF.LIST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.REST, RDFS.SUBPROPERTYOF, RDF.REST);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SUBJECT, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SUBJECT, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SUBJECT, RDFS.DOMAIN, RDF.STATEMENT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SUBJECT, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.SUBJECT, RDFS.SUBPROPERTYOF, RDF.SUBJECT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.TYPE, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.TYPE, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.TYPE, RDFS.RANGE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.TYPE, RDFS.SUBPROPERTYOF, RDF.TYPE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.VALUE, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.VALUE, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.VALUE, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.VALUE, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDF.VALUE, RDFS.SUBPROPERTYOF, RDF.VALUE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CLASS, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CLASS, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CLASS, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CLASS, RDFS.SUBCLASSOF, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINER, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINER, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINER, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINER, RDFS.SUBCLASSOF, RDFS.CONTAINER);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDFS.SUBCLASSOF,
-				RDFS.CONTAINERMEMBERSHIPPROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDFS.SUBCLASSOF, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DATATYPE, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DATATYPE, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DATATYPE, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DATATYPE, RDFS.SUBCLASSOF, RDFS.DATATYPE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DATATYPE, RDFS.SUBCLASSOF, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LITERAL, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LITERAL, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LITERAL, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LITERAL, RDFS.SUBCLASSOF, RDFS.LITERAL);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RESOURCE, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RESOURCE, RDF.TYPE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RESOURCE, RDFS.SUBCLASSOF, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.COMMENT, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.COMMENT, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.COMMENT, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.COMMENT, RDFS.RANGE, RDFS.LITERAL);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.COMMENT, RDFS.SUBPROPERTYOF, RDFS.COMMENT);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DOMAIN, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DOMAIN, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DOMAIN, RDFS.DOMAIN, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DOMAIN, RDFS.RANGE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.DOMAIN, RDFS.SUBPROPERTYOF, RDFS.DOMAIN);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.ISDEFINEDBY, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.ISDEFINEDBY, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.ISDEFINEDBY, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.ISDEFINEDBY, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.ISDEFINEDBY, RDFS.SUBPROPERTYOF, RDFS.SEEALSO);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.ISDEFINEDBY, RDFS.SUBPROPERTYOF, RDFS.ISDEFINEDBY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LABEL, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LABEL, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LABEL, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LABEL, RDFS.RANGE, RDFS.LITERAL);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.LABEL, RDFS.SUBPROPERTYOF, RDFS.LABEL);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.MEMBER, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.MEMBER, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.MEMBER, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.MEMBER, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.MEMBER, RDFS.SUBPROPERTYOF, RDFS.MEMBER);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RANGE, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RANGE, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RANGE, RDFS.DOMAIN, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RANGE, RDFS.RANGE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.RANGE, RDFS.SUBPROPERTYOF, RDFS.RANGE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SEEALSO, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SEEALSO, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SEEALSO, RDFS.DOMAIN, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SEEALSO, RDFS.RANGE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SEEALSO, RDFS.SUBPROPERTYOF, RDFS.SEEALSO);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBCLASSOF, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBCLASSOF, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBCLASSOF, RDFS.DOMAIN, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBCLASSOF, RDFS.RANGE, RDFS.CLASS);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBCLASSOF, RDFS.SUBPROPERTYOF, RDFS.SUBCLASSOF);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBPROPERTYOF, RDF.TYPE, RDFS.RESOURCE);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBPROPERTYOF, RDF.TYPE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBPROPERTYOF, RDFS.DOMAIN, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBPROPERTYOF, RDFS.RANGE, RDF.PROPERTY);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-		statement = vf.createStatement(RDFS.SUBPROPERTYOF, RDFS.SUBPROPERTYOF, RDFS.SUBPROPERTYOF);
-		processForSchemaCache(statement);
-		addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
-
+		for (Statement statement : AXIOM_STATEMENTS) {
+			processForSchemaCache(statement);
+			addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject());
+		}
 	}
 
 	@Override
@@ -762,6 +486,7 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 		statementsRemoved = false;
 		statementsAdded = false;
 		schemaChange = false;
+		removedStatements = new HashSet<>();
 
 		sail.releaseExclusiveWriteLock();
 	}
@@ -794,24 +519,222 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 	@Override
 	public void flushUpdates()
 			throws SailException {
-		if (statementsRemoved) {
-			logger.debug("full recomputation needed, starting inferencing from scratch");
-			clearInferred();
-			super.flushUpdates();
-
-			addAxiomStatements();
-			super.flushUpdates();
-			doInferencing();
-			super.flushUpdates();
-		} else if (statementsAdded) {
-			super.flushUpdates();
-			doInferencing();
-		} else {
-			super.flushUpdates();
+		boolean incremental = removedStatements != null && !inferredCleared && !sail.useInferredToCreateSchema;
+		updatingInferred = true;
+		try {
+			if (statementsRemoved && !incremental) {
+				logger.debug("full recomputation needed, starting inferencing from scratch");
+				clearInferred();
+				super.flushUpdates();
+
+				addAxiomStatements();
+				super.flushUpdates();
+				doInferencing();
+				super.flushUpdates();
+			} else if (statementsRemoved || statementsAdded && incremental && schemaChange
+					&& !sail.usesPredefinedSchema()) {
+				super.flushUpdates();
+				updateInferred();
+				super.flushUpdates();
+			} else if (statementsAdded) {
+				super.flushUpdates();
+				doInferencing();
+			} else {
+				super.flushUpdates();
+			}
+		} finally {
+			updatingInferred = false;
 		}
 
 		statementsAdded = false;
 		statementsRemoved = false;
+		removedStatements = new HashSet<>();
+	}
+
+	/**
+	 * Updates the inferred statements after statements have been removed or the schema has changed, without recomputing
+	 * all of them. Only the inferences that may be affected are checked (delete and rederive):
+	 * <ol>
+	 * <li>the statements that were inferred from the removed statements, and the removed statements themselves, may no
+	 * longer be inferred;</li>
+	 * <li>if the schema changed, the lookup tables are recalculated. The new inferences of the explicit statements
+	 * whose classes or properties have changed in the lookup tables are added, and their old inferences, as well as the
+	 * statements that were only inferred from the old schema, may no longer be inferred;</li>
+	 * <li>each of these candidates is kept if it can still be inferred from an explicit statement that mentions its
+	 * subject, from the schema or from the axioms, and removed otherwise.</li>
+	 * </ol>
+	 */
+	private void updateInferred() {
+		boolean schemaChanged = !sail.usesPredefinedSchema() && (schemaChange || isSchemaChangedByRemovals());
+		LookupTables lookupTables = schemaChanged ? sail.copyLookupTables() : sail.getLookupTables();
+		Set<Statement> schemaStatements = sail.getSchemaStatements();
+
+		Set<Statement> candidates = new HashSet<>(removedStatements);
+		for (Statement removed : removedStatements) {
+			inferStatements(lookupTables, removed, collectTo(candidates));
+		}
+
+		if (schemaChanged) {
+			logger.debug("schema changed, updating inferred statements of affected classes and properties");
+			schemaChange = true;
+			LookupTables oldLookupTables = lookupTables;
+			Set<Statement> oldSchemaStatements = schemaStatements;
+
+			regenerateCacheAndInferenceMaps(false);
+			lookupTables = sail.getLookupTables();
+			schemaStatements = sail.getSchemaStatements();
+
+			oldSchemaStatements.removeAll(schemaStatements);
+			candidates.addAll(oldSchemaStatements);
+			schemaStatements.forEach(statement -> addInferredStatementInternal(statement.getSubject(),
+					statement.getPredicate(), statement.getObject()));
+
+			for (Resource type : oldLookupTables.getChangedTypes(lookupTables)) {
+				updateInferred(oldLookupTables, lookupTables, null, RDF.TYPE, type, candidates);
+			}
+			for (Resource property : oldLookupTables.getChangedProperties(lookupTables)) {
+				if (property instanceof IRI) {
+					updateInferred(oldLookupTables, lookupTables, null, (IRI) property, null, candidates);
+				}
+			}
+		}
+
+		Map<Resource, Set<Statement>> candidatesBySubject = new HashMap<>();
+		for (Statement candidate : candidates) {
+			if (AXIOM_STATEMENTS.contains(candidate) || schemaStatements.contains(candidate)) {
+				// still inferred, and added again in case it was explicit before
+				addInferredStatementInternal(candidate.getSubject(), candidate.getPredicate(), candidate.getObject());
+			} else {
+				candidatesBySubject.computeIfAbsent(candidate.getSubject(), subject -> new HashSet<>())
+						.add(candidate);
+			}
+		}
+		for (Map.Entry<Resource, Set<Statement>> entry : candidatesBySubject.entrySet()) {
+			rederive(lookupTables, entry.getKey(), entry.getValue());
+		}
+	}
+
+	/**
+	 * Adds the statements that are inferred from the matching explicit statements according to the new lookup tables,
+	 * and collects those that were inferred according to the old lookup tables as candidates for removal.
+	 */
+	private void updateInferred(LookupTables oldLookupTables, LookupTables lookupTables, Resource subj, IRI pred,
+			Value obj, Set<Statement> candidates) {
+		try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(subj, pred,
+				obj, false)) {
+			while (statements.hasNext()) {
+				Statement next = statements.next();
+				inferStatements(oldLookupTables, next, collectTo(candidates));
+				inferStatements(lookupTables, next, this::addInferredStatementInternal);
+			}
+		}
+	}
+
+	/**
+	 * Checks which of the candidates, which all have the same subject, can still be inferred. Since the subject of an
+	 * inferred statement is the subject, the predicate or the object of the statement it is inferred from, only the
+	 * explicit statements that mention the subject need to be checked. The candidates that can be inferred are added
+	 * again, in case they were explicit before, and the others are removed.
+	 */
+	private void rederive(LookupTables lookupTables, Resource subject, Set<Statement> candidates) {
+		Set<Statement> unsupported = new HashSet<>(candidates);
+		removeSupported(lookupTables, unsupported, subject, null, null);
+		removeSupported(lookupTables, unsupported, null, null, subject);
+		if (subject instanceof IRI) {
+			removeSupported(lookupTables, unsupported, null, (IRI) subject, null);
+		}
+
+		for (Statement candidate : candidates) {
+			if (unsupported.contains(candidate)) {
+				super.removeInferredStatement(candidate.getSubject(), candidate.getPredicate(),
+						candidate.getObject(), candidate.getContext());
+			} else {
+				addInferredStatementInternal(candidate.getSubject(), candidate.getPredicate(), candidate.getObject(),
+						candidate.getContext());
+			}
+		}
+	}
+
+	private void removeSupported(LookupTables lookupTables, Set<Statement> unsupported, Resource subj, IRI pred,
+			Value obj) {
+		if (unsupported.isEmpty()) {
+			return;
+		}
+
+		// the inferred statements are in the context of the statement they are inferred from
+		Resource[] contexts = sail.isAddInferredStatementsToDefaultContext() ? new Resource[0]
+				: unsupported.stream().map(Statement::getContext).distinct().toArray(Resource[]::new);
+		try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(subj, pred,
+				obj, false, contexts)) {
+			while (statements.hasNext() && !unsupported.isEmpty()) {
+				Statement next = statements.next();
+				unsupported.remove(next);
+				inferStatements(lookupTables, next, (s, p, o, c) -> {
+					if (c.length == 0) {
+						unsupported.remove(sail.getValueFactory().createStatement(s, p, o));
+					} else {
+						for (Resource context : c) {
+							unsupported.remove(sail.getValueFactory().createStatement(s, p, o, context));
+						}
+					}
+				});
+			}
+		}
+	}
+
+	private boolean isSchemaChangedByRemovals() {
+		Set<IRI> predicates = new HashSet<>();
+		Set<Value> types = new HashSet<>();
+		for (Statement removed : removedStatements) {
+			IRI predicate = removed.getPredicate();
+			if (isSchemaStatement(removed) && !predicate.equals(RDF.TYPE)) {
+				return true;
+			}
+			if (predicate.equals(RDF.TYPE)) {
+				Value object = removed.getObject();
+				if (object.equals(RDF.PROPERTY) || object.equals(RDFS.CLASS) || object.equals(RDFS.DATATYPE)
+						|| object.equals(RDFS.CONTAINERMEMBERSHIPPROPERTY)) {
+					return true;
+				}
+				// the class of the removed statement may no longer be used
+				if (types.add(object) && !connection.hasStatement(null, RDF.TYPE, object, false)) {
+					return true;
+				}
+			}
+			// the predicate of the removed statement may no longer be used
+			if (predicates.add(predicate) && !connection.hasStatement(null, predicate, null, false)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void inferStatements(LookupTables lookupTables, Statement statement, InferredStatementHandler handler) {
+		Resource[] inferredContext;
+		if (sail.isAddInferredStatementsToDefaultContext()) {
+			inferredContext = new Resource[0];
+		} else {
+			inferredContext = new Resource[] { statement.getContext() };
+		}
+		inferStatements(lookupTables, statement.getSubject(), statement.getPredicate(), statement.getObject(),
+				inferredContext, handler);
+	}
+
+	private InferredStatementHandler collectTo(Set<Statement> statements) {
+		return collectTo(statements::add);
+	}
+
+	private InferredStatementHandler collectTo(Consumer<Statement> statements) {
+		ValueFactory vf = sail.getValueFactory();
+		return (subj, pred, obj, contexts) -> {
+			if (contexts.length == 0) {
+				statements.accept(vf.createStatement(subj, pred, obj));
+			} else {
+				for (Resource context : contexts) {
+					statements.accept(vf.createStatement(subj, pred, obj, context));
+				}
+			}
+		};
 	}
 
 	// Called by base sail
@@ -824,7 +747,17 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 	@Override
 	public void statementRemoved(Statement st) {
 		statementsRemoved = true;
-		if (!schemaChange && isSchemaStatement(st)) {
+		if (updatingInferred) {
+			return;
+		}
+		if (removedStatements != null && !sail.useInferredToCreateSchema) {
+			// whether the removal changes the schema is determined when the inferred statements are updated
+			removedStatements.add(st);
+			if (removedStatements.size() > MAX_INCREMENTAL_REMOVALS) {
+				removedStatements = null;
+				schemaChange = true;
+			}
+		} else if (!schemaChange && isSchemaStatement(st)) {
 			schemaChange = true;
 		}
 	}
@@ -834,6 +767,15 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 		return schemaPredicates.contains(predicate);
 	}
 
+	/**
+	 * Handles a statement that is inferred from another statement.
+	 */
+	@FunctionalInterface
+	private interface InferredStatementHandler {
+
+		void handle(Resource subj, IRI pred, Value obj, Resource... contexts);
+	}
+
 	@Override
 	public void addStatement(UpdateContext modify, Resource subj, IRI pred, Value obj, Resource... contexts)
 			throws SailException {
@@ -841,4 +783,154 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 		addStatement(false, subj, pred, obj, contexts);
 		super.addStatement(modify, subj, pred, obj, contexts);
 	}
+
+	private static Set<Statement> createAxiomStatements() {
+		ValueFactory vf = SimpleValueFactory.getInstance();
+
+		// This is http://www.w3.org/2000/01/rdf-schema# forward chained
+		// Eg. all axioms in RDFS forward chained w.r.t. RDFS.
+		// All those axioms are simply listed here
+		return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(
+				vf.createStatement(RDF.ALT, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.ALT, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.ALT, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.ALT, RDFS.SUBCLASSOF, RDFS.CONTAINER),
+				vf.createStatement(RDF.ALT, RDFS.SUBCLASSOF, RDF.ALT),
+				vf.createStatement(RDF.BAG, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.BAG, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.BAG, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.BAG, RDFS.SUBCLASSOF, RDFS.CONTAINER),
+				vf.createStatement(RDF.BAG, RDFS.SUBCLASSOF, RDF.BAG),
+				vf.createStatement(RDF.LIST, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.LIST, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.LIST, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.LIST, RDFS.SUBCLASSOF, RDF.LIST),
+				vf.createStatement(RDF.PROPERTY, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.PROPERTY, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.PROPERTY, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.PROPERTY, RDFS.SUBCLASSOF, RDF.PROPERTY),
+				vf.createStatement(RDF.SEQ, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.SEQ, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.SEQ, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.SEQ, RDFS.SUBCLASSOF, RDFS.CONTAINER),
+				vf.createStatement(RDF.SEQ, RDFS.SUBCLASSOF, RDF.SEQ),
+				vf.createStatement(RDF.STATEMENT, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.STATEMENT, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.STATEMENT, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.STATEMENT, RDFS.SUBCLASSOF, RDF.STATEMENT),
+				vf.createStatement(RDF.XMLLITERAL, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.XMLLITERAL, RDF.TYPE, RDFS.DATATYPE),
+				vf.createStatement(RDF.XMLLITERAL, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDF.XMLLITERAL, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDF.XMLLITERAL, RDFS.SUBCLASSOF, RDFS.LITERAL),
+				vf.createStatement(RDF.XMLLITERAL, RDFS.SUBCLASSOF, RDF.XMLLITERAL),
+				vf.createStatement(RDF.FIRST, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.FIRST, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.FIRST, RDFS.DOMAIN, RDF.LIST),
+				vf.createStatement(RDF.FIRST, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDF.FIRST, RDFS.SUBPROPERTYOF, RDF.FIRST),
+				vf.createStatement(RDF.NIL, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.NIL, RDF.TYPE, RDF.LIST),
+				vf.createStatement(RDF.OBJECT, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.OBJECT, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.OBJECT, RDFS.DOMAIN, RDF.STATEMENT),
+				vf.createStatement(RDF.OBJECT, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDF.OBJECT, RDFS.SUBPROPERTYOF, RDF.OBJECT),
+				vf.createStatement(RDF.PREDICATE, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.PREDICATE, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.PREDICATE, RDFS.DOMAIN, RDF.STATEMENT),
+				vf.createStatement(RDF.PREDICATE, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDF.PREDICATE, RDFS.SUBPROPERTYOF, RDF.PREDICATE),
+				vf.createStatement(RDF.REST, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.REST, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.REST, RDFS.DOMAIN, RDF.LIST),
+				vf.createStatement(RDF.REST, RDFS.RANGE, RDF.LIST),
+				vf.createStatement(RDF.REST, RDFS.SUBPROPERTYOF, RDF.REST),
+				vf.createStatement(RDF.SUBJECT, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.SUBJECT, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.SUBJECT, RDFS.DOMAIN, RDF.STATEMENT),
+				vf.createStatement(RDF.SUBJECT, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDF.SUBJECT, RDFS.SUBPROPERTYOF, RDF.SUBJECT),
+				vf.createStatement(RDF.TYPE, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.TYPE, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.TYPE, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDF.TYPE, RDFS.RANGE, RDFS.CLASS),
+				vf.createStatement(RDF.TYPE, RDFS.SUBPROPERTYOF, RDF.TYPE),
+				vf.createStatement(RDF.VALUE, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDF.VALUE, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDF.VALUE, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDF.VALUE, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDF.VALUE, RDFS.SUBPROPERTYOF, RDF.VALUE),
+				vf.createStatement(RDFS.CLASS, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.CLASS, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDFS.CLASS, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDFS.CLASS, RDFS.SUBCLASSOF, RDFS.CLASS),
+				vf.createStatement(RDFS.CONTAINER, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.CONTAINER, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDFS.CONTAINER, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDFS.CONTAINER, RDFS.SUBCLASSOF, RDFS.CONTAINER),
+				vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDFS.SUBCLASSOF, RDFS.CONTAINERMEMBERSHIPPROPERTY),
+				vf.createStatement(RDFS.CONTAINERMEMBERSHIPPROPERTY, RDFS.SUBCLASSOF, RDF.PROPERTY),
+				vf.createStatement(RDFS.DATATYPE, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.DATATYPE, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDFS.DATATYPE, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDFS.DATATYPE, RDFS.SUBCLASSOF, RDFS.DATATYPE),
+				vf.createStatement(RDFS.DATATYPE, RDFS.SUBCLASSOF, RDFS.CLASS),
+				vf.createStatement(RDFS.LITERAL, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.LITERAL, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDFS.LITERAL, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDFS.LITERAL, RDFS.SUBCLASSOF, RDFS.LITERAL),
+				vf.createStatement(RDFS.RESOURCE, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.RESOURCE, RDF.TYPE, RDFS.CLASS),
+				vf.createStatement(RDFS.RESOURCE, RDFS.SUBCLASSOF, RDFS.RESOURCE),
+				vf.createStatement(RDFS.COMMENT, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.COMMENT, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.COMMENT, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDFS.COMMENT, RDFS.RANGE, RDFS.LITERAL),
+				vf.createStatement(RDFS.COMMENT, RDFS.SUBPROPERTYOF, RDFS.COMMENT),
+				vf.createStatement(RDFS.DOMAIN, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.DOMAIN, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.DOMAIN, RDFS.DOMAIN, RDF.PROPERTY),
+				vf.createStatement(RDFS.DOMAIN, RDFS.RANGE, RDFS.CLASS),
+				vf.createStatement(RDFS.DOMAIN, RDFS.SUBPROPERTYOF, RDFS.DOMAIN),
+				vf.createStatement(RDFS.ISDEFINEDBY, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.ISDEFINEDBY, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.ISDEFINEDBY, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDFS.ISDEFINEDBY, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.ISDEFINEDBY, RDFS.SUBPROPERTYOF, RDFS.SEEALSO),
+				vf.createStatement(RDFS.ISDEFINEDBY, RDFS.SUBPROPERTYOF, RDFS.ISDEFINEDBY),
+				vf.createStatement(RDFS.LABEL, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.LABEL, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.LABEL, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDFS.LABEL, RDFS.RANGE, RDFS.LITERAL),
+				vf.createStatement(RDFS.LABEL, RDFS.SUBPROPERTYOF, RDFS.LABEL),
+				vf.createStatement(RDFS.MEMBER, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.MEMBER, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.MEMBER, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDFS.MEMBER, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.MEMBER, RDFS.SUBPROPERTYOF, RDFS.MEMBER),
+				vf.createStatement(RDFS.RANGE, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.RANGE, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.RANGE, RDFS.DOMAIN, RDF.PROPERTY),
+				vf.createStatement(RDFS.RANGE, RDFS.RANGE, RDFS.CLASS),
+				vf.createStatement(RDFS.RANGE, RDFS.SUBPROPERTYOF, RDFS.RANGE),
+				vf.createStatement(RDFS.SEEALSO, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.SEEALSO, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.SEEALSO, RDFS.DOMAIN, RDFS.RESOURCE),
+				vf.createStatement(RDFS.SEEALSO, RDFS.RANGE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.SEEALSO, RDFS.SUBPROPERTYOF, RDFS.SEEALSO),
+				vf.createStatement(RDFS.SUBCLASSOF, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.SUBCLASSOF, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.SUBCLASSOF, RDFS.DOMAIN, RDFS.CLASS),
+				vf.createStatement(RDFS.SUBCLASSOF, RDFS.RANGE, RDFS.CLASS),
+				vf.createStatement(RDFS.SUBCLASSOF, RDFS.SUBPROPERTYOF, RDFS.SUBCLASSOF),
+				vf.createStatement(RDFS.SUBPROPERTYOF, RDF.TYPE, RDFS.RESOURCE),
+				vf.createStatement(RDFS.SUBPROPERTYOF, RDF.TYPE, RDF.PROPERTY),
+				vf.createStatement(RDFS.SUBPROPERTYOF, RDFS.DOMAIN, RDF.PROPERTY),
+				vf.createStatement(RDFS.SUBPROPERTYOF, RDFS.RANGE, RDF.PROPERTY),
+				vf.createStatement(RDFS.SUBPROPERTYOF, RDFS.SUBPROPERTYOF, RDFS.SUBPROPERTYOF))));
+	}
 }
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.inferencer.fc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the inferred statements that are updated incrementally after removals and schema changes are the same as
+ * those that are inferred from scratch.
+ */
+public class SchemaCachingRDFSInferencerIncrementalTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final IRI[] classes = iris("urn:class", 5);
+
+	private final IRI[] properties = iris("urn:property", 4);
+
+	private final IRI[] individuals = iris("urn:individual", 6);
+
+	private final Resource[] contexts = { null, vf.createIRI("urn:graph0"), vf.createIRI("urn:graph1") };
+
+	private boolean addInferredStatementsToDefaultContext;
+
+	private int inferenceThreads = 1;
+
+	private SailRepository repository;
+
+	@Before
+	public void setUp() {
+		repository = createRepository();
+	}
+
+	@After
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testRemoveInstanceStatement() {
+		try (RepositoryConnection connection = repository.getConnection()) {
+			connection.add(classes[0], RDFS.SUBCLASSOF, classes[1]);
+			connection.add(individuals[0], RDF.TYPE, classes[0]);
+			connection.add(individuals[1], RDF.TYPE, classes[0]);
+			connection.add(individuals[1], RDF.TYPE, classes[1]);
+
+			connection.remove(individuals[0], RDF.TYPE, classes[0]);
+			assertFalse(connection.hasStatement(individuals[0], RDF.TYPE, classes[1], true));
+
+			// the explicit statement is removed, but it is still inferred
+			connection.remove(individuals[1], RDF.TYPE, classes[1]);
+			assertTrue(connection.hasStatement(individuals[1], RDF.TYPE, classes[1], true));
+			assertFalse(connection.hasStatement(individuals[1], RDF.TYPE, classes[1], false));
+		}
+		assertInferredFromScratch();
+	}
+
+	@Test
+	public void testRemoveSchemaStatement() {
+		try (RepositoryConnection connection = repository.getConnection()) {
+			connection.add(classes[0], RDFS.SUBCLASSOF, classes[1]);
+			connection.add(classes[1], RDFS.SUBCLASSOF, classes[2]);
+			connection.add(properties[0], RDFS.DOMAIN, classes[0]);
+			connection.add(individuals[0], properties[0], individuals[1]);
+
+			assertTrue(connection.hasStatement(individuals[0], RDF.TYPE, classes[2], true));
+
+			connection.remove(classes[1], RDFS.SUBCLASSOF, classes[2]);
+			assertTrue(connection.hasStatement(individuals[0], RDF.TYPE, classes[1], true));
+			assertFalse(connection.hasStatement(individuals[0], RDF.TYPE, classes[2], true));
+			assertFalse(connection.hasStatement(classes[0], RDFS.SUBCLASSOF, classes[2], true));
+		}
+		assertInferredFromScratch();
+	}
+
+	@Test
+	public void testRandomChanges() {
+		testRandomChanges(new Random(42));
+	}
+
+	@Test
+	public void testRandomChangesInDefaultContext() {
+		addInferredStatementsToDefaultContext = true;
+		repository.shutDown();
+		repository = createRepository();
+		testRandomChanges(new Random(43));
+	}
+
+	@Test
+	public void testParallelInference() {
+		inferenceThreads = 4;
+		repository.shutDown();
+		repository = createRepository();
+
+		Random random = new Random(44);
+		List<Statement> explicit = new ArrayList<>();
+		try (RepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			for (int i = 0; i < 5000; i++) {
+				Statement st = randomStatement(random);
+				connection.add(st);
+				explicit.add(st);
+			}
+			connection.commit();
+		}
+		assertInferredFromScratch();
+
+		// removing a schema statement infers all statements again
+		try (RepositoryConnection connection = repository.getConnection()) {
+			connection.begin();
+			for (int i = 0; i < 1000; i++) {
+				connection.remove(explicit.remove(random.nextInt(explicit.size())));
+			}
+			connection.commit();
+		}
+		assertInferredFromScratch();
+	}
+
+	private void testRandomChanges(Random random) {
+		List<Statement> explicit = new ArrayList<>();
+		for (int transaction = 0; transaction < 50; transaction++) {
+			try (RepositoryConnection connection = repository.getConnection()) {
+				connection.begin();
+				for (int i = 0; i < 5; i++) {
+					if (!explicit.isEmpty() && random.nextInt(3) == 0) {
+						Statement st = explicit.remove(random.nextInt(explicit.size()));
+						connection.remove(st);
+					} else {
+						Statement st = randomStatement(random);
+						connection.add(st);
+						explicit.add(st);
+					}
+				}
+				connection.commit();
+			}
+			assertInferredFromScratch();
+		}
+	}
+
+	private Statement randomStatement(Random random) {
+		Resource context = contexts[random.nextInt(contexts.length)];
+		IRI individual = individuals[random.nextInt(individuals.length)];
+		switch (random.nextInt(6)) {
+		case 0:
+			return vf.createStatement(pick(random, classes), RDFS.SUBCLASSOF, pick(random, classes), context);
+		case 1:
+			return vf.createStatement(pick(random, properties), RDFS.SUBPROPERTYOF, pick(random, properties),
+					context);
+		case 2:
+			return vf.createStatement(pick(random, properties), random.nextBoolean() ? RDFS.DOMAIN : RDFS.RANGE,
+					pick(random, classes), context);
+		case 3:
+			return vf.createStatement(individual, RDF.TYPE, pick(random, classes), context);
+		default:
+			return vf.createStatement(individual, pick(random, properties), pick(random, individuals), context);
+		}
+	}
+
+	private void assertInferredFromScratch() {
+		SailRepository expected = createRepository(1);
+		try (RepositoryConnection connection = repository.getConnection();
+				RepositoryConnection expectedConnection = expected.getConnection()) {
+			expectedConnection.begin();
+			expectedConnection.add(connection.getStatements(null, null, null, false));
+			expectedConnection.commit();
+
+			assertEquals(statements(expectedConnection), statements(connection));
+		} finally {
+			expected.shutDown();
+		}
+	}
+
+	private SailRepository createRepository() {
+		return createRepository(inferenceThreads);
+	}
+
+	private SailRepository createRepository(int inferenceThreads) {
+		SchemaCachingRDFSInferencer sail = new SchemaCachingRDFSInferencer(new MemoryStore());
+		sail.setAddInferredStatementsToDefaultContext(addInferredStatementsToDefaultContext);
+		sail.setInferenceThreads(inferenceThreads);
+		SailRepository repository = new SailRepository(sail);
+		repository.init();
+		return repository;
+	}
+
+	private static Set<Statement> statements(RepositoryConnection connection) {
+		Set<Statement> statements = new HashSet<>();
+		for (Statement st : Iterations.asList(connection.getStatements(null, null, null, true))) {
+			statements.add(vf.createStatement(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext()));
+		}
+		return statements;
+	}
+
+	private static IRI pick(Random random, IRI[] iris) {
+		return iris[random.nextInt(iris.length)];
+	}
+
+	private static IRI[] iris(String prefix, int count) {
+		IRI[] iris = new IRI[count];
+		for (int i = 0; i < count; i++) {
+			iris[i] = vf.createIRI(prefix + i);
+		}
+		return iris;
+	}
+}
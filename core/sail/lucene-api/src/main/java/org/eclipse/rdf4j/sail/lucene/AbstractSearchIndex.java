@@ -361,14 +361,35 @@ public abstract class AbstractSearchIndex implements SearchIndex {
 
 	/**
 	 * Add a complete Lucene Document based on these statements. Do not search for an existing document with the same
-	 * subject id. (assume the existing document was deleted)
+	 * subject id. (assume the existing document was deleted) Calls are serialized with the other updates of this index,
+	 * unless {@link #supportsConcurrentAddDocuments()} is true.
 	 *
 	 * @param statements the statements that make up the resource
 	 * @throws IOException
 	 */
 	@Override
-	public final synchronized void addDocuments(Resource subject, List<Statement> statements) throws IOException {
+	public final void addDocuments(Resource subject, List<Statement> statements) throws IOException {
+		if (supportsConcurrentAddDocuments()) {
+			addDocumentsInternal(subject, statements);
+		} else {
+			synchronized (this) {
+				addDocumentsInternal(subject, statements);
+			}
+		}
+	}
+
+	/**
+	 * Whether {@link #addDocuments(Resource, List)} may be called concurrently, e.g. by the workers of a reindex,
+	 * without holding the monitor of this index. This requires that the {@link BulkUpdater}s of this index can add
+	 * documents concurrently, and that no other updates are applied to the index in the meantime.
+	 *
+	 * @return false by default.
+	 */
+	protected boolean supportsConcurrentAddDocuments() {
+		return false;
+	}
 
+	private void addDocumentsInternal(Resource subject, List<Statement> statements) throws IOException {
 		String resourceId = SearchFields.getResourceID(subject);
 
 		SetMultimap<String, Statement> stmtsByContextId = HashMultimap.create();
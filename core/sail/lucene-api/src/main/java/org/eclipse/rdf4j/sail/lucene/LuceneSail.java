@@ -18,13 +18,24 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
@@ -40,6 +51,7 @@ import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
 import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
+import org.eclipse.rdf4j.sail.SailConnection;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.evaluation.TupleFunctionEvaluationMode;
 import org.eclipse.rdf4j.sail.helpers.NotifyingSailWrapper;
@@ -212,6 +224,24 @@ public class LuceneSail extends NotifyingSailWrapper {
 	 */
 	public static final String REINDEX_QUERY_KEY = "reindexQuery";
 
+	/**
+	 * Set the parameter "reindexThreads=&lt;n&gt;" to configure the number of threads that add the documents of
+	 * different subjects to the index during a {@link #reindex()}. The default is the number of available processors.
+	 */
+	public static final String REINDEX_THREADS_KEY = "reindexThreads";
+
+	/**
+	 * Set the parameter "reindexCheckpointInterval=&lt;n&gt;" to configure after how many subjects the progress of a
+	 * {@link #reindex()} of a {@link RebuildableSearchIndex} is committed, so that an interrupted reindex resumes from
+	 * there. The default is 10000.
+	 */
+	public static final String REINDEX_CHECKPOINT_INTERVAL_KEY = "reindexCheckpointInterval";
+
+	/**
+	 * The number of subjects that a reindex thread adds at a time.
+	 */
+	private static final int REINDEX_BATCH_SIZE = 100;
+
 	/**
 	 * Set the parameter "indexedfields=..." to configure a selection of fields to index, and projections of properties.
 	 * Only the configured fields will be indexed. A property P projected to Q will cause the index to contain Q instead
@@ -244,6 +274,14 @@ public class LuceneSail extends NotifyingSailWrapper {
 	 */
 	public static final String MAX_DOCUMENTS_KEY = "maxDocuments";
 
+	/**
+	 * Set the key "refreshInterval=&lt;ms&gt;" as sail parameter to make committed changes visible to searches by a
+	 * background refresh at the given interval, instead of refreshing the searcher after each commit. This reduces the
+	 * cost of commits at the expense of search results that may lag behind by up to the interval. The default is 0,
+	 * i.e. refresh on commit. Only supported by the Lucene index.
+	 */
+	public static final String REFRESH_INTERVAL_KEY = "refreshInterval";
+
 	/**
 	 * Set this key to configure which fields contain WKT and should be spatially indexed. The value should be a
 	 * space-separated list of URIs. Default is http://www.opengis.net/ont/geosparql#asWKT.
@@ -290,6 +328,16 @@ public class LuceneSail extends NotifyingSailWrapper {
 
 	private volatile String reindexQuery = "SELECT ?s ?p ?o ?c WHERE {{?s ?p ?o} UNION {GRAPH ?c {?s ?p ?o.}}} ORDER BY ?s";
 
+	private volatile int reindexThreads = Runtime.getRuntime().availableProcessors();
+
+	private volatile int reindexCheckpointInterval = 10000;
+
+	/**
+	 * Connections hold the read lock while they update the index, and an online reindex holds the write lock while it
+	 * replaces the contents of the index.
+	 */
+	private final ReadWriteLock reindexLock = new ReentrantReadWriteLock();
+
 	private volatile boolean incompleteQueryFails = true;
 
 	private volatile TupleFunctionEvaluationMode evaluationMode = TupleFunctionEvaluationMode.TRIPLE_SOURCE;
@@ -382,6 +430,13 @@ public class LuceneSail extends NotifyingSailWrapper {
 			if (parameters.containsKey(REINDEX_QUERY_KEY)) {
 				setReindexQuery(parameters.getProperty(REINDEX_QUERY_KEY));
 			}
+			if (parameters.containsKey(REINDEX_THREADS_KEY)) {
+				setReindexThreads(Integer.parseInt(parameters.getProperty(REINDEX_THREADS_KEY)));
+			}
+			if (parameters.containsKey(REINDEX_CHECKPOINT_INTERVAL_KEY)) {
+				setReindexCheckpointInterval(
+						Integer.parseInt(parameters.getProperty(REINDEX_CHECKPOINT_INTERVAL_KEY)));
+			}
 			if (parameters.containsKey(INCOMPLETE_QUERY_FAIL_KEY)) {
 				setIncompleteQueryFails(Boolean.parseBoolean(parameters.getProperty(INCOMPLETE_QUERY_FAIL_KEY)));
 			}
@@ -441,6 +496,46 @@ public class LuceneSail extends NotifyingSailWrapper {
 		this.reindexQuery = query;
 	}
 
+	/**
+	 * See REINDEX_THREADS_KEY parameter.
+	 */
+	public int getReindexThreads() {
+		return reindexThreads;
+	}
+
+	/**
+	 * See REINDEX_THREADS_KEY parameter.
+	 */
+	public void setReindexThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("reindex threads must be positive: " + threads);
+		}
+		this.setParameter(REINDEX_THREADS_KEY, Integer.toString(threads));
+		this.reindexThreads = threads;
+	}
+
+	/**
+	 * See REINDEX_CHECKPOINT_INTERVAL_KEY parameter.
+	 */
+	public int getReindexCheckpointInterval() {
+		return reindexCheckpointInterval;
+	}
+
+	/**
+	 * See REINDEX_CHECKPOINT_INTERVAL_KEY parameter.
+	 */
+	public void setReindexCheckpointInterval(int subjects) {
+		if (subjects < 1) {
+			throw new IllegalArgumentException("reindex checkpoint interval must be positive: " + subjects);
+		}
+		this.setParameter(REINDEX_CHECKPOINT_INTERVAL_KEY, Integer.toString(subjects));
+		this.reindexCheckpointInterval = subjects;
+	}
+
+	ReadWriteLock getReindexLock() {
+		return reindexLock;
+	}
+
 	/**
 	 * When this is true, incomplete queries will trigger a SailException. You can set this value either using
 	 * {@link #setIncompleteQueryFails(boolean)} or using the parameter "incompletequeryfail"
@@ -498,17 +593,88 @@ public class LuceneSail extends NotifyingSailWrapper {
 
 	/**
 	 * Starts a reindexation process of the whole sail. Basically, this will delete and add all data again, a
-	 * long-lasting process.
+	 * long-lasting process. The documents of different subjects are added by {@link #getReindexThreads()} threads.
+	 * <p>
+	 * A {@link RebuildableSearchIndex} is rebuilt online: it keeps serving queries until the rebuilt index replaces it,
+	 * and the changes that are committed in the meantime are included in the rebuilt index. The progress of the rebuild
+	 * is committed every {@link #getReindexCheckpointInterval()} subjects; if the reindex fails or is interrupted, the
+	 * next reindex resumes the rebuild and skips the subjects that have already been indexed. Other indexes are cleared
+	 * first.
 	 *
 	 * @throws IOException
 	 */
 	public void reindex() throws Exception {
+		SearchIndex index = luceneIndex;
+		if (index instanceof RebuildableSearchIndex) {
+			rebuild((RebuildableSearchIndex) index);
+			return;
+		}
+
 		// clear
 		logger.info("Reindexing sail: clearing...");
-		luceneIndex.clear();
+		index.clear();
 		logger.info("Reindexing sail: adding...");
 
-		luceneIndex.begin();
+		index.begin();
+		try {
+			addDocuments(index, null, false);
+			// commit the changes
+			index.commit();
+
+			logger.info("Reindexing sail: done.");
+		} catch (Exception e) {
+			logger.error("Rolling back", e);
+			index.rollback();
+			throw e;
+		}
+	}
+
+	private void rebuild(RebuildableSearchIndex index) throws Exception {
+		boolean resume = index.isRebuilding();
+		logger.info(resume ? "Reindexing sail: resuming rebuild..." : "Reindexing sail: rebuilding...");
+		SearchIndex stagingIndex = index.beginRebuild();
+		try {
+			addDocuments(stagingIndex, resume ? index : null, true);
+
+			logger.info("Reindexing sail: replacing index...");
+			Lock lock = reindexLock.writeLock();
+			lock.lock();
+			try (SailConnection connection = getBaseSail().getConnection()) {
+				index.completeRebuild(subject -> {
+					try (CloseableIteration<? extends Statement, SailException> statements = connection
+							.getStatements(subject, null, null, false)) {
+						return Iterations.asList(statements);
+					}
+				});
+			} finally {
+				lock.unlock();
+			}
+			logger.info("Reindexing sail: done.");
+		} catch (Exception e) {
+			logger.error("Reindexing sail: suspended, the next reindex resumes from the last checkpoint", e);
+			index.suspendRebuild();
+			throw e;
+		}
+	}
+
+	/**
+	 * Adds the documents of the subjects that are returned by the reindex query to the index.
+	 *
+	 * @param index       the index to add the documents to.
+	 * @param resumed     the index whose rebuild is resumed, whose rebuilt subjects are skipped, or null.
+	 * @param checkpoints whether to commit the index every {@link #getReindexCheckpointInterval()} subjects.
+	 */
+	private void addDocuments(SearchIndex index, RebuildableSearchIndex resumed, boolean checkpoints)
+			throws Exception {
+		int threads = reindexThreads;
+		ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "rdf4j-lucenesail-reindex");
+			thread.setDaemon(true);
+			return thread;
+		});
+		// bounds the number of batches that are held in memory
+		Semaphore permits = new Semaphore(2 * threads);
+		List<Future<?>> tasks = new ArrayList<>();
 		try {
 			// iterate
 			SailRepository repo = new SailRepository(new NotifyingSailWrapper(getBaseSail()) {
@@ -530,47 +696,98 @@ public class LuceneSail extends NotifyingSailWrapper {
 					Resource current = null;
 					ValueFactory vf = getValueFactory();
 					List<Statement> statements = new ArrayList<>();
+					List<List<Statement>> batch = new ArrayList<>();
+					long subjects = 0;
 					while (res.hasNext()) {
 						BindingSet set = res.next();
 						Resource r = (Resource) set.getValue("s");
 						IRI p = (IRI) set.getValue("p");
 						Value o = set.getValue("o");
 						Resource c = (Resource) set.getValue("c");
-						if (current == null) {
-							current = r;
-						} else if (!current.equals(r)) {
-							if (logger.isDebugEnabled()) {
-								logger.debug("reindexing resource " + current);
+						if (current != null && !current.equals(r)) {
+							if (resumed == null || !resumed.isRebuilt(current)) {
+								batch.add(statements);
+							}
+							statements = new ArrayList<>();
+							if (batch.size() >= REINDEX_BATCH_SIZE) {
+								submit(executor, permits, tasks, index, batch);
+								batch = new ArrayList<>();
+							}
+							if (++subjects % reindexCheckpointInterval == 0) {
+								if (checkpoints) {
+									submit(executor, permits, tasks, index, batch);
+									batch = new ArrayList<>();
+									await(tasks);
+									index.commit();
+								}
+								logger.info("Reindexing sail: {} subjects", subjects);
 							}
-							// commit
-							luceneIndex.addDocuments(current, statements);
-
-							// re-init
-							current = r;
-							statements.clear();
 						}
+						current = r;
 						statements.add(vf.createStatement(r, p, o, c));
 					}
 
 					// make sure to index statements for last resource
-					if (current != null && !statements.isEmpty()) {
-						if (logger.isDebugEnabled()) {
-							logger.debug("reindexing resource " + current);
-						}
-						// commit
-						luceneIndex.addDocuments(current, statements);
+					if (current != null && (resumed == null || !resumed.isRebuilt(current))) {
+						batch.add(statements);
+					}
+					submit(executor, permits, tasks, index, batch);
+					await(tasks);
+					if (checkpoints) {
+						index.commit();
 					}
 				}
 			} finally {
 				repo.shutDown();
 			}
-			// commit the changes
-			luceneIndex.commit();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-			logger.info("Reindexing sail: done.");
-		} catch (Exception e) {
-			logger.error("Rolling back", e);
-			luceneIndex.rollback();
+	private static void submit(ExecutorService executor, Semaphore permits, List<Future<?>> tasks, SearchIndex index,
+			List<List<Statement>> batch) throws Exception {
+		// fail fast when a batch has failed
+		for (Iterator<Future<?>> i = tasks.iterator(); i.hasNext();) {
+			Future<?> task = i.next();
+			if (task.isDone()) {
+				getResult(task);
+				i.remove();
+			}
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		permits.acquire();
+		tasks.add(executor.submit(() -> {
+			try {
+				for (List<Statement> statements : batch) {
+					if (logger.isDebugEnabled()) {
+						logger.debug("reindexing resource " + statements.get(0).getSubject());
+					}
+					index.addDocuments(statements.get(0).getSubject(), statements);
+				}
+				return null;
+			} finally {
+				permits.release();
+			}
+		}));
+	}
+
+	private static void await(List<Future<?>> tasks) throws Exception {
+		for (Future<?> task : tasks) {
+			getResult(task);
+		}
+		tasks.clear();
+	}
+
+	private static void getResult(Future<?> task) throws Exception {
+		try {
+			task.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception) {
+				throw (Exception) e.getCause();
+			}
 			throw e;
 		}
 	}
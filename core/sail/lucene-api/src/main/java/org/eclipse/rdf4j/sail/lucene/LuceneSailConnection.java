@@ -9,11 +9,14 @@ package org.eclipse.rdf4j.sail.lucene;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.IRI;
@@ -219,10 +222,15 @@ public class LuceneSailConnection extends NotifyingSailConnectionWrapper {
 		super.commit();
 
 		logger.debug("Committing Lucene transaction with {} operations.", buffer.operations().size());
+		// an online reindex waits while the index is updated
+		Lock lock = sail.getReindexLock().readLock();
+		lock.lock();
 		try {
 			// preprocess buffer
 			buffer.optimize();
 
+			recordRebuildChanges(buffer.operations());
+
 			// run operations and remove them from buffer
 			for (Iterator<Operation> i = buffer.operations().iterator(); i.hasNext();) {
 				Operation op = i.next();
@@ -247,10 +255,41 @@ public class LuceneSailConnection extends NotifyingSailConnectionWrapper {
 					+ " operations are discarded. Lucene Index is now corrupt.", e);
 			throw new SailException(e);
 		} finally {
+			lock.unlock();
 			buffer.reset();
 		}
 	}
 
+	/**
+	 * Records the subjects and contexts that are changed by the operations, if the index is being rebuilt, so that the
+	 * rebuild includes the changes.
+	 */
+	private void recordRebuildChanges(List<Operation> operations) throws IOException {
+		if (!(luceneIndex instanceof RebuildableSearchIndex)
+				|| !((RebuildableSearchIndex) luceneIndex).isRebuilding()) {
+			return;
+		}
+		Set<Resource> subjects = new HashSet<>();
+		Set<Resource> contexts = new HashSet<>();
+		boolean cleared = false;
+		for (Operation op : operations) {
+			if (op instanceof LuceneSailBuffer.AddRemoveOperation) {
+				AddRemoveOperation addremove = (AddRemoveOperation) op;
+				for (Statement statement : addremove.getAdded()) {
+					subjects.add(statement.getSubject());
+				}
+				for (Statement statement : addremove.getRemoved()) {
+					subjects.add(statement.getSubject());
+				}
+			} else if (op instanceof LuceneSailBuffer.ClearContextOperation) {
+				contexts.addAll(Arrays.asList(((ClearContextOperation) op).getContexts()));
+			} else if (op instanceof LuceneSailBuffer.ClearOperation) {
+				cleared = true;
+			}
+		}
+		((RebuildableSearchIndex) luceneIndex).recordRebuildChanges(subjects, contexts, cleared);
+	}
+
 	private void addRemoveStatements(Set<Statement> toAdd, Set<Statement> toRemove) throws IOException {
 		logger.debug("indexing {}/removing {} statements...", toAdd.size(), toRemove.size());
 		luceneIndex.begin();
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.lucene;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+
+/**
+ * A {@link SearchIndex} that can be rebuilt while it keeps serving queries. The documents are added to a staging index,
+ * which atomically replaces the contents of this index once it is complete.
+ * <p>
+ * A rebuild that fails or is interrupted can be resumed: the documents that were committed to the staging index are
+ * kept, and the subjects and contexts that are changed while a rebuild is pending are recorded in the staging index, so
+ * that their documents can be rebuilt when the rebuild completes.
+ *
+ * @see LuceneSail#reindex()
+ */
+public interface RebuildableSearchIndex extends SearchIndex {
+
+	/**
+	 * Starts a rebuild, or resumes the pending rebuild.
+	 *
+	 * @return the staging index, to which the documents of all subjects must be added. Committing the staging index
+	 *         makes its documents durable, such that a resumed rebuild does not need to add them again.
+	 * @throws IOException
+	 */
+	SearchIndex beginRebuild() throws IOException;
+
+	/**
+	 * @return <code>true</code> if a rebuild has been started and has not completed yet, in which case all changes must
+	 *         be {@link #recordRebuildChanges(Set, Set, boolean) recorded} before they are applied to this index.
+	 */
+	boolean isRebuilding();
+
+	/**
+	 * @param subject a subject
+	 * @return <code>true</code> if the documents of the subject have been committed to the staging index.
+	 * @throws IOException
+	 */
+	boolean isRebuilt(Resource subject) throws IOException;
+
+	/**
+	 * Durably records changes that are made to this index while a rebuild is pending.
+	 *
+	 * @param subjects the subjects whose documents have changed.
+	 * @param contexts the contexts that have been cleared.
+	 * @param cleared  whether the index has been cleared.
+	 * @throws IOException
+	 */
+	void recordRebuildChanges(Set<Resource> subjects, Set<Resource> contexts, boolean cleared) throws IOException;
+
+	/**
+	 * Discards the documents that have been added to the staging index since it was last committed. The rebuild remains
+	 * pending.
+	 *
+	 * @throws IOException
+	 */
+	void suspendRebuild() throws IOException;
+
+	/**
+	 * Replaces the contents of this index with those of the staging index, in a single commit, and removes the staging
+	 * index. The recorded changes are applied as part of the same commit: cleared contexts are removed and the
+	 * documents of changed subjects are built again from their current statements.
+	 *
+	 * @param statements provides the current statements of a subject.
+	 * @throws IOException
+	 */
+	void completeRebuild(Function<Resource, List<Statement>> statements) throws IOException;
+}
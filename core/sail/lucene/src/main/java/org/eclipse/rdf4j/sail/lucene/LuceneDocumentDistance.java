@@ -11,6 +11,7 @@ import java.text.ParseException;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.lucene.document.Document;
 import org.apache.lucene.search.ScoreDoc;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.sail.lucene.util.GeoUnits;
@@ -27,7 +28,7 @@ public class LuceneDocumentDistance extends LuceneDocumentResult implements Docu
 
 	private final Point origin;
 
-	private static Set<String> requiredFields(String geoProperty, boolean includeContext) {
+	static Set<String> requiredFields(String geoProperty, boolean includeContext) {
 		Set<String> fields = Sets.newHashSet(SearchFields.URI_FIELD_NAME, geoProperty);
 		if (includeContext) {
 			fields.add(SearchFields.CONTEXT_FIELD_NAME);
@@ -43,6 +44,18 @@ public class LuceneDocumentDistance extends LuceneDocumentResult implements Docu
 		this.origin = origin;
 	}
 
+	/**
+	 * Creates a distance for a document that has already been loaded from the searcher that found it, with the
+	 * {@link #requiredFields(String, boolean) required fields}.
+	 */
+	public LuceneDocumentDistance(ScoreDoc doc, String geoProperty, IRI units, Point origin, Document document,
+			LuceneIndex index) {
+		super(doc, document, index);
+		this.geoProperty = geoProperty;
+		this.units = units;
+		this.origin = origin;
+	}
+
 	@Override
 	public double getDistance() {
 		List<String> wkts = getDocument().getProperty(geoProperty);
@@ -28,6 +28,14 @@ public class LuceneDocumentResult implements DocumentResult {
 		this.fields = fields;
 	}
 
+	/**
+	 * Creates a result for a document that has already been loaded from the searcher that found it.
+	 */
+	public LuceneDocumentResult(ScoreDoc doc, Document document, LuceneIndex index) {
+		this(doc, index, null);
+		this.fullDoc = new LuceneDocument(document, index.getSpatialStrategyMapper());
+	}
+
 	@Override
 	public SearchDocument getDocument() {
 		if (fullDoc == null) {
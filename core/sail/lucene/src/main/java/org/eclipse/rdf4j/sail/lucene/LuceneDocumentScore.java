@@ -11,6 +11,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
+import org.apache.lucene.document.Document;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.highlight.Highlighter;
 
@@ -20,7 +21,7 @@ public class LuceneDocumentScore extends LuceneDocumentResult implements Documen
 
 	private final Highlighter highlighter;
 
-	private static Set<String> requiredFields(boolean all) {
+	static Set<String> requiredFields(boolean all) {
 		return all ? null : Collections.singleton(SearchFields.URI_FIELD_NAME);
 	}
 
@@ -29,6 +30,15 @@ public class LuceneDocumentScore extends LuceneDocumentResult implements Documen
 		this.highlighter = highlighter;
 	}
 
+	/**
+	 * Creates a score for a document that has already been loaded from the searcher that found it, with all fields if
+	 * it is highlighted.
+	 */
+	public LuceneDocumentScore(ScoreDoc doc, Highlighter highlighter, Document document, LuceneIndex index) {
+		super(doc, document, index);
+		this.highlighter = highlighter;
+	}
+
 	@Override
 	public float getScore() {
 		return scoreDoc.score;
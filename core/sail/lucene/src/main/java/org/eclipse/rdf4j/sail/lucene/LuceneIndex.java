@@ -11,6 +11,8 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -22,7 +24,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.TokenStream;
@@ -56,7 +65,10 @@ import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
 import org.apache.lucene.search.highlight.Formatter;
@@ -70,12 +82,14 @@ import org.apache.lucene.spatial.prefix.RecursivePrefixTreeStrategy;
 import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTree;
 import org.apache.lucene.spatial.prefix.tree.SpatialPrefixTreeFactory;
 import org.apache.lucene.spatial.query.SpatialOperation;
+import org.apache.lucene.store.AlreadyClosedException;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.RAMDirectory;
 import org.apache.lucene.util.Bits;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.vocabulary.GEOF;
 import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.algebra.Var;
@@ -95,10 +109,19 @@ import com.google.common.collect.Sets;
 /**
  * A LuceneIndex is a one-stop-shop abstraction of a Lucene index. It takes care of proper synchronization of
  * IndexReaders, IndexWriters and IndexSearchers in a way that is suitable for a LuceneSail.
+ * <p>
+ * Searches use near-real-time readers of the IndexWriter, which are managed by a {@link SearcherManager}, so that they
+ * neither block nor are blocked by updates of the index. Concurrent commits are grouped, such that a single commit of
+ * the IndexWriter makes the changes of all waiting committers durable. By default, the searcher is refreshed on each
+ * commit; when the {@link LuceneSail#REFRESH_INTERVAL_KEY} parameter is set, it is refreshed periodically instead.
+ * <p>
+ * The index is rebuilt in a staging index next to it, in a directory with the suffix <code>.rebuild</code>, or in RAM
+ * if the index itself is not stored in a directory given by the {@link LuceneSail#LUCENE_DIR_KEY} parameter. A pending
+ * rebuild is resumed after a restart if its staging index is stored on disk.
  *
  * @see LuceneSail
  */
-public class LuceneIndex extends AbstractLuceneIndex {
+public class LuceneIndex extends AbstractLuceneIndex implements RebuildableSearchIndex {
 
 	static {
 		// do NOT set this to Integer.MAX_VALUE, because this breaks fuzzy
@@ -109,6 +132,24 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	private static final String GEO_FIELD_PREFIX = "_geo_";
 	private static final String POINT_FIELD_PREFIX = "_pt_";
 
+	/**
+	 * The field of the documents that record changes in a staging index, with one of the values below.
+	 */
+	private static final String REBUILD_CHANGE_FIELD = "_rebuild_change";
+
+	/**
+	 * The resource or context ID of a recorded change.
+	 */
+	private static final String REBUILD_ID_FIELD = "_rebuild_id";
+
+	private static final String REBUILD_SUBJECT = "subject";
+
+	private static final String REBUILD_CONTEXT = "context";
+
+	private static final String REBUILD_CLEAR = "clear";
+
+	private static final String STAGING_DIR_SUFFIX = ".rebuild";
+
 	private final Logger logger = LoggerFactory.getLogger(getClass());
 
 	/**
@@ -130,6 +171,60 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 */
 	private volatile IndexWriter indexWriter;
 
+	/**
+	 * Provides near-real-time searchers of {@link #indexWriter}. Created together with the IndexWriter.
+	 */
+	private volatile SearcherManager searcherManager;
+
+	/**
+	 * Searches and updates hold the read lock, while the IndexWriter and SearcherManager are replaced or closed under
+	 * the write lock.
+	 */
+	private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+	/**
+	 * The number of commits that have been requested.
+	 */
+	private final AtomicLong commitRequests = new AtomicLong();
+
+	/**
+	 * Guards the commits of the IndexWriter.
+	 */
+	private final Object commitLock = new Object();
+
+	/**
+	 * The number of requested commits whose changes have been committed. Guarded by {@link #commitLock}.
+	 */
+	private long completedCommitRequests;
+
+	/**
+	 * The interval in milliseconds at which searchers are refreshed, or 0 to refresh them on each commit.
+	 */
+	private volatile long refreshInterval;
+
+	private volatile ScheduledExecutorService refreshScheduler;
+
+	/**
+	 * Held while the searcher is refreshed, and while a rebuild replaces the contents of the index, so that searches
+	 * never see partially replaced contents.
+	 */
+	private final ReentrantLock refreshLock = new ReentrantLock();
+
+	/**
+	 * The parameters with which this index was initialized, or null if it was constructed with a Directory.
+	 */
+	private volatile Properties parameters;
+
+	/**
+	 * The staging index of a pending rebuild, or null.
+	 */
+	private volatile LuceneIndex stagingIndex;
+
+	/**
+	 * Whether this is the staging index of another index.
+	 */
+	private volatile boolean staging;
+
 	/**
 	 * This holds IndexReader and IndexSearcher.
 	 */
@@ -173,6 +268,7 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	@Override
 	public synchronized void initialize(Properties parameters) throws Exception {
 		super.initialize(parameters);
+		this.parameters = (Properties) parameters.clone();
 		this.directory = createDirectory(parameters);
 		this.analyzer = createAnalyzer(parameters);
 		this.similarity = createSimilarity(parameters);
@@ -180,8 +276,26 @@ public class LuceneIndex extends AbstractLuceneIndex {
 		// Map<Object,Object>
 		// even though it is effectively Map<String,String>
 		this.geoStrategyMapper = createSpatialStrategyMapper((Map<String, String>) (Map<?, ?>) parameters);
+		if (parameters.containsKey(LuceneSail.REFRESH_INTERVAL_KEY)) {
+			this.refreshInterval = Long.parseLong(parameters.getProperty(LuceneSail.REFRESH_INTERVAL_KEY));
+		}
 
 		postInit();
+		if (refreshInterval > 0) {
+			refreshScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "rdf4j-lucene-refresh");
+				thread.setDaemon(true);
+				return thread;
+			});
+			refreshScheduler.scheduleWithFixedDelay(this::refreshSearcher, refreshInterval, refreshInterval,
+					TimeUnit.MILLISECONDS);
+		}
+
+		Path stagingPath = getStagingPath();
+		if (stagingPath != null && Files.isDirectory(stagingPath)) {
+			logger.info("Lucene index has a pending rebuild in {}", stagingPath);
+			stagingIndex = openStagingIndex();
+		}
 	}
 
 	protected Directory createDirectory(Properties parameters) throws IOException {
@@ -268,49 +382,174 @@ public class LuceneIndex extends AbstractLuceneIndex {
 
 	// //////////////////////////////// Methods for controlled index access
 	// For quick'n'easy access to reader, the indexreader is returned directly
-	// result LuceneQueryIterators use the more elaborate
-	// ReaderMonitor directly to be able to close the reader when they
-	// are done.
+	// from the current ReaderMonitor, which is replaced when the searcher is
+	// refreshed. Searches of the index itself acquire a searcher from the
+	// SearcherManager and release it when they are done.
 
-	public synchronized IndexReader getIndexReader() throws IOException {
-		if (closed.get()) {
-			throw new SailException("Index has been closed");
-		}
+	public IndexReader getIndexReader() throws IOException {
 		return getIndexSearcher().getIndexReader();
 	}
 
-	public synchronized IndexSearcher getIndexSearcher() throws IOException {
+	public IndexSearcher getIndexSearcher() throws IOException {
 		if (closed.get()) {
 			throw new SailException("Index has been closed");
 		}
-		IndexSearcher indexSearcher = getCurrentMonitor().getIndexSearcher();
-		indexSearcher.setSimilarity(similarity);
-		return indexSearcher;
+		return getCurrentMonitor().getIndexSearcher();
 	}
 
 	/**
 	 * Current monitor holds instance of IndexReader and IndexSearcher It is used to keep track of readers
 	 */
 	@Override
-	public synchronized ReaderMonitor getCurrentMonitor() {
+	public ReaderMonitor getCurrentMonitor() {
 		if (closed.get()) {
 			throw new SailException("Index has been closed");
 		}
-		if (currentMonitor == null) {
-			currentMonitor = new ReaderMonitor(this, directory);
+		// lock in the same order as a rollback, which invalidates the readers
+		lifecycleLock.readLock().lock();
+		try {
+			synchronized (oldmonitors) {
+				if (currentMonitor == null) {
+					currentMonitor = new ReaderMonitor(this, getSearcherManager());
+				}
+				return currentMonitor;
+			}
+		} catch (IOException e) {
+			throw new SailException(e);
+		} finally {
+			lifecycleLock.readLock().unlock();
 		}
-		return currentMonitor;
 	}
 
-	public synchronized IndexWriter getIndexWriter() throws IOException {
+	public IndexWriter getIndexWriter() throws IOException {
+		IndexWriter writer = indexWriter;
+		if (writer == null || !writer.isOpen()) {
+			synchronized (this) {
+				if (indexWriter == null || !indexWriter.isOpen()) {
+					openIndexWriter();
+				}
+				writer = indexWriter;
+			}
+		}
+		return writer;
+	}
+
+	private SearcherManager getSearcherManager() throws IOException {
+		SearcherManager manager = searcherManager;
+		if (manager == null) {
+			synchronized (this) {
+				if (searcherManager == null) {
+					openIndexWriter();
+				}
+				manager = searcherManager;
+			}
+		}
+		return manager;
+	}
+
+	/**
+	 * Opens a new IndexWriter and a SearcherManager for its near-real-time readers. Callers must hold the monitor of
+	 * this index.
+	 */
+	private void openIndexWriter() throws IOException {
 		if (closed.get()) {
 			throw new SailException("Index has been closed");
 		}
-		if (indexWriter == null || !indexWriter.isOpen()) {
-			IndexWriterConfig indexWriterConfig = getIndexWriterConfig();
-			indexWriter = new IndexWriter(directory, indexWriterConfig);
+		closeSearcherManager();
+		indexWriter = new IndexWriter(directory, getIndexWriterConfig());
+		SearcherManager manager = new SearcherManager(indexWriter, new SearcherFactory() {
+
+			@Override
+			public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) throws IOException {
+				IndexSearcher searcher = new IndexSearcher(reader);
+				searcher.setSimilarity(similarity);
+				return searcher;
+			}
+		});
+		manager.addListener(new ReferenceManager.RefreshListener() {
+
+			@Override
+			public void beforeRefresh() {
+				// nothing to do
+			}
+
+			@Override
+			public void afterRefresh(boolean didRefresh) throws IOException {
+				if (didRefresh) {
+					// the reader of the current monitor is outdated
+					invalidateReaders();
+				}
+			}
+		});
+		searcherManager = manager;
+	}
+
+	private void closeSearcherManager() throws IOException {
+		SearcherManager toCloseSearcherManager = searcherManager;
+		searcherManager = null;
+		if (toCloseSearcherManager != null) {
+			toCloseSearcherManager.close();
+		}
+	}
+
+	/**
+	 * Applies the function to a searcher of the most recently refreshed reader, which is not closed before the function
+	 * returns.
+	 */
+	private <T> T search(SearcherFunction<T> function) throws IOException {
+		SearcherManager manager;
+		IndexSearcher searcher;
+		lifecycleLock.readLock().lock();
+		try {
+			if (closed.get()) {
+				throw new SailException("Index has been closed");
+			}
+			manager = getSearcherManager();
+			searcher = manager.acquire();
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
+		try {
+			return function.apply(searcher);
+		} finally {
+			manager.release(searcher);
+		}
+	}
+
+	/**
+	 * Makes changes that have been made since the last refresh visible to searches, if searchers are refreshed
+	 * periodically. Called by the refresh scheduler.
+	 */
+	private void refreshSearcher() {
+		lifecycleLock.readLock().lock();
+		try {
+			SearcherManager manager = searcherManager;
+			// skip this refresh if another one is in progress
+			if (manager != null && refreshLock.tryLock()) {
+				try {
+					manager.maybeRefresh();
+				} finally {
+					refreshLock.unlock();
+				}
+			}
+		} catch (IOException | AlreadyClosedException e) {
+			logger.warn("Could not refresh Lucene searcher", e);
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Makes all changes that have been made visible to searches. Callers must hold the read lock of
+	 * {@link #lifecycleLock}.
+	 */
+	private void refreshSearcherBlocking() throws IOException {
+		refreshLock.lock();
+		try {
+			getSearcherManager().maybeRefreshBlocking();
+		} finally {
+			refreshLock.unlock();
 		}
-		return indexWriter;
 	}
 
 	@Override
@@ -319,46 +558,66 @@ public class LuceneIndex extends AbstractLuceneIndex {
 		// when an earlier instance resulted in an IOException
 		// FIXME: is there a more elegant way to ensure this?
 		if (closed.compareAndSet(false, true)) {
+			ScheduledExecutorService toShutDownScheduler = refreshScheduler;
+			refreshScheduler = null;
+			if (toShutDownScheduler != null) {
+				toShutDownScheduler.shutdownNow();
+			}
+			// a pending rebuild is kept, so that it can be resumed
+			LuceneIndex toShutDownStagingIndex = stagingIndex;
+			stagingIndex = null;
+			if (toShutDownStagingIndex != null) {
+				toShutDownStagingIndex.shutDown();
+			}
+			lifecycleLock.writeLock().lock();
 			try {
-				// This close oldMonitors which hold InderReader and
-				// IndexSeracher
-				// Monitor close IndexReader and IndexSearcher
-				ReaderMonitor toCloseCurrentMonitor = currentMonitor;
-				currentMonitor = null;
-				if (toCloseCurrentMonitor != null) {
-					toCloseCurrentMonitor.close();
-				}
-			} finally {
-				List<Throwable> exceptions = new ArrayList<>();
 				try {
-					synchronized (oldmonitors) {
-						if (oldmonitors.size() > 0) {
-							logger.warn(
-									"LuceneSail: On shutdown {} IndexReaders were not closed. This is due to non-closed Query Iterators, which must be closed!",
-									oldmonitors.size());
-						}
-						for (AbstractReaderMonitor monitor : oldmonitors) {
-							try {
-								monitor.close();
-							} catch (Throwable e) {
-								exceptions.add(e);
-							}
-						}
-						oldmonitors.clear();
+					// This close oldMonitors which hold InderReader and
+					// IndexSeracher
+					// Monitor close IndexReader and IndexSearcher
+					ReaderMonitor toCloseCurrentMonitor = currentMonitor;
+					currentMonitor = null;
+					if (toCloseCurrentMonitor != null) {
+						toCloseCurrentMonitor.close();
 					}
 				} finally {
+					List<Throwable> exceptions = new ArrayList<>();
 					try {
-						IndexWriter toCloseIndexWriter = indexWriter;
-						indexWriter = null;
-						if (toCloseIndexWriter != null) {
-							toCloseIndexWriter.close();
+						synchronized (oldmonitors) {
+							if (oldmonitors.size() > 0) {
+								logger.warn(
+										"LuceneSail: On shutdown {} IndexReaders were not closed. This is due to non-closed Query Iterators, which must be closed!",
+										oldmonitors.size());
+							}
+							for (AbstractReaderMonitor monitor : oldmonitors) {
+								try {
+									monitor.close();
+								} catch (Throwable e) {
+									exceptions.add(e);
+								}
+							}
+							oldmonitors.clear();
 						}
 					} finally {
-						if (!exceptions.isEmpty()) {
-							throw new UndeclaredThrowableException(exceptions.get(0));
+						try {
+							closeSearcherManager();
+						} finally {
+							try {
+								IndexWriter toCloseIndexWriter = indexWriter;
+								indexWriter = null;
+								if (toCloseIndexWriter != null) {
+									toCloseIndexWriter.close();
+								}
+							} finally {
+								if (!exceptions.isEmpty()) {
+									throw new UndeclaredThrowableException(exceptions.get(0));
+								}
+							}
 						}
 					}
 				}
+			} finally {
+				lifecycleLock.writeLock().unlock();
 			}
 		}
 	}
@@ -366,13 +625,13 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	// //////////////////////////////// Methods for updating the index
 
 	@Override
-	protected synchronized SearchDocument getDocument(String id) throws IOException {
+	protected SearchDocument getDocument(String id) throws IOException {
 		Document document = getDocument(idTerm(id));
 		return (document != null) ? new LuceneDocument(document, geoStrategyMapper) : null;
 	}
 
 	@Override
-	protected synchronized Iterable<? extends SearchDocument> getDocuments(String resourceId) throws IOException {
+	protected Iterable<? extends SearchDocument> getDocuments(String resourceId) throws IOException {
 		List<Document> docs = getDocuments(new Term(SearchFields.URI_FIELD_NAME, resourceId));
 		return Iterables.transform(docs, new Function<Document, SearchDocument>() {
 
@@ -384,12 +643,12 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	}
 
 	@Override
-	protected synchronized SearchDocument newDocument(String id, String resourceId, String context) {
+	protected SearchDocument newDocument(String id, String resourceId, String context) {
 		return new LuceneDocument(id, resourceId, context, geoStrategyMapper);
 	}
 
 	@Override
-	protected synchronized SearchDocument copyDocument(SearchDocument doc) {
+	protected SearchDocument copyDocument(SearchDocument doc) {
 		Document document = ((LuceneDocument) doc).getDocument();
 		Document newDocument = new Document();
 
@@ -401,23 +660,85 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	}
 
 	@Override
-	protected synchronized void addDocument(SearchDocument doc) throws IOException {
-		getIndexWriter().addDocument(((LuceneDocument) doc).getDocument());
+	protected void addDocument(SearchDocument doc) throws IOException {
+		lifecycleLock.readLock().lock();
+		try {
+			getIndexWriter().addDocument(((LuceneDocument) doc).getDocument());
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
 	}
 
 	@Override
-	protected synchronized void updateDocument(SearchDocument doc) throws IOException {
-		getIndexWriter().updateDocument(idTerm(doc.getId()), ((LuceneDocument) doc).getDocument());
+	protected void updateDocument(SearchDocument doc) throws IOException {
+		lifecycleLock.readLock().lock();
+		try {
+			getIndexWriter().updateDocument(idTerm(doc.getId()), ((LuceneDocument) doc).getDocument());
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
 	}
 
 	@Override
-	protected synchronized void deleteDocument(SearchDocument doc) throws IOException {
-		getIndexWriter().deleteDocuments(idTerm(doc.getId()));
+	protected void deleteDocument(SearchDocument doc) throws IOException {
+		lifecycleLock.readLock().lock();
+		try {
+			getIndexWriter().deleteDocuments(idTerm(doc.getId()));
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
 	}
 
+	/**
+	 * A staging index is only written by the workers of a rebuild, which add the documents of different subjects
+	 * through the thread-safe {@link IndexWriter}, and by {@link #recordRebuildChanges(Set, Set, boolean)}, which does
+	 * not depend on the monitor of the staging index.
+	 */
 	@Override
-	protected synchronized BulkUpdater newBulkUpdate() {
-		return new SimpleBulkUpdater(this);
+	protected boolean supportsConcurrentAddDocuments() {
+		return staging;
+	}
+
+	@Override
+	protected BulkUpdater newBulkUpdate() {
+		return new BlockBulkUpdater();
+	}
+
+	/**
+	 * Adds the new documents of a batch as one block, so that a commit includes either all or none of them. A subject
+	 * is thereby either completely or not at all part of the commits of a staging index.
+	 */
+	private final class BlockBulkUpdater implements BulkUpdater {
+
+		private final List<Document> added = new ArrayList<>();
+
+		@Override
+		public void add(SearchDocument doc) {
+			added.add(((LuceneDocument) doc).getDocument());
+		}
+
+		@Override
+		public void update(SearchDocument doc) throws IOException {
+			updateDocument(doc);
+		}
+
+		@Override
+		public void delete(SearchDocument doc) throws IOException {
+			deleteDocument(doc);
+		}
+
+		@Override
+		public void end() throws IOException {
+			if (!added.isEmpty()) {
+				lifecycleLock.readLock().lock();
+				try {
+					getIndexWriter().addDocuments(added);
+				} finally {
+					lifecycleLock.readLock().unlock();
+				}
+				added.clear();
+			}
+		}
 	}
 
 	private Term idTerm(String id) {
@@ -429,18 +750,19 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 * such Document exists yet.
 	 */
 	private Document getDocument(Term idTerm) throws IOException {
-		IndexReader reader = getIndexReader();
-		List<LeafReaderContext> leaves = reader.leaves();
-		int size = leaves.size();
-		for (int i = 0; i < size; i++) {
-			LeafReader lreader = leaves.get(i).reader();
-			Document document = getDocument(lreader, idTerm);
-			if (document != null) {
-				return document;
+		return search(searcher -> {
+			List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+			int size = leaves.size();
+			for (int i = 0; i < size; i++) {
+				LeafReader lreader = leaves.get(i).reader();
+				Document document = getDocument(lreader, idTerm);
+				if (document != null) {
+					return document;
+				}
 			}
-		}
-		// no such Document
-		return null;
+			// no such Document
+			return null;
+		});
 	}
 
 	private static Document getDocument(LeafReader reader, Term term) throws IOException {
@@ -471,17 +793,18 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 * context
 	 */
 	private List<Document> getDocuments(Term uriTerm) throws IOException {
-		List<Document> result = new ArrayList<>();
+		return search(searcher -> {
+			List<Document> result = new ArrayList<>();
 
-		IndexReader reader = getIndexReader();
-		List<LeafReaderContext> leaves = reader.leaves();
-		int size = leaves.size();
-		for (int i = 0; i < size; i++) {
-			LeafReader lreader = leaves.get(i).reader();
-			addDocuments(lreader, uriTerm, result);
-		}
+			List<LeafReaderContext> leaves = searcher.getIndexReader().leaves();
+			int size = leaves.size();
+			for (int i = 0; i < size; i++) {
+				LeafReader lreader = leaves.get(i).reader();
+				addDocuments(lreader, uriTerm, result);
+			}
 
-		return result;
+			return result;
+		});
 	}
 
 	private static void addDocuments(LeafReader reader, Term term, Collection<Document> documents) throws IOException {
@@ -509,7 +832,7 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 * @return document
 	 * @throws IOException
 	 */
-	public synchronized Document getDocument(Resource subject, Resource context) throws IOException {
+	public Document getDocument(Resource subject, Resource context) throws IOException {
 		// fetch the Document representing this Resource
 		String resourceId = SearchFields.getResourceID(subject);
 		String contextId = SearchFields.getContextID(context);
@@ -526,7 +849,7 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 * @return list of documents
 	 * @throws IOException
 	 */
-	public synchronized List<Document> getDocuments(Resource subject) throws IOException {
+	public List<Document> getDocuments(Resource subject) throws IOException {
 		String resourceId = SearchFields.getResourceID(subject);
 		Term uriTerm = new Term(SearchFields.URI_FIELD_NAME, resourceId);
 		return getDocuments(uriTerm);
@@ -581,7 +904,8 @@ public class LuceneIndex extends AbstractLuceneIndex {
 
 	/**
 	 * invalidate readers, free them if possible (readers that are still open by a {@link LuceneQueryConnection} will
-	 * not be closed. Synchronized on oldmonitors because it manipulates them
+	 * not be closed. Synchronized on oldmonitors because it manipulates them. Called whenever the searcher has been
+	 * refreshed.
 	 *
 	 * @throws IOException
 	 */
@@ -607,12 +931,13 @@ public class LuceneIndex extends AbstractLuceneIndex {
 			}
 
 			// check if all readers were closed
-			if (oldmonitors.isEmpty()) {
+			IndexWriter writer = indexWriter;
+			if (oldmonitors.isEmpty() && writer != null && writer.isOpen()) {
 				logger.debug("Deleting unused files from Lucene index");
 
 				// clean up unused files (marked as 'deletable' in Luke
 				// Filewalker)
-				getIndexWriter().deleteUnusedFiles();
+				writer.deleteUnusedFiles();
 
 				// logIndexStats();
 			}
@@ -665,26 +990,251 @@ public class LuceneIndex extends AbstractLuceneIndex {
 
 	}
 
+	/**
+	 * Makes sure that the documents that are read to apply an update reflect all earlier updates, which may not yet be
+	 * visible to searches if the searcher is refreshed periodically.
+	 */
 	@Override
-	public synchronized void begin() throws IOException {
-		// nothing to do
+	public void begin() throws IOException {
+		if (refreshInterval > 0) {
+			lifecycleLock.readLock().lock();
+			try {
+				refreshSearcherBlocking();
+			} finally {
+				lifecycleLock.readLock().unlock();
+			}
+		}
 	}
 
 	/**
 	 * Commits any changes done to the LuceneIndex since the last commit. The semantics is synchronous to
 	 * SailConnection.commit(), i.e. the LuceneIndex should be committed/rollbacked whenever the LuceneSailConnection is
 	 * committed/rollbacked.
+	 * <p>
+	 * Concurrent commits are grouped: a thread that finds that the IndexWriter has been committed after it requested
+	 * its commit returns without committing again. Unless the searcher is refreshed periodically, the changes are
+	 * visible to searches when this method returns.
 	 */
 	@Override
-	public synchronized void commit() throws IOException {
-		getIndexWriter().commit();
-		// the old IndexReaders/Searchers are not outdated
-		invalidateReaders();
+	public void commit() throws IOException {
+		// all changes of this thread have been made before the request
+		long request = commitRequests.incrementAndGet();
+		lifecycleLock.readLock().lock();
+		try {
+			IndexWriter writer = getIndexWriter();
+			synchronized (commitLock) {
+				if (completedCommitRequests < request) {
+					// this commit covers all requests so far, including those
+					// of threads that are waiting for the commit lock
+					long covered = commitRequests.get();
+					writer.commit();
+					completedCommitRequests = covered;
+				}
+			}
+			if (refreshInterval <= 0) {
+				refreshSearcherBlocking();
+			}
+		} finally {
+			lifecycleLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void rollback() throws IOException {
+		lifecycleLock.writeLock().lock();
+		try {
+			synchronized (this) {
+				closeSearcherManager();
+				// only roll back an open writer, opening one would leave nothing to roll back
+				IndexWriter writer = indexWriter;
+				indexWriter = null;
+				if (writer != null && writer.isOpen()) {
+					writer.rollback();
+				}
+			}
+			// searchers of the rolled back writer may see uncommitted changes
+			invalidateReaders();
+		} finally {
+			lifecycleLock.writeLock().unlock();
+		}
+	}
+
+	// //////////////////////////////// Methods for rebuilding the index
+
+	@Override
+	public synchronized SearchIndex beginRebuild() throws IOException {
+		if (closed.get()) {
+			throw new SailException("Index has been closed");
+		}
+		if (stagingIndex == null) {
+			stagingIndex = openStagingIndex();
+		}
+		return stagingIndex;
+	}
+
+	@Override
+	public boolean isRebuilding() {
+		return stagingIndex != null;
+	}
+
+	@Override
+	public boolean isRebuilt(Resource subject) throws IOException {
+		Query query = new TermQuery(new Term(SearchFields.URI_FIELD_NAME, SearchFields.getResourceID(subject)));
+		return getStagingIndex().search(searcher -> searcher.count(query) > 0);
+	}
+
+	@Override
+	public void recordRebuildChanges(Set<Resource> subjects, Set<Resource> contexts, boolean cleared)
+			throws IOException {
+		List<Document> changes = new ArrayList<>();
+		for (Resource subject : subjects) {
+			changes.add(newRebuildChange(REBUILD_SUBJECT, SearchFields.getResourceID(subject)));
+		}
+		for (Resource context : contexts) {
+			changes.add(newRebuildChange(REBUILD_CONTEXT, SearchFields.getContextID(context)));
+		}
+		if (cleared) {
+			changes.add(newRebuildChange(REBUILD_CLEAR, ""));
+		}
+		if (!changes.isEmpty()) {
+			LuceneIndex staging = getStagingIndex();
+			staging.getIndexWriter().addDocuments(changes);
+			staging.commit();
+		}
+	}
+
+	private static Document newRebuildChange(String change, String id) {
+		Document document = new Document();
+		document.add(new StringField(REBUILD_CHANGE_FIELD, change, Store.NO));
+		document.add(new StoredField(REBUILD_ID_FIELD, id));
+		return document;
+	}
+
+	@Override
+	public void suspendRebuild() throws IOException {
+		LuceneIndex staging = stagingIndex;
+		if (staging != null) {
+			staging.rollback();
+		}
 	}
 
 	@Override
-	public synchronized void rollback() throws IOException {
-		getIndexWriter().rollback();
+	public void completeRebuild(java.util.function.Function<Resource, List<Statement>> statements) throws IOException {
+		LuceneIndex staging = getStagingIndex();
+		staging.commit();
+		Set<String> subjectIds = staging.search(searcher -> getRebuildChanges(searcher, REBUILD_SUBJECT));
+		Set<String> contextIds = staging.search(searcher -> getRebuildChanges(searcher, REBUILD_CONTEXT));
+		boolean cleared = !staging.search(searcher -> getRebuildChanges(searcher, REBUILD_CLEAR)).isEmpty();
+		Directory stagingDirectory = staging.getDirectory();
+		// release the write lock of the staging directory, which is needed to add its segments
+		staging.shutDown();
+
+		boolean replaced = false;
+		lifecycleLock.readLock().lock();
+		// keep the old contents visible until the new ones have been committed
+		refreshLock.lock();
+		try {
+			IndexWriter writer = getIndexWriter();
+			writer.deleteAll();
+			if (!cleared) {
+				writer.addIndexes(stagingDirectory);
+				writer.deleteDocuments(new Term(REBUILD_CHANGE_FIELD, REBUILD_SUBJECT),
+						new Term(REBUILD_CHANGE_FIELD, REBUILD_CONTEXT));
+				for (String contextId : contextIds) {
+					writer.deleteDocuments(new Term(SearchFields.CONTEXT_FIELD_NAME, contextId));
+				}
+			}
+			for (String subjectId : subjectIds) {
+				writer.deleteDocuments(new Term(SearchFields.URI_FIELD_NAME, subjectId));
+				Resource subject = SearchFields.createResource(subjectId);
+				addDocuments(subject, statements.apply(subject));
+			}
+			commit();
+			replaced = true;
+		} finally {
+			refreshLock.unlock();
+			lifecycleLock.readLock().unlock();
+			if (!replaced) {
+				// discard the partially replaced contents and keep the rebuild pending
+				rollback();
+				stagingIndex = openStagingIndex();
+			}
+		}
+
+		logger.info("Replaced contents of Lucene index with rebuilt index, with changes of {} subjects",
+				subjectIds.size());
+		stagingIndex = null;
+		for (String file : stagingDirectory.listAll()) {
+			stagingDirectory.deleteFile(file);
+		}
+		stagingDirectory.close();
+		Path stagingPath = getStagingPath();
+		if (stagingPath != null) {
+			Files.deleteIfExists(stagingPath);
+		}
+	}
+
+	private static Set<String> getRebuildChanges(IndexSearcher searcher, String change) throws IOException {
+		Query query = new TermQuery(new Term(REBUILD_CHANGE_FIELD, change));
+		Set<String> ids = new HashSet<>();
+		int count = searcher.count(query);
+		if (count > 0) {
+			Set<String> fields = Collections.singleton(REBUILD_ID_FIELD);
+			for (ScoreDoc doc : searcher.search(query, count).scoreDocs) {
+				ids.add(searcher.doc(doc.doc, fields).get(REBUILD_ID_FIELD));
+			}
+		}
+		return ids;
+	}
+
+	private LuceneIndex getStagingIndex() {
+		LuceneIndex staging = stagingIndex;
+		if (staging == null) {
+			throw new IllegalStateException("No rebuild is pending");
+		}
+		return staging;
+	}
+
+	/**
+	 * @return the directory of the staging index, or null if this index is not stored in a directory of its own.
+	 */
+	private Path getStagingPath() {
+		Properties params = parameters;
+		String dir = (params != null) ? params.getProperty(LuceneSail.LUCENE_DIR_KEY) : null;
+		if (dir == null) {
+			return null;
+		}
+		Path path = Paths.get(dir).toAbsolutePath();
+		return path.resolveSibling(path.getFileName() + STAGING_DIR_SUFFIX);
+	}
+
+	/**
+	 * Opens the staging index with the parameters of this index, except that it is refreshed on commit.
+	 */
+	private LuceneIndex openStagingIndex() throws IOException {
+		Properties params = parameters;
+		if (params == null) {
+			LuceneIndex staging = new LuceneIndex(new RAMDirectory(), analyzer, similarity);
+			staging.staging = true;
+			return staging;
+		}
+		Properties stagingParameters = new Properties();
+		stagingParameters.putAll(params);
+		stagingParameters.remove(LuceneSail.REFRESH_INTERVAL_KEY);
+		Path stagingPath = getStagingPath();
+		if (stagingPath != null) {
+			stagingParameters.setProperty(LuceneSail.LUCENE_DIR_KEY, stagingPath.toString());
+		}
+		LuceneIndex staging = new LuceneIndex();
+		try {
+			staging.initialize(stagingParameters);
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+		staging.staging = true;
+		return staging;
 	}
 
 	// //////////////////////////////// Methods for querying the index
@@ -734,18 +1284,17 @@ public class LuceneIndex extends AbstractLuceneIndex {
 			highlighter = null;
 		}
 
-		TopDocs docs;
-		if (subject != null) {
-			docs = search(subject, q);
-		} else {
-			docs = search(q);
-		}
-		return Iterables.transform(Arrays.asList(docs.scoreDocs), new Function<ScoreDoc, DocumentScore>() {
-
-			@Override
-			public DocumentScore apply(ScoreDoc doc) {
-				return new LuceneDocumentScore(doc, highlighter, LuceneIndex.this);
+		final Query searchQuery = (subject != null) ? addResourceTerm(q, subject) : q;
+		final Set<String> fields = LuceneDocumentScore.requiredFields(highlighter != null);
+		// the documents are loaded from the same searcher, as document numbers change when it is refreshed
+		return search(searcher -> {
+			ScoreDoc[] scoreDocs = search(searcher, searchQuery).scoreDocs;
+			List<DocumentScore> results = new ArrayList<>(scoreDocs.length);
+			for (ScoreDoc doc : scoreDocs) {
+				Document document = readDocument(searcher.getIndexReader(), doc.doc, fields);
+				results.add(new LuceneDocumentScore(doc, highlighter, document, this));
 			}
+			return results;
 		});
 	}
 
@@ -764,15 +1313,18 @@ public class LuceneIndex extends AbstractLuceneIndex {
 			q = addContextTerm(q, (Resource) contextVar.getValue());
 		}
 
-		TopDocs docs = search(q);
-		final boolean requireContext = (contextVar != null && !contextVar.hasValue());
-		return Iterables.transform(Arrays.asList(docs.scoreDocs), new Function<ScoreDoc, DocumentDistance>() {
-
-			@Override
-			public DocumentDistance apply(ScoreDoc doc) {
-				return new LuceneDocumentDistance(doc, geoField, units, boundingCircle.getCenter(), requireContext,
-						LuceneIndex.this);
+		final Query query = q;
+		final Set<String> fields = LuceneDocumentDistance.requiredFields(geoField,
+				contextVar != null && !contextVar.hasValue());
+		return search(searcher -> {
+			ScoreDoc[] scoreDocs = search(searcher, query).scoreDocs;
+			List<DocumentDistance> results = new ArrayList<>(scoreDocs.length);
+			for (ScoreDoc doc : scoreDocs) {
+				Document document = readDocument(searcher.getIndexReader(), doc.doc, fields);
+				results.add(new LuceneDocumentDistance(doc, geoField, units, boundingCircle.getCenter(), document,
+						this));
 			}
+			return results;
 		});
 	}
 
@@ -807,17 +1359,19 @@ public class LuceneIndex extends AbstractLuceneIndex {
 			q = addContextTerm(q, (Resource) contextVar.getValue());
 		}
 
-		TopDocs docs = search(q);
+		final Query query = q;
 		final Set<String> fields = Sets.newHashSet(SearchFields.URI_FIELD_NAME, geoField);
 		if (contextVar != null && !contextVar.hasValue()) {
 			fields.add(SearchFields.CONTEXT_FIELD_NAME);
 		}
-		return Iterables.transform(Arrays.asList(docs.scoreDocs), new Function<ScoreDoc, DocumentResult>() {
-
-			@Override
-			public DocumentResult apply(ScoreDoc doc) {
-				return new LuceneDocumentResult(doc, LuceneIndex.this, fields);
+		return search(searcher -> {
+			ScoreDoc[] scoreDocs = search(searcher, query).scoreDocs;
+			List<DocumentResult> results = new ArrayList<>(scoreDocs.length);
+			for (ScoreDoc doc : scoreDocs) {
+				Document document = readDocument(searcher.getIndexReader(), doc.doc, fields);
+				results.add(new LuceneDocumentResult(doc, document, this));
 			}
+			return results;
 		});
 	}
 
@@ -879,13 +1433,14 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	}
 
 	/**
-	 * Returns the lucene hit with the given id of the respective lucene query
+	 * Returns the lucene hit with the given id of the respective lucene query. The id is only valid until the searcher
+	 * is refreshed.
 	 *
 	 * @param docId        the id of the document to return
 	 * @param fieldsToLoad
 	 * @return the requested hit, or null if it fails
 	 */
-	public synchronized Document getDocument(int docId, Set<String> fieldsToLoad) {
+	public Document getDocument(int docId, Set<String> fieldsToLoad) {
 		try {
 			return readDocument(getIndexReader(), docId, fieldsToLoad);
 		} catch (CorruptIndexException e) {
@@ -897,7 +1452,7 @@ public class LuceneIndex extends AbstractLuceneIndex {
 		}
 	}
 
-	public synchronized String getSnippet(String fieldName, String text, Highlighter highlighter) {
+	public String getSnippet(String fieldName, String text, Highlighter highlighter) {
 		String snippet;
 		try {
 			TokenStream tokenStream = getAnalyzer().tokenStream(fieldName, new StringReader(text));
@@ -933,30 +1488,39 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 * @return top documents
 	 * @throws IOException
 	 */
-	public synchronized TopDocs search(Resource resource, Query query) throws IOException {
-		// rewrite the query
-		TermQuery idQuery = new TermQuery(new Term(SearchFields.URI_FIELD_NAME, SearchFields.getResourceID(resource)));
-		BooleanQuery.Builder combinedQuery = new BooleanQuery.Builder();
-		combinedQuery.add(idQuery, Occur.MUST);
-		combinedQuery.add(query, Occur.MUST);
-		return search(combinedQuery.build());
+	public TopDocs search(Resource resource, Query query) throws IOException {
+		return search(addResourceTerm(query, resource));
 	}
 
 	/**
-	 * Evaluates the given query and returns the results as a TopDocs instance.
+	 * Evaluates the given query and returns the results as a TopDocs instance. The document ids of the results are only
+	 * valid until the searcher is refreshed.
 	 *
 	 * @param query
 	 * @return top documents
 	 * @throws IOException
 	 */
-	public synchronized TopDocs search(Query query) throws IOException {
+	public TopDocs search(Query query) throws IOException {
+		return search(searcher -> search(searcher, query));
+	}
+
+	private TopDocs search(IndexSearcher searcher, Query query) throws IOException {
 		int nDocs;
 		if (maxDocs > 0) {
 			nDocs = maxDocs;
 		} else {
-			nDocs = Math.max(getIndexReader().numDocs(), 1);
+			nDocs = Math.max(searcher.getIndexReader().numDocs(), 1);
 		}
-		return getIndexSearcher().search(query, nDocs);
+		return searcher.search(query, nDocs);
+	}
+
+	private Query addResourceTerm(Query query, Resource resource) {
+		// rewrite the query
+		TermQuery idQuery = new TermQuery(new Term(SearchFields.URI_FIELD_NAME, SearchFields.getResourceID(resource)));
+		BooleanQuery.Builder combinedQuery = new BooleanQuery.Builder();
+		combinedQuery.add(idQuery, Occur.MUST);
+		combinedQuery.add(query, Occur.MUST);
+		return combinedQuery.build();
 	}
 
 	private QueryParser getQueryParser(IRI propertyURI) {
@@ -980,7 +1544,7 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 * @throws IOException
 	 */
 	@Override
-	public synchronized void clearContexts(Resource... contexts) throws IOException {
+	public void clearContexts(Resource... contexts) throws IOException {
 
 		// logger.warn("Clearing contexts operation did not change the index:
 		// contexts are not indexed at the moment");
@@ -1042,7 +1606,12 @@ public class LuceneIndex extends AbstractLuceneIndex {
 			// }
 
 			// now delete all documents from the deleted context
-			getIndexWriter().deleteDocuments(contextTerm);
+			lifecycleLock.readLock().lock();
+			try {
+				getIndexWriter().deleteDocuments(contextTerm);
+			} finally {
+				lifecycleLock.readLock().unlock();
+			}
 		}
 
 		// now add those again, that had other contexts also.
@@ -1070,24 +1639,30 @@ public class LuceneIndex extends AbstractLuceneIndex {
 	 *
 	 */
 	@Override
-	public synchronized void clear() throws IOException {
+	public void clear() throws IOException {
 		if (closed.get()) {
 			throw new SailException("Index has been closed");
 		}
-		// clear
-		// the old IndexReaders/Searchers are not outdated
-		invalidateReaders();
-		if (indexWriter != null) {
-			indexWriter.close();
-		}
-
-		// crate new writer
-		IndexWriterConfig indexWriterConfig = getIndexWriterConfig();
-		indexWriterConfig.setOpenMode(OpenMode.CREATE);
-		indexWriter = new IndexWriter(directory, indexWriterConfig);
-		indexWriter.close();
-		indexWriter = null;
+		lifecycleLock.writeLock().lock();
+		try {
+			// clear
+			closeSearcherManager();
+			// the old IndexReaders/Searchers are not outdated
+			invalidateReaders();
+			IndexWriter toCloseIndexWriter = indexWriter;
+			indexWriter = null;
+			if (toCloseIndexWriter != null) {
+				toCloseIndexWriter.close();
+			}
 
+			// crate new writer
+			IndexWriterConfig indexWriterConfig = getIndexWriterConfig();
+			indexWriterConfig.setOpenMode(OpenMode.CREATE);
+			IndexWriter writer = new IndexWriter(directory, indexWriterConfig);
+			writer.close();
+		} finally {
+			lifecycleLock.writeLock().unlock();
+		}
 	}
 
 	//
@@ -1130,6 +1705,12 @@ public class LuceneIndex extends AbstractLuceneIndex {
 		return visitor.getDocument();
 	}
 
+	@FunctionalInterface
+	private interface SearcherFunction<T> {
+
+		T apply(IndexSearcher searcher) throws IOException;
+	}
+
 	static class DocumentStoredFieldVisitor extends StoredFieldVisitor {
 
 		private final Set<String> fieldsToLoad;
@@ -12,6 +12,7 @@ import java.io.IOException;
 import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.SearcherManager;
 import org.apache.lucene.store.Directory;
 
 /**
@@ -29,6 +30,11 @@ public class ReaderMonitor extends AbstractReaderMonitor {
 
 	private IOException indexSearcherCreateException;
 
+	/**
+	 * The SearcherManager from which {@link #indexSearcher} was acquired, or null if it was opened from a Directory.
+	 */
+	private SearcherManager searcherManager;
+
 	/**
 	 * If exception occur when create indexReader it will be thrown on getIndexReader or get IndexSearcher
 	 *
@@ -45,6 +51,22 @@ public class ReaderMonitor extends AbstractReaderMonitor {
 		}
 	}
 
+	/**
+	 * Holds a searcher acquired from the given SearcherManager, which is released when this monitor is closed.
+	 *
+	 * @param index
+	 * @param searcherManager
+	 */
+	public ReaderMonitor(final LuceneIndex index, SearcherManager searcherManager) {
+		super(index);
+		try {
+			indexSearcher = searcherManager.acquire();
+			this.searcherManager = searcherManager;
+		} catch (IOException e) {
+			indexSearcherCreateException = e;
+		}
+	}
+
 	/**
 	 * @throws IOException
 	 */
@@ -52,7 +74,11 @@ public class ReaderMonitor extends AbstractReaderMonitor {
 	protected void handleClose() throws IOException {
 		try {
 			if (indexSearcher != null) {
-				indexSearcher.getIndexReader().close();
+				if (searcherManager != null) {
+					searcherManager.release(indexSearcher);
+				} else {
+					indexSearcher.getIndexReader().close();
+				}
 			}
 		} finally {
 			indexSearcher = null;
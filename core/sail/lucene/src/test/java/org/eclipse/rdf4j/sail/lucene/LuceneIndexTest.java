@@ -15,8 +15,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.document.Document;
@@ -29,7 +35,9 @@ import org.apache.lucene.index.Term;
 import org.apache.lucene.queryparser.classic.ParseException;
 import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TotalHitCountCollector;
 import org.apache.lucene.store.RAMDirectory;
 import org.eclipse.rdf4j.model.IRI;
@@ -388,6 +396,102 @@ public class LuceneIndexTest {
 		}
 	}
 
+	@Test
+	public void testConcurrentCommits() throws Exception {
+		int threads = 8;
+		int commitsPerThread = 50;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < commitsPerThread; i++) {
+						IRI subj = vf.createIRI("urn:subj" + thread + "-" + i);
+						index.begin();
+						index.addStatement(vf.createStatement(subj, predicate1, object3));
+						index.commit();
+						// the commit is visible to searches once it returns
+						assertEquals(1, index.search(subj,
+								new TermQuery(new Term(SearchFields.TEXT_FIELD_NAME, "cats"))).scoreDocs.length);
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(threads * commitsPerThread, index.search(new MatchAllDocsQuery()).scoreDocs.length);
+		// and all commits are durable
+		try (DirectoryReader reader = DirectoryReader.open(directory)) {
+			assertEquals(threads * commitsPerThread, reader.numDocs());
+		}
+	}
+
+	@Test
+	public void testRefreshInterval() throws Exception {
+		index.shutDown();
+		index = new LuceneIndex();
+		Properties parameters = new Properties();
+		parameters.setProperty(LuceneSail.LUCENE_RAMDIR_KEY, "true");
+		parameters.setProperty(LuceneSail.REFRESH_INTERVAL_KEY, "50");
+		index.initialize(parameters);
+
+		index.begin();
+		index.addStatement(statement11);
+		index.commit();
+
+		// the change becomes visible with the next periodic refresh
+		long deadline = System.currentTimeMillis() + 10000;
+		while (index.search(new MatchAllDocsQuery()).scoreDocs.length == 0) {
+			assertTrue("change did not become visible", System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+
+		// updates read the latest version of a document, even if it is not yet visible to searches
+		index.begin();
+		index.addStatement(statement12);
+		index.commit();
+		index.begin();
+		index.removeStatement(statement11);
+		index.commit();
+
+		index.begin();
+		assertNoStatement(statement11);
+		assertStatement(statement12);
+	}
+
+	@Test
+	public void testRepeatedRollback() throws Exception {
+		index.shutDown();
+		index = new LuceneIndex();
+		Properties parameters = new Properties();
+		parameters.setProperty(LuceneSail.LUCENE_RAMDIR_KEY, "true");
+		parameters.setProperty(LuceneSail.REFRESH_INTERVAL_KEY, "50");
+		index.initialize(parameters);
+
+		index.begin();
+		index.addStatement(statement11);
+		index.commit();
+
+		// a rollback without changes, and a second rollback in a row, have no writer to roll back
+		index.rollback();
+		index.rollback();
+
+		index.begin();
+		index.addStatement(statement12);
+		index.commit();
+
+		index.begin();
+		assertStatement(statement11);
+		assertStatement(statement12);
+		assertEquals(1, index.search(new MatchAllDocsQuery()).scoreDocs.length);
+	}
+
 	@Test
 	public void testRejectedDatatypes() {
 		IRI STRING = vf.createIRI("http://www.w3.org/2001/XMLSchema#string");
@@ -7,10 +7,15 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.lucene;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 import org.apache.lucene.store.RAMDirectory;
+import org.junit.Test;
 
 public class LuceneSailTest extends AbstractGenericLuceneTest {
 
@@ -21,4 +26,67 @@ public class LuceneSailTest extends AbstractGenericLuceneTest {
 		index = new LuceneIndex(new RAMDirectory(), new StandardAnalyzer());
 		sail.setLuceneIndex(index);
 	}
+
+	@Test
+	public void testParallelReindexing() throws Exception {
+		sail.setReindexThreads(4);
+		sail.setReindexCheckpointInterval(1);
+		sail.reindex();
+		assertFalse(index.isRebuilding());
+		testComplexQueryTwo();
+	}
+
+	/**
+	 * Checks that changes that are committed while a rebuild is pending are included in the rebuilt index.
+	 */
+	@Test
+	public void testReindexingWithConcurrentChanges() throws Exception {
+		index.beginRebuild();
+		assertTrue(index.isRebuilding());
+
+		connection.begin();
+		connection.remove(SUBJECT_3, PREDICATE_1, vf.createLiteral("four"));
+		connection.add(SUBJECT_4, PREDICATE_1, vf.createLiteral("six"));
+		connection.add(SUBJECT_5, PREDICATE_1, vf.createLiteral("seven"), CONTEXT_1);
+		connection.commit();
+		connection.clear(CONTEXT_1);
+
+		// the old index keeps serving the changes
+		assertNoQueryResult("four");
+		assertQueryResult("six", PREDICATE_1, SUBJECT_4);
+
+		sail.reindex();
+		assertFalse(index.isRebuilding());
+		assertNoQueryResult("four");
+		assertNoQueryResult("seven");
+		assertQueryResult("six", PREDICATE_1, SUBJECT_4);
+		testComplexQueryTwo();
+	}
+
+	/**
+	 * Checks that a suspended rebuild keeps its committed documents and is resumed by the next reindex.
+	 */
+	@Test
+	public void testResumeReindexing() throws Exception {
+		SearchIndex staging = index.beginRebuild();
+		staging.begin();
+		staging.addDocuments(SUBJECT_2,
+				Arrays.asList(vf.createStatement(SUBJECT_2, PREDICATE_1, vf.createLiteral("one")),
+						vf.createStatement(SUBJECT_2, PREDICATE_2, vf.createLiteral("three"))));
+		staging.commit();
+		staging.begin();
+		staging.addDocuments(SUBJECT_1,
+				Arrays.asList(vf.createStatement(SUBJECT_1, PREDICATE_1, vf.createLiteral("stale"))));
+		index.suspendRebuild();
+
+		assertTrue(index.isRebuilding());
+		assertTrue(index.isRebuilt(SUBJECT_2));
+		assertFalse(index.isRebuilt(SUBJECT_1));
+
+		sail.reindex();
+		assertFalse(index.isRebuilding());
+		assertNoQueryResult("stale");
+		assertQueryResult("three", PREDICATE_2, SUBJECT_2);
+		testComplexQueryTwo();
+	}
 }
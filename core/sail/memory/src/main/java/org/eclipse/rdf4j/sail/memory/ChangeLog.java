@@ -0,0 +1,400 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only log of the changes that have been committed to a {@link MemoryStore} since its data file was last
+ * written. Each record holds the changes of one commit, i.e. the operations that its {@link SailSink}s have flushed
+ * encoded like the values of the data file, and is stored as its length, a CRC32 checksum and the encoded changes. A
+ * record is only appended once all changes of its commit have been flushed, so a record that was only partially
+ * written, e.g. because the JVM crashed during a commit, belongs to a commit that did not complete. It is detected by
+ * its checksum and discarded when the log is replayed.
+ * <p>
+ * Replaying the records of a log on top of a state that already contains (some of) their changes results in the same
+ * state as replaying them on the state before these changes, as each operation sets whether the statements that it
+ * matches exist. A log can therefore be replayed on top of a data file that has been written while the log was being
+ * appended to.
+ */
+class ChangeLog implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ChangeLog.class);
+
+	/* OPERATION TYPES */
+	private static final int APPROVE_MARKER = 1;
+
+	private static final int DEPRECATE_MARKER = 2;
+
+	private static final int DEPRECATE_BY_QUERY_MARKER = 3;
+
+	private static final int CLEAR_MARKER = 4;
+
+	private static final int SET_NAMESPACE_MARKER = 5;
+
+	private static final int REMOVE_NAMESPACE_MARKER = 6;
+
+	private static final int CLEAR_NAMESPACES_MARKER = 7;
+
+	/** The size of the length and checksum that precede each record. */
+	private static final int HEADER_SIZE = 8;
+
+	private final File file;
+
+	private FileChannel channel;
+
+	/** The changes of the commit that is in progress, or <tt>null</tt> if no commit is in progress. */
+	private ByteArrayOutputStream commitChanges;
+
+	ChangeLog(File file) throws IOException {
+		this.file = file;
+		this.channel = open(file);
+	}
+
+	/**
+	 * Appends the changes that a sink has flushed to the log. Changes that are appended while a
+	 * {@link #commit(Runnable) commit} is in progress are buffered until that commit completes, other changes are
+	 * appended as a record of their own. Records are handed to the operating system, but they are not forced to disk
+	 * until {@link #force()} is called.
+	 *
+	 * @param changes the changes taken from a {@link Recorder}.
+	 */
+	synchronized void append(byte[] changes) throws IOException {
+		if (commitChanges != null) {
+			commitChanges.write(changes);
+		} else {
+			write(changes);
+		}
+	}
+
+	/**
+	 * Runs a commit while holding the monitor of this log, appending all changes that its sinks flush as a single
+	 * record once the commit has completed. Nothing is appended if the commit fails.
+	 */
+	synchronized void commit(Runnable commit) throws IOException {
+		if (commitChanges != null) {
+			// nested in a commit that appends our changes
+			commit.run();
+			return;
+		}
+		commitChanges = new ByteArrayOutputStream();
+		try {
+			commit.run();
+			if (commitChanges.size() > 0) {
+				write(commitChanges.toByteArray());
+			}
+		} finally {
+			commitChanges = null;
+		}
+	}
+
+	private void write(byte[] record) throws IOException {
+		CRC32 crc = new CRC32();
+		crc.update(record);
+		ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE + record.length);
+		buf.putInt(record.length);
+		buf.putInt((int) crc.getValue());
+		buf.put(record);
+		buf.flip();
+		while (buf.hasRemaining()) {
+			channel.write(buf);
+		}
+	}
+
+	/**
+	 * Forces all appended records to disk.
+	 */
+	synchronized void force() throws IOException {
+		channel.force(false);
+	}
+
+	/**
+	 * @return the size of the log in bytes.
+	 */
+	synchronized long size() throws IOException {
+		return channel.size();
+	}
+
+	/**
+	 * Moves the records of this log to the specified file and starts a new, empty log.
+	 */
+	synchronized void rotate(File target) throws IOException {
+		channel.force(false);
+		channel.close();
+		Files.move(file.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		channel = open(file);
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Creates an encoder for the operations of a sink, which are appended to the log when the sink is flushed.
+	 *
+	 * @param explicit whether the sink stores explicit or inferred statements.
+	 */
+	static Recorder recorder(boolean explicit) {
+		return new Recorder(explicit);
+	}
+
+	/**
+	 * Applies the records of a log file to a store, the changes of each sink in a separate transaction.
+	 *
+	 * @param file     the log file to replay.
+	 * @param store    the store to apply the records to.
+	 * @param truncate whether a partially written record at the end of the log should be removed from the file.
+	 * @return the number of replayed records.
+	 */
+	static int replay(File file, SailStore store, boolean truncate) throws IOException, SailException {
+		FileIO io = new FileIO(store.getValueFactory());
+		int records = 0;
+		long validLength = 0;
+		try (FileChannel in = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (readFully(in, header)) {
+				header.flip();
+				int length = header.getInt();
+				int checksum = header.getInt();
+				header.clear();
+				if (length < 0 || length > in.size() - in.position()) {
+					break;
+				}
+				ByteBuffer record = ByteBuffer.allocate(length);
+				if (!readFully(in, record)) {
+					break;
+				}
+				CRC32 crc = new CRC32();
+				crc.update(record.array());
+				if ((int) crc.getValue() != checksum) {
+					break;
+				}
+				apply(record.array(), io, store);
+				records++;
+				validLength = in.position();
+			}
+		}
+
+		if (validLength < file.length()) {
+			logger.warn("Ignoring incomplete record at the end of {}", file);
+			if (truncate) {
+				try (FileChannel out = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+					out.truncate(validLength);
+				}
+			}
+		}
+		return records;
+	}
+
+	private static boolean readFully(FileChannel in, ByteBuffer buf) throws IOException {
+		while (buf.hasRemaining()) {
+			if (in.read(buf) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void apply(byte[] record, FileIO io, SailStore store) throws IOException, SailException {
+		DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(record));
+		while (dataIn.available() > 0) {
+			boolean explicit = dataIn.readBoolean();
+			byte[] changes = new byte[dataIn.readInt()];
+			dataIn.readFully(changes);
+			apply(explicit, changes, io, store);
+		}
+	}
+
+	private static void apply(boolean explicit, byte[] changes, FileIO io, SailStore store)
+			throws IOException, SailException {
+		DataInputStream dataIn = new DataInputStream(new ByteArrayInputStream(changes));
+		SailSink sink = explicit ? store.getExplicitSailSource().sink(IsolationLevels.NONE)
+				: store.getInferredSailSource().sink(IsolationLevels.NONE);
+		try {
+			while (dataIn.available() > 0) {
+				int operationMarker = dataIn.readByte();
+				switch (operationMarker) {
+				case APPROVE_MARKER:
+					sink.approve((Resource) io.readValue(dataIn), (IRI) io.readValue(dataIn), io.readValue(dataIn),
+							(Resource) readOptionalValue(io, dataIn));
+					break;
+				case DEPRECATE_MARKER:
+					sink.deprecate((Resource) io.readValue(dataIn), (IRI) io.readValue(dataIn), io.readValue(dataIn),
+							(Resource) readOptionalValue(io, dataIn));
+					break;
+				case DEPRECATE_BY_QUERY_MARKER:
+					sink.deprecateByQuery((Resource) readOptionalValue(io, dataIn),
+							(IRI) readOptionalValue(io, dataIn), readOptionalValue(io, dataIn),
+							readContexts(io, dataIn));
+					break;
+				case CLEAR_MARKER:
+					sink.clear(readContexts(io, dataIn));
+					break;
+				case SET_NAMESPACE_MARKER:
+					sink.setNamespace(io.readString(dataIn), io.readString(dataIn));
+					break;
+				case REMOVE_NAMESPACE_MARKER:
+					sink.removeNamespace(io.readString(dataIn));
+					break;
+				case CLEAR_NAMESPACES_MARKER:
+					sink.clearNamespaces();
+					break;
+				default:
+					throw new IOException("Invalid operation marker: " + operationMarker);
+				}
+			}
+			sink.prepare();
+			sink.flush();
+		} finally {
+			sink.close();
+		}
+	}
+
+	private static Value readOptionalValue(FileIO io, DataInputStream dataIn) throws IOException {
+		return dataIn.readBoolean() ? io.readValue(dataIn) : null;
+	}
+
+	private static Resource[] readContexts(FileIO io, DataInputStream dataIn) throws IOException {
+		int length = dataIn.readInt();
+		Resource[] contexts = new Resource[length];
+		for (int i = 0; i < length; i++) {
+			contexts[i] = (Resource) readOptionalValue(io, dataIn);
+		}
+		return contexts;
+	}
+
+	private static FileChannel open(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		return channel;
+	}
+
+	/**
+	 * Encodes the operations of a sink into a record of a {@link ChangeLog}.
+	 */
+	static final class Recorder {
+
+		private final FileIO io = new FileIO(null);
+
+		private final boolean explicit;
+
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		private final DataOutputStream dataOut = new DataOutputStream(bytes);
+
+		private Recorder(boolean explicit) {
+			this.explicit = explicit;
+		}
+
+		boolean isEmpty() {
+			return bytes.size() == 0;
+		}
+
+		/**
+		 * Returns the operations that have been recorded since the last call to this method, preceded by the kind of
+		 * statements they apply to and their length.
+		 */
+		byte[] takeChanges() throws IOException {
+			ByteArrayOutputStream changes = new ByteArrayOutputStream(bytes.size() + 5);
+			DataOutputStream out = new DataOutputStream(changes);
+			out.writeBoolean(explicit);
+			out.writeInt(bytes.size());
+			bytes.writeTo(out);
+			bytes.reset();
+			return changes.toByteArray();
+		}
+
+		void reset() {
+			bytes.reset();
+		}
+
+		void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws IOException {
+			dataOut.writeByte(APPROVE_MARKER);
+			io.writeValue(subj, dataOut);
+			io.writeValue(pred, dataOut);
+			io.writeValue(obj, dataOut);
+			writeOptionalValue(ctx);
+		}
+
+		void deprecate(Resource subj, IRI pred, Value obj, Resource ctx) throws IOException {
+			dataOut.writeByte(DEPRECATE_MARKER);
+			io.writeValue(subj, dataOut);
+			io.writeValue(pred, dataOut);
+			io.writeValue(obj, dataOut);
+			writeOptionalValue(ctx);
+		}
+
+		void deprecateByQuery(Resource subj, IRI pred, Value obj, Resource[] contexts) throws IOException {
+			dataOut.writeByte(DEPRECATE_BY_QUERY_MARKER);
+			writeOptionalValue(subj);
+			writeOptionalValue(pred);
+			writeOptionalValue(obj);
+			writeContexts(contexts);
+		}
+
+		void clear(Resource[] contexts) throws IOException {
+			dataOut.writeByte(CLEAR_MARKER);
+			writeContexts(contexts);
+		}
+
+		void setNamespace(String prefix, String name) throws IOException {
+			dataOut.writeByte(SET_NAMESPACE_MARKER);
+			io.writeString(prefix, dataOut);
+			io.writeString(name, dataOut);
+		}
+
+		void removeNamespace(String prefix) throws IOException {
+			dataOut.writeByte(REMOVE_NAMESPACE_MARKER);
+			io.writeString(prefix, dataOut);
+		}
+
+		void clearNamespaces() throws IOException {
+			dataOut.writeByte(CLEAR_NAMESPACES_MARKER);
+		}
+
+		private void writeOptionalValue(Value value) throws IOException {
+			dataOut.writeBoolean(value != null);
+			if (value != null) {
+				io.writeValue(value, dataOut);
+			}
+		}
+
+		private void writeContexts(Resource[] contexts) throws IOException {
+			if (contexts == null) {
+				contexts = new Resource[0];
+			}
+			dataOut.writeInt(contexts.length);
+			for (Resource context : contexts) {
+				writeOptionalValue(context);
+			}
+		}
+	}
+}
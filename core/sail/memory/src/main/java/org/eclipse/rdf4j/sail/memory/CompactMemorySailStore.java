@@ -0,0 +1,948 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.common.concurrent.locks.Lock;
+import org.eclipse.rdf4j.common.concurrent.locks.LockingIteration;
+import org.eclipse.rdf4j.common.concurrent.locks.ReadPrefReadWriteLockManager;
+import org.eclipse.rdf4j.common.concurrent.locks.ReadWriteLockManager;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.sail.SailConflictException;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.BackingSailSource;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailSource;
+import org.eclipse.rdf4j.sail.base.SailStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An implementation of {@link SailStore} that keeps committed statements as rows of ints in {@link IntColumn}s instead
+ * of as statement objects. Each row holds the IDs of the subject, predicate, object and context of a statement, the
+ * snapshots in which it exists and whether it is explicit. Values are assigned IDs by a {@link ValueTable}, which also
+ * keeps the rows that use each value, so that no objects are created per statement. The rows can be kept outside of the
+ * Java heap.
+ * <p>
+ * Snapshot isolation works as in {@link MemorySailStore}: a row is visible in all snapshots from its <tt>since</tt>
+ * snapshot up to (excluding) its <tt>till</tt> snapshot, and a background thread removes rows that are no longer
+ * visible in any snapshot. The rows of removed statements are reused for new statements.
+ */
+class CompactMemorySailStore implements SailStore {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompactMemorySailStore.class);
+
+	/*
+	 * Layout of a row.
+	 */
+	private static final int SUBJECT = 0;
+
+	private static final int PREDICATE = 1;
+
+	private static final int OBJECT = 2;
+
+	private static final int CONTEXT = 3;
+
+	private static final int SINCE = 4;
+
+	private static final int TILL = 5;
+
+	private static final int FLAGS = 6;
+
+	private static final int ROW_SIZE = 7;
+
+	private static final int EXPLICIT_FLAG = 1;
+
+	private static final int FREE_FLAG = 2;
+
+	/**
+	 * The context ID of statements in the default graph.
+	 */
+	private static final int NO_CONTEXT = -1;
+
+	/**
+	 * The component ID used in patterns to match any value.
+	 */
+	private static final int ANY = -1;
+
+	/**
+	 * Number of rows that are checked by the snapshot cleanup thread before it yields its lock to other threads.
+	 */
+	private static final int CLEANUP_BATCH_SIZE = 1024;
+
+	private final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
+	private final ValueTable values = new ValueTable(valueFactory);
+
+	private final IntColumn rows;
+
+	/**
+	 * The number of rows that have ever been used, including free rows.
+	 */
+	private volatile int rowCount;
+
+	/**
+	 * Rows of removed statements that can be reused.
+	 */
+	private final IntList freeRows = new IntList();
+
+	/**
+	 * Identifies the current snapshot.
+	 */
+	private volatile int currentSnapshot;
+
+	/**
+	 * Store for namespace prefix info.
+	 */
+	private final MemNamespaceStore namespaceStore = new MemNamespaceStore();
+
+	/**
+	 * Lock manager used to give the snapshot cleanup thread exclusive access to the rows.
+	 */
+	private final ReadWriteLockManager statementListLockManager;
+
+	/**
+	 * Lock manager used to prevent concurrent writes.
+	 */
+	private final ReentrantLock txnLockManager = new ReentrantLock();
+
+	/**
+	 * Cleanup thread that removes deprecated statements when no other threads are accessing the rows.
+	 */
+	private volatile Thread snapshotCleanupThread;
+
+	/**
+	 * Lock object used to synchronize concurrent access to {@link #snapshotCleanupThread}.
+	 */
+	private final Object snapshotCleanupThreadLockObject = new Object();
+
+	private final SnapshotCleanupMonitor cleanupMonitor;
+
+	/**
+	 * @param debug          whether lock tracking should be enabled.
+	 * @param offHeap        whether the rows should be kept outside of the Java heap.
+	 * @param cleanupMonitor the counters to update when statements are deprecated and cleaned up.
+	 */
+	public CompactMemorySailStore(boolean debug, boolean offHeap, SnapshotCleanupMonitor cleanupMonitor) {
+		statementListLockManager = new ReadPrefReadWriteLockManager(debug);
+		rows = offHeap ? IntColumn.offHeap() : IntColumn.onHeap();
+		this.cleanupMonitor = cleanupMonitor;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return valueFactory;
+	}
+
+	@Override
+	public void close() {
+		try {
+			Lock stLock = statementListLockManager.getWriteLock();
+			try {
+				rowCount = 0;
+				freeRows.clear();
+				rows.clear();
+				values.clear();
+			} finally {
+				stLock.release();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public EvaluationStatistics getEvaluationStatistics() {
+		return new CompactEvaluationStatistics();
+	}
+
+	@Override
+	public SailSource getExplicitSailSource() {
+		return new CompactSailSource(true);
+	}
+
+	@Override
+	public SailSource getInferredSailSource() {
+		return new CompactSailSource(false);
+	}
+
+	/**
+	 * Gets the number of statements in the store, including deprecated statements that have not been cleaned up yet.
+	 */
+	int size() {
+		return rowCount - freeRows.size();
+	}
+
+	private Lock openStatementsReadLock() throws SailException {
+		try {
+			return statementListLockManager.getReadLock();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SailException(e);
+		}
+	}
+
+	private int get(int row, int field) {
+		return rows.get((long) row * ROW_SIZE + field);
+	}
+
+	private void set(int row, int field, int value) {
+		rows.set((long) row * ROW_SIZE + field, value);
+	}
+
+	private boolean isInSnapshot(int row, int snapshot) {
+		return snapshot >= get(row, SINCE) && snapshot < get(row, TILL);
+	}
+
+	private Statement toStatement(int row) {
+		int context = get(row, CONTEXT);
+		return valueFactory.createStatement((Resource) values.getValue(get(row, SUBJECT)),
+				(IRI) values.getValue(get(row, PREDICATE)), values.getValue(get(row, OBJECT)),
+				context == NO_CONTEXT ? null : (Resource) values.getValue(context));
+	}
+
+	/**
+	 * Creates a RowIteration over the rows that match the specified pattern of subject, predicate, object, context.
+	 * Inferred statements are excluded when <tt>explicit</tt> is <tt>true</tt> and explicit statements are excluded
+	 * when it is <tt>false</tt>.
+	 *
+	 * @return the iteration, or <tt>null</tt> if no rows can match the pattern.
+	 */
+	private RowIteration createRowIteration(Resource subj, IRI pred, Value obj, Boolean explicit, int snapshot,
+			Resource... contexts) {
+		// Perform look-ups for the IDs of the specified values
+		int subjId = subj == null ? ANY : values.getId(subj);
+		int predId = pred == null ? ANY : values.getId(pred);
+		int objId = obj == null ? ANY : values.getId(obj);
+		if (subj != null && subjId < 0 || pred != null && predId < 0 || obj != null && objId < 0) {
+			// non-existent subject, predicate or object
+			return null;
+		}
+
+		int[] contextIds;
+		IntList smallestList = null;
+
+		if (contexts.length == 0) {
+			contextIds = new int[0];
+		} else if (contexts.length == 1 && contexts[0] != null) {
+			int contextId = values.getId(contexts[0]);
+			if (contextId < 0) {
+				// non-existent context
+				return null;
+			}
+			contextIds = new int[] { contextId };
+			smallestList = values.getRows(ValueTable.CONTEXT, contextId);
+			if (smallestList == null) {
+				return null;
+			}
+		} else {
+			Set<Integer> contextSet = new HashSet<>(2 * contexts.length);
+			for (Resource context : contexts) {
+				int contextId = context == null ? NO_CONTEXT : values.getId(context);
+				if (context == null || contextId >= 0) {
+					contextSet.add(contextId);
+				}
+			}
+			if (contextSet.isEmpty()) {
+				// no known contexts specified
+				return null;
+			}
+			contextIds = contextSet.stream().mapToInt(Integer::intValue).toArray();
+		}
+
+		int[] components = { subjId, predId, objId };
+		int[] valueComponents = { ValueTable.SUBJECT, ValueTable.PREDICATE, ValueTable.OBJECT };
+		for (int i = 0; i < components.length; i++) {
+			if (components[i] != ANY) {
+				IntList list = values.getRows(valueComponents[i], components[i]);
+				if (list == null) {
+					return null;
+				}
+				if (smallestList == null || list.size() < smallestList.size()) {
+					smallestList = list;
+				}
+			}
+		}
+
+		return new RowIteration(smallestList, subjId, predId, objId, contextIds, explicit, snapshot);
+	}
+
+	private CloseableIteration<Statement, SailException> createStatementIterator(Resource subj, IRI pred, Value obj,
+			Boolean explicit, int snapshot, Resource... contexts) {
+		RowIteration rowIteration = createRowIteration(subj, pred, obj, explicit, snapshot, contexts);
+		if (rowIteration == null) {
+			return new EmptyIteration<>();
+		}
+		return rowIteration;
+	}
+
+	/**
+	 * Creates an iteration over the triples that are used as subject or object of a statement and that match the
+	 * specified pattern of subject, predicate, object.
+	 */
+	private CloseableIteration<Triple, SailException> createTripleIterator(Resource subj, IRI pred, Value obj,
+			int snapshot) {
+		return new LookAheadIteration<Triple, SailException>() {
+
+			private int row = -1;
+
+			@Override
+			protected Triple getNextElement() {
+				// there is no separate index for triples, so all rows are checked
+				while (++row < rowCount) {
+					if ((get(row, FLAGS) & FREE_FLAG) != 0 || snapshot >= 0 && !isInSnapshot(row, snapshot)) {
+						continue;
+					}
+					Value subject = values.getValue(get(row, SUBJECT));
+					Value object = values.getValue(get(row, OBJECT));
+					if (subject instanceof Triple) {
+						if (matches((Triple) subject)) {
+							return (Triple) subject;
+						}
+					} else if (object instanceof Triple && matches((Triple) object)) {
+						return (Triple) object;
+					}
+				}
+				return null;
+			}
+
+			private boolean matches(Triple triple) {
+				return (subj == null || subj.equals(triple.getSubject()))
+						&& (pred == null || pred.equals(triple.getPredicate()))
+						&& (obj == null || obj.equals(triple.getObject()));
+			}
+		};
+	}
+
+	/**
+	 * Removes statements from old snapshots from the rows and from the row lists of their values, making the rows and
+	 * the IDs of values that are no longer used available for reuse.
+	 *
+	 * @throws InterruptedException
+	 */
+	protected void cleanSnapshots() throws InterruptedException {
+		long startTime = System.currentTimeMillis();
+		cleanupMonitor.cleanupStarted();
+		try {
+			cleanSnapshotRows();
+		} finally {
+			cleanupMonitor.cleanupFinished(System.currentTimeMillis() - startTime);
+		}
+	}
+
+	private void cleanSnapshotRows() throws InterruptedException {
+		// value IDs whose row lists have already been cleaned, per component
+		BitSet[] processed = { new BitSet(), new BitSet(), new BitSet(), new BitSet() };
+
+		int lastRow;
+		Lock stReadLock = statementListLockManager.getReadLock();
+		try {
+			lastRow = rowCount - 1;
+		} finally {
+			stReadLock.release();
+		}
+
+		/*
+		 * Rows are only freed by this thread and free rows are only reused by writers, which don't make rows stale for
+		 * the snapshot that is cleaned here. So the stale rows from lastRow down remain stale while we don't have the
+		 * write lock.
+		 */
+
+		int nextSnapshot = currentSnapshot;
+		for (int row = lastRow; row >= 0;) {
+			// As we are running in the background, yield the write lock frequently to other writers.
+			Lock stWriteLock = statementListLockManager.getWriteLock();
+			try {
+				// guard against shrinkage, e.g. clear() on close()
+				row = Math.min(row, rowCount - 1);
+				int removed = 0;
+				for (int end = row - CLEANUP_BATCH_SIZE; row > end && row >= 0; row--) {
+					if ((get(row, FLAGS) & FREE_FLAG) == 0 && get(row, TILL) <= nextSnapshot) {
+						removeRow(row, nextSnapshot, processed);
+						removed++;
+					}
+				}
+				cleanupMonitor.statementsRemoved(removed);
+			} finally {
+				stWriteLock.release();
+			}
+		}
+	}
+
+	private void removeRow(int row, int nextSnapshot, BitSet[] processed) {
+		int[] components = { ValueTable.SUBJECT, ValueTable.PREDICATE, ValueTable.OBJECT, ValueTable.CONTEXT };
+		int[] fields = { SUBJECT, PREDICATE, OBJECT, CONTEXT };
+		for (int i = 0; i < components.length; i++) {
+			int id = get(row, fields[i]);
+			if (id != NO_CONTEXT && !processed[i].get(id)) {
+				processed[i].set(id);
+				values.removeRows(components[i], id, r -> get(r, TILL) <= nextSnapshot);
+			}
+		}
+		for (int field : fields) {
+			int id = get(row, field);
+			if (id != NO_CONTEXT && values.release(id)) {
+				// the ID may be reused for another value
+				for (BitSet bits : processed) {
+					bits.clear(id);
+				}
+			}
+		}
+
+		set(row, SINCE, Integer.MAX_VALUE);
+		set(row, TILL, 0);
+		set(row, FLAGS, FREE_FLAG);
+		freeRows.add(row);
+	}
+
+	protected void scheduleSnapshotCleanup() {
+		synchronized (snapshotCleanupThreadLockObject) {
+			Thread toCheckSnapshotCleanupThread = snapshotCleanupThread;
+			if (toCheckSnapshotCleanupThread == null || !toCheckSnapshotCleanupThread.isAlive()) {
+				Runnable runnable = () -> {
+					try {
+						cleanSnapshots();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						logger.warn("snapshot cleanup interrupted");
+					}
+				};
+
+				toCheckSnapshotCleanupThread = snapshotCleanupThread = new Thread(runnable,
+						"MemoryStore snapshot cleanup");
+				toCheckSnapshotCleanupThread.setDaemon(true);
+				toCheckSnapshotCleanupThread.start();
+			}
+		}
+	}
+
+	/**
+	 * Iterates over the rows that match a pattern, returning them as statements. Rows are compared by the IDs of their
+	 * values.
+	 */
+	private final class RowIteration extends LookAheadIteration<Statement, SailException> {
+
+		/**
+		 * The rows to check, or <tt>null</tt> to check all rows.
+		 */
+		private final IntList candidates;
+
+		private final int subj;
+
+		private final int pred;
+
+		private final int obj;
+
+		private final int[] contexts;
+
+		private final Boolean explicit;
+
+		private final int snapshot;
+
+		private int index = -1;
+
+		RowIteration(IntList candidates, int subj, int pred, int obj, int[] contexts, Boolean explicit,
+				int snapshot) {
+			this.candidates = candidates;
+			this.subj = subj;
+			this.pred = pred;
+			this.obj = obj;
+			this.contexts = contexts;
+			this.explicit = explicit;
+			this.snapshot = snapshot;
+		}
+
+		/**
+		 * Returns the next matching row, or <tt>-1</tt> if there are no more matching rows.
+		 */
+		int nextRow() {
+			while (++index < (candidates == null ? rowCount : candidates.size())) {
+				int row = candidates == null ? index : candidates.get(index);
+				if (matches(row)) {
+					return row;
+				}
+			}
+			return -1;
+		}
+
+		private boolean matches(int row) {
+			int flags = get(row, FLAGS);
+			if ((flags & FREE_FLAG) != 0 || snapshot >= 0 && !isInSnapshot(row, snapshot)) {
+				return false;
+			}
+			if (subj != ANY && subj != get(row, SUBJECT) || pred != ANY && pred != get(row, PREDICATE)
+					|| obj != ANY && obj != get(row, OBJECT)) {
+				return false;
+			}
+			if (contexts.length > 0) {
+				int context = get(row, CONTEXT);
+				boolean matchingContext = false;
+				for (int i = 0; i < contexts.length && !matchingContext; i++) {
+					matchingContext = contexts[i] == context;
+				}
+				if (!matchingContext) {
+					return false;
+				}
+			}
+			return explicit == null || explicit == ((flags & EXPLICIT_FLAG) != 0);
+		}
+
+		@Override
+		protected Statement getNextElement() {
+			int row = nextRow();
+			return row < 0 ? null : toStatement(row);
+		}
+	}
+
+	private final class CompactSailSource extends BackingSailSource {
+
+		private final boolean explicit;
+
+		public CompactSailSource(boolean explicit) {
+			this.explicit = explicit;
+		}
+
+		@Override
+		public SailSink sink(IsolationLevel level) throws SailException {
+			return new CompactSailSink(explicit, level.isCompatibleWith(IsolationLevels.SERIALIZABLE));
+		}
+
+		@Override
+		public CompactSailDataset dataset(IsolationLevel level) throws SailException {
+			if (level.isCompatibleWith(IsolationLevels.SNAPSHOT_READ)) {
+				return new CompactSailDataset(explicit, currentSnapshot);
+			} else {
+				return new CompactSailDataset(explicit);
+			}
+		}
+	}
+
+	private final class CompactSailSink implements SailSink {
+
+		private final boolean explicit;
+
+		private final int serializable;
+
+		private final Lock txnStLock;
+
+		private volatile int nextSnapshot;
+
+		private volatile Set<StatementPattern> observations;
+
+		private volatile boolean txnLock;
+
+		private boolean requireCleanup;
+
+		public CompactSailSink(boolean explicit, boolean serializable) throws SailException {
+			this.explicit = explicit;
+			if (serializable) {
+				this.serializable = currentSnapshot;
+			} else {
+				this.serializable = Integer.MAX_VALUE;
+			}
+			txnStLock = openStatementsReadLock();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			if (explicit) {
+				sb.append("explicit ");
+			} else {
+				sb.append("inferred ");
+			}
+			if (txnLock) {
+				sb.append("snapshot ").append(nextSnapshot);
+			} else {
+				sb.append(super.toString());
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public synchronized void prepare() throws SailException {
+			acquireExclusiveTransactionLock();
+			if (observations != null) {
+				for (StatementPattern p : observations) {
+					Resource subj = (Resource) p.getSubjectVar().getValue();
+					IRI pred = (IRI) p.getPredicateVar().getValue();
+					Value obj = p.getObjectVar().getValue();
+					Var ctxVar = p.getContextVar();
+					Resource[] contexts;
+					if (ctxVar == null) {
+						contexts = new Resource[0];
+					} else {
+						contexts = new Resource[] { (Resource) ctxVar.getValue() };
+					}
+					RowIteration iter = createRowIteration(subj, pred, obj, null, -1, contexts);
+					if (iter != null) {
+						for (int row = iter.nextRow(); row >= 0; row = iter.nextRow()) {
+							int since = get(row, SINCE);
+							int till = get(row, TILL);
+							if (serializable < since && since < nextSnapshot
+									|| serializable < till && till < nextSnapshot) {
+								throw new SailConflictException("Observed State has Changed");
+							}
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public synchronized void flush() throws SailException {
+			if (txnLock) {
+				currentSnapshot = Math.max(currentSnapshot, nextSnapshot);
+				if (requireCleanup) {
+					scheduleSnapshotCleanup();
+				}
+			}
+		}
+
+		@Override
+		public void close() {
+			try {
+				boolean toCloseTxnLock = txnLock;
+				txnLock = false;
+				if (toCloseTxnLock) {
+					txnLockManager.unlock();
+				}
+			} finally {
+				if (txnStLock != null) {
+					txnStLock.release();
+				}
+			}
+		}
+
+		@Override
+		public synchronized void setNamespace(String prefix, String name) throws SailException {
+			acquireExclusiveTransactionLock();
+			namespaceStore.setNamespace(prefix, name);
+		}
+
+		@Override
+		public synchronized void removeNamespace(String prefix) throws SailException {
+			acquireExclusiveTransactionLock();
+			namespaceStore.removeNamespace(prefix);
+		}
+
+		@Override
+		public synchronized void clearNamespaces() throws SailException {
+			acquireExclusiveTransactionLock();
+			namespaceStore.clear();
+		}
+
+		@Override
+		public synchronized void observe(Resource subj, IRI pred, Value obj, Resource... contexts)
+				throws SailException {
+			if (observations == null) {
+				observations = new HashSet<>();
+			}
+			if (contexts == null) {
+				observations.add(new StatementPattern(new Var("s", subj), new Var("p", pred), new Var("o", obj),
+						new Var("g", null)));
+			} else if (contexts.length == 0) {
+				observations.add(new StatementPattern(new Var("s", subj), new Var("p", pred), new Var("o", obj)));
+			} else {
+				for (Resource ctx : contexts) {
+					observations.add(new StatementPattern(new Var("s", subj), new Var("p", pred), new Var("o", obj),
+							new Var("g", ctx)));
+				}
+			}
+		}
+
+		@Override
+		public synchronized void clear(Resource... contexts) throws SailException {
+			acquireExclusiveTransactionLock();
+			requireCleanup = true;
+			deprecateRows(createRowIteration(null, null, null, explicit, nextSnapshot, contexts));
+		}
+
+		@Override
+		public synchronized void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws SailException {
+			acquireExclusiveTransactionLock();
+			addStatement(subj, pred, obj, ctx, explicit);
+		}
+
+		@Override
+		public synchronized void deprecate(Statement statement) throws SailException {
+			acquireExclusiveTransactionLock();
+			requireCleanup = true;
+			deprecateRows(createRowIteration(statement.getSubject(), statement.getPredicate(), statement.getObject(),
+					explicit, nextSnapshot, statement.getContext()));
+		}
+
+		@Override
+		public boolean deprecateByQuery(Resource subj, IRI pred, Value obj, Resource[] contexts) {
+			acquireExclusiveTransactionLock();
+			requireCleanup = true;
+			return deprecateRows(createRowIteration(subj, pred, obj, explicit, nextSnapshot, contexts));
+		}
+
+		private boolean deprecateRows(RowIteration iter) {
+			long deprecated = 0;
+			if (iter != null) {
+				for (int row = iter.nextRow(); row >= 0; row = iter.nextRow()) {
+					set(row, TILL, nextSnapshot);
+					deprecated++;
+				}
+			}
+			cleanupMonitor.statementsDeprecated(deprecated);
+			return deprecated > 0;
+		}
+
+		private void acquireExclusiveTransactionLock() throws SailException {
+			if (!txnLock) {
+				txnLockManager.lock();
+				nextSnapshot = currentSnapshot + 1;
+				txnLock = true;
+			}
+		}
+
+		private void addStatement(Resource subj, IRI pred, Value obj, Resource context, boolean explicit)
+				throws SailException {
+			// Possibly, the statement is already present. Check this.
+			RowIteration iter = createRowIteration(subj, pred, obj, null, Integer.MAX_VALUE - 1, context);
+			int existing = iter == null ? -1 : iter.nextRow();
+			if (existing >= 0) {
+				// statement is already present, update its transaction status if appropriate
+				boolean existingExplicit = (get(existing, FLAGS) & EXPLICIT_FLAG) != 0;
+				if (!existingExplicit && explicit) {
+					// Implicit statement is now added explicitly
+					set(existing, TILL, nextSnapshot);
+					cleanupMonitor.statementsDeprecated(1);
+				} else if (!isInSnapshot(existing, nextSnapshot)) {
+					set(existing, SINCE, nextSnapshot);
+				} else {
+					// statement already exists
+					return;
+				}
+			}
+
+			// completely new statement
+			int subjId = values.getOrCreateId(subj);
+			int predId = values.getOrCreateId(pred);
+			int objId = values.getOrCreateId(obj);
+			int contextId = context == null ? NO_CONTEXT : values.getOrCreateId(context);
+
+			int row;
+			if (freeRows.isEmpty()) {
+				row = rowCount;
+				rows.ensureCapacity((long) (row + 1) * ROW_SIZE);
+			} else {
+				row = freeRows.removeLast();
+			}
+
+			// write the row before it is published through rowCount or the row lists; it only becomes visible to
+			// other transactions once nextSnapshot is the current snapshot
+			set(row, SUBJECT, subjId);
+			set(row, PREDICATE, predId);
+			set(row, OBJECT, objId);
+			set(row, CONTEXT, contextId);
+			set(row, TILL, Integer.MAX_VALUE);
+			set(row, FLAGS, explicit ? EXPLICIT_FLAG : 0);
+			set(row, SINCE, nextSnapshot);
+			if (row == rowCount) {
+				rowCount = row + 1;
+			}
+
+			values.addRow(ValueTable.SUBJECT, subjId, row);
+			values.addRow(ValueTable.PREDICATE, predId, row);
+			values.addRow(ValueTable.OBJECT, objId, row);
+			if (contextId != NO_CONTEXT) {
+				values.addRow(ValueTable.CONTEXT, contextId, row);
+			}
+		}
+	}
+
+	private final class CompactSailDataset implements SailDataset {
+
+		private final boolean explicit;
+
+		private final int snapshot;
+
+		private final Lock lock;
+
+		public CompactSailDataset(boolean explicit) throws SailException {
+			this.explicit = explicit;
+			this.snapshot = -1;
+			this.lock = null;
+		}
+
+		public CompactSailDataset(boolean explicit, int snapshot) throws SailException {
+			this.explicit = explicit;
+			this.snapshot = snapshot;
+			this.lock = openStatementsReadLock();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			if (explicit) {
+				sb.append("explicit ");
+			} else {
+				sb.append("inferred ");
+			}
+			if (snapshot >= 0) {
+				sb.append("snapshot ").append(snapshot);
+			} else {
+				sb.append(super.toString());
+			}
+			return sb.toString();
+		}
+
+		@Override
+		public void close() {
+			if (lock != null) {
+				// serializable read or higher isolation
+				lock.release();
+			}
+		}
+
+		@Override
+		public String getNamespace(String prefix) throws SailException {
+			return namespaceStore.getNamespace(prefix);
+		}
+
+		@Override
+		public CloseableIteration<? extends Namespace, SailException> getNamespaces() {
+			return new CloseableIteratorIteration<Namespace, SailException>(namespaceStore.iterator());
+		}
+
+		@Override
+		public CloseableIteration<? extends Resource, SailException> getContextIDs() throws SailException {
+			List<Resource> contextIDs = new ArrayList<>(32);
+
+			Lock stLock = openStatementsReadLock();
+			try {
+				int snapshot = getCurrentSnapshot();
+				IntList ids = values.getContextIds();
+				for (int i = 0; i < ids.size(); i++) {
+					int id = ids.get(i);
+					RowIteration iter = new RowIteration(values.getRows(ValueTable.CONTEXT, id), ANY, ANY, ANY,
+							new int[0], null, snapshot);
+					if (iter.nextRow() >= 0) {
+						contextIDs.add((Resource) values.getValue(id));
+					}
+				}
+			} finally {
+				stLock.release();
+			}
+
+			return new CloseableIteratorIteration<>(contextIDs.iterator());
+		}
+
+		@Override
+		public CloseableIteration<? extends Statement, SailException> getStatements(Resource subj, IRI pred, Value obj,
+				Resource... contexts) throws SailException {
+			Lock stLock = openStatementsReadLock();
+			try {
+				return new LockingIteration<Statement, SailException>(stLock,
+						createStatementIterator(subj, pred, obj, explicit, getCurrentSnapshot(), contexts));
+			} catch (Throwable t) {
+				stLock.release();
+				throw t;
+			}
+		}
+
+		@Override
+		public CloseableIteration<? extends Triple, SailException> getTriples(Resource subj, IRI pred, Value obj)
+				throws SailException {
+			Lock stLock = openStatementsReadLock();
+			try {
+				return new LockingIteration<Triple, SailException>(stLock,
+						createTripleIterator(subj, pred, obj, getCurrentSnapshot()));
+			} catch (Throwable t) {
+				stLock.release();
+				throw t;
+			}
+		}
+
+		private int getCurrentSnapshot() {
+			if (snapshot >= 0) {
+				return snapshot;
+			} else {
+				return currentSnapshot;
+			}
+		}
+	}
+
+	/**
+	 * Uses the sizes of the row lists of values to give cost estimates, like {@link MemEvaluationStatistics}.
+	 */
+	private final class CompactEvaluationStatistics extends EvaluationStatistics {
+
+		@Override
+		protected CardinalityCalculator createCardinalityCalculator() {
+			return new CompactCardinalityCalculator();
+		}
+
+		private final class CompactCardinalityCalculator extends CardinalityCalculator {
+
+			@Override
+			public double getCardinality(StatementPattern sp) {
+				// ignore constants of the wrong kind, e.g. literals that were inlined as subject
+				Value subj = getConstantValue(sp.getSubjectVar());
+				Value pred = getConstantValue(sp.getPredicateVar());
+				Value obj = getConstantValue(sp.getObjectVar());
+				Value context = getConstantValue(sp.getContextVar());
+
+				int minListSize = Integer.MAX_VALUE;
+				Value[] constants = { subj != null && subj.isResource() ? subj : null,
+						pred != null && pred.isIRI() ? pred : null, obj,
+						context != null && context.isResource() ? context : null };
+				int[] components = { ValueTable.SUBJECT, ValueTable.PREDICATE, ValueTable.OBJECT,
+						ValueTable.CONTEXT };
+				for (int i = 0; i < constants.length; i++) {
+					if (constants[i] != null) {
+						int id = values.getId(constants[i]);
+						if (id < 0) {
+							// non-existent subject, predicate, object or context
+							return 0.0;
+						}
+						IntList list = values.getRows(components[i], id);
+						minListSize = Math.min(minListSize, list == null ? 0 : list.size());
+					}
+				}
+
+				if (minListSize == Integer.MAX_VALUE) {
+					// all wildcards
+					return size();
+				}
+				return minListSize;
+			}
+
+			private Value getConstantValue(Var var) {
+				return var == null ? null : var.getValue();
+			}
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * A growable column of ints that is stored in fixed-size chunks, either on the Java heap or in direct (off-heap)
+ * buffers. Growing the column only allocates new chunks, existing values are never copied.
+ * <p>
+ * A column supports a single writer and concurrent readers. Readers only see values that have been published to them
+ * through some other synchronization, e.g. a volatile write of a size that covers them.
+ */
+abstract class IntColumn {
+
+	private static final int CHUNK_SHIFT = 16;
+
+	static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	/**
+	 * Creates a column that stores its values in int arrays on the Java heap.
+	 */
+	static IntColumn onHeap() {
+		return new HeapIntColumn();
+	}
+
+	/**
+	 * Creates a column that stores its values in direct buffers outside of the Java heap.
+	 */
+	static IntColumn offHeap() {
+		return new DirectIntColumn();
+	}
+
+	abstract int get(long index);
+
+	abstract void set(long index, int value);
+
+	/**
+	 * Makes sure that the column can store values up to (excluding) the specified index.
+	 */
+	abstract void ensureCapacity(long capacity);
+
+	/**
+	 * Releases all chunks of this column.
+	 */
+	abstract void clear();
+
+	static int chunk(long index) {
+		return (int) (index >>> CHUNK_SHIFT);
+	}
+
+	static int offset(long index) {
+		return (int) index & CHUNK_MASK;
+	}
+
+	private static final class HeapIntColumn extends IntColumn {
+
+		private volatile int[][] chunks = new int[0][];
+
+		@Override
+		int get(long index) {
+			return chunks[chunk(index)][offset(index)];
+		}
+
+		@Override
+		void set(long index, int value) {
+			chunks[chunk(index)][offset(index)] = value;
+		}
+
+		@Override
+		void ensureCapacity(long capacity) {
+			int[][] current = chunks;
+			int required = chunk(capacity + CHUNK_MASK);
+			if (required > current.length) {
+				int[][] grown = Arrays.copyOf(current, Math.max(required, current.length * 2));
+				for (int i = current.length; i < grown.length; i++) {
+					grown[i] = new int[CHUNK_SIZE];
+				}
+				chunks = grown;
+			}
+		}
+
+		@Override
+		void clear() {
+			chunks = new int[0][];
+		}
+	}
+
+	private static final class DirectIntColumn extends IntColumn {
+
+		private volatile IntBuffer[] chunks = new IntBuffer[0];
+
+		@Override
+		int get(long index) {
+			return chunks[chunk(index)].get(offset(index));
+		}
+
+		@Override
+		void set(long index, int value) {
+			chunks[chunk(index)].put(offset(index), value);
+		}
+
+		@Override
+		void ensureCapacity(long capacity) {
+			IntBuffer[] current = chunks;
+			int required = chunk(capacity + CHUNK_MASK);
+			if (required > current.length) {
+				IntBuffer[] grown = Arrays.copyOf(current, Math.max(required, current.length * 2));
+				for (int i = current.length; i < grown.length; i++) {
+					grown[i] = ByteBuffer.allocateDirect(CHUNK_SIZE * Integer.BYTES)
+							.order(ByteOrder.nativeOrder())
+							.asIntBuffer();
+				}
+				chunks = grown;
+			}
+		}
+
+		@Override
+		void clear() {
+			// the direct buffers are freed when they are garbage collected
+			chunks = new IntBuffer[0];
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A growable list of ints, the primitive counterpart of {@link org.eclipse.rdf4j.sail.memory.model.MemStatementList}.
+ * Like that list, it supports a single writer that appends values while other threads are reading. Removing values is
+ * only allowed when no other threads access the list.
+ */
+class IntList {
+
+	private volatile int[] elements;
+
+	private volatile int size;
+
+	IntList() {
+		this(4);
+	}
+
+	IntList(int capacity) {
+		elements = new int[capacity];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int get(int index) {
+		assert index < size : "index >= size";
+		return elements[index];
+	}
+
+	void add(int value) {
+		int[] array = elements;
+		if (size == array.length) {
+			array = Arrays.copyOf(array, size == 0 ? 4 : 2 * size);
+			elements = array;
+		}
+		array[size] = value;
+		size = size + 1;
+	}
+
+	/**
+	 * Removes and returns the last value of the list.
+	 */
+	int removeLast() {
+		int last = size - 1;
+		int value = elements[last];
+		size = last;
+		return value;
+	}
+
+	/**
+	 * Removes all values that match the supplied predicate, keeping the order of the other values.
+	 *
+	 * @return the number of removed values.
+	 */
+	int removeIf(IntPredicate predicate) {
+		int[] array = elements;
+		int newSize = 0;
+		for (int i = 0; i < size; i++) {
+			if (!predicate.test(array[i])) {
+				array[newSize++] = array[i];
+			}
+		}
+		int removed = size - newSize;
+		size = newSize;
+		if (newSize < array.length / 4 && array.length > 16) {
+			elements = Arrays.copyOf(array, Math.max(newSize * 2, 4));
+		}
+		return removed;
+	}
+
+	void clear() {
+		size = 0;
+		elements = new int[4];
+	}
+}
@@ -0,0 +1,217 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.io.IOException;
+
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.BackingSailSource;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailSource;
+import org.eclipse.rdf4j.sail.base.SailStore;
+
+/**
+ * A {@link SailStore} that appends the changes that are flushed to another store to a {@link ChangeLog}. Changes are
+ * only appended once the underlying store has accepted them, and the changes of a {@link ChangeLog#commit(Runnable)
+ * commit} are appended as a single record once all its sinks have been flushed.
+ * <p>
+ * Changes are flushed to the underlying store and appended while holding the monitor of the log. Holding that monitor
+ * while opening datasets therefore gives a state that contains exactly the changes of the records in the log.
+ */
+class LoggingSailStore implements SailStore {
+
+	private final SailStore delegate;
+
+	private final ChangeLog log;
+
+	LoggingSailStore(SailStore delegate, ChangeLog log) {
+		this.delegate = delegate;
+		this.log = log;
+	}
+
+	ChangeLog getLog() {
+		return log;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return delegate.getValueFactory();
+	}
+
+	@Override
+	public EvaluationStatistics getEvaluationStatistics() {
+		return delegate.getEvaluationStatistics();
+	}
+
+	@Override
+	public SailSource getExplicitSailSource() {
+		return new LoggingSailSource(delegate.getExplicitSailSource(), true);
+	}
+
+	@Override
+	public SailSource getInferredSailSource() {
+		return new LoggingSailSource(delegate.getInferredSailSource(), false);
+	}
+
+	@Override
+	public void close() throws SailException {
+		delegate.close();
+	}
+
+	private final class LoggingSailSource extends BackingSailSource {
+
+		private final SailSource delegate;
+
+		private final boolean explicit;
+
+		public LoggingSailSource(SailSource delegate, boolean explicit) {
+			this.delegate = delegate;
+			this.explicit = explicit;
+		}
+
+		@Override
+		public SailSink sink(IsolationLevel level) throws SailException {
+			return new LoggingSailSink(delegate.sink(level), explicit);
+		}
+
+		@Override
+		public SailDataset dataset(IsolationLevel level) throws SailException {
+			return delegate.dataset(level);
+		}
+	}
+
+	private final class LoggingSailSink implements SailSink {
+
+		private final SailSink delegate;
+
+		private final ChangeLog.Recorder recorder;
+
+		public LoggingSailSink(SailSink delegate, boolean explicit) {
+			this.delegate = delegate;
+			this.recorder = ChangeLog.recorder(explicit);
+		}
+
+		@Override
+		public void prepare() throws SailException {
+			delegate.prepare();
+		}
+
+		@Override
+		public synchronized void flush() throws SailException {
+			synchronized (log) {
+				// the changes are logged after they have been applied, so that a failed flush leaves no record
+				delegate.flush();
+				if (!recorder.isEmpty()) {
+					try {
+						log.append(recorder.takeChanges());
+					} catch (IOException e) {
+						throw new SailException("Unable to write changes to log", e);
+					}
+				}
+			}
+		}
+
+		@Override
+		public synchronized void close() throws SailException {
+			recorder.reset();
+			delegate.close();
+		}
+
+		@Override
+		public synchronized void setNamespace(String prefix, String name) throws SailException {
+			delegate.setNamespace(prefix, name);
+			try {
+				recorder.setNamespace(prefix, name);
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public synchronized void removeNamespace(String prefix) throws SailException {
+			delegate.removeNamespace(prefix);
+			try {
+				recorder.removeNamespace(prefix);
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public synchronized void clearNamespaces() throws SailException {
+			delegate.clearNamespaces();
+			try {
+				recorder.clearNamespaces();
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public synchronized void clear(Resource... contexts) throws SailException {
+			delegate.clear(contexts);
+			try {
+				recorder.clear(contexts);
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public void observe(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+			delegate.observe(subj, pred, obj, contexts);
+		}
+
+		@Override
+		public synchronized void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws SailException {
+			delegate.approve(subj, pred, obj, ctx);
+			try {
+				recorder.approve(subj, pred, obj, ctx);
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public synchronized void deprecate(Statement statement) throws SailException {
+			delegate.deprecate(statement);
+			try {
+				recorder.deprecate(statement.getSubject(), statement.getPredicate(), statement.getObject(),
+						statement.getContext());
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
+		@Override
+		public synchronized boolean deprecateByQuery(Resource subj, IRI pred, Value obj, Resource[] contexts) {
+			boolean deprecated = delegate.deprecateByQuery(subj, pred, obj, contexts);
+			if (deprecated) {
+				try {
+					recorder.deprecateByQuery(subj, pred, obj, contexts);
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
+			return deprecated;
+		}
+
+		@Override
+		public boolean supportsDeprecateByQuery() {
+			return delegate.supportsDeprecateByQuery();
+		}
+	}
+}
@@ -28,9 +28,14 @@ class MemTripleIterator<X extends Exception> extends LookAheadIteration<MemTripl
 	 *-----------*/
 
 	/**
-	 * The lists of statements over which to iterate.
+	 * The statements over which to iterate, see {@link MemStatementList#getStatements()}.
 	 */
-	private final MemStatementList statementList;
+	private final MemStatement[] statements;
+
+	/**
+	 * The number of statements in the list when this iterator was created.
+	 */
+	private final int size;
 
 	/**
 	 * The subject of statements to return, or null if any subject is OK.
@@ -73,7 +78,8 @@ class MemTripleIterator<X extends Exception> extends LookAheadIteration<MemTripl
 	 */
 	public MemTripleIterator(MemStatementList statementList, MemResource subject, MemIRI predicate, MemValue object,
 			int snapshot) {
-		this.statementList = statementList;
+		this.size = statementList.size();
+		this.statements = statementList.getStatements();
 		this.subject = subject;
 		this.predicate = predicate;
 		this.object = object;
@@ -94,8 +100,9 @@ class MemTripleIterator<X extends Exception> extends LookAheadIteration<MemTripl
 	protected MemTriple getNextElement() {
 		statementIdx++;
 
-		for (; statementIdx < statementList.size(); statementIdx++) {
-			MemStatement st = statementList.get(statementIdx);
+		for (; statementIdx < Math.min(size, statements.length)
+				&& statements[statementIdx] != null; statementIdx++) {
+			MemStatement st = statements[statementIdx];
 			if (isInSnapshot(st)) {
 				if (st.getSubject() instanceof MemTriple) {
 					MemTriple triple = (MemTriple) st.getSubject();
@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.rdf4j.IsolationLevel;
@@ -81,15 +82,30 @@ class MemorySailStore implements SailStore {
 	private final MemNamespaceStore namespaceStore = new MemNamespaceStore();
 
 	/**
-	 * Lock manager used to give the snapshot cleanup thread exclusive access to the statement list.
+	 * Lock manager used to give {@link #close()} exclusive access to the statement list.
 	 */
 	private final ReadWriteLockManager statementListLockManager;
 
 	/**
-	 * Lock manager used to prevent concurrent writes.
+	 * Lock manager used to prevent concurrent writes. The snapshot cleanup thread also holds this lock while it removes
+	 * statements, readers are not blocked by it.
 	 */
 	private final ReentrantLock txnLockManager = new ReentrantLock();
 
+	/**
+	 * The snapshots that are read by open datasets, iterations and serializable sinks, with the number of readers of
+	 * each snapshot. The snapshot cleanup does not remove statements that are visible in any of these snapshots.
+	 */
+	private final TreeMap<Integer, Integer> snapshotsInUse = new TreeMap<>();
+
+	/**
+	 * The number of statements of which the values of a batch are cleaned by the snapshot cleanup thread before it
+	 * yields the transaction lock to writers.
+	 */
+	private static final int CLEANUP_BATCH_SIZE = 1024;
+
+	private final SnapshotCleanupMonitor cleanupMonitor;
+
 	/**
 	 * Cleanup thread that removes deprecated statements when no other threads are accessing this list. Seee
 	 * {@link #scheduleSnapshotCleanup()}.
@@ -101,8 +117,9 @@ class MemorySailStore implements SailStore {
 	 */
 	private final Object snapshotCleanupThreadLockObject = new Object();
 
-	public MemorySailStore(boolean debug) {
+	public MemorySailStore(boolean debug, SnapshotCleanupMonitor cleanupMonitor) {
 		statementListLockManager = new ReadPrefReadWriteLockManager(debug);
+		this.cleanupMonitor = cleanupMonitor;
 	}
 
 	@Override
@@ -149,6 +166,36 @@ class MemorySailStore implements SailStore {
 		}
 	}
 
+	/**
+	 * Opens a read lock on the statements that also keeps the statements of a snapshot from being removed by the
+	 * snapshot cleanup until the lock is released.
+	 *
+	 * @param snapshot the snapshot to read, or <tt>-1</tt> to read the current snapshot.
+	 */
+	private SnapshotLock openSnapshotReadLock(int snapshot) throws SailException {
+		Lock stLock = openStatementsReadLock();
+		synchronized (snapshotsInUse) {
+			// the current snapshot is read while holding the monitor, so that cleanup can not miss it
+			int readSnapshot = snapshot >= 0 ? snapshot : currentSnapshot;
+			snapshotsInUse.merge(readSnapshot, 1, Integer::sum);
+			return new SnapshotLock(readSnapshot, stLock);
+		}
+	}
+
+	/**
+	 * Gets the oldest snapshot that may still be read. Statements that have expired in this snapshot are no longer
+	 * visible to any reader.
+	 */
+	private int getOldestSnapshotInUse() {
+		synchronized (snapshotsInUse) {
+			int oldest = currentSnapshot;
+			if (!snapshotsInUse.isEmpty()) {
+				oldest = Math.min(oldest, snapshotsInUse.firstKey());
+			}
+			return oldest;
+		}
+	}
+
 	/**
 	 * Creates a StatementIterator that contains the statements matching the specified pattern of subject, predicate,
 	 * object, context. Inferred statements are excluded when <tt>explicitOnly</tt> is set to <tt>true</tt> . Statements
@@ -266,79 +313,84 @@ class MemorySailStore implements SailStore {
 	}
 
 	/**
-	 * Removes statements from old snapshots from the main statement list and resets the snapshot to 1 for the rest of
-	 * the statements.
+	 * Removes statements from old snapshots that are no longer read by any dataset, iteration or transaction.
+	 * <p>
+	 * Statements are removed in batches while holding the transaction lock, which excludes writers only. Readers are
+	 * not blocked, as {@link MemStatementList} never removes statements from an array that may be in use by a reader.
 	 *
 	 * @throws InterruptedException
 	 */
 	protected void cleanSnapshots() throws InterruptedException {
-		// System.out.println("cleanSnapshots() starting...");
-		// long startTime = System.currentTimeMillis();
-
-		// Sets used to keep track of which lists have already been processed
-		HashSet<MemValue> processedSubjects = new HashSet<>();
-		HashSet<MemValue> processedPredicates = new HashSet<>();
-		HashSet<MemValue> processedObjects = new HashSet<>();
-		HashSet<MemValue> processedContexts = new HashSet<>();
-
-		int lastStmtPos;
-		Lock stReadLock = statementListLockManager.getReadLock();
+		long startTime = System.currentTimeMillis();
+		cleanupMonitor.cleanupStarted();
 		try {
-			lastStmtPos = statements.size() - 1;
-		} finally {
-			stReadLock.release();
-		}
-
-		/*
-		 * The order of the statement list won't change from lastStmtPos down while we don't have the write lock (it
-		 * might shrink or grow) as (1) new statements are always appended last, (2) we are the only process that
-		 * removes statements, (3) this list is cleared on close.
-		 */
-
-		int nextSnapshot = currentSnapshot;
-		for (int i = lastStmtPos; i >= 0; i--) {
-			// As we are running in the background, yield the write lock frequently to other writers.
-			Lock stWriteLock = statementListLockManager.getWriteLock();
-			try {
-				// guard against shrinkage, e.g. clear() on close()
-				lastStmtPos = statements.size() - 1;
-				i = Math.min(i, lastStmtPos);
-				if (i >= 0) {
-					MemStatement st = statements.get(i);
-
-					if (st.getTillSnapshot() <= nextSnapshot) {
-						MemResource subj = st.getSubject();
-						if (processedSubjects.add(subj)) {
-							subj.cleanSnapshotsFromSubjectStatements(nextSnapshot);
+			int cleanupSnapshot = getOldestSnapshotInUse();
+
+			// Sets used to keep track of which lists have already been processed
+			HashSet<MemValue> processedSubjects = new HashSet<>();
+			HashSet<MemValue> processedPredicates = new HashSet<>();
+			HashSet<MemValue> processedObjects = new HashSet<>();
+			HashSet<MemValue> processedContexts = new HashSet<>();
+
+			/*
+			 * Statements are only appended to or removed from the main statement list while holding the transaction
+			 * lock, so the statements of the array that we read now stay the same while we clean the lists of their
+			 * values.
+			 */
+			int size = statements.size();
+			MemStatement[] toClean = statements.getStatements();
+			int end = Math.min(size, toClean.length);
+
+			for (int i = 0; i < end;) {
+				// As we are running in the background, yield the transaction lock to writers after each batch.
+				txnLockManager.lockInterruptibly();
+				try {
+					for (int batchEnd = Math.min(i + CLEANUP_BATCH_SIZE, end); i < batchEnd; i++) {
+						MemStatement st = toClean[i];
+						if (st == null) {
+							// the statements have been cleared on close()
+							i = end;
+							break;
 						}
 
-						MemIRI pred = st.getPredicate();
-						if (processedPredicates.add(pred)) {
-							pred.cleanSnapshotsFromPredicateStatements(nextSnapshot);
-						}
+						if (st.getTillSnapshot() <= cleanupSnapshot) {
+							MemResource subj = st.getSubject();
+							if (processedSubjects.add(subj)) {
+								subj.cleanSnapshotsFromSubjectStatements(cleanupSnapshot);
+							}
 
-						MemValue obj = st.getObject();
-						if (processedObjects.add(obj)) {
-							obj.cleanSnapshotsFromObjectStatements(nextSnapshot);
-						}
+							MemIRI pred = st.getPredicate();
+							if (processedPredicates.add(pred)) {
+								pred.cleanSnapshotsFromPredicateStatements(cleanupSnapshot);
+							}
 
-						MemResource context = st.getContext();
-						if (context != null && processedContexts.add(context)) {
-							context.cleanSnapshotsFromContextStatements(nextSnapshot);
-						}
+							MemValue obj = st.getObject();
+							if (processedObjects.add(obj)) {
+								obj.cleanSnapshotsFromObjectStatements(cleanupSnapshot);
+							}
 
-						// stale statement
-						statements.remove(i);
+							MemResource context = st.getContext();
+							if (context != null && processedContexts.add(context)) {
+								context.cleanSnapshotsFromContextStatements(cleanupSnapshot);
+							}
+						}
 					}
+				} finally {
+					txnLockManager.unlock();
 				}
+			}
+
+			txnLockManager.lockInterruptibly();
+			try {
+				int before = statements.size();
+				statements.cleanSnapshots(cleanupSnapshot);
+				cleanupMonitor.statementsRemoved(before - statements.size());
 			} finally {
-				stWriteLock.release();
+				txnLockManager.unlock();
 			}
+		} finally {
+			cleanupMonitor.cleanupFinished(System.currentTimeMillis() - startTime);
 		}
-
-		// long endTime = System.currentTimeMillis();
-		// System.out.println("cleanSnapshots() took " + (endTime - startTime) +
-		// " ms");
 	}
 
 	protected void scheduleSnapshotCleanup() {
@@ -378,7 +430,7 @@ class MemorySailStore implements SailStore {
 		@Override
 		public MemorySailDataset dataset(IsolationLevel level) throws SailException {
 			if (level.isCompatibleWith(IsolationLevels.SNAPSHOT_READ)) {
-				return new MemorySailDataset(explicit, currentSnapshot);
+				return new MemorySailDataset(explicit, openSnapshotReadLock(-1));
 			} else {
 				return new MemorySailDataset(explicit);
 			}
@@ -404,11 +456,14 @@ class MemorySailStore implements SailStore {
 		public MemorySailSink(boolean explicit, boolean serializable) throws SailException {
 			this.explicit = explicit;
 			if (serializable) {
-				this.serializable = currentSnapshot;
+				// keep the observed snapshot until the transaction ends, so that conflicts can be detected
+				SnapshotLock snapshotLock = openSnapshotReadLock(-1);
+				this.serializable = snapshotLock.getSnapshot();
+				txnStLock = snapshotLock;
 			} else {
 				this.serializable = Integer.MAX_VALUE;
+				txnStLock = openStatementsReadLock();
 			}
-			txnStLock = openStatementsReadLock();
 		}
 
 		@Override
@@ -524,12 +579,16 @@ class MemorySailStore implements SailStore {
 		public synchronized void clear(Resource... contexts) throws SailException {
 			acquireExclusiveTransactionLock();
 			requireCleanup = true;
+			long deprecated = 0;
 			try (CloseableIteration<MemStatement, SailException> iter = createStatementIterator(null, null, null,
 					explicit, nextSnapshot, contexts);) {
 				while (iter.hasNext()) {
 					MemStatement st = iter.next();
 					st.setTillSnapshot(nextSnapshot);
+					deprecated++;
 				}
+			} finally {
+				cleanupMonitor.statementsDeprecated(deprecated);
 			}
 		}
 
@@ -548,6 +607,7 @@ class MemorySailStore implements SailStore {
 				if ((nextSnapshot < 0 || toDeprecate.isInSnapshot(nextSnapshot))
 						&& toDeprecate.isExplicit() == explicit) {
 					toDeprecate.setTillSnapshot(nextSnapshot);
+					cleanupMonitor.statementsDeprecated(1);
 				}
 			} else if (statement instanceof LinkedHashModel.ModelStatement
 					&& ((LinkedHashModel.ModelStatement) statement).getStatement() instanceof MemStatement) {
@@ -557,6 +617,7 @@ class MemorySailStore implements SailStore {
 				if ((nextSnapshot < 0 || toDeprecate.isInSnapshot(nextSnapshot))
 						&& toDeprecate.isExplicit() == explicit) {
 					toDeprecate.setTillSnapshot(nextSnapshot);
+					cleanupMonitor.statementsDeprecated(1);
 				}
 			} else {
 				try (CloseableIteration<MemStatement, SailException> iter = createStatementIterator(
@@ -566,6 +627,7 @@ class MemorySailStore implements SailStore {
 					while (iter.hasNext()) {
 						MemStatement st = iter.next();
 						st.setTillSnapshot(nextSnapshot);
+						cleanupMonitor.statementsDeprecated(1);
 					}
 				}
 			}
@@ -602,6 +664,7 @@ class MemorySailStore implements SailStore {
 						if (!st.isExplicit() && explicit) {
 							// Implicit statement is now added explicitly
 							st.setTillSnapshot(nextSnapshot);
+							cleanupMonitor.statementsDeprecated(1);
 						} else if (!st.isInSnapshot(nextSnapshot)) {
 							st.setSinceSnapshot(nextSnapshot);
 						} else {
@@ -622,18 +685,20 @@ class MemorySailStore implements SailStore {
 		@Override
 		public boolean deprecateByQuery(Resource subj, IRI pred, Value obj, Resource[] contexts) {
 			acquireExclusiveTransactionLock();
-			boolean deprecated = false;
+			long deprecated = 0;
 			requireCleanup = true;
 			try (CloseableIteration<MemStatement, SailException> iter = createStatementIterator(subj, pred, obj,
 					explicit, nextSnapshot, contexts)) {
 				while (iter.hasNext()) {
-					deprecated = true;
 					MemStatement st = iter.next();
 					st.setTillSnapshot(nextSnapshot);
+					deprecated++;
 				}
+			} finally {
+				cleanupMonitor.statementsDeprecated(deprecated);
 			}
 
-			return deprecated;
+			return deprecated > 0;
 		}
 
 	}
@@ -655,10 +720,10 @@ class MemorySailStore implements SailStore {
 			this.lock = null;
 		}
 
-		public MemorySailDataset(boolean explicit, int snapshot) throws SailException {
+		public MemorySailDataset(boolean explicit, SnapshotLock lock) throws SailException {
 			this.explicit = explicit;
-			this.snapshot = snapshot;
-			this.lock = openStatementsReadLock();
+			this.snapshot = lock.getSnapshot();
+			this.lock = lock;
 		}
 
 		@Override
@@ -706,10 +771,10 @@ class MemorySailStore implements SailStore {
 			// Create a list of all resources that are used as contexts
 			ArrayList<MemResource> contextIDs = new ArrayList<>(32);
 
-			Lock stLock = openStatementsReadLock();
+			SnapshotLock stLock = openSnapshotReadLock(snapshot);
 			try {
 				synchronized (valueFactory) {
-					int snapshot = getCurrentSnapshot();
+					int snapshot = stLock.getSnapshot();
 					for (MemResource memResource : valueFactory.getMemURIs()) {
 						if (isContextResource(memResource, snapshot)) {
 							contextIDs.add(memResource);
@@ -735,9 +800,9 @@ class MemorySailStore implements SailStore {
 			CloseableIteration<? extends Statement, SailException> stIter1 = null;
 			CloseableIteration<? extends Statement, SailException> stIter2 = null;
 			boolean allGood = false;
-			Lock stLock = openStatementsReadLock();
+			SnapshotLock stLock = openSnapshotReadLock(snapshot);
 			try {
-				stIter1 = createStatementIterator(subj, pred, obj, explicit, getCurrentSnapshot(), contexts);
+				stIter1 = createStatementIterator(subj, pred, obj, explicit, stLock.getSnapshot(), contexts);
 				stIter2 = new LockingIteration<Statement, SailException>(stLock, stIter1);
 				allGood = true;
 				return stIter2;
@@ -766,9 +831,9 @@ class MemorySailStore implements SailStore {
 			CloseableIteration<? extends Triple, SailException> stIter1 = null;
 			CloseableIteration<? extends Triple, SailException> stIter2 = null;
 			boolean allGood = false;
-			Lock stLock = openStatementsReadLock();
+			SnapshotLock stLock = openSnapshotReadLock(snapshot);
 			try {
-				stIter1 = createTripleIterator(subj, pred, obj, getCurrentSnapshot());
+				stIter1 = createTripleIterator(subj, pred, obj, stLock.getSnapshot());
 				stIter2 = new LockingIteration<Triple, SailException>(stLock, stIter1);
 				allGood = true;
 				return stIter2;
@@ -791,14 +856,6 @@ class MemorySailStore implements SailStore {
 			}
 		}
 
-		private int getCurrentSnapshot() {
-			if (snapshot >= 0) {
-				return snapshot;
-			} else {
-				return currentSnapshot;
-			}
-		}
-
 		private boolean isContextResource(MemResource memResource, int snapshot) throws SailException {
 			MemStatementList contextStatements = memResource.getContextStatementList();
 
@@ -816,4 +873,44 @@ class MemorySailStore implements SailStore {
 		}
 
 	}
+
+	/**
+	 * A read lock on the statements that keeps the statements of a snapshot from being removed by the snapshot cleanup.
+	 */
+	private final class SnapshotLock implements Lock {
+
+		private final int snapshot;
+
+		private final Lock statementsLock;
+
+		private boolean active = true;
+
+		SnapshotLock(int snapshot, Lock statementsLock) {
+			this.snapshot = snapshot;
+			this.statementsLock = statementsLock;
+		}
+
+		int getSnapshot() {
+			return snapshot;
+		}
+
+		@Override
+		public boolean isActive() {
+			synchronized (snapshotsInUse) {
+				return active;
+			}
+		}
+
+		@Override
+		public void release() {
+			synchronized (snapshotsInUse) {
+				if (!active) {
+					return;
+				}
+				active = false;
+				snapshotsInUse.computeIfPresent(snapshot, (s, count) -> count == 1 ? null : count - 1);
+			}
+			statementsLock.release();
+		}
+	}
 }
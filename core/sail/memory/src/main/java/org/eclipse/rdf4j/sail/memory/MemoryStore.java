@@ -9,6 +9,8 @@ package org.eclipse.rdf4j.sail.memory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
 
@@ -24,6 +26,9 @@ import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
 import org.eclipse.rdf4j.sail.SailChangedEvent;
 import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.ChangeFeed;
+import org.eclipse.rdf4j.sail.base.ChangeFeedSail;
+import org.eclipse.rdf4j.sail.base.ChangeFeedSailStore;
 import org.eclipse.rdf4j.sail.base.SailDataset;
 import org.eclipse.rdf4j.sail.base.SailSink;
 import org.eclipse.rdf4j.sail.base.SailStore;
@@ -45,7 +50,7 @@ import org.slf4j.LoggerFactory;
  * @author Arjohn Kampman
  * @author jeen
  */
-public class MemoryStore extends AbstractNotifyingSail implements FederatedServiceResolverClient {
+public class MemoryStore extends AbstractNotifyingSail implements FederatedServiceResolverClient, ChangeFeedSail {
 
 	private static final Logger logger = LoggerFactory.getLogger(MemoryStore.class);
 
@@ -57,6 +62,16 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	protected static final String SYNC_FILE_NAME = "memorystore.sync";
 
+	protected static final String LOG_FILE_NAME = "memorystore.log";
+
+	protected static final String COMPACTED_LOG_FILE_NAME = "memorystore.log.compacting";
+
+	/**
+	 * The minimum size of the change log before it is compacted into the data file. Larger logs are compacted when they
+	 * become larger than the data file.
+	 */
+	private static final long MIN_LOG_COMPACTION_SIZE = 16 * 1024 * 1024;
+
 	/*-----------*
 	 * Variables *
 	 *-----------*/
@@ -95,6 +110,65 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	private volatile long syncDelay = 0L;
 
+	/**
+	 * Whether committed changes are appended to a change log instead of rewriting the data file.
+	 *
+	 * @see #setLogChanges
+	 */
+	private volatile boolean logChanges = false;
+
+	/**
+	 * The log to which committed changes are appended, null if the change log is not used.
+	 */
+	private volatile ChangeLog changeLog;
+
+	/**
+	 * Thread that compacts the change log into the data file in the background.
+	 */
+	private volatile Thread logCompactionThread;
+
+	/**
+	 * Lock object used to synchronize concurrent access to {@link #logCompactionThread}.
+	 */
+	private final Object logCompactionThreadLockObject = new Object();
+
+	/**
+	 * Semaphore used to prevent concurrent compactions of the change log.
+	 */
+	private final Object logCompactionSemaphore = new Object();
+
+	/**
+	 * Whether statements are kept in compact int rows instead of as statement objects.
+	 *
+	 * @see #setCompactStatements
+	 */
+	private volatile boolean compactStatements = false;
+
+	/**
+	 * Whether compact statement rows are kept outside of the Java heap.
+	 *
+	 * @see #setOffHeapStatements
+	 */
+	private volatile boolean offHeapStatements = false;
+
+	/**
+	 * The counters of the snapshot cleanup of the store, null if this store has not been initialized.
+	 */
+	private volatile SnapshotCleanupMonitor snapshotCleanupMonitor;
+
+	/**
+	 * The number of statements of recently committed changesets that are retained by the change feed, or zero if the
+	 * change feed is disabled.
+	 *
+	 * @see #setChangeFeedCapacity
+	 */
+	private volatile long changeFeedCapacity = 0L;
+
+	/**
+	 * The feed of committed changes, null if the change feed is disabled or this store has not been initialized.
+	 */
+	private volatile ChangeFeed changeFeed;
+
 	/**
 	 * Semaphore used to synchronize concurrent access to {@link #syncWithLock()} .
 	 */
@@ -194,6 +268,134 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 		return syncDelay;
 	}
 
+	/**
+	 * Sets whether a persistent store appends committed changes to a log file instead of rewriting its data file. With
+	 * the change log, the cost of a commit depends on the size of the change rather than on the size of the store. The
+	 * log is compacted into the data file in the background once it has grown larger than the data file, and it is
+	 * replayed when the store is initialized.
+	 * <p>
+	 * The changes of a commit are appended once they have been applied to the store, so the log is not a write-ahead
+	 * log: a commit whose record has not been written completely when the JVM crashes is lost, like a commit whose
+	 * changes had not been written to the data file before. The sync delay determines when the log is forced to disk.
+	 * <p>
+	 * Logs that were written while the change log was enabled are also replayed, and then written to the data file,
+	 * when it is disabled.
+	 *
+	 * @param logChanges <tt>true</tt> to append committed changes to a log file.
+	 */
+	public void setLogChanges(boolean logChanges) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been initialized");
+		}
+
+		this.logChanges = logChanges;
+	}
+
+	/**
+	 * @return whether committed changes are appended to a log file.
+	 * @see #setLogChanges
+	 */
+	public boolean getLogChanges() {
+		return logChanges;
+	}
+
+	/**
+	 * Sets whether statements are stored in a compact layout. By default, each statement is kept as an object that is
+	 * referenced from per-value statement lists. In the compact layout, values are assigned int IDs and each statement
+	 * is stored as a row of ints (its value IDs, the snapshots in which it exists and whether it is explicit), with
+	 * per-value lists of row numbers as indexes. This uses considerably less memory per statement and creates no
+	 * objects per statement that the garbage collector needs to trace, at the cost of creating a statement object for
+	 * each result.
+	 *
+	 * @param compactStatements <tt>true</tt> to use the compact layout.
+	 */
+	public void setCompactStatements(boolean compactStatements) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been initialized");
+		}
+
+		this.compactStatements = compactStatements;
+	}
+
+	/**
+	 * @return whether statements are stored in a compact layout.
+	 * @see #setCompactStatements
+	 */
+	public boolean getCompactStatements() {
+		return compactStatements;
+	}
+
+	/**
+	 * Sets whether the rows of the compact statement layout are kept in direct buffers outside of the Java heap. This
+	 * setting is only used when {@link #setCompactStatements(boolean) compact statements} are enabled. The size of
+	 * direct memory is limited by the <tt>-XX:MaxDirectMemorySize</tt> JVM option.
+	 *
+	 * @param offHeapStatements <tt>true</tt> to keep the statement rows outside of the Java heap.
+	 */
+	public void setOffHeapStatements(boolean offHeapStatements) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been initialized");
+		}
+
+		this.offHeapStatements = offHeapStatements;
+	}
+
+	/**
+	 * @return whether the rows of the compact statement layout are kept outside of the Java heap.
+	 * @see #setOffHeapStatements
+	 */
+	public boolean getOffHeapStatements() {
+		return offHeapStatements;
+	}
+
+	/**
+	 * Returns the state of the background cleanup that removes deprecated statements from memory, including the number
+	 * of removed statements that are still waiting to be cleaned up.
+	 *
+	 * @throws IllegalStateException If the store has not been initialized.
+	 */
+	public SnapshotCleanupStatistics getSnapshotCleanupStatistics() {
+		SnapshotCleanupMonitor monitor = snapshotCleanupMonitor;
+		if (monitor == null) {
+			throw new IllegalStateException("sail has not been initialized");
+		}
+		return monitor.getStatistics();
+	}
+
+	/**
+	 * Sets the number of statements of the most recently committed changesets that are retained by the
+	 * {@link #getChangeFeed() change feed} of this store. The change feed is disabled when the capacity is zero, which
+	 * is the default.
+	 *
+	 * @param changeFeedCapacity the number of added and removed statements that are retained.
+	 */
+	public void setChangeFeedCapacity(long changeFeedCapacity) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been initialized");
+		}
+		if (changeFeedCapacity < 0) {
+			throw new IllegalArgumentException("change feed capacity must not be negative");
+		}
+
+		this.changeFeedCapacity = changeFeedCapacity;
+	}
+
+	/**
+	 * @return the number of statements that are retained by the change feed, or zero if it is disabled.
+	 * @see #setChangeFeedCapacity
+	 */
+	public long getChangeFeedCapacity() {
+		return changeFeedCapacity;
+	}
+
+	@Override
+	public Optional<ChangeFeed> getChangeFeed() {
+		if (!isInitialized()) {
+			throw new IllegalStateException("sail has not been initialized");
+		}
+		return Optional.ofNullable(changeFeed);
+	}
+
 	/**
 	 * @return Returns the {@link EvaluationStrategy}.
 	 */
@@ -249,7 +451,13 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 	protected void initializeInternal() throws SailException {
 		logger.debug("Initializing MemoryStore...");
 
-		this.store = new MemorySailStore(debugEnabled());
+		SnapshotCleanupMonitor cleanupMonitor = new SnapshotCleanupMonitor();
+		if (compactStatements) {
+			this.store = new CompactMemorySailStore(debugEnabled(), offHeapStatements, cleanupMonitor);
+		} else {
+			this.store = new MemorySailStore(debugEnabled(), cleanupMonitor);
+		}
+		this.snapshotCleanupMonitor = cleanupMonitor;
 
 		if (persist) {
 			File dataDir = getDataDir();
@@ -317,6 +525,15 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 					throw new SailException("Failed to initialize data file " + dataFile, e);
 				}
 			}
+
+			initChangeLog(dataDir);
+		}
+
+		if (changeFeedCapacity > 0) {
+			changeFeed = new ChangeFeed(changeFeedCapacity);
+			store = new ChangeFeedSailStore(store, changeFeed);
+		} else {
+			changeFeed = null;
 		}
 
 		contentsChanged = false;
@@ -330,6 +547,17 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			cancelSyncTimer();
 			sync();
 
+			ChangeLog log = changeLog;
+			if (log != null) {
+				changeLog = null;
+				awaitLogCompaction();
+				try {
+					log.close();
+				} catch (IOException e) {
+					throw new SailException(e);
+				}
+			}
+
 			store.close();
 			dataFile = null;
 			syncFile = null;
@@ -379,6 +607,17 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			return;
 		}
 
+		ChangeLog log = changeLog;
+		if (log != null) {
+			try {
+				if (log.size() > Math.max(MIN_LOG_COMPACTION_SIZE, dataFile.length())) {
+					scheduleLogCompaction();
+				}
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+
 		if (syncDelay == 0L) {
 			// Sync immediately
 			sync();
@@ -433,7 +672,8 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 
 	/**
 	 * Synchronizes the contents of this repository with the data that is stored on disk. Data will only be written when
-	 * the contents of the repository and data in the file are out of sync.
+	 * the contents of the repository and data in the file are out of sync. When the {@link #setLogChanges(boolean)
+	 * change log} is used, the log is forced to disk instead of rewriting the data file.
 	 */
 	public void sync() throws SailException {
 		// syncSemaphore prevents concurrent file synchronizations
@@ -441,10 +681,11 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 			if (persist && contentsChanged) {
 				logger.debug("syncing data to file...");
 				try {
-					IsolationLevels level = IsolationLevels.SNAPSHOT;
-					try (SailDataset explicit = store.getExplicitSailSource().dataset(level);
-							SailDataset inferred = store.getInferredSailSource().dataset(level)) {
-						new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile);
+					ChangeLog log = changeLog;
+					if (log != null) {
+						log.force();
+					} else {
+						writeDataFile();
 					}
 					contentsChanged = false;
 					logger.debug("Data synced to file");
@@ -456,6 +697,151 @@ public class MemoryStore extends AbstractNotifyingSail implements FederatedServi
 		}
 	}
 
+	/**
+	 * Runs a commit, appending the changes that it flushes to the {@link #setLogChanges(boolean) change log} as a
+	 * single record once all of them have been flushed.
+	 */
+	void commit(Runnable commit) throws SailException {
+		ChangeLog log = changeLog;
+		if (log == null) {
+			commit.run();
+			return;
+		}
+		try {
+			log.commit(commit);
+		} catch (IOException e) {
+			throw new SailException("Unable to write changes to log", e);
+		}
+	}
+
+	private void writeDataFile() throws IOException, SailException {
+		IsolationLevels level = IsolationLevels.SNAPSHOT;
+		try (SailDataset explicit = store.getExplicitSailSource().dataset(level);
+				SailDataset inferred = store.getInferredSailSource().dataset(level)) {
+			new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile);
+		}
+	}
+
+	/**
+	 * Replays the change logs that were left by an earlier instance of this store. If the change log is enabled and the
+	 * data directory is writable, the store is then wrapped so that committed changes are appended to the log.
+	 */
+	private void initChangeLog(File dataDir) throws SailException {
+		File logFile = new File(dataDir, LOG_FILE_NAME);
+		File compactedLogFile = new File(dataDir, COMPACTED_LOG_FILE_NAME);
+		boolean writable = dirLock != null;
+		try {
+			boolean replayed = false;
+			// the records of an interrupted compaction precede the records of the current log
+			for (File file : new File[] { compactedLogFile, logFile }) {
+				if (file.exists()) {
+					int records = ChangeLog.replay(file, store, writable);
+					logger.debug("Replayed {} records from {}", records, file);
+					replayed = true;
+				}
+			}
+
+			if (!writable) {
+				return;
+			}
+
+			if (logChanges) {
+				changeLog = new ChangeLog(logFile);
+				store = new LoggingSailStore(store, changeLog);
+				if (compactedLogFile.exists()) {
+					// finish the interrupted compaction
+					compactChangeLog();
+				}
+			} else if (replayed) {
+				// the change log is no longer used, move its changes to the data file
+				writeDataFile();
+				Files.deleteIfExists(compactedLogFile.toPath());
+				Files.deleteIfExists(logFile.toPath());
+			}
+		} catch (IOException e) {
+			throw new SailException("Failed to replay change log", e);
+		}
+	}
+
+	/**
+	 * Writes the contents of this store to the data file and removes the records of the change log that it contains.
+	 */
+	void compactChangeLog() throws SailException {
+		synchronized (logCompactionSemaphore) {
+			ChangeLog log = changeLog;
+			if (log == null) {
+				return;
+			}
+
+			logger.debug("compacting change log...");
+			File compactedLogFile = new File(dataFile.getParentFile(), COMPACTED_LOG_FILE_NAME);
+			SailDataset explicit = null;
+			SailDataset inferred = null;
+			try {
+				try {
+					// no changes are flushed while we hold the log, so the datasets contain exactly the logged changes
+					synchronized (log) {
+						explicit = store.getExplicitSailSource().dataset(IsolationLevels.SNAPSHOT);
+						inferred = store.getInferredSailSource().dataset(IsolationLevels.SNAPSHOT);
+						if (!compactedLogFile.exists()) {
+							log.rotate(compactedLogFile);
+						}
+						// else a previous compaction failed; the current log is kept, replaying it again is harmless
+					}
+					new FileIO(store.getValueFactory()).write(explicit, inferred, syncFile, dataFile);
+				} finally {
+					try {
+						if (explicit != null) {
+							explicit.close();
+						}
+					} finally {
+						if (inferred != null) {
+							inferred.close();
+						}
+					}
+				}
+				Files.delete(compactedLogFile.toPath());
+				logger.debug("Change log compacted");
+			} catch (IOException e) {
+				logger.error("Failed to compact change log", e);
+				throw new SailException(e);
+			}
+		}
+	}
+
+	private void scheduleLogCompaction() {
+		synchronized (logCompactionThreadLockObject) {
+			Thread toCheckLogCompactionThread = logCompactionThread;
+			if (toCheckLogCompactionThread == null || !toCheckLogCompactionThread.isAlive()) {
+				Runnable runnable = () -> {
+					try {
+						compactChangeLog();
+					} catch (SailException e) {
+						logger.warn("Unable to compact change log", e);
+					}
+				};
+
+				toCheckLogCompactionThread = logCompactionThread = new Thread(runnable, "MemoryStore log compaction");
+				toCheckLogCompactionThread.setDaemon(true);
+				toCheckLogCompactionThread.start();
+			}
+		}
+	}
+
+	private void awaitLogCompaction() {
+		Thread toAwait;
+		synchronized (logCompactionThreadLockObject) {
+			toAwait = logCompactionThread;
+		}
+		if (toAwait != null) {
+			try {
+				toAwait.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
 	SailStore getSailStore() {
 		return store;
 	}
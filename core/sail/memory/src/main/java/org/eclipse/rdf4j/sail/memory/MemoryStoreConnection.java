@@ -57,7 +57,7 @@ public class MemoryStoreConnection extends SailSourceConnection {
 
 	@Override
 	protected void commitInternal() throws SailException {
-		super.commitInternal();
+		sail.commit(() -> super.commitInternal());
 
 		sail.notifySailChanged(sailChangedEvent);
 		sail.scheduleSyncTask();
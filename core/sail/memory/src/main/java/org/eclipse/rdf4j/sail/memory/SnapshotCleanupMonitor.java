@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the counters that are reported as {@link SnapshotCleanupStatistics} by a {@link MemoryStore}. The counters
+ * are updated by the sinks that deprecate statements and by the snapshot cleanup thread that removes them.
+ */
+class SnapshotCleanupMonitor {
+
+	private final AtomicLong deprecatedStatements = new AtomicLong();
+
+	private final AtomicLong removedStatements = new AtomicLong();
+
+	private final AtomicLong completedCleanups = new AtomicLong();
+
+	private final AtomicInteger runningCleanups = new AtomicInteger();
+
+	private volatile long lastCleanupDuration;
+
+	/**
+	 * Records that statements have been marked as removed from a future snapshot.
+	 */
+	void statementsDeprecated(long count) {
+		if (count > 0) {
+			deprecatedStatements.addAndGet(count);
+		}
+	}
+
+	/**
+	 * Records that deprecated statements have been removed from the store.
+	 */
+	void statementsRemoved(long count) {
+		if (count > 0) {
+			deprecatedStatements.addAndGet(-count);
+			removedStatements.addAndGet(count);
+		}
+	}
+
+	void cleanupStarted() {
+		runningCleanups.incrementAndGet();
+	}
+
+	void cleanupFinished(long duration) {
+		lastCleanupDuration = duration;
+		completedCleanups.incrementAndGet();
+		runningCleanups.decrementAndGet();
+	}
+
+	SnapshotCleanupStatistics getStatistics() {
+		return new SnapshotCleanupStatistics(Math.max(0, deprecatedStatements.get()), removedStatements.get(),
+				completedCleanups.get(), lastCleanupDuration, runningCleanups.get() > 0);
+	}
+}
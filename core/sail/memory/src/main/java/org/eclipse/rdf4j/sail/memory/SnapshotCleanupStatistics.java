@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+/**
+ * An immutable snapshot of the state of the snapshot cleanup of a {@link MemoryStore}. Statements that are removed by a
+ * transaction stay in memory until no reader can see them anymore and the background cleanup has removed them; the
+ * number of such statements is reported as the cleanup backlog. All other counts are cumulative since the store was
+ * initialized.
+ */
+public final class SnapshotCleanupStatistics {
+
+	private final long backlog;
+
+	private final long removedStatements;
+
+	private final long completedCleanups;
+
+	private final long lastCleanupDuration;
+
+	private final boolean cleanupRunning;
+
+	SnapshotCleanupStatistics(long backlog, long removedStatements, long completedCleanups, long lastCleanupDuration,
+			boolean cleanupRunning) {
+		this.backlog = backlog;
+		this.removedStatements = removedStatements;
+		this.completedCleanups = completedCleanups;
+		this.lastCleanupDuration = lastCleanupDuration;
+		this.cleanupRunning = cleanupRunning;
+	}
+
+	/**
+	 * The number of statements that have been removed or replaced by committed transactions but that are still kept in
+	 * memory, either because an open reader may still see them or because the cleanup has not removed them yet.
+	 */
+	public long getBacklog() {
+		return backlog;
+	}
+
+	/**
+	 * The number of deprecated statements that the cleanup has removed from memory.
+	 */
+	public long getRemovedStatements() {
+		return removedStatements;
+	}
+
+	/**
+	 * The number of cleanup passes that have completed.
+	 */
+	public long getCompletedCleanups() {
+		return completedCleanups;
+	}
+
+	/**
+	 * The duration of the last completed cleanup pass, in milliseconds.
+	 */
+	public long getLastCleanupDuration() {
+		return lastCleanupDuration;
+	}
+
+	/**
+	 * Whether a cleanup pass is currently running.
+	 */
+	public boolean isCleanupRunning() {
+		return cleanupRunning;
+	}
+
+	@Override
+	public String toString() {
+		return "SnapshotCleanupStatistics [backlog=" + backlog + ", removedStatements=" + removedStatements
+				+ ", completedCleanups=" + completedCleanups + ", lastCleanupDuration=" + lastCleanupDuration
+				+ ", cleanupRunning=" + cleanupRunning + "]";
+	}
+}
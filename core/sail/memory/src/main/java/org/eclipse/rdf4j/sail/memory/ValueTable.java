@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+
+/**
+ * Assigns int IDs to the values that are used in the statements of a {@link CompactMemorySailStore} and keeps, for each
+ * value and each statement component (subject, predicate, object, context), the list of rows of the statements that use
+ * the value in that component.
+ * <p>
+ * IDs of values that are no longer used by any statement are released and reused for new values. Values are looked up
+ * in an open addressing hash table that stores value IDs, so that the table itself does not add any objects per value.
+ */
+class ValueTable {
+
+	static final int SUBJECT = 0;
+
+	static final int PREDICATE = 1;
+
+	static final int OBJECT = 2;
+
+	static final int CONTEXT = 3;
+
+	private static final int COMPONENTS = 4;
+
+	private final ValueFactory valueFactory;
+
+	/**
+	 * The values by ID. A new array is published whenever the array grows, so that readers that learn about an ID
+	 * through some other volatile read always find its value.
+	 */
+	private volatile Value[] values = new Value[0];
+
+	/**
+	 * The number of rows that reference each value.
+	 */
+	private int[] usages = new int[0];
+
+	/**
+	 * The rows that use each value, per component. Lists are created when they are first needed.
+	 */
+	private IntList[][] rows = new IntList[COMPONENTS][0];
+
+	/**
+	 * Open addressing hash table with linear probing; each slot holds a value ID plus one, or zero for empty slots.
+	 */
+	private int[] slots = new int[16];
+
+	private int size;
+
+	private int nextId;
+
+	private final IntList freeIds = new IntList();
+
+	ValueTable(ValueFactory valueFactory) {
+		this.valueFactory = valueFactory;
+	}
+
+	/**
+	 * Gets the ID of the specified value.
+	 *
+	 * @return the ID of the value, or <tt>-1</tt> if the value is unknown.
+	 */
+	synchronized int getId(Value value) {
+		int slot = findSlot(value);
+		return slots[slot] - 1;
+	}
+
+	/**
+	 * Gets the ID of the specified value, assigning a new ID to it if it is not known yet.
+	 */
+	synchronized int getOrCreateId(Value value) {
+		int slot = findSlot(value);
+		if (slots[slot] != 0) {
+			return slots[slot] - 1;
+		}
+
+		int id = freeIds.isEmpty() ? nextId++ : freeIds.removeLast();
+		if (id >= usages.length) {
+			int capacity = Math.max(16, usages.length * 2);
+			usages = Arrays.copyOf(usages, capacity);
+			for (int i = 0; i < COMPONENTS; i++) {
+				rows[i] = Arrays.copyOf(rows[i], capacity);
+			}
+			Value[] grown = Arrays.copyOf(values, capacity);
+			grown[id] = copy(value);
+			values = grown;
+		} else {
+			values[id] = copy(value);
+		}
+		slots[slot] = id + 1;
+		if (++size > slots.length / 2) {
+			rehash(slots.length * 2);
+		}
+		return id;
+	}
+
+	/**
+	 * Gets the value with the specified ID. This method does not synchronize on the table; callers must have learned
+	 * about the ID through a row that has been published to them.
+	 */
+	Value getValue(int id) {
+		return values[id];
+	}
+
+	/**
+	 * Gets the list of rows that use the specified value in the specified component.
+	 *
+	 * @return the list of rows, or <tt>null</tt> if there are no such rows.
+	 */
+	synchronized IntList getRows(int component, int id) {
+		return rows[component][id];
+	}
+
+	/**
+	 * Records that the specified row uses the specified value in the specified component.
+	 */
+	synchronized void addRow(int component, int id, int row) {
+		IntList list = rows[component][id];
+		if (list == null) {
+			list = new IntList(component == PREDICATE || component == CONTEXT ? 16 : 2);
+			rows[component][id] = list;
+		}
+		list.add(row);
+		usages[id]++;
+	}
+
+	/**
+	 * Removes the rows that match the supplied predicate from the rows of a value. This method may only be called when
+	 * no other threads are reading the rows of the value.
+	 */
+	synchronized void removeRows(int component, int id, IntPredicate predicate) {
+		IntList list = rows[component][id];
+		if (list != null && list.removeIf(predicate) > 0 && list.isEmpty()) {
+			rows[component][id] = null;
+		}
+	}
+
+	/**
+	 * Records that a row that used the specified value has been removed, releasing the ID of the value if no other rows
+	 * use it.
+	 *
+	 * @return <tt>true</tt> if the ID has been released.
+	 */
+	synchronized boolean release(int id) {
+		if (--usages[id] == 0) {
+			int slot = findSlot(values[id]);
+			assert slots[slot] == id + 1;
+			removeSlot(slot);
+			values[id] = null;
+			for (int i = 0; i < COMPONENTS; i++) {
+				rows[i][id] = null;
+			}
+			freeIds.add(id);
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the IDs of all values that are used as the context of at least one row.
+	 */
+	synchronized IntList getContextIds() {
+		IntList result = new IntList();
+		IntList[] contexts = rows[CONTEXT];
+		for (int id = 0; id < nextId; id++) {
+			if (contexts[id] != null && !contexts[id].isEmpty()) {
+				result.add(id);
+			}
+		}
+		return result;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	synchronized void clear() {
+		values = new Value[0];
+		usages = new int[0];
+		rows = new IntList[COMPONENTS][0];
+		slots = new int[16];
+		size = 0;
+		nextId = 0;
+		freeIds.clear();
+	}
+
+	/**
+	 * Finds the slot that holds the specified value, or the empty slot where it would be inserted.
+	 */
+	private int findSlot(Value value) {
+		int mask = slots.length - 1;
+		int slot = hash(value) & mask;
+		while (slots[slot] != 0 && !values[slots[slot] - 1].equals(value)) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Empties a slot, moving later values of the same probe sequence back so that they can still be found.
+	 */
+	private void removeSlot(int slot) {
+		int mask = slots.length - 1;
+		int empty = slot;
+		slots[empty] = 0;
+		for (int i = (empty + 1) & mask; slots[i] != 0; i = (i + 1) & mask) {
+			int home = hash(values[slots[i] - 1]) & mask;
+			// move the entry if its home slot is not cyclically between the empty slot and its current slot
+			if (((i - home) & mask) >= ((i - empty) & mask)) {
+				slots[empty] = slots[i];
+				slots[i] = 0;
+				empty = i;
+			}
+		}
+	}
+
+	private void rehash(int capacity) {
+		int[] old = slots;
+		slots = new int[capacity];
+		int mask = capacity - 1;
+		for (int entry : old) {
+			if (entry != 0) {
+				int slot = hash(values[entry - 1]) & mask;
+				while (slots[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				slots[slot] = entry;
+			}
+		}
+	}
+
+	private static int hash(Value value) {
+		int h = value.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Copies a value that is added to the store, so that the store does not keep references to application objects.
+	 */
+	private Value copy(Value value) {
+		if (value instanceof IRI) {
+			return valueFactory.createIRI(value.stringValue());
+		} else if (value instanceof BNode) {
+			return valueFactory.createBNode(((BNode) value).getID());
+		} else if (value instanceof Triple) {
+			Triple triple = (Triple) value;
+			return valueFactory.createTriple((Resource) copy(triple.getSubject()),
+					(IRI) copy(triple.getPredicate()), copy(triple.getObject()));
+		} else if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			if (literal.getLanguage().isPresent()) {
+				return valueFactory.createLiteral(literal.getLabel(), literal.getLanguage().get());
+			}
+			return valueFactory.createLiteral(literal.getLabel(), literal.getDatatype());
+		}
+		return value;
+	}
+}
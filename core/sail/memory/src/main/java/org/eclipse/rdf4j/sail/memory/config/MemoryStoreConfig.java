@@ -7,7 +7,10 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.memory.config;
 
+import static org.eclipse.rdf4j.sail.memory.config.MemoryStoreSchema.COMPACT_STATEMENTS;
+import static org.eclipse.rdf4j.sail.memory.config.MemoryStoreSchema.LOG_CHANGES;
 import static org.eclipse.rdf4j.sail.memory.config.MemoryStoreSchema.NAMESPACE;
+import static org.eclipse.rdf4j.sail.memory.config.MemoryStoreSchema.OFF_HEAP_STATEMENTS;
 import static org.eclipse.rdf4j.sail.memory.config.MemoryStoreSchema.PERSIST;
 import static org.eclipse.rdf4j.sail.memory.config.MemoryStoreSchema.SYNC_DELAY;
 
@@ -29,6 +32,12 @@ public class MemoryStoreConfig extends BaseSailConfig {
 
 	private long syncDelay = 0L;
 
+	private boolean compactStatements = false;
+
+	private boolean offHeapStatements = false;
+
+	private boolean logChanges = false;
+
 	public MemoryStoreConfig() {
 		super(MemoryStoreFactory.SAIL_TYPE);
 	}
@@ -59,6 +68,30 @@ public class MemoryStoreConfig extends BaseSailConfig {
 		this.syncDelay = syncDelay;
 	}
 
+	public boolean getCompactStatements() {
+		return compactStatements;
+	}
+
+	public void setCompactStatements(boolean compactStatements) {
+		this.compactStatements = compactStatements;
+	}
+
+	public boolean getOffHeapStatements() {
+		return offHeapStatements;
+	}
+
+	public void setOffHeapStatements(boolean offHeapStatements) {
+		this.offHeapStatements = offHeapStatements;
+	}
+
+	public boolean getLogChanges() {
+		return logChanges;
+	}
+
+	public void setLogChanges(boolean logChanges) {
+		this.logChanges = logChanges;
+	}
+
 	@Override
 	public Resource export(Model graph) {
 		Resource implNode = super.export(graph);
@@ -72,6 +105,18 @@ public class MemoryStoreConfig extends BaseSailConfig {
 			graph.add(implNode, SYNC_DELAY, SimpleValueFactory.getInstance().createLiteral(syncDelay));
 		}
 
+		if (compactStatements) {
+			graph.add(implNode, COMPACT_STATEMENTS, BooleanLiteral.TRUE);
+		}
+
+		if (offHeapStatements) {
+			graph.add(implNode, OFF_HEAP_STATEMENTS, BooleanLiteral.TRUE);
+		}
+
+		if (logChanges) {
+			graph.add(implNode, LOG_CHANGES, BooleanLiteral.TRUE);
+		}
+
 		return implNode;
 	}
 
@@ -98,6 +143,33 @@ public class MemoryStoreConfig extends BaseSailConfig {
 							"Long integer value required for " + SYNC_DELAY + " property, found " + syncDelayValue);
 				}
 			});
+
+			Models.objectLiteral(graph.getStatements(implNode, COMPACT_STATEMENTS, null)).ifPresent(value -> {
+				try {
+					setCompactStatements(value.booleanValue());
+				} catch (IllegalArgumentException e) {
+					throw new SailConfigException(
+							"Boolean value required for " + COMPACT_STATEMENTS + " property, found " + value);
+				}
+			});
+
+			Models.objectLiteral(graph.getStatements(implNode, OFF_HEAP_STATEMENTS, null)).ifPresent(value -> {
+				try {
+					setOffHeapStatements(value.booleanValue());
+				} catch (IllegalArgumentException e) {
+					throw new SailConfigException(
+							"Boolean value required for " + OFF_HEAP_STATEMENTS + " property, found " + value);
+				}
+			});
+
+			Models.objectLiteral(graph.getStatements(implNode, LOG_CHANGES, null)).ifPresent(value -> {
+				try {
+					setLogChanges(value.booleanValue());
+				} catch (IllegalArgumentException e) {
+					throw new SailConfigException(
+							"Boolean value required for " + LOG_CHANGES + " property, found " + value);
+				}
+			});
 		} catch (ModelException e) {
 			throw new SailConfigException(e.getMessage(), e);
 		}
@@ -54,6 +54,10 @@ public class MemoryStoreFactory implements SailFactory {
 
 			memoryStore.setPersist(memConfig.getPersist());
 			memoryStore.setSyncDelay(memConfig.getSyncDelay());
+			memoryStore.setCompactStatements(memConfig.getCompactStatements());
+			memoryStore.setOffHeapStatements(memConfig.getOffHeapStatements());
+			memoryStore.setLogChanges(memConfig.getLogChanges());
+			memoryStore.setChangeFeedCapacity(memConfig.getChangeFeedCapacity());
 
 			if (memConfig.getIterationCacheSyncThreshold() > 0) {
 				memoryStore.setIterationCacheSyncThreshold(memConfig.getIterationCacheSyncThreshold());
@@ -29,9 +29,21 @@ public class MemoryStoreSchema {
 	/** <tt>http://www.openrdf.org/config/sail/memory#syncDelay</tt> */
 	public final static IRI SYNC_DELAY;
 
+	/** <tt>http://www.openrdf.org/config/sail/memory#compactStatements</tt> */
+	public final static IRI COMPACT_STATEMENTS;
+
+	/** <tt>http://www.openrdf.org/config/sail/memory#offHeapStatements</tt> */
+	public final static IRI OFF_HEAP_STATEMENTS;
+
+	/** <tt>http://www.openrdf.org/config/sail/memory#logChanges</tt> */
+	public final static IRI LOG_CHANGES;
+
 	static {
 		ValueFactory factory = SimpleValueFactory.getInstance();
 		PERSIST = factory.createIRI(NAMESPACE, "persist");
 		SYNC_DELAY = factory.createIRI(NAMESPACE, "syncDelay");
+		COMPACT_STATEMENTS = factory.createIRI(NAMESPACE, "compactStatements");
+		OFF_HEAP_STATEMENTS = factory.createIRI(NAMESPACE, "offHeapStatements");
+		LOG_CHANGES = factory.createIRI(NAMESPACE, "logChanges");
 	}
 }
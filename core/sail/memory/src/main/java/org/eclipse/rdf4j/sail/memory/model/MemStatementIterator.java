@@ -22,9 +22,14 @@ public class MemStatementIterator<X extends Exception> extends LookAheadIteratio
 	 *-----------*/
 
 	/**
-	 * The lists of statements over which to iterate.
+	 * The statements over which to iterate, see {@link MemStatementList#getStatements()}.
 	 */
-	private final MemStatementList statementList;
+	private final MemStatement[] statements;
+
+	/**
+	 * The number of statements in the list when this iterator was created.
+	 */
+	private final int size;
 
 	/**
 	 * The subject of statements to return, or null if any subject is OK.
@@ -79,7 +84,8 @@ public class MemStatementIterator<X extends Exception> extends LookAheadIteratio
 	 */
 	public MemStatementIterator(MemStatementList statementList, MemResource subject, MemIRI predicate, MemValue object,
 			Boolean explicit, int snapshot, MemResource... contexts) {
-		this.statementList = statementList;
+		this.size = statementList.size();
+		this.statements = statementList.getStatements();
 		this.subject = subject;
 		this.predicate = predicate;
 		this.object = object;
@@ -104,8 +110,9 @@ public class MemStatementIterator<X extends Exception> extends LookAheadIteratio
 	protected MemStatement getNextElement() {
 		statementIdx++;
 
-		for (; statementIdx < statementList.size(); statementIdx++) {
-			MemStatement st = statementList.get(statementIdx);
+		for (; statementIdx < Math.min(size, statements.length)
+				&& statements[statementIdx] != null; statementIdx++) {
+			MemStatement st = statements[statementIdx];
 
 			if (isInSnapshot(st) && (subject == null || subject == st.getSubject())
 					&& (predicate == null || predicate == st.getPredicate())
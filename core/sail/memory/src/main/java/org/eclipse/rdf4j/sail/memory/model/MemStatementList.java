@@ -12,6 +12,10 @@ import java.util.Arrays;
 /**
  * A dedicated data structure for storing MemStatement objects, offering operations optimized for their use in the
  * memory Sail.
+ * <p>
+ * A list supports concurrent readers while it is being modified. Statements are appended in place, but statements are
+ * never removed from an array that may be in use by a reader: removals copy the remaining statements to a new array.
+ * Readers that iterate over the array returned by {@link #getStatements()} therefore see a consistent list.
  */
 public class MemStatementList {
 
@@ -63,7 +67,16 @@ public class MemStatementList {
 		return statements[index];
 	}
 
-	public void add(MemStatement st) {
+	/**
+	 * Returns the array that currently backs this list. Elements of the returned array are never removed or replaced.
+	 * Readers that call {@link #size()} before this method find all statements of the list in the returned array,
+	 * before the index that equals the size or before the first <tt>null</tt> element, whichever comes first.
+	 */
+	public MemStatement[] getStatements() {
+		return statements;
+	}
+
+	public synchronized void add(MemStatement st) {
 		if (size == statements.length) {
 			// Grow array
 			growArray((size == 0) ? 1 : 2 * size);
@@ -73,7 +86,7 @@ public class MemStatementList {
 		++size;
 	}
 
-	public void addAll(MemStatementList other) {
+	public synchronized void addAll(MemStatementList other) {
 		if (size + other.size >= statements.length) {
 			// Grow array
 			growArray(size + other.size);
@@ -83,24 +96,18 @@ public class MemStatementList {
 		size += other.size;
 	}
 
-	public void remove(int index) {
+	public synchronized void remove(int index) {
 		assert index >= 0 : "index < 0";
 		assert index < size : "index >= size";
 
-		if (index == size - 1) {
-			// Last statement in array
-			statements[index] = null;
-			--size;
-		} else {
-			// Not last statement in array, move last
-			// statement over the one at [index]
-			--size;
-			statements[index] = statements[size];
-			statements[size] = null;
-		}
+		MemStatement[] newArray = new MemStatement[statements.length];
+		System.arraycopy(statements, 0, newArray, 0, index);
+		System.arraycopy(statements, index + 1, newArray, index, size - index - 1);
+		statements = newArray;
+		--size;
 	}
 
-	public void remove(MemStatement st) {
+	public synchronized void remove(MemStatement st) {
 		for (int i = 0; i < size; ++i) {
 			if (statements[i] == st) {
 				remove(i);
@@ -109,34 +116,42 @@ public class MemStatementList {
 		}
 	}
 
-	public void clear() {
-		Arrays.fill(statements, 0, size, null);
+	public synchronized void clear() {
+		statements = new MemStatement[statements.length];
 		size = 0;
 	}
 
-	public void cleanSnapshots(int currentSnapshot) {
-		int i = size - 1;
-
-		// remove all deprecated statements from the end of the list
-		for (; i >= 0; i--) {
-			if (statements[i].getTillSnapshot() <= currentSnapshot) {
-				--size;
-				statements[i] = null;
-			} else {
-				i--;
-				break;
-			}
+	/**
+	 * Removes statements that have expired at or before the specified snapshot version, keeping the order of the other
+	 * statements.
+	 *
+	 * @param currentSnapshot The oldest snapshot version that is still in use.
+	 */
+	public synchronized void cleanSnapshots(int currentSnapshot) {
+		MemStatement[] array = statements;
+		int first = 0;
+		while (first < size && array[first].getTillSnapshot() > currentSnapshot) {
+			first++;
+		}
+		if (first == size) {
+			// nothing to remove
+			return;
 		}
 
-		// remove all deprecated statements that are not at the end of the list
-		for (; i >= 0; i--) {
-			if (statements[i].getTillSnapshot() <= currentSnapshot) {
-				// replace statement with last statement in the list
-				--size;
-				statements[i] = statements[size];
-				statements[size] = null;
+		MemStatement[] newArray = new MemStatement[Math.max(4, size)];
+		System.arraycopy(array, 0, newArray, 0, first);
+		int newSize = first;
+		for (int i = first + 1; i < size; i++) {
+			if (array[i].getTillSnapshot() > currentSnapshot) {
+				newArray[newSize++] = array[i];
 			}
 		}
+		if (newSize < newArray.length / 4) {
+			newArray = Arrays.copyOf(newArray, Math.max(4, newSize * 2));
+		}
+		// publish the array before the size, readers read them in the opposite order
+		statements = newArray;
+		size = newSize;
 	}
 
 	private void growArray(int newSize) {
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.NotifyingSail;
+import org.eclipse.rdf4j.sail.RDFNotifyingStoreTest;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.inferencer.InferencerConnection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * An extension of RDFStoreTest for testing a persistent <tt>MemoryStore</tt> that appends its changes to a log.
+ */
+public class ChangeLogMemoryStoreTest extends RDFNotifyingStoreTest {
+
+	private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+	private static final IRI CONTEXT = VF.createIRI("urn:context");
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	@Override
+	protected NotifyingSail createSail() throws SailException {
+		try {
+			return createStore(tempDir.newFolder(ChangeLogMemoryStoreTest.class.getSimpleName()));
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	@Test
+	public void testChangesAreReplayedAfterRestart() throws Exception {
+		File dataDir = tempDir.newFolder();
+		MemoryStore store = createStore(dataDir);
+		long dataFileSize = new File(dataDir, MemoryStore.DATA_FILE_NAME).length();
+		applyChanges(store);
+		Model expected = getStatements(store);
+		store.shutDown();
+
+		// the changes have not been written to the data file
+		assertEquals(dataFileSize, new File(dataDir, MemoryStore.DATA_FILE_NAME).length());
+		assertTrue(new File(dataDir, MemoryStore.LOG_FILE_NAME).length() > 0);
+
+		store = createStore(dataDir);
+		try {
+			assertEquals(expected, getStatements(store));
+			try (SailConnection con = store.getConnection()) {
+				assertEquals(RDFS.NAMESPACE, con.getNamespace("rdfs"));
+				assertEquals(null, con.getNamespace("ex"));
+			}
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		File dataDir = tempDir.newFolder();
+		MemoryStore store = createStore(dataDir);
+		applyChanges(store);
+		Model expected = getStatements(store);
+		store.compactChangeLog();
+
+		assertEquals(0, new File(dataDir, MemoryStore.LOG_FILE_NAME).length());
+		assertFalse(new File(dataDir, MemoryStore.COMPACTED_LOG_FILE_NAME).exists());
+
+		// changes after the compaction are appended to the new log
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.removeStatements(null, RDF.TYPE, null);
+			con.commit();
+		}
+		expected.remove(null, RDF.TYPE, null);
+		assertTrue(new File(dataDir, MemoryStore.LOG_FILE_NAME).length() > 0);
+		store.shutDown();
+
+		store = createStore(dataDir);
+		try {
+			assertEquals(expected, getStatements(store));
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Test
+	public void testCommitIsAppendedAsSingleRecord() throws Exception {
+		File dataDir = tempDir.newFolder();
+		MemoryStore store = createStore(dataDir);
+		IRI subj = VF.createIRI("urn:s");
+		try (InferencerConnection con = (InferencerConnection) store.getConnection()) {
+			con.begin();
+			con.addStatement(subj, RDF.TYPE, RDFS.CLASS);
+			con.addInferredStatement(subj, RDF.TYPE, RDFS.RESOURCE);
+			con.commit();
+		}
+		store.shutDown();
+
+		File logFile = new File(dataDir, MemoryStore.LOG_FILE_NAME);
+		MemorySailStore replayed = new MemorySailStore(false, new SnapshotCleanupMonitor());
+		try {
+			assertEquals(1, ChangeLog.replay(logFile, replayed, false));
+			try (SailDataset explicit = replayed.getExplicitSailSource().dataset(IsolationLevels.NONE);
+					SailDataset inferred = replayed.getInferredSailSource().dataset(IsolationLevels.NONE)) {
+				assertTrue(explicit.getStatements(subj, RDF.TYPE, RDFS.CLASS).hasNext());
+				assertTrue(inferred.getStatements(subj, RDF.TYPE, RDFS.RESOURCE).hasNext());
+			}
+		} finally {
+			replayed.close();
+		}
+	}
+
+	@Test
+	public void testFailedCommitIsNotAppended() throws Exception {
+		File logFile = new File(tempDir.newFolder(), MemoryStore.LOG_FILE_NAME);
+		try (ChangeLog log = new ChangeLog(logFile)) {
+			ChangeLog.Recorder recorder = ChangeLog.recorder(true);
+			recorder.approve(VF.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE, null);
+			try {
+				log.commit(() -> {
+					try {
+						log.append(recorder.takeChanges());
+					} catch (IOException e) {
+						throw new SailException(e);
+					}
+					throw new SailException("flush failed");
+				});
+				fail("expected the commit to fail");
+			} catch (SailException e) {
+				assertEquals("flush failed", e.getMessage());
+			}
+			assertEquals(0, log.size());
+		}
+	}
+
+	@Test
+	public void testIncompleteRecordIsIgnored() throws Exception {
+		File dataDir = tempDir.newFolder();
+		MemoryStore store = createStore(dataDir);
+		applyChanges(store);
+		Model expected = getStatements(store);
+		store.shutDown();
+
+		File logFile = new File(dataDir, MemoryStore.LOG_FILE_NAME);
+		long logSize = logFile.length();
+		try (OutputStream out = new FileOutputStream(logFile, true)) {
+			// the length and part of the checksum of a record of which nothing else was written
+			out.write(new byte[] { 0, 0, 1, 0, 42, 42 });
+		}
+
+		store = createStore(dataDir);
+		try {
+			assertEquals(expected, getStatements(store));
+			assertEquals(logSize, logFile.length());
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Test
+	public void testLogIsWrittenToDataFileWhenDisabled() throws Exception {
+		File dataDir = tempDir.newFolder();
+		MemoryStore store = createStore(dataDir);
+		applyChanges(store);
+		Model expected = getStatements(store);
+		store.shutDown();
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(expected, getStatements(store));
+			assertFalse(new File(dataDir, MemoryStore.LOG_FILE_NAME).exists());
+		} finally {
+			store.shutDown();
+		}
+
+		store = new MemoryStore(dataDir);
+		store.init();
+		try {
+			assertEquals(expected, getStatements(store));
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	private static MemoryStore createStore(File dataDir) {
+		MemoryStore store = new MemoryStore(dataDir);
+		store.setLogChanges(true);
+		store.init();
+		return store;
+	}
+
+	private static void applyChanges(MemoryStore store) {
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			for (int i = 0; i < 100; i++) {
+				IRI subj = VF.createIRI("urn:s" + i);
+				con.addStatement(subj, RDF.TYPE, RDFS.RESOURCE);
+				con.addStatement(subj, RDFS.LABEL, VF.createLiteral("label " + i, "en"), CONTEXT);
+				con.addStatement(subj, RDFS.COMMENT, VF.createLiteral(i));
+			}
+			con.setNamespace("rdfs", RDFS.NAMESPACE);
+			con.setNamespace("ex", "urn:");
+			con.commit();
+
+			con.begin();
+			con.removeStatements(VF.createIRI("urn:s0"), null, null);
+			con.removeStatements(null, RDFS.COMMENT, VF.createLiteral(1));
+			con.removeNamespace("ex");
+			con.commit();
+
+			// removed and added again in later transactions
+			con.begin();
+			con.clear(CONTEXT);
+			con.commit();
+
+			con.begin();
+			con.addStatement(VF.createIRI("urn:s2"), RDFS.LABEL, VF.createLiteral("label 2", "en"), CONTEXT);
+			con.commit();
+		}
+	}
+
+	private static Model getStatements(MemoryStore store) {
+		try (SailConnection con = store.getConnection()) {
+			return new LinkedHashModel(Iterations.asList(con.getStatements(null, null, null, false)));
+		}
+	}
+}
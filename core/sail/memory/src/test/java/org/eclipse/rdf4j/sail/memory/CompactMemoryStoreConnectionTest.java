@@ -0,0 +1,28 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnectionTest;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+
+public class CompactMemoryStoreConnectionTest extends RepositoryConnectionTest {
+
+	public CompactMemoryStoreConnectionTest(IsolationLevel level) {
+		super(level);
+	}
+
+	@Override
+	protected Repository createRepository() {
+		MemoryStore sail = new MemoryStore();
+		sail.setCompactStatements(true);
+		return new SailRepository(sail);
+	}
+
+}
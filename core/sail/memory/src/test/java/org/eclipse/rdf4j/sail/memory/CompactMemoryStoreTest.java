@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.sail.NotifyingSail;
+import org.eclipse.rdf4j.sail.RDFNotifyingStoreTest;
+import org.eclipse.rdf4j.sail.SailException;
+import org.junit.Test;
+
+/**
+ * An extension of RDFStoreTest for testing a {@link MemoryStore} with {@link MemoryStore#setCompactStatements(boolean)
+ * compact statements}.
+ */
+public class CompactMemoryStoreTest extends RDFNotifyingStoreTest {
+
+	@Override
+	protected NotifyingSail createSail() throws SailException {
+		MemoryStore sail = new MemoryStore();
+		sail.setCompactStatements(true);
+		return sail;
+	}
+
+	@Test
+	public void testSnapshotCleanupReusesRows() throws Exception {
+		CompactMemorySailStore sailStore = (CompactMemorySailStore) ((MemoryStore) sail).getSailStore();
+		IRI subj = vf.createIRI("urn:test:subj");
+
+		con.begin();
+		for (int i = 0; i < 5000; i++) {
+			con.addStatement(subj, predicate(i % 10), vf.createLiteral(i));
+		}
+		con.commit();
+
+		con.begin();
+		con.removeStatements(subj, predicate(0), null);
+		con.commit();
+		sailStore.cleanSnapshots();
+		assertEquals(4500, sailStore.size());
+		assertEquals(4500, countAllElements());
+		assertFalse(con.hasStatement(subj, predicate(0), null, false));
+		// values that are no longer used are released
+		assertFalse(con.hasStatement(null, null, vf.createLiteral(10), false));
+
+		con.begin();
+		for (int i = 0; i < 500; i++) {
+			con.addStatement(subj, predicate(10), vf.createLiteral("value " + i));
+		}
+		con.commit();
+		assertEquals(5000, sailStore.size());
+		assertEquals(5000, countAllElements());
+		assertTrue(con.hasStatement(subj, predicate(1), vf.createLiteral(11), false));
+		assertEquals(500, Iterations.asList(con.getStatements(subj, predicate(10), null, false)).size());
+		assertEquals(500, Iterations.asList(con.getStatements(null, predicate(1), null, false)).size());
+		assertEquals(1, Iterations.asList(con.getStatements(null, null, vf.createLiteral(11), false)).size());
+	}
+
+	private IRI predicate(int i) {
+		return vf.createIRI("urn:test:pred" + i);
+	}
+}
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.base.ChangeFeed;
+import org.eclipse.rdf4j.sail.base.CommittedChangeset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MemoryStoreChangeFeedTest {
+
+	private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+	private static final IRI CONTEXT = VF.createIRI("urn:context");
+
+	private MemoryStore store;
+
+	private ChangeFeed feed;
+
+	@Before
+	public void setUp() {
+		store = new MemoryStore();
+		store.setChangeFeedCapacity(10);
+		store.init();
+		feed = store.getChangeFeed().get();
+	}
+
+	@After
+	public void tearDown() {
+		store.shutDown();
+	}
+
+	@Test
+	public void testCommittedChangesArePublished() {
+		Statement type = VF.createStatement(VF.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+		Statement label = VF.createStatement(VF.createIRI("urn:s"), RDFS.LABEL, VF.createLiteral("s"), CONTEXT);
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(type.getSubject(), type.getPredicate(), type.getObject());
+			con.addStatement(label.getSubject(), label.getPredicate(), label.getObject(), CONTEXT);
+			con.commit();
+
+			// read-only and rolled back transactions are not published
+			con.begin();
+			con.hasStatement(null, null, null, false);
+			con.commit();
+			con.begin();
+			con.removeStatements(null, null, null);
+			con.rollback();
+
+			con.begin(IsolationLevels.SERIALIZABLE);
+			con.removeStatements(null, RDF.TYPE, null);
+			con.commit();
+
+			con.begin(IsolationLevels.NONE);
+			con.clear(CONTEXT);
+			con.commit();
+		}
+
+		assertEquals(3, feed.getLastSequenceNumber());
+		List<CommittedChangeset> changes = feed.getChanges(0, 10);
+		assertEquals(3, changes.size());
+		assertEquals(1, changes.get(0).getSequenceNumber());
+		assertEquals(new HashSet<>(Arrays.asList(type, label)), new HashSet<>(changes.get(0).getAddedStatements()));
+		assertEquals(Collections.singletonList(type), changes.get(1).getRemovedStatements());
+		assertEquals(Collections.emptyList(), changes.get(1).getAddedStatements());
+		assertEquals(Collections.singletonList(label), changes.get(2).getRemovedStatements());
+
+		assertEquals(changes.subList(1, 2), feed.getChanges(1, 1));
+		assertEquals(Collections.emptyList(), feed.getChanges(3, 10));
+	}
+
+	@Test
+	public void testExistingStatementsAreNotPublishedAsAdded() {
+		Statement type = VF.createStatement(VF.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+		Statement label = VF.createStatement(VF.createIRI("urn:s"), RDFS.LABEL, VF.createLiteral("s"));
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(type.getSubject(), type.getPredicate(), type.getObject());
+			con.commit();
+
+			for (IsolationLevels level : Arrays.asList(IsolationLevels.SNAPSHOT_READ, IsolationLevels.NONE)) {
+				con.begin(level);
+				con.addStatement(type.getSubject(), type.getPredicate(), type.getObject());
+				con.commit();
+
+				con.begin(level);
+				con.addStatement(type.getSubject(), type.getPredicate(), type.getObject());
+				con.addStatement(label.getSubject(), label.getPredicate(), label.getObject());
+				con.commit();
+
+				con.begin(level);
+				con.removeStatements(null, RDFS.LABEL, null);
+				con.commit();
+			}
+		}
+
+		List<CommittedChangeset> changes = feed.getChanges(0, 10);
+		assertEquals(5, changes.size());
+		for (int i : new int[] { 1, 3 }) {
+			assertEquals(Collections.singletonList(label), changes.get(i).getAddedStatements());
+			assertEquals(Collections.singletonList(label), changes.get(i + 1).getRemovedStatements());
+		}
+	}
+
+	@Test
+	public void testOldChangesAreDiscarded() {
+		try (SailConnection con = store.getConnection()) {
+			for (int i = 0; i < 8; i++) {
+				con.begin();
+				con.addStatement(VF.createIRI("urn:s" + i), RDF.TYPE, RDFS.RESOURCE);
+				con.addStatement(VF.createIRI("urn:s" + i), RDFS.LABEL, VF.createLiteral(i));
+				con.commit();
+			}
+		}
+
+		assertEquals(8, feed.getLastSequenceNumber());
+		assertFalse(feed.isAvailable(2));
+		assertTrue(feed.isAvailable(3));
+		assertFalse(feed.isAvailable(9));
+		assertEquals(5, feed.getChanges(3, 10).size());
+	}
+
+	@Test
+	public void testAwaitChanges() throws Exception {
+		CompletableFuture<List<CommittedChangeset>> changes = CompletableFuture
+				.supplyAsync(() -> {
+					try {
+						return feed.awaitChanges(0, 10, 10, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						throw new IllegalStateException(e);
+					}
+				});
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(VF.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+			con.commit();
+		}
+
+		assertEquals(1, changes.get(10, TimeUnit.SECONDS).size());
+		assertEquals(Collections.emptyList(), feed.awaitChanges(1, 10, 10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testListenersAreCalledAfterPublish() {
+		AtomicLong published = new AtomicLong();
+		Runnable listener = () -> published.set(feed.getLastSequenceNumber());
+		feed.addListener(listener);
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(VF.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+			con.commit();
+			assertEquals(1, published.get());
+
+			feed.removeListener(listener);
+			con.begin();
+			con.removeStatements(null, null, null);
+			con.commit();
+			assertEquals(1, published.get());
+		}
+	}
+}
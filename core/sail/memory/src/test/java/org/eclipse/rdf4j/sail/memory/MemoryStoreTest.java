@@ -7,11 +7,16 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.memory;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import org.eclipse.rdf4j.IsolationLevels;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.QueryLanguage;
@@ -20,6 +25,7 @@ import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
 import org.eclipse.rdf4j.query.parser.QueryParserUtil;
 import org.eclipse.rdf4j.sail.NotifyingSail;
 import org.eclipse.rdf4j.sail.RDFNotifyingStoreTest;
+import org.eclipse.rdf4j.sail.SailConnection;
 import org.eclipse.rdf4j.sail.SailException;
 import org.junit.Test;
 
@@ -66,4 +72,69 @@ public class MemoryStoreTest extends RDFNotifyingStoreTest {
 		assertTrue("expect single solution", count == 1);
 	}
 
+	@Test
+	public void testSnapshotCleanupKeepsStatementsOfOpenSnapshots() throws Exception {
+		MemoryStore store = new MemoryStore();
+		store.init();
+		try {
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			IRI pred = vf.createIRI("urn:p");
+			try (SailConnection writer = store.getConnection()) {
+				writer.begin();
+				for (int i = 0; i < 2000; i++) {
+					writer.addStatement(vf.createIRI("urn:s" + i), pred, vf.createLiteral(i));
+				}
+				writer.commit();
+			}
+
+			try (SailConnection reader = store.getConnection()) {
+				reader.begin(IsolationLevels.SNAPSHOT);
+				assertEquals(2000, Iterations.asList(reader.getStatements(null, pred, null, false)).size());
+
+				try (SailConnection writer = store.getConnection()) {
+					writer.begin();
+					writer.removeStatements(null, pred, null);
+					writer.commit();
+				}
+				SnapshotCleanupStatistics statistics = awaitCleanup(store, 1);
+
+				// the open snapshot still reads the removed statements
+				assertEquals(2000, statistics.getBacklog());
+				assertEquals(0, statistics.getRemovedStatements());
+				assertEquals(2000, Iterations.asList(reader.getStatements(null, pred, null, false)).size());
+				reader.commit();
+			}
+
+			// the next transaction that removes statements also removes the statements that are no longer in use
+			IRI subj = vf.createIRI("urn:s");
+			try (SailConnection writer = store.getConnection()) {
+				writer.begin();
+				writer.addStatement(subj, pred, subj);
+				writer.commit();
+				writer.begin();
+				writer.removeStatements(subj, pred, subj);
+				writer.commit();
+				SnapshotCleanupStatistics statistics = awaitCleanup(store, 2);
+
+				assertEquals(0, statistics.getBacklog());
+				assertEquals(2001, statistics.getRemovedStatements());
+				assertEquals(0, Iterations.asList(writer.getStatements(null, pred, null, false)).size());
+			}
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	private static SnapshotCleanupStatistics awaitCleanup(MemoryStore store, long completedCleanups)
+			throws InterruptedException {
+		SnapshotCleanupStatistics statistics = store.getSnapshotCleanupStatistics();
+		for (int i = 0; i < 1000 && (statistics.getCompletedCleanups() < completedCleanups
+				|| statistics.isCleanupRunning()); i++) {
+			Thread.sleep(10);
+			statistics = store.getSnapshotCleanupStatistics();
+		}
+		assertEquals(completedCleanups, statistics.getCompletedCleanups());
+		return statistics;
+	}
+
 }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+/**
+ * An immutable snapshot of the usage statistics of one of the caches of a {@link NativeStore}. All counts are
+ * cumulative since the store was initialized.
+ */
+public final class CacheStatistics {
+
+	private final long hitCount;
+
+	private final long missCount;
+
+	private final long evictionCount;
+
+	private final long rejectionCount;
+
+	private final int size;
+
+	private final long weight;
+
+	private final long maximumWeight;
+
+	CacheStatistics(long hitCount, long missCount, long evictionCount, long rejectionCount, int size, long weight,
+			long maximumWeight) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+		this.rejectionCount = rejectionCount;
+		this.size = size;
+		this.weight = weight;
+		this.maximumWeight = maximumWeight;
+	}
+
+	/**
+	 * The number of lookups that returned a cached entry.
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * The number of lookups that did not find a cached entry.
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * The ratio of lookups that returned a cached entry, or <tt>1.0</tt> if there have not been any lookups.
+	 */
+	public double getHitRate() {
+		long requestCount = hitCount + missCount;
+		return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+	}
+
+	/**
+	 * The number of entries that have been removed from the cache to make room for new entries.
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * The number of new entries that were not admitted to the cache because they were accessed less frequently than the
+	 * entries they would have replaced, or because they were too large to be cached at all.
+	 */
+	public long getRejectionCount() {
+		return rejectionCount;
+	}
+
+	/**
+	 * The number of entries currently in the cache.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * The total weight of the entries currently in the cache. Depending on the configuration of the cache, this is
+	 * either the number of entries or their estimated size in bytes.
+	 */
+	public long getWeight() {
+		return weight;
+	}
+
+	/**
+	 * The maximum total weight of the entries in the cache.
+	 */
+	public long getMaximumWeight() {
+		return maximumWeight;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStatistics [hitCount=" + hitCount + ", missCount=" + missCount + ", hitRate="
+				+ String.format("%.3f", getHitRate()) + ", evictionCount=" + evictionCount + ", rejectionCount="
+				+ rejectionCount + ", size=" + size + ", weight=" + weight + ", maximumWeight=" + maximumWeight + "]";
+	}
+}
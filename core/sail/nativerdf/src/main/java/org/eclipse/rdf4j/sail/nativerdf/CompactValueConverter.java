@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.sail.nativerdf.datastore.DataStore;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Converts the files of a {@link ValueStore} from the original value encoding to the compact value encoding. All values
+ * keep their IDs, so that the triple indexes remain valid. Language tags, which the compact encoding stores as separate
+ * entries, are assigned IDs following the largest existing value ID.
+ * <p>
+ * The converted files are first written next to the original files. The original files are then renamed to backup
+ * files, the converted files are renamed to replace them and finally the backup files are deleted. If this process is
+ * interrupted, the original files are restored from the backup files the next time the value store is opened, after
+ * which the conversion is started again.
+ */
+class CompactValueConverter {
+
+	private static final Logger logger = LoggerFactory.getLogger(CompactValueConverter.class);
+
+	private static final String[] FILE_EXTENSIONS = { ".dat", ".id", ".hash" };
+
+	private static final String CONVERTED_SUFFIX = ".compact";
+
+	private static final String BACKUP_SUFFIX = ".backup";
+
+	private CompactValueConverter() {
+	}
+
+	/**
+	 * Converts the data store with the specified file prefix to the compact value encoding, unless it does not exist
+	 * yet or already uses the compact encoding.
+	 */
+	static void convert(File dataDir, String filePrefix, boolean forceSync) throws IOException {
+		recover(dataDir, filePrefix);
+
+		if (!new File(dataDir, filePrefix + ".dat").exists()) {
+			// new value store
+			return;
+		}
+
+		String convertedPrefix = filePrefix + CONVERTED_SUFFIX;
+		try (DataStore source = new DataStore(dataDir, filePrefix, forceSync)) {
+			if (source.isCompact()) {
+				return;
+			}
+
+			logger.info("Converting value store in {} to the compact value encoding...", dataDir);
+
+			int maxID = source.getMaxID();
+
+			// the IDs that the language tags will get in the converted store
+			Map<String, Integer> languageIDs = new LinkedHashMap<>();
+			for (int id = 1; id <= maxID; id++) {
+				byte[] data = source.getData(id);
+				if (data != null && data[0] == ValueStore.LITERAL_VALUE && data[5] > 0) {
+					String languageTag = new String(data, 6, data[5], StandardCharsets.UTF_8);
+					languageIDs.putIfAbsent(languageTag, maxID + languageIDs.size() + 1);
+				}
+			}
+
+			try (DataStore target = new DataStore(dataDir, convertedPrefix, forceSync, true)) {
+				for (int id = 1; id <= maxID; id++) {
+					byte[] data = source.getData(id);
+					if (data == null) {
+						throw new IOException("Unable to convert value store, no data found for ID " + id);
+					}
+					store(target, convert(data, languageIDs), id);
+				}
+				for (Map.Entry<String, Integer> entry : languageIDs.entrySet()) {
+					store(target, ValueStore.languageTagData(entry.getKey()), entry.getValue());
+				}
+				target.sync();
+			}
+		} catch (IOException | RuntimeException e) {
+			deleteFiles(dataDir, convertedPrefix);
+			throw e;
+		}
+
+		// replace the original files
+		for (String extension : FILE_EXTENSIONS) {
+			move(dataDir, filePrefix + extension, filePrefix + BACKUP_SUFFIX + extension);
+		}
+		for (String extension : FILE_EXTENSIONS) {
+			move(dataDir, convertedPrefix + extension, filePrefix + extension);
+		}
+		deleteFiles(dataDir, filePrefix + BACKUP_SUFFIX);
+
+		logger.info("Value store converted to the compact value encoding");
+	}
+
+	/**
+	 * Converts an entry of the original value encoding to the compact value encoding.
+	 */
+	static byte[] convert(byte[] data, Map<String, Integer> languageIDs) {
+		switch (data[0]) {
+		case ValueStore.URI_VALUE:
+			int namespaceID = ByteArrayUtil.getInt(data, 1);
+			return ValueStore.compactURIData(namespaceID, Arrays.copyOfRange(data, 5, data.length));
+		case ValueStore.LITERAL_VALUE:
+			int datatypeID = ByteArrayUtil.getInt(data, 1);
+			int languageLength = data[5];
+			int languageID = NativeValue.UNKNOWN_ID;
+			if (languageLength > 0) {
+				languageID = languageIDs.get(new String(data, 6, languageLength, StandardCharsets.UTF_8));
+			}
+			byte[] labelData = Arrays.copyOfRange(data, 6 + languageLength, data.length);
+			return ValueStore.compactLiteralData(datatypeID, languageID, labelData);
+		default:
+			// blank nodes and namespaces are encoded the same way in both encodings
+			return data;
+		}
+	}
+
+	private static void store(DataStore target, byte[] data, int expectedID) throws IOException {
+		int id = target.storeData(data);
+		if (id != expectedID) {
+			throw new IOException("Unable to convert value store, duplicate value for ID " + expectedID);
+		}
+	}
+
+	/**
+	 * Restores the original files if a previous conversion was interrupted while the files were being replaced, and
+	 * removes any partially converted files.
+	 */
+	private static void recover(File dataDir, String filePrefix) throws IOException {
+		for (String extension : FILE_EXTENSIONS) {
+			File backup = new File(dataDir, filePrefix + BACKUP_SUFFIX + extension);
+			if (backup.exists()) {
+				logger.warn("Restoring {} after an interrupted conversion of the value store", backup);
+				move(dataDir, backup.getName(), filePrefix + extension);
+			}
+		}
+		deleteFiles(dataDir, filePrefix + CONVERTED_SUFFIX);
+	}
+
+	private static void move(File dataDir, String source, String target) throws IOException {
+		Files.move(new File(dataDir, source).toPath(), new File(dataDir, target).toPath(),
+				StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void deleteFiles(File dataDir, String filePrefix) throws IOException {
+		for (String extension : FILE_EXTENSIONS) {
+			Files.deleteIfExists(new File(dataDir, filePrefix + extension).toPath());
+		}
+	}
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.eclipse.rdf4j.sail.nativerdf.btree.RecordComparator;
+import org.eclipse.rdf4j.sail.nativerdf.btree.RecordIterator;
+
+/**
+ * Sorts an arbitrary number of fixed size records using a bounded amount of memory. Records are collected in memory
+ * until the configured run size is reached, after which they are sorted and written to a temporary run file. The sorted
+ * records are returned by merging all runs.
+ */
+final class ExternalRecordSorter implements Closeable {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final File tmpDir;
+
+	private final int recordSize;
+
+	private final Comparator<byte[]> comparator;
+
+	private final byte[][] buffer;
+
+	private int bufferCount;
+
+	private final List<File> runFiles = new ArrayList<>();
+
+	private final List<DataInputStream> openRuns = new ArrayList<>();
+
+	/**
+	 * @param tmpDir     The directory to create the temporary run files in.
+	 * @param recordSize The size of the records to sort.
+	 * @param comparator The comparator that determines the order of the records.
+	 * @param runSize    The maximum number of records that is kept in memory.
+	 */
+	public ExternalRecordSorter(File tmpDir, int recordSize, RecordComparator comparator, int runSize) {
+		if (runSize <= 0) {
+			throw new IllegalArgumentException("run size must be larger than 0");
+		}
+		this.tmpDir = tmpDir;
+		this.recordSize = recordSize;
+		this.comparator = (r1, r2) -> comparator.compareBTreeValues(r1, r2, 0, recordSize);
+		this.buffer = new byte[runSize][];
+	}
+
+	/**
+	 * Adds a record to this sorter. The supplied array is not copied and must not be modified afterwards.
+	 */
+	public void add(byte[] record) throws IOException {
+		if (bufferCount == buffer.length) {
+			spill();
+		}
+		buffer[bufferCount++] = record;
+	}
+
+	/**
+	 * Returns the number of runs that have been written to disk so far.
+	 */
+	public int getRunCount() {
+		return runFiles.size();
+	}
+
+	/**
+	 * Returns an iterator over all added records in ascending order. Records that are equal according to the comparator
+	 * are all returned, in unspecified order. This method may only be called once.
+	 */
+	public RecordIterator sorted() throws IOException {
+		if (runFiles.isEmpty()) {
+			Arrays.sort(buffer, 0, bufferCount, comparator);
+			return new RecordIterator() {
+
+				private int index = 0;
+
+				@Override
+				public byte[] next() {
+					return index < bufferCount ? buffer[index++] : null;
+				}
+
+				@Override
+				public void set(byte[] record) {
+					throw new UnsupportedOperationException();
+				}
+
+				@Override
+				public void close() {
+					// no-op
+				}
+			};
+		}
+
+		if (bufferCount > 0) {
+			spill();
+		}
+
+		PriorityQueue<RunHead> heads = new PriorityQueue<>(runFiles.size(),
+				(h1, h2) -> comparator.compare(h1.record, h2.record));
+		for (File runFile : runFiles) {
+			DataInputStream in = new DataInputStream(
+					new BufferedInputStream(new FileInputStream(runFile), BUFFER_SIZE));
+			openRuns.add(in);
+
+			RunHead head = new RunHead(in);
+			if (head.advance()) {
+				heads.add(head);
+			}
+		}
+
+		return new RecordIterator() {
+
+			@Override
+			public byte[] next() throws IOException {
+				RunHead head = heads.poll();
+				if (head == null) {
+					return null;
+				}
+
+				byte[] record = head.record;
+				if (head.advance()) {
+					heads.add(head);
+				}
+				return record;
+			}
+
+			@Override
+			public void set(byte[] record) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public void close() throws IOException {
+				ExternalRecordSorter.this.close();
+			}
+		};
+	}
+
+	/**
+	 * Deletes all temporary run files.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			for (DataInputStream in : openRuns) {
+				in.close();
+			}
+		} finally {
+			openRuns.clear();
+			for (File runFile : runFiles) {
+				runFile.delete();
+			}
+			runFiles.clear();
+			Arrays.fill(buffer, null);
+			bufferCount = 0;
+		}
+	}
+
+	private void spill() throws IOException {
+		Arrays.sort(buffer, 0, bufferCount, comparator);
+
+		File runFile = File.createTempFile("sortrun", ".dat", tmpDir);
+		runFiles.add(runFile);
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(runFile), BUFFER_SIZE)) {
+			for (int i = 0; i < bufferCount; i++) {
+				out.write(buffer[i]);
+				buffer[i] = null;
+			}
+		}
+		bufferCount = 0;
+	}
+
+	/**
+	 * The next unmerged record of a run file.
+	 */
+	private class RunHead {
+
+		private final DataInputStream in;
+
+		byte[] record;
+
+		RunHead(DataInputStream in) {
+			this.in = in;
+		}
+
+		boolean advance() throws IOException {
+			byte[] next = new byte[recordSize];
+			try {
+				in.readFully(next);
+			} catch (EOFException e) {
+				record = null;
+				return false;
+			}
+			record = next;
+			return true;
+		}
+	}
+}
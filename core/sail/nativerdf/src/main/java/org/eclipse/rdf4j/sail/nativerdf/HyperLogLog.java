@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct integers that have been added to it, using
+ * <tt>2<sup>precision</sup></tt> one-byte registers. The standard error of the estimate is about
+ * <tt>1.04 / sqrt(2<sup>precision</sup>)</tt>.
+ */
+class HyperLogLog {
+
+	private final int precision;
+
+	private final byte[] registers;
+
+	public HyperLogLog(int precision) {
+		this(precision, new byte[1 << precision]);
+	}
+
+	/**
+	 * Creates a sketch from registers that have been obtained with {@link #getRegisters()}.
+	 */
+	public HyperLogLog(int precision, byte[] registers) {
+		if (precision < 4 || precision > 16) {
+			throw new IllegalArgumentException("precision must be between 4 and 16: " + precision);
+		}
+		if (registers.length != 1 << precision) {
+			throw new IllegalArgumentException("expected " + (1 << precision) + " registers");
+		}
+		this.precision = precision;
+		this.registers = registers;
+	}
+
+	public int getPrecision() {
+		return precision;
+	}
+
+	public byte[] getRegisters() {
+		return registers;
+	}
+
+	public void add(int value) {
+		long hash = hash(value);
+		int index = (int) (hash >>> (64 - precision));
+		// position of the left-most 1-bit in the remaining bits, bounded by the number of remaining bits
+		int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+		if (rank > registers[index]) {
+			registers[index] = (byte) rank;
+		}
+	}
+
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte register : registers) {
+			sum += 1.0 / (1L << register);
+			if (register == 0) {
+				zeros++;
+			}
+		}
+
+		double estimate = alpha(m) * m * m / sum;
+		if (estimate <= 2.5 * m && zeros > 0) {
+			// small range correction: linear counting
+			estimate = m * Math.log((double) m / zeros);
+		}
+		return Math.round(estimate);
+	}
+
+	private static double alpha(int m) {
+		switch (m) {
+		case 16:
+			return 0.673;
+		case 32:
+			return 0.697;
+		case 64:
+			return 0.709;
+		default:
+			return 0.7213 / (1 + 1.079 / m);
+		}
+	}
+
+	private static long hash(int value) {
+		// finalizer of MurmurHash3
+		long h = value;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
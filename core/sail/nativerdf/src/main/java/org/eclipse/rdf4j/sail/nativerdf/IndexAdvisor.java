@@ -0,0 +1,226 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.sail.SailException;
+
+/**
+ * Recommends additional triple indexes for a {@link NativeStore} and builds them while the store remains in use.
+ * <p>
+ * The store counts how often triples are looked up for each pattern shape, i.e. for each combination of bound subject,
+ * predicate, object and context. An index serves a pattern well if the bound fields form a prefix of its field
+ * sequence: the <tt>spoc</tt> index can be used for a range search on <tt>(s, p, ?, ?)</tt>, but not on
+ * <tt>(?, ?, o, ?)</tt>, which would be served by an <tt>ospc</tt> index. The advisor recommends the indexes that would
+ * most increase the number of bound prefix fields over all recorded lookups.
+ * <p>
+ * An index is built with {@link #buildIndex(String)}: the new index receives all updates right away, while the existing
+ * triples are copied to it in the background in small batches, so that updates are never blocked for long. The index is
+ * used for queries once all triples have been copied. Indexes that have been added this way are kept when the store is
+ * opened again, in addition to the configured triple indexes.
+ */
+public class IndexAdvisor {
+
+	/**
+	 * The minimum benefit of a recommended index, relative to the number of recorded lookups. A benefit of <tt>0.1</tt>
+	 * is equivalent to one additional bound prefix field for 10% of the lookups.
+	 */
+	private static final double MIN_RELATIVE_BENEFIT = 0.1;
+
+	private static final char[] FIELDS = { 's', 'p', 'o', 'c' };
+
+	private static final int[] FIELD_MASKS = { TripleStore.SUBJ_BOUND, TripleStore.PRED_BOUND, TripleStore.OBJ_BOUND,
+			TripleStore.CONTEXT_BOUND };
+
+	/**
+	 * All 24 possible field sequences, in lexicographical order of the fields <tt>s</tt>, <tt>p</tt>, <tt>o</tt> and
+	 * <tt>c</tt>.
+	 */
+	private static final List<String> FIELD_SEQS = Collections.unmodifiableList(permutations("", "spoc"));
+
+	private final NativeSailStore sailStore;
+
+	IndexAdvisor(NativeSailStore sailStore) {
+		this.sailStore = sailStore;
+	}
+
+	/**
+	 * Returns the number of triple lookups per pattern shape since the store was opened. A pattern shape is represented
+	 * as four characters, one per field, that are either the field name for a bound field or <tt>?</tt> for an unbound
+	 * field, e.g. <tt>s??c</tt>. Shapes that have not been used are omitted.
+	 */
+	public Map<String, Long> getPatternCounts() {
+		long[] counts = sailStore.getTripleStore().getPatternCounts();
+
+		Map<String, Long> result = new LinkedHashMap<>();
+		for (int mask = counts.length - 1; mask >= 0; mask--) {
+			if (counts[mask] > 0) {
+				result.put(getPatternShape(mask), counts[mask]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Clears the recorded pattern counts, e.g. to only take the current workload into account.
+	 */
+	public void resetPatternCounts() {
+		sailStore.getTripleStore().resetPatternCounts();
+	}
+
+	/**
+	 * Returns the field sequences of the triple indexes that are used for queries.
+	 */
+	public List<String> getIndexes() {
+		return sailStore.getTripleStore().getIndexFieldSeqs();
+	}
+
+	/**
+	 * Returns the field sequence of the index that is being built, or <tt>null</tt> if no index is being built.
+	 */
+	public String getBuildingIndex() {
+		return sailStore.getTripleStore().getBuildingIndexFieldSeq();
+	}
+
+	/**
+	 * Recommends additional triple indexes for the recorded lookups, most beneficial first. Each recommendation takes
+	 * the previous recommendations into account, so that no two recommended indexes serve the same pattern shapes.
+	 *
+	 * @return The field sequences of the recommended indexes, possibly empty.
+	 */
+	public List<String> getRecommendedIndexes() {
+		TripleStore tripleStore = sailStore.getTripleStore();
+		long[] counts = tripleStore.getPatternCounts();
+
+		List<String> indexes = new ArrayList<>(tripleStore.getIndexFieldSeqs());
+		String buildingIndex = tripleStore.getBuildingIndexFieldSeq();
+		if (buildingIndex != null) {
+			indexes.add(buildingIndex);
+		}
+
+		long total = 0;
+		for (long count : counts) {
+			total += count;
+		}
+		double minBenefit = Math.max(1.0, total * MIN_RELATIVE_BENEFIT);
+
+		List<String> recommended = new ArrayList<>();
+		while (true) {
+			String bestFieldSeq = null;
+			long bestBenefit = 0;
+
+			for (String fieldSeq : FIELD_SEQS) {
+				if (!indexes.contains(fieldSeq)) {
+					long benefit = getBenefit(fieldSeq, indexes, counts);
+					if (benefit > bestBenefit) {
+						bestBenefit = benefit;
+						bestFieldSeq = fieldSeq;
+					}
+				}
+			}
+
+			if (bestFieldSeq == null || bestBenefit < minBenefit) {
+				return recommended;
+			}
+
+			recommended.add(bestFieldSeq);
+			indexes.add(bestFieldSeq);
+		}
+	}
+
+	/**
+	 * Builds an additional triple index in a background thread. The store can be queried and updated as usual while the
+	 * index is being built. Only one index can be built at a time; closing the store aborts the build.
+	 *
+	 * @param fieldSeq The field sequence of the new index, e.g. <tt>ospc</tt>.
+	 * @return A future that completes when the new index is used for queries.
+	 * @throws SailException         If the field sequence is invalid or the build could not be started.
+	 * @throws IllegalStateException If another index is being built, or if the index already exists.
+	 */
+	public Future<Void> buildIndex(String fieldSeq) throws SailException {
+		try {
+			return sailStore.buildIndex(fieldSeq);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * Returns the total increase of the number of bound prefix fields over all recorded lookups if the specified index
+	 * were added to the existing indexes.
+	 */
+	private static long getBenefit(String fieldSeq, List<String> indexes, long[] counts) {
+		long benefit = 0;
+		for (int mask = 0; mask < counts.length; mask++) {
+			if (counts[mask] > 0) {
+				int bestScore = 0;
+				for (String index : indexes) {
+					bestScore = Math.max(bestScore, getPatternScore(index, mask));
+				}
+
+				int score = getPatternScore(fieldSeq, mask);
+				if (score > bestScore) {
+					benefit += counts[mask] * (score - bestScore);
+				}
+			}
+		}
+		return benefit;
+	}
+
+	/**
+	 * Returns the number of leading fields of the field sequence that are bound in the pattern mask. This is the same
+	 * score that the {@link TripleStore} uses to select an index for a lookup.
+	 */
+	static int getPatternScore(String fieldSeq, int mask) {
+		int score = 0;
+		for (int i = 0; i < fieldSeq.length(); i++) {
+			if ((mask & getFieldMask(fieldSeq.charAt(i))) == 0) {
+				break;
+			}
+			score++;
+		}
+		return score;
+	}
+
+	static String getPatternShape(int mask) {
+		char[] shape = new char[FIELDS.length];
+		for (int i = 0; i < FIELDS.length; i++) {
+			shape[i] = (mask & FIELD_MASKS[i]) != 0 ? FIELDS[i] : '?';
+		}
+		return new String(shape);
+	}
+
+	private static int getFieldMask(char field) {
+		for (int i = 0; i < FIELDS.length; i++) {
+			if (FIELDS[i] == field) {
+				return FIELD_MASKS[i];
+			}
+		}
+		throw new IllegalArgumentException("invalid character '" + field + "' in field sequence");
+	}
+
+	private static List<String> permutations(String prefix, String remaining) {
+		List<String> result = new ArrayList<>();
+		if (remaining.isEmpty()) {
+			result.add(prefix);
+		} else {
+			for (int i = 0; i < remaining.length(); i++) {
+				result.addAll(permutations(prefix + remaining.charAt(i),
+						remaining.substring(0, i) + remaining.substring(i + 1)));
+			}
+		}
+		return result;
+	}
+}
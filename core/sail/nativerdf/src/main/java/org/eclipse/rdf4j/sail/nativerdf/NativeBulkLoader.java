@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.eclipse.rdf4j.OpenRDFUtil;
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.helpers.DefaultSailChangedEvent;
+
+/**
+ * Loads statements into an empty {@link NativeStore} without going through the regular transaction machinery. Added
+ * statements are converted to triple records and appended to a temporary file. When {@link #load()} is called, the
+ * records are sorted once for every triple index, spilling sorted runs to disk as needed, and each index is built
+ * bottom-up from the sorted records. This avoids the random I/O of inserting the statements one by one and results in
+ * densely packed index files.
+ * <p>
+ * Bulk loading is only supported on an empty store. Statements added through a bulk loader are not visible until
+ * {@link #load()} has completed. A bulk loader is not thread-safe, and no other transactions should modify the store
+ * while it is loading.
+ *
+ * @see NativeStoreConnection#createBulkLoader()
+ */
+public class NativeBulkLoader implements AutoCloseable {
+
+	/**
+	 * The default maximum number of records that is sorted in memory at once.
+	 */
+	public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+	private final NativeStore nativeStore;
+
+	private final NativeSailStore sailStore;
+
+	private final File recordFile;
+
+	private final OutputStream recordOut;
+
+	private int runSize = DEFAULT_RUN_SIZE;
+
+	private long addedCount;
+
+	private boolean closed;
+
+	NativeBulkLoader(NativeStore nativeStore, NativeSailStore sailStore) throws SailException {
+		this.nativeStore = nativeStore;
+		this.sailStore = sailStore;
+
+		if (!sailStore.isEmpty()) {
+			throw new SailException("Bulk loading is only supported on an empty store");
+		}
+
+		try {
+			recordFile = File.createTempFile("bulkload", ".dat", nativeStore.getDataDir());
+			recordOut = new BufferedOutputStream(new FileOutputStream(recordFile), 1 << 16);
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of records that is sorted in memory at once. Each record takes about 40 bytes of heap.
+	 * Defaults to {@link #DEFAULT_RUN_SIZE}.
+	 */
+	public void setRunSize(int runSize) {
+		if (runSize <= 0) {
+			throw new IllegalArgumentException("run size must be larger than 0");
+		}
+		this.runSize = runSize;
+	}
+
+	public int getRunSize() {
+		return runSize;
+	}
+
+	/**
+	 * Returns the number of statements that has been added to this loader, including duplicates.
+	 */
+	public long getAddedCount() {
+		return addedCount;
+	}
+
+	public void add(Statement st) throws SailException {
+		add(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext());
+	}
+
+	/**
+	 * Adds a statement to each of the specified contexts, or to the default context if no contexts are specified.
+	 */
+	public void add(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+		OpenRDFUtil.verifyContextNotNull(contexts);
+		verifyNotClosed();
+
+		try {
+			int subjID = sailStore.storeValue(subj);
+			int predID = sailStore.storeValue(pred);
+			int objID = sailStore.storeValue(obj);
+
+			if (contexts.length == 0) {
+				contexts = new Resource[] { null };
+			}
+
+			for (Resource context : contexts) {
+				int contextID = context == null ? 0 : sailStore.storeValue(context);
+
+				byte[] record = new byte[TripleStore.RECORD_LENGTH];
+				ByteArrayUtil.putInt(subjID, record, TripleStore.SUBJ_IDX);
+				ByteArrayUtil.putInt(predID, record, TripleStore.PRED_IDX);
+				ByteArrayUtil.putInt(objID, record, TripleStore.OBJ_IDX);
+				ByteArrayUtil.putInt(contextID, record, TripleStore.CONTEXT_IDX);
+				record[TripleStore.FLAG_IDX] = TripleStore.EXPLICIT_FLAG;
+
+				recordOut.write(record);
+				addedCount++;
+			}
+		} catch (IOException e) {
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * Builds the triple indexes from all statements that have been added and makes them visible. This loader can not be
+	 * used anymore afterwards.
+	 *
+	 * @return The number of distinct statements that has been stored.
+	 */
+	public long load() throws SailException {
+		verifyNotClosed();
+
+		try {
+			recordOut.close();
+			long count = sailStore.bulkLoad(recordFile, runSize);
+
+			DefaultSailChangedEvent event = new DefaultSailChangedEvent(nativeStore);
+			event.setStatementsAdded(count > 0);
+			nativeStore.notifySailChanged(event);
+
+			return count;
+		} catch (IOException e) {
+			throw new SailException(e);
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Discards the temporary data of this loader. Statements that have not been loaded are discarded as well.
+	 */
+	@Override
+	public void close() throws SailException {
+		if (!closed) {
+			closed = true;
+			try {
+				recordOut.close();
+			} catch (IOException e) {
+				throw new SailException(e);
+			} finally {
+				recordFile.delete();
+			}
+		}
+	}
+
+	private void verifyNotClosed() {
+		if (closed) {
+			throw new IllegalStateException("bulk loader has been closed");
+		}
+	}
+}
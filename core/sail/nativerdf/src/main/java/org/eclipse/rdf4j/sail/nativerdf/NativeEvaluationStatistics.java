@@ -8,6 +8,7 @@
 package org.eclipse.rdf4j.sail.nativerdf;
 
 import java.io.IOException;
+import java.util.Set;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
@@ -15,6 +16,7 @@ import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.algebra.StatementPattern;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.sail.nativerdf.TripleStatistics.PredicateStatistics;
 import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +38,79 @@ class NativeEvaluationStatistics extends EvaluationStatistics {
 		this.tripleStore = tripleStore;
 	}
 
+	/**
+	 * Estimates the cardinality of a statement pattern with a constant predicate and a subject and/or object that is
+	 * bound by another join argument, using the statistics of the predicate: the average number of triples per distinct
+	 * subject or object, or the frequency of a constant object. The regular estimate is used until the statistics of
+	 * the predicate have been computed.
+	 */
+	@Override
+	public double getCardinality(StatementPattern sp, Set<String> boundVars) {
+		Value pred = sp.getPredicateVar().getValue();
+		Var contextVar = sp.getContextVar();
+		if (!(pred instanceof IRI) || contextVar != null && (contextVar.hasValue() || isBound(contextVar, boundVars))) {
+			return -1;
+		}
+
+		Var subjVar = sp.getSubjectVar();
+		Var objVar = sp.getObjectVar();
+		boolean subjBound = isBound(subjVar, boundVars);
+		boolean objBound = isBound(objVar, boundVars);
+		if (!subjBound && !objBound) {
+			// the regular estimate applies
+			return -1;
+		}
+
+		try {
+			int predID = valueStore.getID(pred);
+			if (predID == NativeValue.UNKNOWN_ID) {
+				return 0;
+			}
+
+			PredicateStatistics statistics = tripleStore.getPredicateStatistics(predID);
+			if (statistics == null) {
+				// the statistics are being computed, the regular estimate applies in the meantime
+				return -1;
+			}
+			if (statistics.getCount() == 0) {
+				return 0;
+			}
+
+			if (subjVar.hasValue()) {
+				// constant subject, bound object
+				Value subj = subjVar.getValue();
+				int subjID = subj instanceof Resource ? valueStore.getID(subj) : NativeValue.UNKNOWN_ID;
+				if (subjID == NativeValue.UNKNOWN_ID) {
+					return 0;
+				}
+				return tripleStore.cardinality(subjID, predID, -1, -1) / statistics.getDistinctObjects();
+			} else if (objVar.hasValue()) {
+				// bound subject, constant object
+				int objID = valueStore.getID(objVar.getValue());
+				if (objID == NativeValue.UNKNOWN_ID) {
+					return 0;
+				}
+				return statistics.getObjectCount(objID) / statistics.getDistinctSubjects();
+			} else {
+				double cardinality = statistics.getCount();
+				if (subjBound) {
+					cardinality /= statistics.getDistinctSubjects();
+				}
+				if (objBound) {
+					cardinality /= statistics.getDistinctObjects();
+				}
+				return cardinality;
+			}
+		} catch (IOException e) {
+			log.error("Failed to estimate statement pattern cardinality from predicate statistics", e);
+			return -1;
+		}
+	}
+
+	private static boolean isBound(Var var, Set<String> boundVars) {
+		return !var.hasValue() && boundVars.contains(var.getName());
+	}
+
 	@Override
 	protected CardinalityCalculator createCardinalityCalculator() {
 		return new NativeCardinalityCalculator();
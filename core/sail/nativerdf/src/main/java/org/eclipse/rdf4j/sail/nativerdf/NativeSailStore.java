@@ -15,6 +15,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -73,6 +76,19 @@ class NativeSailStore implements SailStore {
 	 */
 	private final AtomicBoolean storeTxnStarted = new AtomicBoolean(false);
 
+	/**
+	 * The maximum number of triples that is copied to an index that is being built while holding the
+	 * {@link #sinkStoreAccessLock}.
+	 */
+	private static final int INDEX_BUILD_BATCH_SIZE = 10_000;
+
+	/**
+	 * The task that builds an additional triple index in the background, if any.
+	 */
+	private volatile FutureTask<Void> indexBuildTask;
+
+	private volatile boolean closing;
+
 	/**
 	 * Creates a new {@link NativeSailStore} with the default cache sizes.
 	 */
@@ -86,12 +102,48 @@ class NativeSailStore implements SailStore {
 	 */
 	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, int valueCacheSize,
 			int valueIDCacheSize, int namespaceCacheSize, int namespaceIDCacheSize) throws IOException, SailException {
+		this(dataDir, tripleIndexes, forceSync, false, valueCacheSize, valueIDCacheSize, namespaceCacheSize,
+				namespaceIDCacheSize);
+	}
+
+	/**
+	 * Creates a new {@link NativeSailStore}, optionally reading the triple indexes through memory mapped files.
+	 */
+	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, boolean memoryMappedIndexes,
+			int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize, int namespaceIDCacheSize)
+			throws IOException, SailException {
+		this(dataDir, tripleIndexes, forceSync, memoryMappedIndexes, valueCacheSize, valueIDCacheSize,
+				namespaceCacheSize, namespaceIDCacheSize, -1L);
+	}
+
+	/**
+	 * Creates a new {@link NativeSailStore}, optionally bounding the value caches by their estimated size in bytes.
+	 *
+	 * @param valueCacheMemory The maximum estimated size in bytes of the cached values and value IDs, or a negative
+	 *                         number to bound these caches by <tt>valueCacheSize</tt> and <tt>valueIDCacheSize</tt>.
+	 */
+	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, boolean memoryMappedIndexes,
+			int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize, int namespaceIDCacheSize,
+			long valueCacheMemory) throws IOException, SailException {
+		this(dataDir, tripleIndexes, forceSync, memoryMappedIndexes, valueCacheSize, valueIDCacheSize,
+				namespaceCacheSize, namespaceIDCacheSize, valueCacheMemory, false);
+	}
+
+	/**
+	 * Creates a new {@link NativeSailStore}, optionally storing values in the compact value encoding.
+	 *
+	 * @param compactValues Whether to store values in the compact value encoding, converting existing values if
+	 *                      necessary.
+	 */
+	public NativeSailStore(File dataDir, String tripleIndexes, boolean forceSync, boolean memoryMappedIndexes,
+			int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize, int namespaceIDCacheSize,
+			long valueCacheMemory, boolean compactValues) throws IOException, SailException {
 		boolean initialized = false;
 		try {
 			namespaceStore = new NamespaceStore(dataDir);
 			valueStore = new ValueStore(dataDir, forceSync, valueCacheSize, valueIDCacheSize, namespaceCacheSize,
-					namespaceIDCacheSize);
-			tripleStore = new TripleStore(dataDir, tripleIndexes, forceSync);
+					namespaceIDCacheSize, valueCacheMemory, compactValues);
+			tripleStore = new TripleStore(dataDir, tripleIndexes, forceSync, memoryMappedIndexes);
 			contextStore = new ContextStore(this, dataDir);
 			initialized = true;
 		} finally {
@@ -106,8 +158,15 @@ class NativeSailStore implements SailStore {
 		return valueStore;
 	}
 
+	ValueStore getValueStore() {
+		return valueStore;
+	}
+
 	@Override
 	public void close() throws SailException {
+		closing = true;
+		awaitIndexBuild();
+
 		try {
 			try {
 				if (namespaceStore != null) {
@@ -152,6 +211,133 @@ class NativeSailStore implements SailStore {
 		return new NativeSailSource(false);
 	}
 
+	boolean isEmpty() {
+		return tripleStore.isEmpty();
+	}
+
+	int storeValue(Value value) throws IOException {
+		return valueStore.storeValue(value);
+	}
+
+	/**
+	 * Fills the empty triple store with the triple records from the supplied file, see
+	 * {@link TripleStore#bulkLoad(File, int)}.
+	 *
+	 * @return The number of distinct statements that has been stored.
+	 */
+	long bulkLoad(File recordFile, int runSize) throws IOException, SailException {
+		sinkStoreAccessLock.lock();
+		try {
+			if (storeTxnStarted.get()) {
+				throw new SailException("Bulk loading can not be combined with an active transaction");
+			}
+			if (!tripleStore.isEmpty()) {
+				throw new SailException("Bulk loading is only supported on an empty store");
+			}
+
+			valueStore.sync();
+
+			Map<Integer, Long> contextCounts = tripleStore.bulkLoad(recordFile, runSize);
+
+			long count = 0;
+			for (Entry<Integer, Long> entry : contextCounts.entrySet()) {
+				count += entry.getValue();
+				if (entry.getKey() != 0) {
+					contextStore.incrementBy((Resource) valueStore.getValue(entry.getKey()), entry.getValue());
+				}
+			}
+			contextStore.sync();
+
+			return count;
+		} finally {
+			sinkStoreAccessLock.unlock();
+		}
+	}
+
+	TripleStore getTripleStore() {
+		return tripleStore;
+	}
+
+	/**
+	 * Builds an additional triple index in a background thread, see {@link TripleStore#startIndexBuild(String)}. The
+	 * existing triples are copied to the new index in batches, each batch holding the lock that the sinks use for
+	 * updates, so that updates can proceed between the batches.
+	 *
+	 * @param fieldSeq The field sequence of the new index, e.g. <tt>ospc</tt>.
+	 * @return A future that completes when the new index is used to retrieve triples.
+	 */
+	Future<Void> buildIndex(String fieldSeq) throws IOException, SailException {
+		sinkStoreAccessLock.lock();
+		try {
+			if (closing) {
+				throw new IllegalStateException("store is closing");
+			}
+			if (indexBuildTask != null && !indexBuildTask.isDone()) {
+				throw new IllegalStateException("another index is already being built");
+			}
+
+			tripleStore.startIndexBuild(fieldSeq);
+
+			FutureTask<Void> task = new FutureTask<>(this::copyToBuildingIndex);
+			Thread thread = new Thread(task, "rdf4j-nativestore-index-" + tripleStore.getBuildingIndexFieldSeq());
+			thread.setDaemon(true);
+			indexBuildTask = task;
+			thread.start();
+			return task;
+		} finally {
+			sinkStoreAccessLock.unlock();
+		}
+	}
+
+	private Void copyToBuildingIndex() throws IOException, SailException {
+		boolean completed = false;
+		try {
+			while (!completed) {
+				if (closing) {
+					throw new SailException("Index build has been aborted, the store is closing");
+				}
+
+				sinkStoreAccessLock.lock();
+				try {
+					if (tripleStore.continueIndexBuild(INDEX_BUILD_BATCH_SIZE)) {
+						tripleStore.completeIndexBuild();
+						completed = true;
+					}
+				} finally {
+					sinkStoreAccessLock.unlock();
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			if (!closing) {
+				logger.error("Failed to build index", e);
+			}
+			throw e;
+		} finally {
+			if (!completed) {
+				sinkStoreAccessLock.lock();
+				try {
+					tripleStore.abortIndexBuild();
+				} finally {
+					sinkStoreAccessLock.unlock();
+				}
+			}
+		}
+		return null;
+	}
+
+	private void awaitIndexBuild() {
+		FutureTask<Void> task = indexBuildTask;
+		if (task != null) {
+			try {
+				task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// already logged, or caused by closing the store
+			}
+		}
+	}
+
 	List<Integer> getContextIDs(Resource... contexts) throws IOException {
 		assert contexts.length > 0 : "contexts must not be empty";
 
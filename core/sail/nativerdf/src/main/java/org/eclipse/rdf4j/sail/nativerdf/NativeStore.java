@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
+import java.util.Optional;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
@@ -29,6 +30,9 @@ import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategyF
 import org.eclipse.rdf4j.repository.sparql.federation.SPARQLServiceResolver;
 import org.eclipse.rdf4j.sail.NotifyingSailConnection;
 import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.ChangeFeed;
+import org.eclipse.rdf4j.sail.base.ChangeFeedSail;
+import org.eclipse.rdf4j.sail.base.ChangeFeedSailStore;
 import org.eclipse.rdf4j.sail.base.SailSource;
 import org.eclipse.rdf4j.sail.base.SailStore;
 import org.eclipse.rdf4j.sail.base.SnapshotSailStore;
@@ -47,7 +51,7 @@ import org.slf4j.LoggerFactory;
  * @author Arjohn Kampman
  * @author jeen
  */
-public class NativeStore extends AbstractNotifyingSail implements FederatedServiceResolverClient {
+public class NativeStore extends AbstractNotifyingSail implements FederatedServiceResolverClient, ChangeFeedSail {
 
 	private static final Logger logger = LoggerFactory.getLogger(NativeStore.class);
 
@@ -68,6 +72,12 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 	 */
 	private volatile boolean forceSync = false;
 
+	/**
+	 * Flag indicating whether the triple indexes should be read through memory mapped files. By default, this feature
+	 * is disabled.
+	 */
+	private volatile boolean memoryMappedIndexes = false;
+
 	private volatile int valueCacheSize = ValueStore.VALUE_CACHE_SIZE;
 
 	private volatile int valueIDCacheSize = ValueStore.VALUE_ID_CACHE_SIZE;
@@ -76,8 +86,33 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 
 	private volatile int namespaceIDCacheSize = ValueStore.NAMESPACE_ID_CACHE_SIZE;
 
+	/**
+	 * The maximum estimated size in bytes of the cached values and value IDs. By default this is negative, in which
+	 * case these caches are bounded by {@link #valueCacheSize} and {@link #valueIDCacheSize}.
+	 */
+	private volatile long valueCacheMemory = -1L;
+
+	/**
+	 * Flag indicating whether values should be stored in the compact value encoding. By default, this feature is
+	 * disabled.
+	 */
+	private volatile boolean compactValues = false;
+
+	/**
+	 * The number of statements of recently committed changesets that are retained by the change feed, or zero if the
+	 * change feed is disabled.
+	 */
+	private volatile long changeFeedCapacity = 0L;
+
+	/**
+	 * The feed of committed changes, null if the change feed is disabled or this store has not been initialized.
+	 */
+	private volatile ChangeFeed changeFeed;
+
 	private SailStore store;
 
+	private volatile NativeSailStore nativeSailStore;
+
 	// used to decide if store is writable, is true if the store was writable during initialization
 	private boolean isWritable;
 
@@ -176,6 +211,25 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		return forceSync;
 	}
 
+	/**
+	 * Specifies whether the nodes of the triple indexes should be read from memory mapped index files instead of
+	 * through regular file reads, must be called before initialization. Enabling this feature avoids a system call and
+	 * an intermediate buffer copy for every index node that is not cached, which speeds up large index scans. The
+	 * mapped regions count towards the process' virtual memory, but not towards the Java heap. By default, this feature
+	 * is disabled.
+	 */
+	public void setMemoryMappedIndexes(boolean memoryMappedIndexes) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+
+		this.memoryMappedIndexes = memoryMappedIndexes;
+	}
+
+	public boolean getMemoryMappedIndexes() {
+		return memoryMappedIndexes;
+	}
+
 	public void setValueCacheSize(int valueCacheSize) {
 		this.valueCacheSize = valueCacheSize;
 	}
@@ -192,6 +246,114 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		this.namespaceIDCacheSize = namespaceIDCacheSize;
 	}
 
+	/**
+	 * Bounds the caches of values and value IDs by the estimated memory usage of the cached values instead of by the
+	 * number of cached values. The memory is shared by the value cache and the value ID cache in a ratio of 4:1. If
+	 * set, the value cache size and value ID cache size are ignored. Must be called before initialization.
+	 *
+	 * @param valueCacheMemory The maximum estimated memory usage in bytes, or a negative number to bound the caches by
+	 *                         their number of values (the default).
+	 */
+	public void setValueCacheMemory(long valueCacheMemory) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+
+		this.valueCacheMemory = valueCacheMemory;
+	}
+
+	public long getValueCacheMemory() {
+		return valueCacheMemory;
+	}
+
+	/**
+	 * Specifies whether values should be stored in the compact value encoding, must be called before initialization.
+	 * The compact encoding stores IDs and lengths as variable length integers, refers to language tags by ID and
+	 * compresses long literal labels, which makes the value files smaller and faster to read. Existing stores are
+	 * converted to the compact encoding during initialization, which may take a while for large stores. Stores that use
+	 * the compact encoding cannot be converted back and can not be read by older versions. By default, this feature is
+	 * disabled.
+	 */
+	public void setCompactValues(boolean compactValues) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+
+		this.compactValues = compactValues;
+	}
+
+	public boolean getCompactValues() {
+		return compactValues;
+	}
+
+	/**
+	 * Sets the number of statements of the most recently committed changesets that are retained by the
+	 * {@link #getChangeFeed() change feed} of this store, must be called before initialization. The change feed is
+	 * disabled when the capacity is zero, which is the default.
+	 */
+	public void setChangeFeedCapacity(long changeFeedCapacity) {
+		if (isInitialized()) {
+			throw new IllegalStateException("sail has already been intialized");
+		}
+		if (changeFeedCapacity < 0) {
+			throw new IllegalArgumentException("change feed capacity must not be negative");
+		}
+
+		this.changeFeedCapacity = changeFeedCapacity;
+	}
+
+	public long getChangeFeedCapacity() {
+		return changeFeedCapacity;
+	}
+
+	@Override
+	public Optional<ChangeFeed> getChangeFeed() {
+		getInitializedSailStore();
+		return Optional.ofNullable(changeFeed);
+	}
+
+	/**
+	 * Returns the usage statistics of the cache that is used to resolve value IDs to values, which is used for every
+	 * value of a statement that is returned by the store.
+	 *
+	 * @throws IllegalStateException If the store has not been initialized.
+	 */
+	public CacheStatistics getValueCacheStatistics() {
+		return getInitializedValueStore().getValueCacheStatistics();
+	}
+
+	/**
+	 * Returns the usage statistics of the cache that is used to resolve values to their IDs, which is used for the
+	 * values of query patterns and of statements that are added to the store.
+	 *
+	 * @throws IllegalStateException If the store has not been initialized.
+	 */
+	public CacheStatistics getValueIDCacheStatistics() {
+		return getInitializedValueStore().getValueIDCacheStatistics();
+	}
+
+	/**
+	 * Returns an {@link IndexAdvisor} that recommends additional triple indexes based on the triple patterns that have
+	 * been evaluated, and that can build these indexes while the store remains in use.
+	 *
+	 * @throws IllegalStateException If the store has not been initialized.
+	 */
+	public IndexAdvisor getIndexAdvisor() {
+		return new IndexAdvisor(getInitializedSailStore());
+	}
+
+	private ValueStore getInitializedValueStore() {
+		return getInitializedSailStore().getValueStore();
+	}
+
+	private NativeSailStore getInitializedSailStore() {
+		NativeSailStore sailStore = nativeSailStore;
+		if (sailStore == null) {
+			throw new IllegalStateException("sail has not been initialized");
+		}
+		return sailStore;
+	}
+
 	/**
 	 * @return Returns the {@link EvaluationStrategy}.
 	 */
@@ -280,8 +442,10 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 			if (!VERSION.equals(version) && upgradeStore(dataDir, version)) {
 				FileUtils.writeStringToFile(versionFile, VERSION);
 			}
-			final NativeSailStore mainStore = new NativeSailStore(dataDir, tripleIndexes, forceSync, valueCacheSize,
-					valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize);
+			final NativeSailStore mainStore = new NativeSailStore(dataDir, tripleIndexes, forceSync,
+					memoryMappedIndexes, valueCacheSize, valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize,
+					valueCacheMemory, compactValues);
+			this.nativeSailStore = mainStore;
 			this.store = new SnapshotSailStore(mainStore, () -> new MemoryOverflowModel() {
 
 				@Override
@@ -311,6 +475,12 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 					}
 				}
 			};
+			if (changeFeedCapacity > 0) {
+				changeFeed = new ChangeFeed(changeFeedCapacity);
+				this.store = new ChangeFeedSailStore(store, changeFeed);
+			} else {
+				changeFeed = null;
+			}
 		} catch (Throwable e) {
 			// NativeStore initialization failed, release any allocated files
 			dirLock.release();
@@ -327,6 +497,11 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 	protected void shutDownInternal() throws SailException {
 		logger.debug("Shutting down NativeStore...");
 
+		if (logger.isDebugEnabled() && nativeSailStore != null) {
+			logger.debug("Value cache: {}", nativeSailStore.getValueStore().getValueCacheStatistics());
+			logger.debug("Value ID cache: {}", nativeSailStore.getValueStore().getValueIDCacheStatistics());
+		}
+
 		try {
 			store.close();
 		} finally {
@@ -426,6 +601,10 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		return store;
 	}
 
+	NativeSailStore getNativeSailStore() {
+		return nativeSailStore;
+	}
+
 	private boolean upgradeStore(File dataDir, String version) throws IOException, SailException {
 		if (version == null) {
 			// either a new store or a pre-2.8.2 store
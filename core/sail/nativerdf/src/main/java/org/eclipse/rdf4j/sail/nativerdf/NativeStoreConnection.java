@@ -57,6 +57,24 @@ public class NativeStoreConnection extends SailSourceConnection {
 	 * Methods *
 	 *---------*/
 
+	/**
+	 * Creates a {@link NativeBulkLoader} for efficiently loading large amounts of statements into the store, which must
+	 * be empty. Statements added to the bulk loader bypass this connection and are not part of any transaction.
+	 *
+	 * @return A new bulk loader; it should be closed when done.
+	 * @throws SailException If the store is not empty or this connection has an active transaction.
+	 */
+	public NativeBulkLoader createBulkLoader() throws SailException {
+		verifyIsOpen();
+		if (isActive()) {
+			throw new SailException("Bulk loading can not be combined with an active transaction");
+		}
+		if (!nativeStore.isWritable()) {
+			throw new SailReadOnlyException("Unable to bulk load: data file is locked or read-only");
+		}
+		return new NativeBulkLoader(nativeStore, nativeStore.getNativeSailStore());
+	}
+
 	@Override
 	protected void startTransactionInternal() throws SailException {
 		addedCount = 0;
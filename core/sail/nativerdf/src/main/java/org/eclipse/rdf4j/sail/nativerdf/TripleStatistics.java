@@ -0,0 +1,538 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
+import org.eclipse.rdf4j.sail.nativerdf.btree.RecordIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-predicate statistics on the triples of a {@link TripleStore}, used to estimate the cardinality of statement
+ * patterns whose subject or object is bound by another join argument. For each predicate, the statistics hold the
+ * number of triples, the (estimated) number of distinct subjects and objects, the exact number of triples for the most
+ * frequent objects and an equi-depth histogram over the IDs of all other objects.
+ * <p>
+ * The statistics of a predicate are computed by scanning its triples in a background thread when they are first needed,
+ * so that the query that needs them is not held up; it uses the regular cardinality estimates instead. The statistics
+ * are updated incrementally when triples are committed. Distinct counts and histogram buckets can drift with updates,
+ * so the statistics are computed again once the number of updates exceeds a quarter of the number of triples they were
+ * computed from. The statistics are written to a file when the triple store is closed and read back, and the file
+ * deleted, when it is opened again. After a crash the statistics are simply computed again.
+ */
+class TripleStatistics {
+
+	private static final Logger logger = LoggerFactory.getLogger(TripleStatistics.class);
+
+	private static final int FORMAT_VERSION = 1;
+
+	/**
+	 * The precision of the sketches that estimate the number of distinct subjects and objects per predicate.
+	 */
+	private static final int DISTINCT_PRECISION = 10;
+
+	/**
+	 * The precision of the sketches that estimate the number of distinct objects per histogram bucket.
+	 */
+	private static final int BUCKET_DISTINCT_PRECISION = 6;
+
+	/**
+	 * The number of most frequent objects for which the exact number of triples is kept.
+	 */
+	private static final int FREQUENT_OBJECTS = 32;
+
+	private static final int HISTOGRAM_BUCKETS = 16;
+
+	private static final int SAMPLE_SIZE = 1024;
+
+	/**
+	 * The minimum number of updates after which the statistics of a predicate are computed again.
+	 */
+	private static final long MIN_UPDATES_BEFORE_REBUILD = 1000;
+
+	private final TripleStore tripleStore;
+
+	private final File file;
+
+	private final Map<Integer, PredicateStatistics> predicates = new HashMap<>();
+
+	/**
+	 * The computations of statistics that have been scheduled or are running, by predicate ID.
+	 */
+	private final Map<Integer, Future<PredicateStatistics>> computations = new HashMap<>();
+
+	/**
+	 * Incremented when the statistics are cleared, so that computations that started before are discarded.
+	 */
+	private long generation;
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+		Thread thread = new Thread(task, "rdf4j-nativestore-statistics");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile boolean closed;
+
+	public TripleStatistics(TripleStore tripleStore, File file) {
+		this.tripleStore = tripleStore;
+		this.file = file;
+	}
+
+	/**
+	 * Returns the statistics of the predicate with the specified ID without waiting for them to be computed. If the
+	 * statistics are missing or outdated, they are computed in the background.
+	 *
+	 * @return The statistics, which may be outdated, or <tt>null</tt> if these have not been computed yet.
+	 */
+	public synchronized PredicateStatistics get(int predID) {
+		PredicateStatistics statistics = predicates.get(predID);
+		if (statistics == null || statistics.isOutdated()) {
+			update(predID);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Returns the up-to-date statistics of the predicate with the specified ID, starting a computation in the
+	 * background if necessary. Concurrent calls for the same predicate share a single computation.
+	 */
+	synchronized Future<PredicateStatistics> update(int predID) {
+		PredicateStatistics statistics = predicates.get(predID);
+		if (statistics != null && !statistics.isOutdated()) {
+			return CompletableFuture.completedFuture(statistics);
+		}
+
+		Future<PredicateStatistics> computation = computations.get(predID);
+		if (computation == null) {
+			long startGeneration = generation;
+			FutureTask<PredicateStatistics> task = new FutureTask<>(() -> computeAndStore(predID, startGeneration));
+			if (closed) {
+				task.cancel(false);
+				return task;
+			}
+			computations.put(predID, task);
+			executor.execute(task);
+			computation = task;
+		}
+		return computation;
+	}
+
+	private PredicateStatistics computeAndStore(int predID, long startGeneration) throws IOException {
+		PredicateStatistics statistics = null;
+		try {
+			// the statistics are computed without blocking updates, some concurrent updates may be missed
+			statistics = compute(predID);
+			return statistics;
+		} catch (IOException | RuntimeException e) {
+			if (!closed) {
+				logger.error("Failed to compute statistics for predicate " + predID, e);
+			}
+			throw e;
+		} finally {
+			synchronized (this) {
+				computations.remove(predID);
+				if (statistics != null && generation == startGeneration) {
+					predicates.put(predID, statistics);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the statistics for a triple that has been committed.
+	 */
+	public void tripleAdded(byte[] record) {
+		PredicateStatistics statistics = getLoaded(record);
+		if (statistics != null) {
+			statistics.tripleAdded(record);
+		}
+	}
+
+	/**
+	 * Updates the statistics for a triple that has been removed.
+	 */
+	public void tripleRemoved(byte[] record) {
+		PredicateStatistics statistics = getLoaded(record);
+		if (statistics != null) {
+			statistics.tripleRemoved(record);
+		}
+	}
+
+	private synchronized PredicateStatistics getLoaded(byte[] record) {
+		return predicates.get(ByteArrayUtil.getInt(record, TripleStore.PRED_IDX));
+	}
+
+	public synchronized void clear() {
+		predicates.clear();
+		generation++;
+	}
+
+	/**
+	 * Stops any computations of statistics. Computations that are running are aborted.
+	 */
+	public void close() throws IOException {
+		closed = true;
+		executor.shutdownNow();
+		try {
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for statistics computation to end");
+		}
+	}
+
+	private PredicateStatistics compute(int predID) throws IOException {
+		logger.debug("Computing statistics for predicate {}", predID);
+
+		HyperLogLog subjects = new HyperLogLog(DISTINCT_PRECISION);
+		HyperLogLog objects = new HyperLogLog(DISTINCT_PRECISION);
+		Map<Integer, long[]> candidates = new HashMap<>();
+		int[] sample = new int[SAMPLE_SIZE];
+		Random random = new Random(predID);
+		long count = 0;
+
+		// first pass: counts, candidates for the most frequent objects and a sample of the other objects
+		try (RecordIterator iter = tripleStore.findCommittedTriples(-1, predID, -1, -1)) {
+			byte[] record;
+			while ((record = iter.next()) != null) {
+				verifyNotClosed();
+				int subj = ByteArrayUtil.getInt(record, TripleStore.SUBJ_IDX);
+				int obj = ByteArrayUtil.getInt(record, TripleStore.OBJ_IDX);
+
+				subjects.add(subj);
+				objects.add(obj);
+				countFrequent(candidates, obj);
+
+				// reservoir sampling
+				if (count < SAMPLE_SIZE) {
+					sample[(int) count] = obj;
+				} else {
+					long index = (long) (random.nextDouble() * (count + 1));
+					if (index < SAMPLE_SIZE) {
+						sample[(int) index] = obj;
+					}
+				}
+				count++;
+			}
+		}
+
+		int[] bucketBounds = getBucketBounds(Arrays.copyOf(sample, (int) Math.min(count, SAMPLE_SIZE)));
+		long[] bucketCounts = new long[bucketBounds.length];
+		HyperLogLog[] bucketObjects = new HyperLogLog[bucketBounds.length];
+		for (int i = 0; i < bucketObjects.length; i++) {
+			bucketObjects[i] = new HyperLogLog(BUCKET_DISTINCT_PRECISION);
+		}
+
+		// second pass: exact counts for the frequent objects and the histogram for the others
+		Map<Integer, Long> frequentObjects = new HashMap<>();
+		for (Integer obj : candidates.keySet()) {
+			frequentObjects.put(obj, 0L);
+		}
+		try (RecordIterator iter = tripleStore.findCommittedTriples(-1, predID, -1, -1)) {
+			byte[] record;
+			while ((record = iter.next()) != null) {
+				verifyNotClosed();
+				int obj = ByteArrayUtil.getInt(record, TripleStore.OBJ_IDX);
+				Long objCount = frequentObjects.get(obj);
+				if (objCount != null) {
+					frequentObjects.put(obj, objCount + 1);
+				} else {
+					int bucket = getBucket(bucketBounds, obj);
+					bucketCounts[bucket]++;
+					bucketObjects[bucket].add(obj);
+				}
+			}
+		}
+
+		long[] bucketDistinct = new long[bucketBounds.length];
+		for (int i = 0; i < bucketDistinct.length; i++) {
+			bucketDistinct[i] = Math.min(bucketObjects[i].estimate(), bucketCounts[i]);
+		}
+
+		return new PredicateStatistics(count, 0, subjects, objects, frequentObjects, bucketBounds, bucketCounts,
+				bucketDistinct);
+	}
+
+	private void verifyNotClosed() throws IOException {
+		if (closed) {
+			throw new IOException("Statistics computation aborted, the triple store is being closed");
+		}
+	}
+
+	/**
+	 * Counts the supplied object using the Space-Saving algorithm, which keeps a bounded number of counters that are
+	 * guaranteed to include the most frequent objects.
+	 */
+	private static void countFrequent(Map<Integer, long[]> counters, int obj) {
+		long[] counter = counters.get(obj);
+		if (counter != null) {
+			counter[0]++;
+		} else if (counters.size() < FREQUENT_OBJECTS) {
+			counters.put(obj, new long[] { 1 });
+		} else {
+			// replace the counter with the lowest count
+			Map.Entry<Integer, long[]> min = null;
+			for (Map.Entry<Integer, long[]> entry : counters.entrySet()) {
+				if (min == null || entry.getValue()[0] < min.getValue()[0]) {
+					min = entry;
+				}
+			}
+			long[] minCounter = counters.remove(min.getKey());
+			minCounter[0]++;
+			counters.put(obj, minCounter);
+		}
+	}
+
+	/**
+	 * Determines the upper bounds of equi-depth buckets from a sample of object IDs. The last bucket is unbounded.
+	 */
+	private static int[] getBucketBounds(int[] sample) {
+		Arrays.sort(sample);
+
+		int buckets = Math.min(HISTOGRAM_BUCKETS, sample.length);
+		int[] bounds = new int[Math.max(buckets, 1)];
+		int boundCount = 0;
+		for (int i = 1; i < buckets; i++) {
+			int bound = sample[i * sample.length / buckets - 1];
+			if (boundCount == 0 || bound > bounds[boundCount - 1]) {
+				bounds[boundCount++] = bound;
+			}
+		}
+		bounds[boundCount++] = Integer.MAX_VALUE;
+		return Arrays.copyOf(bounds, boundCount);
+	}
+
+	private static int getBucket(int[] bucketBounds, int obj) {
+		int index = Arrays.binarySearch(bucketBounds, obj);
+		return index >= 0 ? index : -index - 1;
+	}
+
+	/**
+	 * Reads the statistics that have been saved when the triple store was last closed, and deletes the file so that the
+	 * statistics are not used again after a crash.
+	 */
+	public synchronized void load() throws IOException {
+		if (!file.exists()) {
+			return;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != FORMAT_VERSION) {
+				logger.debug("Ignoring statistics file with unknown format version");
+				return;
+			}
+
+			int predicateCount = in.readInt();
+			for (int i = 0; i < predicateCount; i++) {
+				int predID = in.readInt();
+				predicates.put(predID, PredicateStatistics.read(in));
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to read statistics, these will be computed again", e);
+			predicates.clear();
+		} finally {
+			Files.delete(file.toPath());
+		}
+	}
+
+	public synchronized void save() throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+			out.writeInt(FORMAT_VERSION);
+			out.writeInt(predicates.size());
+			for (Map.Entry<Integer, PredicateStatistics> entry : predicates.entrySet()) {
+				out.writeInt(entry.getKey());
+				entry.getValue().write(out);
+			}
+		}
+	}
+
+	/*---------------------------------*
+	 * Inner class PredicateStatistics *
+	 *---------------------------------*/
+
+	/**
+	 * The statistics on the triples with a specific predicate.
+	 */
+	static class PredicateStatistics {
+
+		private final long computedCount;
+
+		private long count;
+
+		private long updates;
+
+		private final HyperLogLog subjects;
+
+		private final HyperLogLog objects;
+
+		private final Map<Integer, Long> frequentObjects;
+
+		private final int[] bucketBounds;
+
+		private final long[] bucketCounts;
+
+		private final long[] bucketDistinct;
+
+		PredicateStatistics(long count, long updates, HyperLogLog subjects, HyperLogLog objects,
+				Map<Integer, Long> frequentObjects, int[] bucketBounds, long[] bucketCounts, long[] bucketDistinct) {
+			this.computedCount = count;
+			this.count = count;
+			this.updates = updates;
+			this.subjects = subjects;
+			this.objects = objects;
+			this.frequentObjects = frequentObjects;
+			this.bucketBounds = bucketBounds;
+			this.bucketCounts = bucketCounts;
+			this.bucketDistinct = bucketDistinct;
+		}
+
+		/**
+		 * Returns the number of triples with this predicate.
+		 */
+		public synchronized long getCount() {
+			return count;
+		}
+
+		/**
+		 * Returns the estimated number of distinct subjects of the triples with this predicate.
+		 */
+		public synchronized long getDistinctSubjects() {
+			return Math.max(1, Math.min(subjects.estimate(), count));
+		}
+
+		/**
+		 * Returns the estimated number of distinct objects of the triples with this predicate.
+		 */
+		public synchronized long getDistinctObjects() {
+			return Math.max(1, Math.min(objects.estimate(), count));
+		}
+
+		/**
+		 * Returns the estimated number of triples with this predicate and the specified object.
+		 */
+		public synchronized double getObjectCount(int objID) {
+			Long frequentCount = frequentObjects.get(objID);
+			if (frequentCount != null) {
+				return frequentCount;
+			}
+
+			int bucket = getBucket(bucketBounds, objID);
+			if (bucketCounts[bucket] == 0) {
+				return 0;
+			}
+			return (double) bucketCounts[bucket] / Math.max(1, bucketDistinct[bucket]);
+		}
+
+		synchronized boolean isOutdated() {
+			return updates > Math.max(MIN_UPDATES_BEFORE_REBUILD, computedCount / 4);
+		}
+
+		synchronized void tripleAdded(byte[] record) {
+			int obj = ByteArrayUtil.getInt(record, TripleStore.OBJ_IDX);
+
+			count++;
+			updates++;
+			subjects.add(ByteArrayUtil.getInt(record, TripleStore.SUBJ_IDX));
+			objects.add(obj);
+
+			Long frequentCount = frequentObjects.get(obj);
+			if (frequentCount != null) {
+				frequentObjects.put(obj, frequentCount + 1);
+			} else {
+				bucketCounts[getBucket(bucketBounds, obj)]++;
+			}
+		}
+
+		synchronized void tripleRemoved(byte[] record) {
+			int obj = ByteArrayUtil.getInt(record, TripleStore.OBJ_IDX);
+
+			count = Math.max(0, count - 1);
+			updates++;
+
+			Long frequentCount = frequentObjects.get(obj);
+			if (frequentCount != null) {
+				frequentObjects.put(obj, Math.max(0, frequentCount - 1));
+			} else {
+				int bucket = getBucket(bucketBounds, obj);
+				bucketCounts[bucket] = Math.max(0, bucketCounts[bucket] - 1);
+			}
+		}
+
+		synchronized void write(DataOutputStream out) throws IOException {
+			out.writeLong(count);
+			out.writeLong(updates);
+			out.write(subjects.getRegisters());
+			out.write(objects.getRegisters());
+
+			out.writeInt(frequentObjects.size());
+			for (Map.Entry<Integer, Long> entry : frequentObjects.entrySet()) {
+				out.writeInt(entry.getKey());
+				out.writeLong(entry.getValue());
+			}
+
+			out.writeInt(bucketBounds.length);
+			for (int i = 0; i < bucketBounds.length; i++) {
+				out.writeInt(bucketBounds[i]);
+				out.writeLong(bucketCounts[i]);
+				out.writeLong(bucketDistinct[i]);
+			}
+		}
+
+		static PredicateStatistics read(DataInputStream in) throws IOException {
+			long count = in.readLong();
+			long updates = in.readLong();
+
+			byte[] subjectRegisters = new byte[1 << DISTINCT_PRECISION];
+			in.readFully(subjectRegisters);
+			byte[] objectRegisters = new byte[1 << DISTINCT_PRECISION];
+			in.readFully(objectRegisters);
+
+			int frequentObjectCount = in.readInt();
+			Map<Integer, Long> frequentObjects = new HashMap<>();
+			for (int i = 0; i < frequentObjectCount; i++) {
+				frequentObjects.put(in.readInt(), in.readLong());
+			}
+
+			int bucketCount = in.readInt();
+			int[] bucketBounds = new int[bucketCount];
+			long[] bucketCounts = new long[bucketCount];
+			long[] bucketDistinct = new long[bucketCount];
+			for (int i = 0; i < bucketCount; i++) {
+				bucketBounds[i] = in.readInt();
+				bucketCounts[i] = in.readLong();
+				bucketDistinct[i] = in.readLong();
+			}
+
+			return new PredicateStatistics(count, updates, new HyperLogLog(DISTINCT_PRECISION, subjectRegisters),
+					new HyperLogLog(DISTINCT_PRECISION, objectRegisters), frequentObjects, bucketBounds, bucketCounts,
+					bucketDistinct);
+		}
+	}
+}
@@ -7,7 +7,10 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.nativerdf;
 
+import java.io.BufferedInputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -23,6 +26,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.eclipse.rdf4j.common.io.ByteArrayUtil;
 import org.eclipse.rdf4j.sail.SailException;
@@ -58,6 +64,11 @@ class TripleStore implements Closeable {
 	 */
 	private static final String PROPERTIES_FILE = "triples.prop";
 
+	/**
+	 * The file name for the file that holds the predicate statistics while the store is closed.
+	 */
+	private static final String STATISTICS_FILE = "triples-stats.dat";
+
 	/**
 	 * The key used to store the triple store version in the properties file.
 	 */
@@ -68,6 +79,12 @@ class TripleStore implements Closeable {
 	 */
 	private static final String INDEXES_KEY = "triple-indexes";
 
+	/**
+	 * The key used to store the specification of the triple indexes that have been added while the store was running,
+	 * see {@link #startIndexBuild(String)}. These indexes are kept in addition to the requested triple indexes.
+	 */
+	private static final String ADDED_INDEXES_KEY = "added-triple-indexes";
+
 	/**
 	 * The version number for the current triple store.
 	 * <ul>
@@ -118,6 +135,38 @@ class TripleStore implements Closeable {
 	 */
 	static final byte TOGGLE_EXPLICIT_FLAG = (byte) 0x8; // 0000 1000
 
+	/**
+	 * Bits of a pattern mask, indicating which fields of a triple pattern are bound.
+	 */
+	static final int SUBJ_BOUND = 0x8;
+
+	static final int PRED_BOUND = 0x4;
+
+	static final int OBJ_BOUND = 0x2;
+
+	static final int CONTEXT_BOUND = 0x1;
+
+	/**
+	 * The iterator that is returned for lookups while the indexes are being bulk loaded.
+	 */
+	private static final RecordIterator EMPTY_ITERATOR = new RecordIterator() {
+
+		@Override
+		public byte[] next() {
+			return null;
+		}
+
+		@Override
+		public void set(byte[] value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			// nothing to close
+		}
+	};
+
 	/*-----------*
 	 * Variables *
 	 *-----------*/
@@ -137,10 +186,39 @@ class TripleStore implements Closeable {
 	/**
 	 * The list of triple indexes that are used to store and retrieve triples.
 	 */
-	private final List<TripleIndex> indexes = new ArrayList<>();
+	private final List<TripleIndex> indexes = new CopyOnWriteArrayList<>();
+
+	/**
+	 * The index that is being built while the store is running, if any. This index is kept up-to-date with all updates,
+	 * but is not used to retrieve triples until it has been completed.
+	 */
+	private volatile TripleIndex buildingIndex;
+
+	/**
+	 * The last record that has been copied to {@link #buildingIndex}.
+	 */
+	private byte[] lastCopiedRecord;
+
+	/**
+	 * Flag indicating whether the indexes are being filled by {@link #bulkLoad(File, int)}. The indexes are filled one
+	 * after the other, so they are not used to retrieve triples until all of them have been completed.
+	 */
+	private volatile boolean bulkLoading;
+
+	/**
+	 * The number of triple lookups per pattern mask.
+	 */
+	private final AtomicLongArray patternCounts = new AtomicLongArray(16);
+
+	/**
+	 * Per-predicate statistics on the committed triples.
+	 */
+	private final TripleStatistics statistics;
 
 	private final boolean forceSync;
 
+	private final boolean memoryMapped;
+
 	private final TxnStatusFile txnStatusFile;
 
 	private volatile RecordCache updatedTriplesCache;
@@ -154,9 +232,16 @@ class TripleStore implements Closeable {
 	}
 
 	public TripleStore(File dir, String indexSpecStr, boolean forceSync) throws IOException, SailException {
+		this(dir, indexSpecStr, forceSync, false);
+	}
+
+	public TripleStore(File dir, String indexSpecStr, boolean forceSync, boolean memoryMapped)
+			throws IOException, SailException {
 		this.dir = dir;
 		this.forceSync = forceSync;
+		this.memoryMapped = memoryMapped;
 		this.txnStatusFile = new TxnStatusFile(dir);
+		this.statistics = new TripleStatistics(this, new File(dir, STATISTICS_FILE));
 
 		File propFile = new File(dir, PROPERTIES_FILE);
 
@@ -196,9 +281,18 @@ class TripleStore implements Closeable {
 			if (reqIndexSpecs.isEmpty()) {
 				// No indexes specified, use the existing ones
 				indexSpecStr = properties.getProperty(INDEXES_KEY);
-			} else if (!reqIndexSpecs.equals(indexSpecs)) {
-				// Set of indexes needs to be changed
-				reindex(indexSpecs, reqIndexSpecs);
+			} else {
+				// Keep the indexes that have been added while the store was running
+				for (String fieldSeq : parseIndexSpecList(properties.getProperty(ADDED_INDEXES_KEY))) {
+					if (reqIndexSpecs.add(fieldSeq)) {
+						indexSpecStr += "," + fieldSeq;
+					}
+				}
+
+				if (!reqIndexSpecs.equals(indexSpecs)) {
+					// Set of indexes needs to be changed
+					reindex(indexSpecs, reqIndexSpecs);
+				}
 			}
 		}
 
@@ -209,6 +303,8 @@ class TripleStore implements Closeable {
 			properties.setProperty(INDEXES_KEY, indexSpecStr);
 			storeProperties(propFile);
 		}
+
+		statistics.load();
 	}
 
 	/*---------*
@@ -327,6 +423,18 @@ class TripleStore implements Closeable {
 				throw e;
 			}
 			break;
+		case BULK_LOADING:
+			logger.info("Detected unfinished bulk load, trying to clear the indexes");
+			try {
+				clear();
+				sync();
+				txnStatusFile.setTxnStatus(TxnStatus.NONE);
+				logger.info("Unfinished bulk load cleared successfully");
+			} catch (IOException e) {
+				logger.error("Failed to clear unfinished bulk load", e);
+				throw e;
+			}
+			break;
 		}
 	}
 
@@ -352,6 +460,8 @@ class TripleStore implements Closeable {
 				RecordIterator sourceIter = null;
 				try {
 					addedBTree = addedIndex.getBTree();
+					// remove any records left behind by an interrupted index build
+					addedBTree.clear();
 					sourceIter = sourceIndex.getBTree().iterateAll();
 					byte[] value = null;
 					while ((value = sourceIter.next()) != null) {
@@ -412,6 +522,13 @@ class TripleStore implements Closeable {
 	public void close() throws IOException {
 		try {
 			List<Throwable> caughtExceptions = new ArrayList<>();
+			try {
+				statistics.close();
+				statistics.save();
+			} catch (Throwable e) {
+				logger.warn("Failed to save triple statistics");
+				caughtExceptions.add(e);
+			}
 			for (TripleIndex index : indexes) {
 				try {
 					index.getBTree().close();
@@ -580,14 +697,34 @@ class TripleStore implements Closeable {
 
 	private RecordIterator getTriples(int subj, int pred, int obj, int context, int flags, int flagsMask)
 			throws IOException {
+		patternCounts.incrementAndGet(getPatternMask(subj, pred, obj, context));
+
+		return findTriples(subj, pred, obj, context, flags, flagsMask);
+	}
+
+	/**
+	 * Returns the committed triples that match the pattern, without counting the lookup in the pattern statistics.
+	 */
+	RecordIterator findCommittedTriples(int subj, int pred, int obj, int context) throws IOException {
+		return findTriples(subj, pred, obj, context, 0, ADDED_FLAG);
+	}
+
+	private RecordIterator findTriples(int subj, int pred, int obj, int context, int flags, int flagsMask)
+			throws IOException {
+		if (bulkLoading) {
+			return EMPTY_ITERATOR;
+		}
 		TripleIndex index = getBestIndex(subj, pred, obj, context);
 		boolean doRangeSearch = index.getPatternScore(subj, pred, obj, context) > 0;
 		return getTriplesUsingIndex(subj, pred, obj, context, flags, flagsMask, index, doRangeSearch);
 	}
 
 	private RecordIterator getAllTriplesSortedByContext(int flags, int flagsMask) throws IOException {
+		if (bulkLoading) {
+			return EMPTY_ITERATOR;
+		}
 		for (TripleIndex index : indexes) {
-			if (index.getFieldSeq()[0] == 'c') {
+			if (index != buildingIndex && index.getFieldSeq()[0] == 'c') {
 				// found a context-first index
 				return getTriplesUsingIndex(-1, -1, -1, -1, flags, flagsMask, index, false);
 			}
@@ -614,6 +751,9 @@ class TripleStore implements Closeable {
 	}
 
 	protected double cardinality(int subj, int pred, int obj, int context) throws IOException {
+		if (bulkLoading) {
+			return 0;
+		}
 		TripleIndex index = getBestIndex(subj, pred, obj, context);
 		BTree btree = index.btree;
 
@@ -635,6 +775,11 @@ class TripleStore implements Closeable {
 		TripleIndex bestIndex = null;
 
 		for (TripleIndex index : indexes) {
+			if (index == buildingIndex) {
+				// not complete yet
+				continue;
+			}
+
 			int score = index.getPatternScore(subj, pred, obj, context);
 			if (score > bestScore) {
 				bestScore = score;
@@ -645,10 +790,305 @@ class TripleStore implements Closeable {
 		return bestIndex;
 	}
 
+	/**
+	 * Returns the pattern mask for the supplied triple pattern, a combination of {@link #SUBJ_BOUND},
+	 * {@link #PRED_BOUND}, {@link #OBJ_BOUND} and {@link #CONTEXT_BOUND}.
+	 */
+	static int getPatternMask(int subj, int pred, int obj, int context) {
+		int mask = 0;
+		if (subj >= 0) {
+			mask |= SUBJ_BOUND;
+		}
+		if (pred >= 0) {
+			mask |= PRED_BOUND;
+		}
+		if (obj >= 0) {
+			mask |= OBJ_BOUND;
+		}
+		if (context >= 0) {
+			mask |= CONTEXT_BOUND;
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the number of triple lookups that have been performed since the store was opened, indexed by their
+	 * pattern mask (see {@link #getPatternMask(int, int, int, int)}).
+	 */
+	public long[] getPatternCounts() {
+		long[] counts = new long[patternCounts.length()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = patternCounts.get(i);
+		}
+		return counts;
+	}
+
+	public void resetPatternCounts() {
+		for (int i = 0; i < patternCounts.length(); i++) {
+			patternCounts.set(i, 0L);
+		}
+	}
+
+	/**
+	 * Returns the field sequences of the indexes that are used to retrieve triples, excluding any index that is still
+	 * being built.
+	 */
+	public List<String> getIndexFieldSeqs() {
+		List<String> fieldSeqs = new ArrayList<>();
+		for (TripleIndex index : indexes) {
+			if (index != buildingIndex) {
+				fieldSeqs.add(index.toString());
+			}
+		}
+		return fieldSeqs;
+	}
+
+	/**
+	 * Returns the field sequence of the index that is being built, or <tt>null</tt> if no index is being built.
+	 */
+	public String getBuildingIndexFieldSeq() {
+		TripleIndex index = buildingIndex;
+		return index == null ? null : index.toString();
+	}
+
+	/**
+	 * Starts building an additional index while the store remains in use. From now on, all updates are applied to the
+	 * new index as well, but it is not used to retrieve triples until the existing triples have been copied to it with
+	 * {@link #continueIndexBuild(int)} and the build has been completed with {@link #completeIndexBuild()}. The caller
+	 * is responsible for excluding concurrent updates while any of these methods is executed.
+	 *
+	 * @param fieldSeq The field sequence of the new index, e.g. <tt>ospc</tt>.
+	 * @throws SailException         If the field sequence is invalid.
+	 * @throws IllegalStateException If another index is being built, or if the index already exists.
+	 */
+	public void startIndexBuild(String fieldSeq) throws IOException, SailException {
+		if (buildingIndex != null) {
+			throw new IllegalStateException("index " + buildingIndex + " is already being built");
+		}
+
+		Set<String> indexSpecs = parseIndexSpecList(fieldSeq);
+		if (indexSpecs.size() != 1) {
+			throw new SailException("invalid index specification: " + fieldSeq);
+		}
+		fieldSeq = indexSpecs.iterator().next();
+
+		for (TripleIndex index : indexes) {
+			if (index.toString().equals(fieldSeq)) {
+				throw new IllegalStateException("index " + fieldSeq + " already exists");
+			}
+		}
+
+		logger.debug("Starting to build index '{}'...", fieldSeq);
+
+		TripleIndex index = new TripleIndex(fieldSeq);
+		// remove any records left behind by an interrupted index build
+		index.getBTree().clear();
+
+		lastCopiedRecord = null;
+		buildingIndex = index;
+		indexes.add(index);
+	}
+
+	/**
+	 * Copies the next batch of existing triples to the index that is being built.
+	 *
+	 * @param maxRecords The maximum number of triples to copy.
+	 * @return <tt>true</tt> if all triples have been copied.
+	 */
+	public boolean continueIndexBuild(int maxRecords) throws IOException {
+		TripleIndex index = buildingIndex;
+		if (index == null) {
+			throw new IllegalStateException("no index is being built");
+		}
+
+		TripleIndex sourceIndex = indexes.get(0);
+		byte[] lastRecord = lastCopiedRecord;
+
+		try (RecordIterator sourceIter = sourceIndex.getBTree().iterateRange(lastRecord, null)) {
+			int copied = 0;
+			byte[] record;
+			while ((record = sourceIter.next()) != null) {
+				if (lastRecord != null
+						&& sourceIndex.tripleComparator.compareBTreeValues(lastRecord, record, 0, RECORD_LENGTH) == 0) {
+					// copied in the previous batch
+					continue;
+				}
+				if (copied == maxRecords) {
+					return false;
+				}
+
+				index.getBTree().insert(record);
+				lastCopiedRecord = record;
+				copied++;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Completes the index build after all triples have been copied, after which the new index is used to retrieve
+	 * triples. The new index is recorded in the properties file and will be kept in addition to the requested indexes
+	 * when the store is opened again.
+	 */
+	public void completeIndexBuild() throws IOException, SailException {
+		TripleIndex index = buildingIndex;
+		if (index == null) {
+			throw new IllegalStateException("no index is being built");
+		}
+
+		index.getBTree().sync();
+
+		String fieldSeq = index.toString();
+		Set<String> addedIndexSpecs = parseIndexSpecList(properties.getProperty(ADDED_INDEXES_KEY));
+		addedIndexSpecs.add(fieldSeq);
+		properties.setProperty(INDEXES_KEY, properties.getProperty(INDEXES_KEY) + "," + fieldSeq);
+		properties.setProperty(ADDED_INDEXES_KEY, String.join(",", addedIndexSpecs));
+		storeProperties(new File(dir, PROPERTIES_FILE));
+
+		buildingIndex = null;
+		lastCopiedRecord = null;
+
+		logger.debug("Index '{}' has been built", fieldSeq);
+	}
+
+	/**
+	 * Stops building the index that is being built, if any, and deletes its files.
+	 */
+	public void abortIndexBuild() throws IOException {
+		TripleIndex index = buildingIndex;
+		if (index == null) {
+			return;
+		}
+
+		indexes.remove(index);
+		buildingIndex = null;
+		lastCopiedRecord = null;
+
+		if (!index.getBTree().delete()) {
+			logger.warn("Unable to delete file(s) for aborted {} index", index);
+		}
+	}
+
+	/**
+	 * Returns the statistics on the committed triples with the specified predicate, without waiting for these to be
+	 * computed, see {@link TripleStatistics#get(int)}.
+	 *
+	 * @return The statistics, or <tt>null</tt> if these are not available yet.
+	 */
+	public TripleStatistics.PredicateStatistics getPredicateStatistics(int predID) {
+		return statistics.get(predID);
+	}
+
+	/**
+	 * Returns the up-to-date statistics on the committed triples with the specified predicate once these have been
+	 * computed.
+	 */
+	Future<TripleStatistics.PredicateStatistics> updatePredicateStatistics(int predID) {
+		return statistics.update(predID);
+	}
+
 	public void clear() throws IOException {
 		for (TripleIndex index : indexes) {
 			index.getBTree().clear();
 		}
+		statistics.clear();
+	}
+
+	/**
+	 * Checks whether this triple store contains any triples.
+	 */
+	public boolean isEmpty() {
+		return indexes.get(0).getBTree().isEmpty();
+	}
+
+	/**
+	 * Fills the indexes of this empty triple store with the records from the supplied file. Instead of inserting the
+	 * triples one by one, the records are sorted in the order of each index and the index is then built bottom-up from
+	 * the sorted records, see {@link BTree#build(RecordIterator)}. Sorting uses temporary run files in the triple
+	 * store's directory, each holding at most <tt>runSize</tt> records. Duplicate triples are merged.
+	 * <p>
+	 * The store appears to be empty until all indexes have been built, so that readers never see indexes that disagree.
+	 * If the bulk load is interrupted, e.g. by a crash, the indexes are cleared when the store is opened again.
+	 *
+	 * @param recordFile A file containing a sequence of {@link #RECORD_LENGTH}-byte triple records, in no particular
+	 *                   order. The records must not have any of the transaction flags set.
+	 * @param runSize    The maximum number of records that is sorted in memory at once.
+	 * @return The number of distinct triples that has been stored, by context ID.
+	 * @throws IllegalStateException If this triple store is not empty.
+	 */
+	public Map<Integer, Long> bulkLoad(File recordFile, int runSize) throws IOException {
+		if (!isEmpty()) {
+			throw new IllegalStateException("triple store must be empty for bulk loading");
+		}
+
+		// an interrupted bulk load is undone on recovery, and the partially filled indexes are hidden from readers
+		txnStatusFile.setTxnStatus(TxnStatus.BULK_LOADING);
+		bulkLoading = true;
+
+		Map<Integer, Long> contextCounts = new HashMap<>();
+		boolean success = false;
+		try {
+			for (TripleIndex index : indexes) {
+				logger.debug("Building index {} from sorted records", new String(index.getFieldSeq()));
+
+				try (ExternalRecordSorter sorter = new ExternalRecordSorter(dir, RECORD_LENGTH, index.tripleComparator,
+						runSize)) {
+					try (DataInputStream in = new DataInputStream(
+							new BufferedInputStream(new FileInputStream(recordFile), 1 << 16))) {
+						while (true) {
+							byte[] record = new byte[RECORD_LENGTH];
+							try {
+								in.readFully(record);
+							} catch (EOFException e) {
+								break;
+							}
+							sorter.add(record);
+						}
+					}
+
+					// the context sizes only need to be counted once
+					boolean countContexts = index == indexes.get(0);
+					try (RecordIterator records = new DistinctRecordIterator(sorter.sorted(), index.tripleComparator)) {
+						RecordIterator counted = !countContexts ? records : new RecordIterator() {
+
+							@Override
+							public byte[] next() throws IOException {
+								byte[] record = records.next();
+								if (record != null) {
+									contextCounts.merge(ByteArrayUtil.getInt(record, CONTEXT_IDX), 1L, Long::sum);
+								}
+								return record;
+							}
+
+							@Override
+							public void set(byte[] value) {
+								throw new UnsupportedOperationException();
+							}
+
+							@Override
+							public void close() {
+								// closed by the enclosing try-with-resources statement
+							}
+						};
+
+						index.getBTree().build(counted);
+					}
+				}
+			}
+			sync();
+			success = true;
+		} finally {
+			if (!success) {
+				clear();
+			}
+			txnStatusFile.setTxnStatus(TxnStatus.NONE);
+			bulkLoading = false;
+			// any statistics have been computed for the empty store
+			statistics.clear();
+		}
+
+		return contextCounts;
 	}
 
 	public boolean storeTriple(int subj, int pred, int obj, int context) throws IOException {
@@ -866,6 +1306,8 @@ class TripleStore implements Closeable {
 
 		for (TripleIndex index : indexes) {
 			BTree btree = index.getBTree();
+			// the statistics only need to be updated once
+			boolean updateStatistics = index == indexes.get(0);
 
 			RecordIterator iter;
 			if (validCache) {
@@ -884,6 +1326,14 @@ class TripleStore implements Closeable {
 					boolean wasRemoved = (flags & REMOVED_FLAG) != 0;
 					boolean wasToggled = (flags & TOGGLE_EXPLICIT_FLAG) != 0;
 
+					if (updateStatistics && wasAdded != wasRemoved) {
+						if (wasAdded) {
+							statistics.tripleAdded(data);
+						} else {
+							statistics.tripleRemoved(data);
+						}
+					}
+
 					if (wasRemoved) {
 						btree.remove(data);
 					} else if (wasAdded || wasToggled) {
@@ -1082,6 +1532,56 @@ class TripleStore implements Closeable {
 		}
 	}
 
+	/*------------------------------------*
+	 * Inner class DistinctRecordIterator *
+	 *------------------------------------*/
+
+	/**
+	 * Merges consecutive records that represent the same triple, combining their flags.
+	 */
+	private static class DistinctRecordIterator implements RecordIterator {
+
+		private final RecordIterator sortedRecords;
+
+		private final RecordComparator comparator;
+
+		private byte[] nextRecord;
+
+		public DistinctRecordIterator(RecordIterator sortedRecords, RecordComparator comparator) {
+			this.sortedRecords = sortedRecords;
+			this.comparator = comparator;
+		}
+
+		@Override
+		public byte[] next() throws IOException {
+			byte[] record = nextRecord != null ? nextRecord : sortedRecords.next();
+			nextRecord = null;
+
+			if (record != null) {
+				byte[] candidate;
+				while ((candidate = sortedRecords.next()) != null) {
+					if (comparator.compareBTreeValues(record, candidate, 0, RECORD_LENGTH) != 0) {
+						nextRecord = candidate;
+						break;
+					}
+					record[FLAG_IDX] |= candidate[FLAG_IDX];
+				}
+			}
+
+			return record;
+		}
+
+		@Override
+		public void set(byte[] value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() throws IOException {
+			sortedRecords.close();
+		}
+	}
+
 	/*-------------------------*
 	 * Inner class TripleIndex *
 	 *-------------------------*/
@@ -1094,7 +1594,8 @@ class TripleStore implements Closeable {
 
 		public TripleIndex(String fieldSeq) throws IOException {
 			tripleComparator = new TripleComparator(fieldSeq);
-			btree = new BTree(dir, getFilenamePrefix(fieldSeq), 2048, RECORD_LENGTH, tripleComparator, forceSync);
+			btree = new BTree(dir, getFilenamePrefix(fieldSeq), 2048, RECORD_LENGTH, tripleComparator, forceSync,
+					memoryMapped);
 		}
 
 		private String getFilenamePrefix(String fieldSeq) {
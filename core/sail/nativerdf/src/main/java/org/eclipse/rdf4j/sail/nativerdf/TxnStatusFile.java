@@ -45,7 +45,13 @@ class TxnStatusFile {
 		/**
 		 * The transaction status is unknown.
 		 */
-		UNKNOWN(TxnStatus.UNKNOWN_BYTE);
+		UNKNOWN(TxnStatus.UNKNOWN_BYTE),
+
+		/**
+		 * The indexes of an empty store are being filled by a bulk load. An interrupted bulk load is undone by clearing
+		 * the indexes.
+		 */
+		BULK_LOADING(TxnStatus.BULK_LOADING_BYTE);
 
 		private final byte[] onDisk;
 
@@ -65,6 +71,7 @@ class TxnStatusFile {
 		private static final byte COMMITTING_BYTE = (byte) 0b00000100;
 		private static final byte ROLLING_BACK_BYTE = (byte) 0b00001000;
 		private static final byte UNKNOWN_BYTE = (byte) 0b00010000;
+		private static final byte BULK_LOADING_BYTE = (byte) 0b00100000;
 
 	}
 
@@ -135,6 +142,9 @@ class TxnStatusFile {
 		case TxnStatus.UNKNOWN_BYTE:
 			status = TxnStatus.UNKNOWN;
 			break;
+		case TxnStatus.BULK_LOADING_BYTE:
+			status = TxnStatus.BULK_LOADING;
+			break;
 		default:
 			status = getTxnStatusDeprecated();
 		}
@@ -29,6 +29,8 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.nativerdf.datastore.DataStore;
+import org.eclipse.rdf4j.sail.nativerdf.datastore.LZF;
+import org.eclipse.rdf4j.sail.nativerdf.datastore.VarInt;
 import org.eclipse.rdf4j.sail.nativerdf.model.NativeBNode;
 import org.eclipse.rdf4j.sail.nativerdf.model.NativeIRI;
 import org.eclipse.rdf4j.sail.nativerdf.model.NativeLiteral;
@@ -73,11 +75,51 @@ public class ValueStore extends AbstractValueFactory {
 
 	private static final String FILENAME_PREFIX = "values";
 
-	private static final byte URI_VALUE = 0x1; // 0000 0001
+	static final byte URI_VALUE = 0x1; // 0000 0001
 
-	private static final byte BNODE_VALUE = 0x2; // 0000 0010
+	static final byte BNODE_VALUE = 0x2; // 0000 0010
 
-	private static final byte LITERAL_VALUE = 0x3; // 0000 0011
+	static final byte LITERAL_VALUE = 0x3; // 0000 0011
+
+	/**
+	 * Marks a language tag entry in the compact value encoding.
+	 */
+	static final byte LANGUAGE_TAG_VALUE = 0x4; // 0000 0100
+
+	/**
+	 * Compact literal flag indicating that the literal's datatype ID is present.
+	 */
+	private static final byte LITERAL_DATATYPE_FLAG = 0x1;
+
+	/**
+	 * Compact literal flag indicating that the ID of the literal's language tag is present.
+	 */
+	private static final byte LITERAL_LANGUAGE_FLAG = 0x2;
+
+	/**
+	 * Compact literal flag indicating that the literal's label is {@link LZF} compressed.
+	 */
+	private static final byte LITERAL_COMPRESSED_FLAG = 0x4;
+
+	/**
+	 * The minimum length in bytes of a label that is compressed in the compact value encoding.
+	 */
+	private static final int COMPRESSION_THRESHOLD = 256;
+
+	/**
+	 * The language tag cache size.
+	 */
+	private static final int LANGUAGE_CACHE_SIZE = 64;
+
+	/**
+	 * The estimated memory overhead of a cache entry and a value object, excluding the value's strings.
+	 */
+	private static final int CACHED_VALUE_OVERHEAD = 160;
+
+	/**
+	 * The assumed average size of a cached value, used to size the caches' frequency sketches.
+	 */
+	private static final int AVERAGE_CACHED_VALUE_SIZE = 256;
 
 	/*-----------*
 	 * Variables *
@@ -101,25 +143,45 @@ public class ValueStore extends AbstractValueFactory {
 	private volatile ValueStoreRevision revision;
 
 	/**
-	 * A simple cache containing the [VALUE_CACHE_SIZE] most-recently used values stored by their ID.
+	 * A cache containing frequently used values stored by their ID, bounded either by the number of values or by their
+	 * estimated size in bytes.
+	 */
+	private final WeightedCache<Integer, NativeValue> valueCache;
+
+	/**
+	 * A cache containing the IDs of frequently used values stored by their value, bounded either by the number of
+	 * values or by their estimated size in bytes.
+	 */
+	private final WeightedCache<NativeValue, Integer> valueIDCache;
+
+	/**
+	 * A cache containing the [NAMESPACE_CACHE_SIZE] most frequently used namespaces stored by their ID.
+	 */
+	private final WeightedCache<Integer, String> namespaceCache;
+
+	/**
+	 * A cache containing the [NAMESPACE_ID_CACHE_SIZE] most frequently used namespace-IDs stored by their namespace.
 	 */
-	private final ConcurrentCache<Integer, NativeValue> valueCache;
+	private final WeightedCache<String, Integer> namespaceIDCache;
 
 	/**
-	 * A simple cache containing the [ID_CACHE_SIZE] most-recently used value-IDs stored by their value.
+	 * A cache containing the [LANGUAGE_CACHE_SIZE] most frequently used language tags stored by their ID. Only used
+	 * with the compact value encoding.
 	 */
-	private final ConcurrentCache<NativeValue, Integer> valueIDCache;
+	private final WeightedCache<Integer, String> languageCache = new WeightedCache<>(LANGUAGE_CACHE_SIZE);
 
 	/**
-	 * A simple cache containing the [NAMESPACE_CACHE_SIZE] most-recently used namespaces stored by their ID.
+	 * A cache containing the [LANGUAGE_CACHE_SIZE] most frequently used language tag IDs stored by their language tag.
+	 * Only used with the compact value encoding.
 	 */
-	private final ConcurrentCache<Integer, String> namespaceCache;
+	private final WeightedCache<String, Integer> languageIDCache = new WeightedCache<>(LANGUAGE_CACHE_SIZE);
 
 	/**
-	 * A simple cache containing the [NAMESPACE_ID_CACHE_SIZE] most-recently used namespace-IDs stored by their
-	 * namespace.
+	 * Flag indicating whether values are stored in the compact value encoding, which is the case if and only if the
+	 * data store uses the compact file format. The compact encoding stores IDs as variable length integers, refers to
+	 * language tags by ID and compresses long literal labels.
 	 */
-	private final ConcurrentCache<String, Integer> namespaceIDCache;
+	private final boolean compact;
 
 	/*--------------*
 	 * Constructors *
@@ -135,13 +197,55 @@ public class ValueStore extends AbstractValueFactory {
 
 	public ValueStore(File dataDir, boolean forceSync, int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize,
 			int namespaceIDCacheSize) throws IOException {
-		super();
-		dataStore = new DataStore(dataDir, FILENAME_PREFIX, forceSync);
+		this(dataDir, forceSync, valueCacheSize, valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize, -1L);
+	}
 
-		valueCache = new ConcurrentCache<>(valueCacheSize);
-		valueIDCache = new ConcurrentCache<>(valueIDCacheSize);
-		namespaceCache = new ConcurrentCache<>(namespaceCacheSize);
-		namespaceIDCache = new ConcurrentCache<>(namespaceIDCacheSize);
+	/**
+	 * Creates a new ValueStore.
+	 *
+	 * @param valueCacheMemory The maximum estimated size in bytes of the cached values and value IDs, or a negative
+	 *                         number to bound these caches by <tt>valueCacheSize</tt> and <tt>valueIDCacheSize</tt>
+	 *                         instead. The memory is shared by the value cache and the value ID cache in a ratio of
+	 *                         4:1.
+	 */
+	public ValueStore(File dataDir, boolean forceSync, int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize,
+			int namespaceIDCacheSize, long valueCacheMemory) throws IOException {
+		this(dataDir, forceSync, valueCacheSize, valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize,
+				valueCacheMemory, false);
+	}
+
+	/**
+	 * Creates a new ValueStore.
+	 *
+	 * @param valueCacheMemory The maximum estimated size in bytes of the cached values and value IDs, or a negative
+	 *                         number to bound these caches by <tt>valueCacheSize</tt> and <tt>valueIDCacheSize</tt>
+	 *                         instead.
+	 * @param compactValues    Whether to store values in the compact value encoding. Existing value stores that use the
+	 *                         original encoding are converted when this is <tt>true</tt>. Value stores that already use
+	 *                         the compact encoding keep using it regardless of this setting.
+	 */
+	public ValueStore(File dataDir, boolean forceSync, int valueCacheSize, int valueIDCacheSize, int namespaceCacheSize,
+			int namespaceIDCacheSize, long valueCacheMemory, boolean compactValues) throws IOException {
+		super();
+		if (compactValues) {
+			CompactValueConverter.convert(dataDir, FILENAME_PREFIX, forceSync);
+		}
+		dataStore = new DataStore(dataDir, FILENAME_PREFIX, forceSync, compactValues);
+		compact = dataStore.isCompact();
+
+		if (valueCacheMemory >= 0) {
+			long valueMemory = valueCacheMemory / 5 * 4;
+			long valueIDMemory = valueCacheMemory - valueMemory;
+			valueCache = new WeightedCache<>(valueMemory, valueMemory / AVERAGE_CACHED_VALUE_SIZE,
+					(id, value) -> estimateSize(value));
+			valueIDCache = new WeightedCache<>(valueIDMemory, valueIDMemory / AVERAGE_CACHED_VALUE_SIZE,
+					(value, id) -> estimateSize(value));
+		} else {
+			valueCache = new WeightedCache<>(valueCacheSize);
+			valueIDCache = new WeightedCache<>(valueIDCacheSize);
+		}
+		namespaceCache = new WeightedCache<>(namespaceCacheSize);
+		namespaceIDCache = new WeightedCache<>(namespaceIDCacheSize);
 
 		setNewRevision();
 	}
@@ -337,6 +441,8 @@ public class ValueStore extends AbstractValueFactory {
 				valueIDCache.clear();
 				namespaceCache.clear();
 				namespaceIDCache.clear();
+				languageCache.clear();
+				languageIDCache.clear();
 
 				initBNodeParams();
 
@@ -349,6 +455,56 @@ public class ValueStore extends AbstractValueFactory {
 		}
 	}
 
+	/**
+	 * Checks whether values are stored in the compact value encoding.
+	 */
+	public boolean isCompact() {
+		return compact;
+	}
+
+	/**
+	 * Returns the usage statistics of the cache of values by their ID.
+	 */
+	public CacheStatistics getValueCacheStatistics() {
+		return valueCache.getStatistics();
+	}
+
+	/**
+	 * Returns the usage statistics of the cache of value IDs by their value.
+	 */
+	public CacheStatistics getValueIDCacheStatistics() {
+		return valueIDCache.getStatistics();
+	}
+
+	/**
+	 * Returns the usage statistics of the cache of namespaces by their ID.
+	 */
+	public CacheStatistics getNamespaceCacheStatistics() {
+		return namespaceCache.getStatistics();
+	}
+
+	/**
+	 * Returns the usage statistics of the cache of namespace IDs by their namespace.
+	 */
+	public CacheStatistics getNamespaceIDCacheStatistics() {
+		return namespaceIDCache.getStatistics();
+	}
+
+	/**
+	 * Estimates the memory used by a cached value in bytes.
+	 */
+	static int estimateSize(Value value) {
+		int chars;
+		if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			chars = literal.getLabel().length() + literal.getDatatype().stringValue().length()
+					+ literal.getLanguage().map(String::length).orElse(0);
+		} else {
+			chars = value.stringValue().length();
+		}
+		return CACHED_VALUE_OVERHEAD + 2 * chars;
+	}
+
 	/**
 	 * Synchronizes any changes that are cached in memory to disk.
 	 *
@@ -388,6 +544,12 @@ public class ValueStore extends AbstractValueFactory {
 				}
 				throw new SailException(
 						"Store must be manually exported and imported to fix namespaces like " + namespace);
+			} else if (isLanguageTagData(data)) {
+				String languageTag = data2languageTag(data);
+				if (id != getLanguageID(languageTag, false)) {
+					throw new SailException(
+							"Store must be manually exported and imported to merge language tags like " + languageTag);
+				}
 			} else {
 				Value value = this.data2value(id, data);
 				if (id != this.getID(copy(value))) {
@@ -450,6 +612,10 @@ public class ValueStore extends AbstractValueFactory {
 		// Get local name in UTF-8
 		byte[] localNameData = uri.getLocalName().getBytes(StandardCharsets.UTF_8);
 
+		if (compact) {
+			return compactURIData(nsID, localNameData);
+		}
+
 		// Combine parts in a single byte array
 		byte[] uriData = new byte[5 + localNameData.length];
 		uriData[0] = URI_VALUE;
@@ -497,6 +663,20 @@ public class ValueStore extends AbstractValueFactory {
 			}
 		}
 
+		if (compact) {
+			int languageID = NativeValue.UNKNOWN_ID;
+			if (lang.isPresent()) {
+				languageID = getLanguageID(lang.get(), create);
+
+				if (languageID == NativeValue.UNKNOWN_ID) {
+					// Unknown language tag means unknown literal
+					return null;
+				}
+			}
+
+			return compactLiteralData(datatypeID, languageID, label.getBytes(StandardCharsets.UTF_8));
+		}
+
 		// Get language tag in UTF-8
 		byte[] langData = null;
 		int langDataLength = 0;
@@ -521,8 +701,87 @@ public class ValueStore extends AbstractValueFactory {
 		return literalData;
 	}
 
+	/**
+	 * Encodes an IRI in the compact value encoding: the namespace ID as a variable length integer, followed by the
+	 * local name.
+	 */
+	static byte[] compactURIData(int namespaceID, byte[] localNameData) {
+		byte[] uriData = new byte[1 + VarInt.length(namespaceID) + localNameData.length];
+		uriData[0] = URI_VALUE;
+		int offset = VarInt.write(namespaceID, uriData, 1);
+		ByteArrayUtil.put(localNameData, uriData, offset);
+		return uriData;
+	}
+
+	/**
+	 * Encodes a literal in the compact value encoding: a flags byte, the datatype ID and the language tag ID as
+	 * variable length integers if present, followed by the label. Labels of at least {@link #COMPRESSION_THRESHOLD}
+	 * bytes are compressed if that makes them smaller, in which case the compressed label is preceded by its
+	 * uncompressed length.
+	 *
+	 * @param datatypeID The ID of the datatype, or {@link NativeValue#UNKNOWN_ID} if the literal is stored without a
+	 *                   datatype.
+	 * @param languageID The ID of the language tag, or {@link NativeValue#UNKNOWN_ID} if the literal has no language
+	 *                   tag.
+	 */
+	static byte[] compactLiteralData(int datatypeID, int languageID, byte[] labelData) {
+		byte flags = 0;
+		int length = 2;
+		if (datatypeID != NativeValue.UNKNOWN_ID) {
+			flags |= LITERAL_DATATYPE_FLAG;
+			length += VarInt.length(datatypeID);
+		}
+		if (languageID != NativeValue.UNKNOWN_ID) {
+			flags |= LITERAL_LANGUAGE_FLAG;
+			length += VarInt.length(languageID);
+		}
+
+		byte[] payload = labelData;
+		if (labelData.length >= COMPRESSION_THRESHOLD) {
+			byte[] compressed = LZF.compress(labelData);
+			if (compressed.length + VarInt.length(labelData.length) < labelData.length) {
+				flags |= LITERAL_COMPRESSED_FLAG;
+				payload = compressed;
+				length += VarInt.length(labelData.length);
+			}
+		}
+
+		byte[] literalData = new byte[length + payload.length];
+		literalData[0] = LITERAL_VALUE;
+		literalData[1] = flags;
+		int offset = 2;
+		if ((flags & LITERAL_DATATYPE_FLAG) != 0) {
+			offset = VarInt.write(datatypeID, literalData, offset);
+		}
+		if ((flags & LITERAL_LANGUAGE_FLAG) != 0) {
+			offset = VarInt.write(languageID, literalData, offset);
+		}
+		if ((flags & LITERAL_COMPRESSED_FLAG) != 0) {
+			offset = VarInt.write(labelData.length, literalData, offset);
+		}
+		ByteArrayUtil.put(payload, literalData, offset);
+
+		return literalData;
+	}
+
+	/**
+	 * Encodes a language tag entry of the compact value encoding.
+	 */
+	static byte[] languageTagData(String languageTag) {
+		byte[] tagData = languageTag.getBytes(StandardCharsets.UTF_8);
+		byte[] data = new byte[1 + tagData.length];
+		data[0] = LANGUAGE_TAG_VALUE;
+		ByteArrayUtil.put(tagData, data, 1);
+		return data;
+	}
+
 	private boolean isNamespaceData(byte[] data) {
-		return data[0] != URI_VALUE && data[0] != BNODE_VALUE && data[0] != LITERAL_VALUE;
+		return data[0] != URI_VALUE && data[0] != BNODE_VALUE && data[0] != LITERAL_VALUE
+				&& data[0] != LANGUAGE_TAG_VALUE;
+	}
+
+	private boolean isLanguageTagData(byte[] data) {
+		return data[0] == LANGUAGE_TAG_VALUE;
 	}
 
 	private NativeValue data2value(int id, byte[] data) throws IOException {
@@ -533,16 +792,27 @@ public class ValueStore extends AbstractValueFactory {
 			return data2bnode(id, data);
 		case LITERAL_VALUE:
 			return data2literal(id, data);
+		case LANGUAGE_TAG_VALUE:
+			throw new IllegalArgumentException(
+					"Language tags cannot be converted into values: " + data2languageTag(data));
 		default:
 			throw new IllegalArgumentException("Namespaces cannot be converted into values: " + data2namespace(data));
 		}
 	}
 
 	private NativeIRI data2uri(int id, byte[] data) throws IOException {
-		int nsID = ByteArrayUtil.getInt(data, 1);
+		int nsID;
+		int localNameOffset;
+		if (compact) {
+			nsID = VarInt.read(data, 1);
+			localNameOffset = 1 + VarInt.length(nsID);
+		} else {
+			nsID = ByteArrayUtil.getInt(data, 1);
+			localNameOffset = 5;
+		}
 		String namespace = getNamespace(nsID);
 
-		String localName = new String(data, 5, data.length - 5, StandardCharsets.UTF_8);
+		String localName = new String(data, localNameOffset, data.length - localNameOffset, StandardCharsets.UTF_8);
 
 		return new NativeIRI(revision, namespace, localName, id);
 	}
@@ -553,23 +823,53 @@ public class ValueStore extends AbstractValueFactory {
 	}
 
 	private NativeLiteral data2literal(int id, byte[] data) throws IOException {
+		int datatypeID;
+		String lang = null;
+		String label;
+
+		if (compact) {
+			byte flags = data[1];
+			int offset = 2;
+
+			datatypeID = NativeValue.UNKNOWN_ID;
+			if ((flags & LITERAL_DATATYPE_FLAG) != 0) {
+				datatypeID = VarInt.read(data, offset);
+				offset += VarInt.length(datatypeID);
+			}
+
+			if ((flags & LITERAL_LANGUAGE_FLAG) != 0) {
+				int languageID = VarInt.read(data, offset);
+				offset += VarInt.length(languageID);
+				lang = getLanguageTag(languageID);
+			}
+
+			if ((flags & LITERAL_COMPRESSED_FLAG) != 0) {
+				int labelLength = VarInt.read(data, offset);
+				offset += VarInt.length(labelLength);
+				byte[] labelData = LZF.decompress(data, offset, data.length - offset, labelLength);
+				label = new String(labelData, StandardCharsets.UTF_8);
+			} else {
+				label = new String(data, offset, data.length - offset, StandardCharsets.UTF_8);
+			}
+		} else {
+			datatypeID = ByteArrayUtil.getInt(data, 1);
+
+			// Get language tag
+			int langLength = data[5];
+			if (langLength > 0) {
+				lang = new String(data, 6, langLength, StandardCharsets.UTF_8);
+			}
+
+			// Get label
+			label = new String(data, 6 + langLength, data.length - 6 - langLength, StandardCharsets.UTF_8);
+		}
+
 		// Get datatype
-		int datatypeID = ByteArrayUtil.getInt(data, 1);
 		IRI datatype = null;
 		if (datatypeID != NativeValue.UNKNOWN_ID) {
 			datatype = (IRI) getValue(datatypeID);
 		}
 
-		// Get language tag
-		String lang = null;
-		int langLength = data[5];
-		if (langLength > 0) {
-			lang = new String(data, 6, langLength, StandardCharsets.UTF_8);
-		}
-
-		// Get label
-		String label = new String(data, 6 + langLength, data.length - 6 - langLength, StandardCharsets.UTF_8);
-
 		if (lang != null) {
 			return new NativeLiteral(revision, label, lang, id);
 		} else if (datatype != null) {
@@ -605,6 +905,46 @@ public class ValueStore extends AbstractValueFactory {
 		return id;
 	}
 
+	private String data2languageTag(byte[] data) {
+		return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+	}
+
+	private int getLanguageID(String languageTag, boolean create) throws IOException {
+		Integer cacheID = languageIDCache.get(languageTag);
+		if (cacheID != null) {
+			return cacheID;
+		}
+
+		byte[] languageTagData = languageTagData(languageTag);
+
+		int id;
+		if (create) {
+			id = dataStore.storeData(languageTagData);
+		} else {
+			id = dataStore.getID(languageTagData);
+		}
+
+		if (id != -1) {
+			languageIDCache.put(languageTag, id);
+		}
+
+		return id;
+	}
+
+	private String getLanguageTag(int id) throws IOException {
+		Integer cacheID = id;
+		String languageTag = languageCache.get(cacheID);
+
+		if (languageTag == null) {
+			byte[] languageTagData = dataStore.getData(id);
+			languageTag = data2languageTag(languageTagData);
+
+			languageCache.put(cacheID, languageTag);
+		}
+
+		return languageTag;
+	}
+
 	private String getNamespace(int id) throws IOException {
 		Integer cacheID = id;
 		String namespace = namespaceCache.get(cacheID);
@@ -739,6 +1079,9 @@ public class ValueStore extends AbstractValueFactory {
 			if (valueStore.isNamespaceData(data)) {
 				String ns = valueStore.data2namespace(data);
 				System.out.println("[" + id + "] " + ns);
+			} else if (valueStore.isLanguageTagData(data)) {
+				String languageTag = valueStore.data2languageTag(data);
+				System.out.println("[" + id + "] @" + languageTag);
 			} else {
 				Value value = valueStore.data2value(id, data);
 				System.out.println("[" + id + "] " + value.toString());
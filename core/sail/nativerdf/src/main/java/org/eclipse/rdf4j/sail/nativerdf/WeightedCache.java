@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Concurrent cache that is bounded by the total weight of its entries, for example their estimated size in bytes.
+ * Entries are evicted using the W-TinyLFU policy: new entries are first kept in a small LRU window. When they are
+ * pushed out of that window, they only replace an entry of the main region if they have been requested more often
+ * recently than that entry, as estimated by a {@link FrequencySketch}. This keeps frequently used values cached even
+ * when large numbers of values are only requested once, for example by a scan over a large part of the store. The main
+ * region is split into a probation and a protected segment: entries that are hit while on probation are promoted to the
+ * protected segment.
+ * <p>
+ * Lookups are served from a {@link ConcurrentHashMap} and do not block. Recording the access for the eviction policy
+ * requires a lock; if that lock is held by another thread the access is simply not recorded, which only makes the
+ * policy slightly less accurate.
+ */
+class WeightedCache<K, V> {
+
+	/**
+	 * The share of the maximum weight that is used for the LRU window.
+	 */
+	private static final double WINDOW_SHARE = 0.01;
+
+	/**
+	 * The share of the main region that is used for the protected segment.
+	 */
+	private static final double PROTECTED_SHARE = 0.8;
+
+	private final ConcurrentHashMap<K, Entry<K, V>> map;
+
+	private final ToIntBiFunction<K, V> weigher;
+
+	private final long maximumWeight;
+
+	private final long windowMaximum;
+
+	private final long protectedMaximum;
+
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	private final FrequencySketch sketch;
+
+	private final AccessOrder<K, V> window = new AccessOrder<>();
+
+	private final AccessOrder<K, V> probation = new AccessOrder<>();
+
+	private final AccessOrder<K, V> protectedSegment = new AccessOrder<>();
+
+	private long windowWeight;
+
+	private long protectedWeight;
+
+	private long totalWeight;
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private long evictionCount;
+
+	private long rejectionCount;
+
+	/**
+	 * Creates a cache that holds at most <tt>capacity</tt> entries.
+	 */
+	WeightedCache(int capacity) {
+		this(capacity, capacity, (key, value) -> 1);
+	}
+
+	/**
+	 * Creates a cache that is bounded by the total weight of its entries.
+	 *
+	 * @param maximumWeight The maximum total weight of the cached entries.
+	 * @param expectedSize  The expected number of entries that the cache holds when it is full.
+	 * @param weigher       Determines the weight of an entry, must be positive.
+	 */
+	WeightedCache(long maximumWeight, long expectedSize, ToIntBiFunction<K, V> weigher) {
+		this.maximumWeight = Math.max(0, maximumWeight);
+		this.windowMaximum = (long) (this.maximumWeight * WINDOW_SHARE);
+		this.protectedMaximum = (long) ((this.maximumWeight - windowMaximum) * PROTECTED_SHARE);
+		this.weigher = weigher;
+		int initialCapacity = (int) Math.min(expectedSize, 1 << 16);
+		this.map = new ConcurrentHashMap<>(Math.max(16, initialCapacity));
+		this.sketch = new FrequencySketch(expectedSize);
+	}
+
+	public V get(Object key) {
+		Entry<K, V> entry = map.get(key);
+
+		if (entry == null) {
+			missCount.increment();
+		} else {
+			hitCount.increment();
+		}
+
+		if (evictionLock.tryLock()) {
+			try {
+				sketch.increment(key.hashCode());
+				if (entry != null && entry.segment != null) {
+					onHit(entry);
+				}
+			} finally {
+				evictionLock.unlock();
+			}
+		}
+
+		return entry == null ? null : entry.value;
+	}
+
+	public void put(K key, V value) {
+		int weight = weigher.applyAsInt(key, value);
+
+		evictionLock.lock();
+		try {
+			Entry<K, V> entry = map.get(key);
+
+			if (entry != null) {
+				// replace the value of the existing entry
+				entry.value = value;
+				adjustWeight(entry, weight - entry.weight);
+				entry.weight = weight;
+				onHit(entry);
+			} else if (weight > maximumWeight) {
+				rejectionCount++;
+				return;
+			} else {
+				entry = new Entry<>(key, value, weight);
+				map.put(key, entry);
+				window.addLast(entry);
+				entry.segment = window;
+				windowWeight += weight;
+				totalWeight += weight;
+			}
+
+			evict();
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	public void clear() {
+		evictionLock.lock();
+		try {
+			map.clear();
+			window.clear();
+			probation.clear();
+			protectedSegment.clear();
+			windowWeight = 0;
+			protectedWeight = 0;
+			totalWeight = 0;
+			sketch.clear();
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	public int size() {
+		return map.size();
+	}
+
+	public CacheStatistics getStatistics() {
+		evictionLock.lock();
+		try {
+			return new CacheStatistics(hitCount.sum(), missCount.sum(), evictionCount, rejectionCount, map.size(),
+					totalWeight, maximumWeight);
+		} finally {
+			evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * Moves an entry that has been accessed to the most-recently used position of its segment, promoting it to the
+	 * protected segment if it was on probation.
+	 */
+	private void onHit(Entry<K, V> entry) {
+		if (entry.segment == probation) {
+			probation.remove(entry);
+			protectedSegment.addLast(entry);
+			entry.segment = protectedSegment;
+			protectedWeight += entry.weight;
+
+			// demote the least-recently used protected entries
+			while (protectedWeight > protectedMaximum && protectedSegment.first != null) {
+				Entry<K, V> demoted = protectedSegment.first;
+				protectedSegment.remove(demoted);
+				protectedWeight -= demoted.weight;
+				probation.addLast(demoted);
+				demoted.segment = probation;
+			}
+		} else {
+			entry.segment.moveToLast(entry);
+		}
+	}
+
+	private void adjustWeight(Entry<K, V> entry, int delta) {
+		if (entry.segment == window) {
+			windowWeight += delta;
+		} else if (entry.segment == protectedSegment) {
+			protectedWeight += delta;
+		}
+		totalWeight += delta;
+	}
+
+	/**
+	 * Moves entries that overflow the window to the main region and evicts entries until the maximum weight is
+	 * respected, letting the candidates from the window compete with the least-recently used entries on probation.
+	 */
+	private void evict() {
+		Entry<K, V> candidate = null;
+		while (windowWeight > windowMaximum && window.first != null) {
+			Entry<K, V> entry = window.first;
+			window.remove(entry);
+			windowWeight -= entry.weight;
+			probation.addLast(entry);
+			entry.segment = probation;
+			if (candidate == null) {
+				candidate = entry;
+			}
+		}
+
+		while (totalWeight > maximumWeight) {
+			Entry<K, V> victim = probation.first;
+			if (victim == null) {
+				victim = protectedSegment.first != null ? protectedSegment.first : window.first;
+			}
+
+			if (candidate == null || victim == candidate) {
+				if (victim == candidate) {
+					candidate = candidate.next;
+				}
+				evictionCount++;
+				remove(victim);
+			} else if (sketch.frequency(candidate.key.hashCode()) > sketch.frequency(victim.key.hashCode())) {
+				evictionCount++;
+				remove(victim);
+			} else {
+				Entry<K, V> rejected = candidate;
+				candidate = candidate.next;
+				rejectionCount++;
+				remove(rejected);
+			}
+		}
+	}
+
+	private void remove(Entry<K, V> entry) {
+		if (entry.segment == window) {
+			windowWeight -= entry.weight;
+		} else if (entry.segment == protectedSegment) {
+			protectedWeight -= entry.weight;
+		}
+		totalWeight -= entry.weight;
+		entry.segment.remove(entry);
+		entry.segment = null;
+		map.remove(entry.key, entry);
+	}
+
+	private static class Entry<K, V> {
+
+		final K key;
+
+		volatile V value;
+
+		int weight;
+
+		/**
+		 * The segment that this entry is in, or <tt>null</tt> if it has been removed from the cache.
+		 */
+		AccessOrder<K, V> segment;
+
+		Entry<K, V> prev;
+
+		Entry<K, V> next;
+
+		Entry(K key, V value, int weight) {
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * A doubly linked list of entries, ordered from least to most recently used.
+	 */
+	private static class AccessOrder<K, V> {
+
+		Entry<K, V> first;
+
+		Entry<K, V> last;
+
+		void addLast(Entry<K, V> entry) {
+			entry.prev = last;
+			entry.next = null;
+			if (last == null) {
+				first = entry;
+			} else {
+				last.next = entry;
+			}
+			last = entry;
+		}
+
+		void remove(Entry<K, V> entry) {
+			if (entry.prev == null) {
+				first = entry.next;
+			} else {
+				entry.prev.next = entry.next;
+			}
+			if (entry.next == null) {
+				last = entry.prev;
+			} else {
+				entry.next.prev = entry.prev;
+			}
+			entry.prev = null;
+			entry.next = null;
+		}
+
+		void moveToLast(Entry<K, V> entry) {
+			if (entry != last) {
+				remove(entry);
+				addLast(entry);
+			}
+		}
+
+		void clear() {
+			first = null;
+			last = null;
+		}
+	}
+}
@@ -75,6 +75,12 @@ public class BTree implements Closeable {
 	 */
 	final NioFile nioFile;
 
+	/**
+	 * Memory mapped view on {@link #nioFile} that is used to read nodes, or <tt>null</tt> if nodes are read through the
+	 * file channel.
+	 */
+	final MappedNodeReader mappedReader;
+
 	/**
 	 * Flag indicating whether file writes should be forced to disk using {@link FileChannel#force(boolean)}.
 	 */
@@ -238,6 +244,29 @@ public class BTree implements Closeable {
 	 */
 	public BTree(File dataDir, String filenamePrefix, int blockSize, int valueSize, RecordComparator comparator,
 			boolean forceSync) throws IOException {
+		this(dataDir, filenamePrefix, blockSize, valueSize, comparator, forceSync, false);
+	}
+
+	/**
+	 * Creates a new BTree that uses the supplied <tt>RecordComparator</tt> to compare the values that are or will be
+	 * stored in the B-Tree.
+	 *
+	 * @param dataDir        The directory for the BTree data.
+	 * @param filenamePrefix The prefix for all files used by this BTree.
+	 * @param blockSize      The size (in bytes) of a file block for a single node. Ideally, the size specified is the
+	 *                       size of a block in the used file system.
+	 * @param valueSize      The size (in bytes) of the fixed-length values that are or will be stored in the B-Tree.
+	 * @param comparator     The <tt>RecordComparator</tt> to use for determining whether one value is smaller, larger
+	 *                       or equal to another.
+	 * @param forceSync      Flag indicating whether updates should be synced to disk forcefully by calling
+	 *                       {@link FileChannel#force(boolean)}. This may have a severe impact on write performance.
+	 * @param memoryMapped   Flag indicating whether nodes should be read from a memory mapping of the B-Tree file
+	 *                       instead of through the file channel. This avoids a system call for every node that is not
+	 *                       in the node cache. Ignored if the JVM does not allow to unmap files.
+	 * @throws IOException In case the initialization of the B-Tree file failed.
+	 */
+	public BTree(File dataDir, String filenamePrefix, int blockSize, int valueSize, RecordComparator comparator,
+			boolean forceSync, boolean memoryMapped) throws IOException {
 		if (dataDir == null) {
 			throw new IllegalArgumentException("dataDir must not be null");
 		}
@@ -259,6 +288,10 @@ public class BTree implements Closeable {
 
 		File file = new File(dataDir, filenamePrefix + ".dat");
 		this.nioFile = new NioFile(file);
+		if (memoryMapped && !MappedNodeReader.isSupported()) {
+			logger.warn("Memory mapping of {} is disabled, as this JVM cannot unmap files", file);
+		}
+		this.mappedReader = memoryMapped && MappedNodeReader.isSupported() ? new MappedNodeReader(nioFile) : null;
 		this.comparator = comparator;
 		this.forceSync = forceSync;
 
@@ -334,6 +367,13 @@ public class BTree implements Closeable {
 	 * Methods *
 	 *---------*/
 
+	/**
+	 * Checks whether the nodes of this BTree are read from a memory mapping of its file.
+	 */
+	public boolean isMemoryMapped() {
+		return mappedReader != null;
+	}
+
 	/**
 	 * Gets the file that this BTree operates on.
 	 */
@@ -386,6 +426,9 @@ public class BTree implements Closeable {
 					nodeCache.clear();
 				} finally {
 					try {
+						if (mappedReader != null) {
+							mappedReader.invalidate();
+						}
 						nioFile.close();
 					} finally {
 						allocatedNodesList.close(syncChanges);
@@ -975,6 +1018,56 @@ public class BTree implements Closeable {
 		}
 	}
 
+	/**
+	 * Checks whether this B-Tree contains any values.
+	 */
+	public boolean isEmpty() {
+		return rootNodeID == 0;
+	}
+
+	/**
+	 * Fills this empty B-Tree bottom-up with the values from the supplied iterator, which must return its values in
+	 * strictly ascending order according to this B-Tree's {@link RecordComparator}. This is considerably faster than
+	 * inserting the values one by one, as the nodes are written sequentially and each node is written only once. The
+	 * resulting nodes are almost completely filled, which makes the B-Tree file smaller than one that is created
+	 * through individual inserts.
+	 *
+	 * @param sortedValues The values to add to this B-Tree, in ascending order.
+	 * @return The number of values that has been added.
+	 * @throws IllegalStateException    If this B-Tree is not empty.
+	 * @throws IllegalArgumentException If the supplied values are not in strictly ascending order.
+	 * @throws IOException              If an I/O error occurred.
+	 */
+	public long build(RecordIterator sortedValues) throws IOException {
+		btreeLock.writeLock().lock();
+		try {
+			if (rootNodeID != 0) {
+				throw new IllegalStateException("B-Tree must be empty to be built from sorted values: " + getFile());
+			}
+
+			BTreeBuilder builder = new BTreeBuilder(this, allocatedNodesList);
+			try {
+				for (byte[] value = sortedValues.next(); value != null; value = sortedValues.next()) {
+					builder.add(value);
+				}
+				rootNodeID = builder.finish();
+				height = builder.getHeight();
+			} catch (IOException | RuntimeException e) {
+				// discard whatever has been written so far
+				rootNodeID = 0;
+				clear();
+				throw e;
+			}
+
+			writeFileHeader();
+			sync();
+
+			return builder.getValueCount();
+		} finally {
+			btreeLock.writeLock().unlock();
+		}
+	}
+
 	/**
 	 * Removes all values from the B-Tree.
 	 *
@@ -984,6 +1077,10 @@ public class BTree implements Closeable {
 		btreeLock.writeLock().lock();
 		try {
 			nodeCache.clear();
+			if (mappedReader != null) {
+				// the file cannot be truncated while it is mapped on some platforms
+				mappedReader.invalidate();
+			}
 			nioFile.truncate(HEADER_LENGTH);
 
 			if (rootNodeID != 0) {
@@ -1033,8 +1130,9 @@ public class BTree implements Closeable {
 				allocatedNodesList.freeNode(node.getID());
 
 				int maxNodeID = allocatedNodesList.getMaxNodeID();
-				if (node.getID() > maxNodeID) {
-					// Shrink file
+				if (node.getID() > maxNodeID && mappedReader == null) {
+					// Shrink file. A memory mapped file keeps its size, as this can be called while other threads
+					// are reading from the mapping; the space is reused when new nodes are allocated.
 					nioFile.truncate(nodeID2offset(maxNodeID) + nodeSize);
 				}
 			}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.btree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a B-Tree bottom-up from values that are supplied in ascending order. Nodes are filled left to right and
+ * written to the file as soon as they are complete, so that the file is written (almost) sequentially and only one node
+ * per tree level is kept in memory.
+ * <p>
+ * Every node is filled up to one value less than its maximum capacity. This leaves room for the final separator value
+ * of each level and lets later inserts into a node succeed without an immediate split. The right-most node of each
+ * level may contain fewer than the minimum number of values, which the B-Tree's insert and remove operations handle
+ * gracefully.
+ */
+class BTreeBuilder {
+
+	private final BTree tree;
+
+	private final AllocatedNodesList allocatedNodesList;
+
+	/**
+	 * The number of values that a node is filled with before a new node is started.
+	 */
+	private final int fillCount;
+
+	/**
+	 * The node that is currently being filled for each level, level 0 being the leaf level.
+	 */
+	private final List<Level> levels = new ArrayList<>();
+
+	private byte[] lastValue;
+
+	private long valueCount;
+
+	BTreeBuilder(BTree tree, AllocatedNodesList allocatedNodesList) {
+		this.tree = tree;
+		this.allocatedNodesList = allocatedNodesList;
+		this.fillCount = tree.branchFactor - 2;
+	}
+
+	/**
+	 * Adds the next value to the tree.
+	 *
+	 * @throws IllegalArgumentException If the value is not larger than the previously added value.
+	 */
+	void add(byte[] value) throws IOException {
+		if (lastValue != null && tree.comparator.compareBTreeValues(lastValue, value, 0, value.length) >= 0) {
+			throw new IllegalArgumentException("values must be supplied in strictly ascending order");
+		}
+		lastValue = value;
+		valueCount++;
+
+		Level leafLevel = getLevel(0);
+
+		if (leafLevel.pendingValue != null) {
+			// the current leaf is full, the pending value becomes the separator between the full leaf and a new one
+			byte[] separator = leafLevel.pendingValue;
+			leafLevel.pendingValue = null;
+
+			int leafID = leafLevel.close(true);
+			addChild(1, leafID, separator);
+		}
+
+		if (leafLevel.node.getValueCount() < fillCount) {
+			leafLevel.node.insertValueNodeIDPair(leafLevel.node.getValueCount(), value, 0);
+		} else {
+			leafLevel.pendingValue = value;
+		}
+	}
+
+	/**
+	 * Writes all remaining nodes to disk.
+	 *
+	 * @return The ID of the root node, or <tt>0</tt> if no values were added.
+	 */
+	int finish() throws IOException {
+		if (levels.isEmpty()) {
+			return 0;
+		}
+
+		Level leafLevel = levels.get(0);
+		if (leafLevel.pendingValue != null) {
+			// there is still room for a single value in the current leaf
+			leafLevel.node.insertValueNodeIDPair(leafLevel.node.getValueCount(), leafLevel.pendingValue, 0);
+			leafLevel.pendingValue = null;
+		}
+
+		int childID = leafLevel.close(false);
+
+		for (int i = 1; i < levels.size(); i++) {
+			Level level = levels.get(i);
+			Node node = level.node;
+
+			if (level.pendingValue != null) {
+				node.setChildNodeID(node.getValueCount(), level.pendingChildID);
+				node.insertValueNodeIDPair(node.getValueCount(), level.pendingValue, childID);
+				level.pendingValue = null;
+			} else {
+				node.setChildNodeID(node.getValueCount(), childID);
+			}
+
+			childID = level.close(false);
+		}
+
+		return childID;
+	}
+
+	long getValueCount() {
+		return valueCount;
+	}
+
+	int getHeight() {
+		return levels.size();
+	}
+
+	/**
+	 * Appends a child node and the separator value to its right to the inner node at the specified level.
+	 */
+	private void addChild(int levelIdx, int childID, byte[] separator) throws IOException {
+		Level level = getLevel(levelIdx);
+		Node node = level.node;
+
+		if (level.pendingValue != null) {
+			// the current node is full: the pending child becomes its last child, the pending value is propagated
+			// upwards as the separator between the full node and a new one
+			node.setChildNodeID(node.getValueCount(), level.pendingChildID);
+			byte[] parentSeparator = level.pendingValue;
+			level.pendingValue = null;
+
+			int nodeID = level.close(true);
+			addChild(levelIdx + 1, nodeID, parentSeparator);
+			node = level.node;
+		}
+
+		if (node.getValueCount() < fillCount) {
+			node.setChildNodeID(node.getValueCount(), childID);
+			node.insertValueNodeIDPair(node.getValueCount(), separator, 0);
+		} else {
+			level.pendingChildID = childID;
+			level.pendingValue = separator;
+		}
+	}
+
+	private Level getLevel(int levelIdx) throws IOException {
+		if (levelIdx == levels.size()) {
+			levels.add(new Level());
+		}
+		return levels.get(levelIdx);
+	}
+
+	private Node createNode() throws IOException {
+		return new Node(allocatedNodesList.allocateNode(), tree);
+	}
+
+	/**
+	 * The state of one level of the tree that is being built.
+	 */
+	private class Level {
+
+		Node node;
+
+		/**
+		 * A value that did not fit in {@link #node} anymore and that has not been placed yet.
+		 */
+		byte[] pendingValue;
+
+		/**
+		 * For inner nodes, the child to the left of {@link #pendingValue}.
+		 */
+		int pendingChildID;
+
+		Level() throws IOException {
+			node = createNode();
+		}
+
+		/**
+		 * Writes the current node of this level to disk and optionally starts a new one.
+		 *
+		 * @return The ID of the written node.
+		 */
+		int close(boolean startNew) throws IOException {
+			Node closedNode = node;
+			closedNode.write();
+			node = startNew ? createNode() : null;
+			return closedNode.getID();
+		}
+	}
+}
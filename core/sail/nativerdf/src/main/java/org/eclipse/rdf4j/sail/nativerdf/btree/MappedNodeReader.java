@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.btree;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.io.NioFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads B-tree nodes from a read-only memory mapping of the B-tree file instead of issuing a read call on the file
+ * channel for every node. The file is mapped in segments of at most {@link #SEGMENT_SIZE} bytes; segments are
+ * (re)mapped lazily when a read reaches beyond the currently mapped region, for example because the file has grown.
+ * <p>
+ * Writes still go through the {@link NioFile}. Both the mapping and the file channel operate on the operating system's
+ * page cache, so nodes that have been written are immediately visible through the mapping.
+ * <p>
+ * Segments are unmapped explicitly when the file is truncated or closed, as a file cannot be truncated or deleted on
+ * some platforms while a region of it is mapped. Reads take no lock of their own: they run under the B-tree's lock, and
+ * segments are only unmapped while the B-tree is write-locked. Memory mapping is only used if the JVM allows unmapping,
+ * see {@link #isSupported()}.
+ */
+class MappedNodeReader {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappedNodeReader.class);
+
+	/**
+	 * The maximum size of a single mapped segment.
+	 */
+	static final int SEGMENT_SIZE = 1 << 30;
+
+	private static final Unmapper UNMAPPER = createUnmapper();
+
+	private final NioFile nioFile;
+
+	private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+	/**
+	 * Segments that have been replaced by a larger mapping of the same region. Readers may still be copying from them,
+	 * so they are only unmapped by {@link #invalidate()}.
+	 */
+	private final List<MappedByteBuffer> replaced = new ArrayList<>();
+
+	public MappedNodeReader(NioFile nioFile) {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException("Unmapping files is not supported by this JVM");
+		}
+		this.nioFile = nioFile;
+	}
+
+	/**
+	 * @return <tt>true</tt> if mapped segments can be unmapped explicitly, which is required to use this reader.
+	 */
+	static boolean isSupported() {
+		return UNMAPPER != null;
+	}
+
+	/**
+	 * Copies <tt>length</tt> bytes starting at <tt>offset</tt> in the file into <tt>dst</tt>. Callers must hold the
+	 * B-tree's read or write lock, which prevents {@link #invalidate()} from unmapping the segments during the copy.
+	 *
+	 * @return <tt>true</tt> if the data has been read, <tt>false</tt> if the requested region lies (partly) outside of
+	 *         the file, in which case the caller should fall back to reading through the file channel.
+	 */
+	public boolean read(byte[] dst, int length, long offset) throws IOException {
+		long end = offset + length;
+		MappedByteBuffer[] mapped = segments;
+		if (end > mappedSize(mapped)) {
+			mapped = remap(end);
+			if (mapped == null) {
+				return false;
+			}
+		}
+
+		int copied = 0;
+		while (copied < length) {
+			long position = offset + copied;
+			ByteBuffer segment = mapped[(int) (position / SEGMENT_SIZE)].duplicate();
+			int segmentOffset = (int) (position % SEGMENT_SIZE);
+			int count = Math.min(length - copied, segment.limit() - segmentOffset);
+
+			segment.position(segmentOffset);
+			segment.get(dst, copied, count);
+			copied += count;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Unmaps all mapped segments. Must be called before the file is truncated or closed, while holding the B-tree's
+	 * write lock so that no reads are in progress.
+	 */
+	public synchronized void invalidate() {
+		MappedByteBuffer[] dropped = segments;
+		segments = new MappedByteBuffer[0];
+		for (MappedByteBuffer segment : dropped) {
+			unmap(segment);
+		}
+		for (MappedByteBuffer segment : replaced) {
+			unmap(segment);
+		}
+		replaced.clear();
+	}
+
+	/**
+	 * Extends the mapping to the current size of the file.
+	 *
+	 * @return segments covering at least <tt>requiredSize</tt> bytes, or <tt>null</tt> if the file is smaller.
+	 */
+	private synchronized MappedByteBuffer[] remap(long requiredSize) throws IOException {
+		MappedByteBuffer[] current = segments;
+		if (requiredSize <= mappedSize(current)) {
+			// another thread already extended the mapping
+			return current;
+		}
+
+		long fileSize = nioFile.size();
+		if (requiredSize > fileSize) {
+			return null;
+		}
+
+		int segmentCount = (int) ((fileSize + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+		MappedByteBuffer[] extended = Arrays.copyOf(current, segmentCount);
+
+		// the last existing segment may be partial, so it is mapped again along with any new segments
+		for (int i = Math.max(0, current.length - 1); i < segmentCount; i++) {
+			long start = (long) i * SEGMENT_SIZE;
+			extended[i] = nioFile.map(MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, fileSize - start));
+		}
+		if (current.length > 0) {
+			replaced.add(current[current.length - 1]);
+		}
+
+		segments = extended;
+		return extended;
+	}
+
+	/**
+	 * @return the number of bytes of the file that are covered by the supplied segments.
+	 */
+	private static long mappedSize(MappedByteBuffer[] mapped) {
+		if (mapped.length == 0) {
+			return 0L;
+		}
+		return (long) (mapped.length - 1) * SEGMENT_SIZE + mapped[mapped.length - 1].limit();
+	}
+
+	private static void unmap(MappedByteBuffer segment) {
+		if (segment != null) {
+			try {
+				UNMAPPER.unmap(segment);
+			} catch (Exception e) {
+				logger.warn("Unable to unmap segment of B-tree file", e);
+			}
+		}
+	}
+
+	/**
+	 * Looks up the internal API that releases a mapping: {@code Unsafe.invokeCleaner} on Java 9 and later, the cleaner
+	 * of the buffer on Java 8.
+	 */
+	private static Unmapper createUnmapper() {
+		try {
+			Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+			Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			Object unsafe = theUnsafe.get(null);
+			return buffer -> invokeCleaner.invoke(unsafe, buffer);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// not available before Java 9
+		}
+		try {
+			Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+			Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+			return buffer -> {
+				Object bufferCleaner = cleaner.invoke(buffer);
+				if (bufferCleaner != null) {
+					clean.invoke(bufferCleaner);
+				}
+			};
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			logger.debug("Unmapping files is not supported", e);
+			return null;
+		}
+	}
+
+	@FunctionalInterface
+	private interface Unmapper {
+
+		void unmap(MappedByteBuffer buffer) throws Exception;
+	}
+}
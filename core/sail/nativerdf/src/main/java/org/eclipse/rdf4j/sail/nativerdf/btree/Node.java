@@ -445,6 +445,12 @@ class Node {
 	}
 
 	public void read() throws IOException {
+		assert tree.btreeLock.getReadHoldCount() > 0 || tree.btreeLock.isWriteLockedByCurrentThread();
+		if (tree.mappedReader != null && tree.mappedReader.read(data, tree.nodeSize, tree.nodeID2offset(id))) {
+			valueCount = ByteArrayUtil.getInt(data, 0);
+			return;
+		}
+
 		ByteBuffer buf = ByteBuffer.wrap(data);
 
 		// Don't fill the spare slot in data:
@@ -7,11 +7,14 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.nativerdf.config;
 
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.COMPACT_VALUES;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.FORCE_SYNC;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.MEMORY_MAPPED_INDEXES;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE_CACHE_SIZE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE_ID_CACHE_SIZE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.TRIPLE_INDEXES;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_CACHE_MEMORY;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_CACHE_SIZE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.VALUE_ID_CACHE_SIZE;
 
@@ -45,6 +48,12 @@ public class NativeStoreConfig extends BaseSailConfig {
 
 	private int namespaceIDCacheSize = -1;
 
+	private boolean memoryMappedIndexes = false;
+
+	private long valueCacheMemory = -1L;
+
+	private boolean compactValues = false;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -115,6 +124,30 @@ public class NativeStoreConfig extends BaseSailConfig {
 		this.namespaceIDCacheSize = namespaceIDCacheSize;
 	}
 
+	public boolean getMemoryMappedIndexes() {
+		return memoryMappedIndexes;
+	}
+
+	public void setMemoryMappedIndexes(boolean memoryMappedIndexes) {
+		this.memoryMappedIndexes = memoryMappedIndexes;
+	}
+
+	public long getValueCacheMemory() {
+		return valueCacheMemory;
+	}
+
+	public void setValueCacheMemory(long valueCacheMemory) {
+		this.valueCacheMemory = valueCacheMemory;
+	}
+
+	public boolean getCompactValues() {
+		return compactValues;
+	}
+
+	public void setCompactValues(boolean compactValues) {
+		this.compactValues = compactValues;
+	}
+
 	@Override
 	public Resource export(Model m) {
 		Resource implNode = super.export(m);
@@ -139,6 +172,15 @@ public class NativeStoreConfig extends BaseSailConfig {
 		if (namespaceIDCacheSize >= 0) {
 			m.add(implNode, NAMESPACE_ID_CACHE_SIZE, vf.createLiteral(namespaceIDCacheSize));
 		}
+		if (memoryMappedIndexes) {
+			m.add(implNode, MEMORY_MAPPED_INDEXES, vf.createLiteral(memoryMappedIndexes));
+		}
+		if (valueCacheMemory >= 0) {
+			m.add(implNode, VALUE_CACHE_MEMORY, vf.createLiteral(valueCacheMemory));
+		}
+		if (compactValues) {
+			m.add(implNode, COMPACT_VALUES, vf.createLiteral(compactValues));
+		}
 
 		return implNode;
 	}
@@ -195,6 +237,33 @@ public class NativeStoreConfig extends BaseSailConfig {
 							"Integer value required for " + NAMESPACE_ID_CACHE_SIZE + " property, found " + lit);
 				}
 			});
+
+			Models.objectLiteral(m.getStatements(implNode, MEMORY_MAPPED_INDEXES, null)).ifPresent(lit -> {
+				try {
+					setMemoryMappedIndexes(lit.booleanValue());
+				} catch (IllegalArgumentException e) {
+					throw new SailConfigException(
+							"Boolean value required for " + MEMORY_MAPPED_INDEXES + " property, found " + lit);
+				}
+			});
+
+			Models.objectLiteral(m.getStatements(implNode, VALUE_CACHE_MEMORY, null)).ifPresent(lit -> {
+				try {
+					setValueCacheMemory(lit.longValue());
+				} catch (NumberFormatException e) {
+					throw new SailConfigException(
+							"Integer value required for " + VALUE_CACHE_MEMORY + " property, found " + lit);
+				}
+			});
+
+			Models.objectLiteral(m.getStatements(implNode, COMPACT_VALUES, null)).ifPresent(lit -> {
+				try {
+					setCompactValues(lit.booleanValue());
+				} catch (IllegalArgumentException e) {
+					throw new SailConfigException(
+							"Boolean value required for " + COMPACT_VALUES + " property, found " + lit);
+				}
+			});
 		} catch (ModelException e) {
 			throw new SailConfigException(e.getMessage(), e);
 		}
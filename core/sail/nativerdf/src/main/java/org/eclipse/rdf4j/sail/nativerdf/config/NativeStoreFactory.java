@@ -54,6 +54,7 @@ public class NativeStoreFactory implements SailFactory {
 
 			nativeStore.setTripleIndexes(nativeConfig.getTripleIndexes());
 			nativeStore.setForceSync(nativeConfig.getForceSync());
+			nativeStore.setMemoryMappedIndexes(nativeConfig.getMemoryMappedIndexes());
 
 			if (nativeConfig.getValueCacheSize() >= 0) {
 				nativeStore.setValueCacheSize(nativeConfig.getValueCacheSize());
@@ -67,6 +68,11 @@ public class NativeStoreFactory implements SailFactory {
 			if (nativeConfig.getNamespaceIDCacheSize() >= 0) {
 				nativeStore.setNamespaceIDCacheSize(nativeConfig.getNamespaceIDCacheSize());
 			}
+			if (nativeConfig.getValueCacheMemory() >= 0) {
+				nativeStore.setValueCacheMemory(nativeConfig.getValueCacheMemory());
+			}
+			nativeStore.setCompactValues(nativeConfig.getCompactValues());
+			nativeStore.setChangeFeedCapacity(nativeConfig.getChangeFeedCapacity());
 			if (nativeConfig.getIterationCacheSyncThreshold() > 0) {
 				nativeStore.setIterationCacheSyncThreshold(nativeConfig.getIterationCacheSyncThreshold());
 			}
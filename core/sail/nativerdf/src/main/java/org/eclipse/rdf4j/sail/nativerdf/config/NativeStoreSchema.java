@@ -41,6 +41,15 @@ public class NativeStoreSchema {
 	/** <tt>http://www.openrdf.org/config/sail/native#namespaceIDCacheSize</tt> */
 	public final static IRI NAMESPACE_ID_CACHE_SIZE;
 
+	/** <tt>http://www.openrdf.org/config/sail/native#memoryMappedIndexes</tt> */
+	public final static IRI MEMORY_MAPPED_INDEXES;
+
+	/** <tt>http://www.openrdf.org/config/sail/native#valueCacheMemory</tt> */
+	public final static IRI VALUE_CACHE_MEMORY;
+
+	/** <tt>http://www.openrdf.org/config/sail/native#compactValues</tt> */
+	public final static IRI COMPACT_VALUES;
+
 	static {
 		ValueFactory factory = SimpleValueFactory.getInstance();
 		TRIPLE_INDEXES = factory.createIRI(NAMESPACE, "tripleIndexes");
@@ -49,5 +58,8 @@ public class NativeStoreSchema {
 		VALUE_ID_CACHE_SIZE = factory.createIRI(NAMESPACE, "valueIDCacheSize");
 		NAMESPACE_CACHE_SIZE = factory.createIRI(NAMESPACE, "namespaceCacheSize");
 		NAMESPACE_ID_CACHE_SIZE = factory.createIRI(NAMESPACE, "namespaceIDCacheSize");
+		MEMORY_MAPPED_INDEXES = factory.createIRI(NAMESPACE, "memoryMappedIndexes");
+		VALUE_CACHE_MEMORY = factory.createIRI(NAMESPACE, "valueCacheMemory");
+		COMPACT_VALUES = factory.createIRI(NAMESPACE, "compactValues");
 	}
 }
@@ -18,7 +18,9 @@ import org.eclipse.rdf4j.common.io.NioFile;
 
 /**
  * Class supplying access to a data file. A data file stores data sequentially. Each entry starts with the entry's
- * length (4 bytes), followed by the data itself. File offsets are used to identify entries.
+ * length, followed by the data itself. File offsets are used to identify entries. In files with format version 1, the
+ * length is stored in 4 bytes. Format version 2 ({@link #isCompact() compact} data files) stores the length as a
+ * {@link VarInt}, which takes a single byte for entries of less than 128 bytes.
  *
  * @author Arjohn Kampman
  */
@@ -37,7 +39,12 @@ public class DataFile implements Closeable {
 	/**
 	 * File format version, stored as the fourth byte in data files.
 	 */
-	private static final byte FILE_FORMAT_VERSION = 1;
+	private static final byte FILE_FORMAT_VERSION = 2;
+
+	/**
+	 * File format version of data files that store entry lengths in 4 bytes.
+	 */
+	private static final byte FIXED_LENGTH_FORMAT_VERSION = 1;
 
 	private static final long HEADER_LENGTH = MAGIC_NUMBER.length + 1;
 
@@ -49,6 +56,11 @@ public class DataFile implements Closeable {
 
 	private final boolean forceSync;
 
+	/**
+	 * Flag indicating whether entry lengths are stored as variable length integers (format version 2).
+	 */
+	private final boolean compact;
+
 	// cached file size, also reflects buffer usage
 	private volatile long nioFileSize;
 
@@ -64,6 +76,16 @@ public class DataFile implements Closeable {
 	}
 
 	public DataFile(File file, boolean forceSync) throws IOException {
+		this(file, forceSync, false);
+	}
+
+	/**
+	 * Opens or creates a data file.
+	 *
+	 * @param compact Whether a new data file should be created in the compact format (version 2). Existing data files
+	 *                are always opened in the format they were created with.
+	 */
+	public DataFile(File file, boolean forceSync, boolean compact) throws IOException {
 		this.nioFile = new NioFile(file);
 		this.forceSync = forceSync;
 
@@ -73,7 +95,8 @@ public class DataFile implements Closeable {
 			if (nioFile.size() == 0) {
 				// Empty file, write header
 				nioFile.writeBytes(MAGIC_NUMBER, 0);
-				nioFile.writeByte(FILE_FORMAT_VERSION, MAGIC_NUMBER.length);
+				nioFile.writeByte(compact ? FILE_FORMAT_VERSION : FIXED_LENGTH_FORMAT_VERSION, MAGIC_NUMBER.length);
+				this.compact = compact;
 
 				sync();
 			} else if (nioFile.size() < HEADER_LENGTH) {
@@ -87,9 +110,10 @@ public class DataFile implements Closeable {
 				byte version = nioFile.readByte(MAGIC_NUMBER.length);
 				if (version > FILE_FORMAT_VERSION) {
 					throw new IOException("Unable to read data file; it uses a newer file format");
-				} else if (version != FILE_FORMAT_VERSION) {
+				} else if (version != FILE_FORMAT_VERSION && version != FIXED_LENGTH_FORMAT_VERSION) {
 					throw new IOException("Unable to read data file; invalid file format version: " + version);
 				}
+				this.compact = version == FILE_FORMAT_VERSION;
 			}
 		} catch (IOException e) {
 			this.nioFile.close();
@@ -108,6 +132,14 @@ public class DataFile implements Closeable {
 		return nioFile.getFile();
 	}
 
+	/**
+	 * Checks whether this data file uses the compact file format (version 2), storing entry lengths as variable length
+	 * integers.
+	 */
+	public boolean isCompact() {
+		return compact;
+	}
+
 	/**
 	 * Stores the specified data and returns the byte-offset at which it has been stored.
 	 *
@@ -118,15 +150,16 @@ public class DataFile implements Closeable {
 		assert data != null : "data must not be null";
 
 		long offset = nioFileSize;
+		int lengthSize = getLengthSize(data.length);
 
-		if (data.length + 4 > buffer.capacity()) {
+		if (data.length + lengthSize > buffer.capacity()) {
 			// direct write because we are writing more data than the buffer can hold
 
 			flush();
 
 			// TODO: two writes could be more efficient since it prevent array copies
-			ByteBuffer buf = ByteBuffer.allocate(data.length + 4);
-			buf.putInt(data.length);
+			ByteBuffer buf = ByteBuffer.allocate(data.length + lengthSize);
+			putLength(buf, data.length);
 			buf.put(data);
 			buf.rewind();
 
@@ -135,13 +168,13 @@ public class DataFile implements Closeable {
 			nioFileSize += buf.array().length;
 
 		} else {
-			if (data.length + 4 > remainingBufferCapacity()) {
+			if (data.length + lengthSize > remainingBufferCapacity()) {
 				flush();
 			}
 
-			buffer.putInt(data.length);
+			putLength(buffer, data.length);
 			buffer.put(data);
-			nioFileSize += data.length + 4;
+			nioFileSize += data.length + lengthSize;
 		}
 
 		return offset;
@@ -168,6 +201,20 @@ public class DataFile implements Closeable {
 		return buffer.capacity() - buffer.position();
 	}
 
+	private int getLengthSize(int dataLength) {
+		return compact ? VarInt.length(dataLength) : 4;
+	}
+
+	private void putLength(ByteBuffer buf, int dataLength) {
+		if (compact) {
+			byte[] length = new byte[VarInt.length(dataLength)];
+			VarInt.write(dataLength, length, 0);
+			buf.put(length);
+		} else {
+			buf.putInt(dataLength);
+		}
+	}
+
 	// This variable is used for predicting the number of bytes to read in getData(long offset). This helps us to only
 	// need to execute a single IO read instead of first one read to find the length and then one read to read the data.
 	int dataLengthApproximateAverage = 25;
@@ -185,25 +232,31 @@ public class DataFile implements Closeable {
 
 		// Read in twice the average length because multiple small read operations take more time than one single larger
 		// operation even if that larger operation is unnecessarily large (within sensible limits).
-		byte[] data = new byte[(dataLengthApproximateAverage * 2) + 4];
+		byte[] data = new byte[(dataLengthApproximateAverage * 2) + 5];
 		ByteBuffer buf = ByteBuffer.wrap(data);
 		nioFile.read(buf, offset);
 
-		int dataLength = (data[0] << 24) & 0xff000000 |
-				(data[1] << 16) & 0x00ff0000 |
-				(data[2] << 8) & 0x0000ff00 |
-				(data[3]) & 0x000000ff;
+		int dataLength;
+		if (compact) {
+			dataLength = VarInt.read(data, 0);
+		} else {
+			dataLength = (data[0] << 24) & 0xff000000 |
+					(data[1] << 16) & 0x00ff0000 |
+					(data[2] << 8) & 0x0000ff00 |
+					(data[3]) & 0x000000ff;
+		}
+		int lengthSize = getLengthSize(dataLength);
 
 		// We have either managed to read enough data and can return the required subset of the data, or we have read
 		// too little so we need to execute another read to get the correct data.
-		if (dataLength <= data.length - 4) {
+		if (dataLength <= data.length - lengthSize) {
 
 			// adjust the approximate average with 1 part actual length and 99 parts previous average up to a sensible
 			// max of 200
 			dataLengthApproximateAverage = (int) (Math.min(200,
 					((dataLengthApproximateAverage / 100.0) * 99) + (dataLength / 100.0)));
 
-			return Arrays.copyOfRange(data, 4, dataLength + 4);
+			return Arrays.copyOfRange(data, lengthSize, dataLength + lengthSize);
 
 		} else {
 
@@ -214,7 +267,7 @@ public class DataFile implements Closeable {
 			// we didn't read enough data so we need to execute a new read
 			data = new byte[dataLength];
 			buf = ByteBuffer.wrap(data);
-			nioFile.read(buf, offset + 4L);
+			nioFile.read(buf, offset + lengthSize);
 
 			return data;
 		}
@@ -293,7 +346,7 @@ public class DataFile implements Closeable {
 			}
 
 			byte[] data = getData(position);
-			position += (4 + data.length);
+			position += (getLengthSize(data.length) + data.length);
 			return data;
 		}
 	}
@@ -41,7 +41,16 @@ public class DataStore implements Closeable {
 	}
 
 	public DataStore(File dataDir, String filePrefix, boolean forceSync) throws IOException {
-		dataFile = new DataFile(new File(dataDir, filePrefix + ".dat"), forceSync);
+		this(dataDir, filePrefix, forceSync, false);
+	}
+
+	/**
+	 * Opens or creates a data store.
+	 *
+	 * @param compact Whether a new data file should be created in the compact format, see {@link DataFile#isCompact()}.
+	 */
+	public DataStore(File dataDir, String filePrefix, boolean forceSync, boolean compact) throws IOException {
+		dataFile = new DataFile(new File(dataDir, filePrefix + ".dat"), forceSync, compact);
 		idFile = new IDFile(new File(dataDir, filePrefix + ".id"), forceSync);
 		hashFile = new HashFile(new File(dataDir, filePrefix + ".hash"), forceSync);
 	}
@@ -50,6 +59,13 @@ public class DataStore implements Closeable {
 	 * Methods *
 	 *---------*/
 
+	/**
+	 * Checks whether the data file of this data store uses the compact file format.
+	 */
+	public boolean isCompact() {
+		return dataFile.isCompact();
+	}
+
 	/**
 	 * Gets the value for the specified ID.
 	 *
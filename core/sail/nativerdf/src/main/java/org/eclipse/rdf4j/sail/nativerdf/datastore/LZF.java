@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.datastore;
+
+import java.util.Arrays;
+
+/**
+ * A small and fast LZ77 compressor using the LZF format. Compressed data consists of a sequence of chunks, each of
+ * which starts with a control byte:
+ * <ul>
+ * <li><tt>000LLLLL</tt>: a run of <tt>L + 1</tt> literal bytes follows;</li>
+ * <li><tt>LLLOOOOO OOOOOOOO</tt>: a back-reference of <tt>L + 2</tt> bytes at distance <tt>O + 1</tt>;</li>
+ * <li><tt>111OOOOO LLLLLLLL OOOOOOOO</tt>: a back-reference of <tt>L + 9</tt> bytes at distance <tt>O + 1</tt>.</li>
+ * </ul>
+ * The output of {@link #compress(byte[])} only depends on its input, which makes the compressed data suitable for
+ * content-based lookups.
+ */
+public final class LZF {
+
+	private static final int HASH_LOG = 13;
+
+	private static final int MAX_LITERAL_RUN = 1 << 5;
+
+	private static final int MAX_DISTANCE = 1 << 13;
+
+	private static final int MAX_REFERENCE_LENGTH = (1 << 8) + (1 << 3);
+
+	private LZF() {
+	}
+
+	/**
+	 * Compresses the supplied data.
+	 *
+	 * @return The compressed data, which may be slightly larger than the input for incompressible data.
+	 */
+	public static byte[] compress(byte[] in) {
+		int[] table = new int[1 << HASH_LOG];
+		Arrays.fill(table, -1);
+
+		byte[] out = new byte[in.length + in.length / MAX_LITERAL_RUN + 1];
+		int op = 0;
+		int literalStart = 0;
+		int ip = 0;
+
+		while (ip + 2 < in.length) {
+			int hash = hash(in, ip);
+			int ref = table[hash];
+			table[hash] = ip;
+
+			if (ref >= 0 && ip - ref <= MAX_DISTANCE && in[ref] == in[ip] && in[ref + 1] == in[ip + 1]
+					&& in[ref + 2] == in[ip + 2]) {
+				int maxLength = Math.min(in.length - ip, MAX_REFERENCE_LENGTH);
+				int length = 3;
+				while (length < maxLength && in[ref + length] == in[ip + length]) {
+					length++;
+				}
+
+				op = writeLiterals(in, literalStart, ip, out, op);
+
+				int distance = ip - ref - 1;
+				int encodedLength = length - 2;
+				if (encodedLength < 7) {
+					out[op++] = (byte) ((encodedLength << 5) | (distance >>> 8));
+				} else {
+					out[op++] = (byte) ((7 << 5) | (distance >>> 8));
+					out[op++] = (byte) (encodedLength - 7);
+				}
+				out[op++] = (byte) distance;
+
+				ip += length;
+				literalStart = ip;
+			} else {
+				ip++;
+			}
+		}
+
+		op = writeLiterals(in, literalStart, in.length, out, op);
+
+		return Arrays.copyOf(out, op);
+	}
+
+	/**
+	 * Decompresses data that has been compressed by {@link #compress(byte[])}.
+	 *
+	 * @param in     The array containing the compressed data.
+	 * @param offset The offset of the compressed data in the array.
+	 * @param length The length of the compressed data.
+	 * @param size   The length of the uncompressed data.
+	 * @throws IllegalArgumentException If the data is corrupt.
+	 */
+	public static byte[] decompress(byte[] in, int offset, int length, int size) {
+		byte[] out = new byte[size];
+		int op = 0;
+		int ip = offset;
+		int end = offset + length;
+
+		try {
+			while (ip < end) {
+				int control = in[ip++] & 0xff;
+
+				if (control < MAX_LITERAL_RUN) {
+					int runLength = control + 1;
+					System.arraycopy(in, ip, out, op, runLength);
+					ip += runLength;
+					op += runLength;
+				} else {
+					int referenceLength = control >>> 5;
+					if (referenceLength == 7) {
+						referenceLength += in[ip++] & 0xff;
+					}
+					referenceLength += 2;
+
+					int ref = op - ((control & 0x1f) << 8) - (in[ip++] & 0xff) - 1;
+					if (ref < 0) {
+						throw new IllegalArgumentException("Corrupt compressed data: invalid back-reference");
+					}
+
+					// byte by byte, the reference may overlap with the output
+					for (int i = 0; i < referenceLength; i++) {
+						out[op++] = out[ref++];
+					}
+				}
+			}
+		} catch (IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Corrupt compressed data", e);
+		}
+
+		if (op != size) {
+			throw new IllegalArgumentException("Corrupt compressed data: expected " + size + " bytes, found " + op);
+		}
+
+		return out;
+	}
+
+	private static int writeLiterals(byte[] in, int start, int end, byte[] out, int op) {
+		while (start < end) {
+			int runLength = Math.min(end - start, MAX_LITERAL_RUN);
+			out[op++] = (byte) (runLength - 1);
+			System.arraycopy(in, start, out, op, runLength);
+			op += runLength;
+			start += runLength;
+		}
+		return op;
+	}
+
+	private static int hash(byte[] in, int i) {
+		int value = (in[i] & 0xff) << 16 | (in[i + 1] & 0xff) << 8 | (in[i + 2] & 0xff);
+		return (value * 0x9E3779B1) >>> (32 - HASH_LOG);
+	}
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.datastore;
+
+/**
+ * Encoding of non-negative integers in a variable number of bytes: seven bits per byte, least significant group first,
+ * with the high bit of a byte set if more bytes follow. Values below 128 take a single byte, values below 16384 two
+ * bytes, and so on up to five bytes.
+ */
+public final class VarInt {
+
+	private VarInt() {
+	}
+
+	/**
+	 * Returns the number of bytes that are needed to encode the specified value.
+	 */
+	public static int length(int value) {
+		assert value >= 0 : "value must not be negative: " + value;
+
+		int length = 1;
+		while ((value >>>= 7) != 0) {
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the specified value to the array at the specified offset.
+	 *
+	 * @return The offset directly after the written bytes.
+	 */
+	public static int write(int value, byte[] array, int offset) {
+		assert value >= 0 : "value must not be negative: " + value;
+
+		while ((value & ~0x7f) != 0) {
+			array[offset++] = (byte) ((value & 0x7f) | 0x80);
+			value >>>= 7;
+		}
+		array[offset++] = (byte) value;
+		return offset;
+	}
+
+	/**
+	 * Reads a value from the array at the specified offset. The number of bytes that were read can be determined with
+	 * {@link #length(int)}.
+	 *
+	 * @throws IllegalArgumentException If the array does not contain a complete value at the specified offset.
+	 */
+	public static int read(byte[] array, int offset) {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			if (offset >= array.length) {
+				break;
+			}
+			byte b = array[offset++];
+			value |= (b & 0x7f) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Malformed variable length integer");
+	}
+}
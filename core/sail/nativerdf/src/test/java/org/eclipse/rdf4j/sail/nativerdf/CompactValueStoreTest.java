@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.nativerdf.datastore.LZF;
+import org.eclipse.rdf4j.sail.nativerdf.model.NativeValue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CompactValueStoreTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Rule
+	public TemporaryFolder tmpDir = new TemporaryFolder();
+
+	private File dataDir;
+
+	private List<Value> values;
+
+	@Before
+	public void setUp() throws Exception {
+		dataDir = tmpDir.newFolder();
+
+		StringBuilder longLabel = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			longLabel.append("a long and repetitive literal value ");
+		}
+
+		values = new ArrayList<>();
+		values.add(vf.createIRI("http://example.org/ns#", "local"));
+		values.add(vf.createIRI("http://example.org/other/", "local"));
+		values.add(vf.createBNode("node1"));
+		values.add(vf.createLiteral("plain"));
+		values.add(vf.createLiteral("hello", "en"));
+		values.add(vf.createLiteral("hallo", "de"));
+		values.add(vf.createLiteral("hi", "en"));
+		values.add(vf.createLiteral(42));
+		values.add(vf.createLiteral(longLabel.toString()));
+		values.add(vf.createLiteral(longLabel.toString(), "en"));
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		ValueStore valueStore = createValueStore(true);
+		assertTrue(valueStore.isCompact());
+
+		int[] ids = storeValues(valueStore);
+		valueStore.close();
+
+		valueStore = createValueStore(false);
+		try {
+			// a compact store stays compact
+			assertTrue(valueStore.isCompact());
+			assertValues(valueStore, ids);
+			valueStore.checkConsistency();
+		} finally {
+			valueStore.close();
+		}
+	}
+
+	@Test
+	public void testConversion() throws Exception {
+		ValueStore valueStore = createValueStore(false);
+		assertFalse(valueStore.isCompact());
+
+		int[] ids = storeValues(valueStore);
+		valueStore.close();
+		long originalSize = new File(dataDir, "values.dat").length();
+
+		valueStore = createValueStore(true);
+		try {
+			assertTrue(valueStore.isCompact());
+			assertValues(valueStore, ids);
+			valueStore.checkConsistency();
+
+			// values added after the conversion get new IDs
+			int id = valueStore.storeValue(vf.createLiteral("new", "fr"));
+			assertEquals(vf.createLiteral("new", "fr"), valueStore.getValue(id));
+		} finally {
+			valueStore.close();
+		}
+
+		assertTrue(new File(dataDir, "values.dat").length() < originalSize);
+		assertFalse(new File(dataDir, "values.compact.dat").exists());
+		assertFalse(new File(dataDir, "values.backup.dat").exists());
+	}
+
+	@Test
+	public void testConvertNativeStore() throws Exception {
+		IRI subj = vf.createIRI("urn:subj");
+
+		NativeStore store = new NativeStore(dataDir);
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			for (Value value : values) {
+				con.addStatement(subj, RDFS.LABEL, value);
+			}
+			con.commit();
+		}
+		store.shutDown();
+
+		store = new NativeStore(dataDir);
+		store.setCompactValues(true);
+		store.init();
+		try (SailConnection con = store.getConnection()) {
+			assertEquals(values.size(), Iterations.asList(con.getStatements(subj, RDFS.LABEL, null, false)).size());
+			for (Value value : values) {
+				assertTrue(value.toString(), con.hasStatement(subj, RDFS.LABEL, value, false));
+			}
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Test
+	public void testLZF() {
+		byte[] data = new byte[10_000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) ((i % 7) * (i % 13));
+		}
+
+		byte[] compressed = LZF.compress(data);
+		assertTrue(compressed.length < data.length);
+		assertArrayEquals(data, LZF.decompress(compressed, 0, compressed.length, data.length));
+
+		byte[] small = { 1, 2 };
+		byte[] compressedSmall = LZF.compress(small);
+		assertArrayEquals(small, LZF.decompress(compressedSmall, 0, compressedSmall.length, 2));
+	}
+
+	private ValueStore createValueStore(boolean compact) throws Exception {
+		return new ValueStore(dataDir, false, ValueStore.VALUE_CACHE_SIZE, ValueStore.VALUE_ID_CACHE_SIZE,
+				ValueStore.NAMESPACE_CACHE_SIZE, ValueStore.NAMESPACE_ID_CACHE_SIZE, -1L, compact);
+	}
+
+	private int[] storeValues(ValueStore valueStore) throws Exception {
+		int[] ids = new int[values.size()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = valueStore.storeValue(values.get(i));
+		}
+		valueStore.sync();
+		return ids;
+	}
+
+	private void assertValues(ValueStore valueStore, int[] ids) throws Exception {
+		for (int i = 0; i < ids.length; i++) {
+			Value value = values.get(i);
+			assertEquals(value, valueStore.getValue(ids[i]));
+			assertEquals(ids[i], valueStore.getID(value));
+		}
+		assertEquals(NativeValue.UNKNOWN_ID, valueStore.getID(vf.createLiteral("unknown", "xx")));
+		assertEquals(NativeValue.UNKNOWN_ID, valueStore.getID(vf.createLiteral("unknown", XSD.DATE)));
+	}
+}
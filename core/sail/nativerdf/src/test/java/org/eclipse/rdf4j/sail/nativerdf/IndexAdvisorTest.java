@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexAdvisorTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final IRI PRED = vf.createIRI("urn:pred");
+
+	private static final IRI CONTEXT = vf.createIRI("urn:context");
+
+	@Rule
+	public TemporaryFolder tmpDir = new TemporaryFolder();
+
+	private File dataDir;
+
+	private NativeStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		dataDir = tmpDir.newFolder();
+		store = new NativeStore(dataDir, "spoc,posc");
+		store.init();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		store.shutDown();
+	}
+
+	@Test
+	public void testPatternCounts() throws Exception {
+		addStatements(0, 10);
+
+		IndexAdvisor advisor = store.getIndexAdvisor();
+		advisor.resetPatternCounts();
+
+		try (SailConnection con = store.getConnection()) {
+			con.hasStatement(subj(1), PRED, obj(1), false);
+			con.hasStatement(null, null, obj(1), false);
+			con.hasStatement(null, null, obj(2), false);
+		}
+
+		assertEquals(Long.valueOf(1), advisor.getPatternCounts().get("spo?"));
+		assertEquals(Long.valueOf(2), advisor.getPatternCounts().get("??o?"));
+		assertNull(advisor.getPatternCounts().get("????"));
+
+		advisor.resetPatternCounts();
+		assertTrue(advisor.getPatternCounts().isEmpty());
+	}
+
+	@Test
+	public void testRecommendedIndexes() throws Exception {
+		addStatements(0, 10);
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			con.addStatement(subj(0), PRED, obj(0), CONTEXT);
+			con.commit();
+		}
+
+		IndexAdvisor advisor = store.getIndexAdvisor();
+		advisor.resetPatternCounts();
+		assertEquals(Collections.emptyList(), advisor.getRecommendedIndexes());
+
+		try (SailConnection con = store.getConnection()) {
+			for (int i = 0; i < 10; i++) {
+				// served by the existing indexes
+				con.hasStatement(subj(i), null, null, false);
+				con.hasStatement(null, PRED, obj(i), false);
+			}
+			for (int i = 0; i < 10; i++) {
+				con.hasStatement(null, null, obj(i), false);
+			}
+			con.hasStatement(null, null, null, false, CONTEXT);
+		}
+
+		// the context pattern is too rare to be worth an index
+		assertEquals(Collections.singletonList("ospc"), advisor.getRecommendedIndexes());
+
+		try (SailConnection con = store.getConnection()) {
+			for (int i = 0; i < 5; i++) {
+				con.hasStatement(null, null, null, false, CONTEXT);
+			}
+		}
+
+		assertEquals(Arrays.asList("ospc", "cspo"), advisor.getRecommendedIndexes());
+	}
+
+	@Test
+	public void testBuildIndex() throws Exception {
+		addStatements(0, 25_000);
+
+		IndexAdvisor advisor = store.getIndexAdvisor();
+		Future<Void> build = advisor.buildIndex("ospc");
+
+		// keep updating the store while the index is being built
+		try (SailConnection con = store.getConnection()) {
+			for (int i = 0; i < 1000; i++) {
+				con.begin();
+				con.addStatement(subj(25_000 + i), PRED, obj(25_000 + i));
+				con.removeStatements(subj(i), PRED, obj(i));
+				con.commit();
+			}
+		}
+
+		build.get(1, TimeUnit.MINUTES);
+		assertNull(advisor.getBuildingIndex());
+		assertTrue(advisor.getIndexes().contains("ospc"));
+
+		assertObjectLookups(26_000, 1000);
+
+		// the added index is kept when the store is opened again with the same configuration
+		store.shutDown();
+		store = new NativeStore(dataDir, "spoc,posc");
+		store.init();
+
+		assertTrue(store.getIndexAdvisor().getIndexes().contains("ospc"));
+		assertObjectLookups(26_000, 1000);
+	}
+
+	@Test
+	public void testShutDownDuringBuild() throws Exception {
+		addStatements(0, 50_000);
+
+		store.getIndexAdvisor().buildIndex("ospc");
+		store.shutDown();
+
+		store = new NativeStore(dataDir, "spoc,posc");
+		store.init();
+
+		// the build has either been completed or discarded
+		IndexAdvisor advisor = store.getIndexAdvisor();
+		assertNull(advisor.getBuildingIndex());
+		if (!advisor.getIndexes().contains("ospc")) {
+			advisor.buildIndex("ospc").get(1, TimeUnit.MINUTES);
+		}
+		assertObjectLookups(50_000, 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testBuildExistingIndex() throws Exception {
+		store.getIndexAdvisor().buildIndex("posc");
+	}
+
+	private void addStatements(int from, int to) {
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			for (int i = from; i < to; i++) {
+				con.addStatement(subj(i), PRED, obj(i));
+			}
+			con.commit();
+		}
+	}
+
+	/**
+	 * Checks that the statements with the first <tt>removed</tt> objects have been removed and that all other
+	 * statements can be found by their object.
+	 */
+	private void assertObjectLookups(int count, int removed) {
+		try (SailConnection con = store.getConnection()) {
+			for (int i = 0; i < count; i += 97) {
+				int expected = i < removed ? 0 : 1;
+				assertEquals("object " + i, expected,
+						Iterations.asList(con.getStatements(null, null, obj(i), false)).size());
+			}
+			assertEquals(count - removed, Iterations.asList(con.getStatements(null, PRED, null, false)).size());
+		}
+	}
+
+	private static IRI subj(int i) {
+		return vf.createIRI("urn:subj:" + i);
+	}
+
+	private static IRI obj(int i) {
+		return vf.createIRI("urn:obj:" + i);
+	}
+}
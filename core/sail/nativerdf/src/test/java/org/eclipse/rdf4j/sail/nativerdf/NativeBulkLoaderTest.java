@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.sail.SailException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeBulkLoaderTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Rule
+	public TemporaryFolder tmpDir = new TemporaryFolder();
+
+	private File dataDir;
+
+	private NativeStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		dataDir = tmpDir.newFolder();
+		store = new NativeStore(dataDir, "spoc,posc,cosp");
+		store.init();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		store.shutDown();
+	}
+
+	@Test
+	public void testBulkLoad() throws Exception {
+		IRI ctx = vf.createIRI("urn:ctx");
+
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection();
+				NativeBulkLoader loader = con.createBulkLoader()) {
+			// force the records to be sorted in multiple runs
+			loader.setRunSize(100);
+
+			for (int i = 0; i < 1000; i++) {
+				IRI subj = vf.createIRI("urn:s" + (i % 50));
+				loader.add(subj, RDF.VALUE, vf.createLiteral(i));
+				loader.add(subj, RDF.VALUE, vf.createLiteral(i), ctx);
+				// duplicate
+				loader.add(subj, RDF.VALUE, vf.createLiteral(i));
+			}
+
+			assertEquals(3000, loader.getAddedCount());
+			assertEquals(2000, loader.load());
+		}
+
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection()) {
+			assertEquals(2000, con.size());
+			assertEquals(1000, con.size(ctx));
+			assertEquals(40, count(con, vf.createIRI("urn:s7"), null));
+			assertEquals(1, Iterations.asList(con.getContextIDs()).size());
+
+			// regular updates must work on the bulk loaded indexes
+			con.begin();
+			con.removeStatements(vf.createIRI("urn:s7"), null, null);
+			con.addStatement(vf.createIRI("urn:new"), RDF.VALUE, vf.createLiteral("new"));
+			con.commit();
+
+			assertEquals(1961, con.size());
+		}
+
+		store.shutDown();
+		store = new NativeStore(dataDir, "spoc,posc,cosp");
+		store.init();
+
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection()) {
+			assertEquals(1961, con.size());
+			assertEquals(1, count(con, null, vf.createLiteral("new")));
+		}
+	}
+
+	@Test(expected = SailException.class)
+	public void testBulkLoadNonEmpty() throws Exception {
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection()) {
+			con.begin();
+			con.addStatement(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+			con.commit();
+
+			con.createBulkLoader();
+		}
+	}
+
+	@Test
+	public void testLoadIntoStoreThatIsNoLongerEmpty() throws Exception {
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection();
+				NativeBulkLoader loader = con.createBulkLoader()) {
+			loader.add(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+
+			try (NativeStoreConnection other = (NativeStoreConnection) store.getConnection()) {
+				other.begin();
+				other.addStatement(RDF.PROPERTY, RDF.TYPE, RDF.PROPERTY);
+				other.commit();
+			}
+
+			try {
+				loader.load();
+				fail("load should fail on a store that is not empty");
+			} catch (SailException e) {
+				// expected
+			}
+			assertEquals(1, con.size());
+		}
+	}
+
+	@Test
+	public void testCloseWithoutLoad() throws Exception {
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection()) {
+			try (NativeBulkLoader loader = con.createBulkLoader()) {
+				loader.add(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+			}
+
+			assertEquals(0, con.size());
+			assertFalse(con.hasStatement(null, null, null, false));
+
+			// the store is still empty, so a new bulk load is possible
+			try (NativeBulkLoader loader = con.createBulkLoader()) {
+				loader.add(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+				loader.load();
+			}
+			assertTrue(con.hasStatement(RDF.TYPE, RDF.TYPE, RDF.PROPERTY, false));
+		}
+	}
+
+	private static long count(NativeStoreConnection con, IRI subj, Value obj) {
+		return Iterations.asList(con.getStatements(subj, null, obj, false)).size();
+	}
+}
@@ -0,0 +1,197 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.nativerdf.TripleStatistics.PredicateStatistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TripleStatisticsTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final IRI PERSON = vf.createIRI("urn:Person");
+
+	private static final IRI ROBOT = vf.createIRI("urn:Robot");
+
+	private static final Set<String> X = Collections.singleton("x");
+
+	@Rule
+	public TemporaryFolder tmpDir = new TemporaryFolder();
+
+	private File dataDir;
+
+	private NativeStore store;
+
+	@Before
+	public void setUp() throws Exception {
+		dataDir = tmpDir.newFolder();
+		store = new NativeStore(dataDir);
+		store.init();
+
+		// 2000 subjects, 1900 persons and 100 robots, each with 5 nicknames
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			for (int i = 0; i < 2000; i++) {
+				IRI subj = vf.createIRI("urn:subj:" + i);
+				con.addStatement(subj, RDF.TYPE, i < 1900 ? PERSON : ROBOT);
+				for (int j = 0; j < 5; j++) {
+					con.addStatement(subj, FOAF.NICK, vf.createLiteral("nick " + i + " " + j));
+				}
+			}
+			con.commit();
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		store.shutDown();
+	}
+
+	@Test
+	public void testPredicateStatistics() throws Exception {
+		PredicateStatistics type = getPredicateStatistics(RDF.TYPE);
+		assertEquals(2000, type.getCount());
+		assertEquals(2, type.getDistinctObjects());
+		assertEquals(2000, type.getDistinctSubjects(), 100);
+		assertEquals(1900, type.getObjectCount(getID(PERSON)), 0);
+		assertEquals(100, type.getObjectCount(getID(ROBOT)), 0);
+
+		PredicateStatistics nick = getPredicateStatistics(FOAF.NICK);
+		assertEquals(10_000, nick.getCount());
+		assertEquals(2000, nick.getDistinctSubjects(), 100);
+		assertEquals(10_000, nick.getDistinctObjects(), 500);
+		assertEquals(1, nick.getObjectCount(getID(vf.createLiteral("nick 5 3"))), 0.5);
+	}
+
+	@Test
+	public void testIncrementalUpdates() throws Exception {
+		assertEquals(2000, getPredicateStatistics(RDF.TYPE).getCount());
+
+		try (SailConnection con = store.getConnection()) {
+			con.begin();
+			for (int i = 0; i < 50; i++) {
+				con.addStatement(vf.createIRI("urn:subj:" + i), RDF.TYPE, ROBOT);
+			}
+			con.removeStatements(vf.createIRI("urn:subj:1999"), RDF.TYPE, ROBOT);
+			con.commit();
+
+			// uncommitted changes are not counted
+			con.begin();
+			con.addStatement(vf.createIRI("urn:subj:0"), RDF.TYPE, vf.createIRI("urn:Other"));
+			con.rollback();
+		}
+
+		PredicateStatistics type = getPredicateStatistics(RDF.TYPE);
+		assertEquals(2049, type.getCount());
+		assertEquals(149, type.getObjectCount(getID(ROBOT)), 0);
+		assertEquals(1900, type.getObjectCount(getID(PERSON)), 0);
+	}
+
+	@Test
+	public void testStatisticsArePersisted() throws Exception {
+		getPredicateStatistics(RDF.TYPE);
+
+		store.shutDown();
+		File statisticsFile = new File(dataDir, "triples-stats.dat");
+		assertTrue(statisticsFile.exists());
+
+		store = new NativeStore(dataDir);
+		store.init();
+		// the file is only valid until the store is changed
+		assertFalse(statisticsFile.exists());
+
+		PredicateStatistics type = getPredicateStatistics(RDF.TYPE);
+		assertEquals(2000, type.getCount());
+		assertEquals(1900, type.getObjectCount(getID(PERSON)), 0);
+	}
+
+	@Test
+	public void testStatisticsAreComputedOnce() throws Exception {
+		TripleStatistics statistics = new TripleStatistics(store.getNativeSailStore().getTripleStore(),
+				new File(dataDir, "other-stats.dat"));
+		try {
+			int predID = getID(RDF.TYPE);
+			// the computation can not complete while the statistics are locked
+			Future<PredicateStatistics> computation;
+			synchronized (statistics) {
+				assertNull(statistics.get(predID));
+				computation = statistics.update(predID);
+				assertSame(computation, statistics.update(predID));
+			}
+
+			assertEquals(2000, computation.get().getCount());
+			assertSame(computation.get(), statistics.get(predID));
+		} finally {
+			statistics.close();
+		}
+	}
+
+	@Test
+	public void testBoundCardinality() throws Exception {
+		EvaluationStatistics statistics = store.getNativeSailStore().getEvaluationStatistics();
+
+		// the regular estimate applies until the statistics have been computed in the background
+		StatementPattern nick = new StatementPattern(new Var("x"), constant(FOAF.NICK), new Var("n"));
+		assertTrue(statistics.getCardinality(nick, X) < 0);
+		getPredicateStatistics(FOAF.NICK);
+		getPredicateStatistics(RDF.TYPE);
+
+		// five nicknames per subject
+		assertEquals(5, statistics.getCardinality(nick, X), 0.5);
+
+		// about one in twenty subjects is a robot
+		StatementPattern robot = new StatementPattern(new Var("x"), constant(RDF.TYPE), constant(ROBOT));
+		assertEquals(0.05, statistics.getCardinality(robot, X), 0.01);
+
+		// no estimate without bound variables
+		assertTrue(statistics.getCardinality(nick, Collections.emptySet()) < 0);
+
+		StatementPattern unknown = new StatementPattern(new Var("x"), constant(vf.createIRI("urn:unknown")),
+				new Var("y"));
+		assertEquals(0, statistics.getCardinality(unknown, X), 0);
+	}
+
+	private PredicateStatistics getPredicateStatistics(IRI pred) throws Exception {
+		return store.getNativeSailStore().getTripleStore().updatePredicateStatistics(getID(pred)).get();
+	}
+
+	private int getID(Value value) throws Exception {
+		return store.getNativeSailStore().getValueStore().getID(value);
+	}
+
+	private static Var constant(IRI value) {
+		Var var = new Var("const_" + value.stringValue(), value);
+		var.setConstant(true);
+		return var;
+	}
+}
@@ -9,9 +9,12 @@ package org.eclipse.rdf4j.sail.nativerdf;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.nio.file.Files;
 
+import org.eclipse.rdf4j.common.io.ByteArrayUtil;
 import org.eclipse.rdf4j.sail.nativerdf.TxnStatusFile.TxnStatus;
 import org.eclipse.rdf4j.sail.nativerdf.btree.RecordIterator;
 import org.junit.Rule;
@@ -81,4 +84,43 @@ public class TripleStoreRecoveryTest {
 		}
 	}
 
+	@Test
+	public void testBulkLoadRecovery() throws Exception {
+		File dataDir = tmpDir.getRoot();
+		File recordFile = tmpDir.newFile("records.dat");
+		byte[] record = new byte[TripleStore.RECORD_LENGTH];
+		ByteArrayUtil.putInt(1, record, TripleStore.SUBJ_IDX);
+		ByteArrayUtil.putInt(2, record, TripleStore.PRED_IDX);
+		ByteArrayUtil.putInt(3, record, TripleStore.OBJ_IDX);
+		ByteArrayUtil.putInt(4, record, TripleStore.CONTEXT_IDX);
+		record[TripleStore.FLAG_IDX] = TripleStore.EXPLICIT_FLAG;
+		Files.write(recordFile.toPath(), record);
+
+		TripleStore tripleStore = new TripleStore(dataDir, "spoc,posc");
+		try {
+			tripleStore.bulkLoad(recordFile, 10);
+		} finally {
+			tripleStore.close();
+		}
+
+		// Pretend that the bulk load was interrupted after some of the indexes had been built
+		TxnStatusFile txnStatusFile = new TxnStatusFile(dataDir);
+		try {
+			txnStatusFile.setTxnStatus(TxnStatus.BULK_LOADING);
+		} finally {
+			txnStatusFile.close();
+		}
+
+		// The partially loaded indexes should be cleared
+		tripleStore = new TripleStore(dataDir, "spoc,posc");
+		try {
+			assertTrue(tripleStore.isEmpty());
+			try (RecordIterator iter = tripleStore.getTriples(-1, 2, -1, -1)) {
+				assertNull(iter.next());
+			}
+		} finally {
+			tripleStore.close();
+		}
+	}
+
 }
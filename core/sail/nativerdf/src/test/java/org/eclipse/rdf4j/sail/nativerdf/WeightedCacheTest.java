@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.Test;
+
+public class WeightedCacheTest {
+
+	@Test
+	public void testCapacity() {
+		WeightedCache<Integer, String> cache = new WeightedCache<>(100);
+
+		for (int i = 0; i < 1000; i++) {
+			cache.get(i);
+			cache.put(i, "value" + i);
+		}
+
+		CacheStatistics stats = cache.getStatistics();
+		assertEquals(100, cache.size());
+		assertEquals(100, stats.getWeight());
+		assertEquals(900, stats.getEvictionCount() + stats.getRejectionCount());
+		assertEquals(1000, stats.getMissCount());
+		assertEquals(0, stats.getHitCount());
+	}
+
+	@Test
+	public void testFrequentEntriesSurviveScan() {
+		WeightedCache<Integer, String> cache = new WeightedCache<>(100);
+
+		long workingSetMisses = 0;
+		for (int round = 0; round < 100; round++) {
+			// a small working set that is used over and over again
+			for (int i = 0; i < 50; i++) {
+				if (cache.get(i) == null) {
+					cache.put(i, "value" + i);
+					workingSetMisses++;
+				}
+			}
+
+			// interleaved with scans over more values than fit in the cache, each used only once
+			for (int i = 0; i < 100; i++) {
+				int key = 1000 + round * 100 + i;
+				if (cache.get(key) == null) {
+					cache.put(key, "value" + key);
+				}
+			}
+		}
+
+		// an LRU cache would miss the complete working set in every round
+		assertTrue("working set misses: " + workingSetMisses, workingSetMisses < 200);
+		assertTrue(cache.getStatistics().getRejectionCount() > 0);
+	}
+
+	@Test
+	public void testWeight() {
+		WeightedCache<Integer, String> cache = new WeightedCache<>(1000, 10, (key, value) -> value.length());
+
+		cache.put(1, new String(new char[400]));
+		cache.put(2, new String(new char[400]));
+		assertEquals(800, cache.getStatistics().getWeight());
+
+		// too large to be cached at all
+		cache.put(3, new String(new char[2000]));
+		assertNull(cache.get(3));
+		assertEquals(1, cache.getStatistics().getRejectionCount());
+
+		cache.put(4, new String(new char[400]));
+		assertTrue(cache.getStatistics().getWeight() <= 1000);
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testReplace() {
+		WeightedCache<Integer, String> cache = new WeightedCache<>(1000, 10, (key, value) -> value.length());
+
+		cache.put(1, "abc");
+		cache.put(1, "abcdef");
+
+		assertEquals("abcdef", cache.get(1));
+		assertEquals(1, cache.size());
+		assertEquals(6, cache.getStatistics().getWeight());
+	}
+
+	@Test
+	public void testClear() {
+		WeightedCache<Integer, String> cache = new WeightedCache<>(10);
+		cache.put(1, "a");
+		cache.get(1);
+
+		cache.clear();
+
+		assertNull(cache.get(1));
+		CacheStatistics stats = cache.getStatistics();
+		assertEquals(0, stats.getSize());
+		assertEquals(0, stats.getWeight());
+		assertEquals(1, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+	}
+
+	@Test
+	public void testEstimateSize() {
+		assertTrue(ValueStore.estimateSize(RDF.TYPE) > 2 * RDF.TYPE.stringValue().length());
+		assertTrue(ValueStore.estimateSize(RDF.TYPE) < ValueStore.estimateSize(RDF.LANGSTRING));
+	}
+}
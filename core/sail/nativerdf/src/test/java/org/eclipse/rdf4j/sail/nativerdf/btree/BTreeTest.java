@@ -7,8 +7,15 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.nativerdf.btree;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.After;
@@ -135,11 +142,69 @@ public class BTreeTest {
 		}
 	}
 
+	@Test
+	public void testBuild() throws Exception {
+		assertEquals(TEST_VALUES.size(), btree.build(new ListRecordIterator(TEST_VALUES)));
+
+		try (RecordIterator iter = btree.iterateAll()) {
+			for (byte[] value : TEST_VALUES) {
+				assertArrayEquals(value, iter.next());
+			}
+			assertNull(iter.next());
+		}
+
+		// the built tree must support regular updates
+		for (byte[] value : RANDOMIZED_TEST_VALUES) {
+			btree.remove(value);
+		}
+		assertTrue(btree.isEmpty());
+	}
+
+	@Test
+	public void testBuildUnsorted() throws Exception {
+		try {
+			btree.build(new ListRecordIterator(RANDOMIZED_TEST_VALUES));
+			fail("expected IllegalArgumentException");
+		} catch (IllegalArgumentException e) {
+			// expected
+		}
+		assertTrue(btree.isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testBuildNonEmpty() throws Exception {
+		btree.insert(TEST_VALUES.get(0));
+		btree.build(new ListRecordIterator(TEST_VALUES.subList(1, 2)));
+	}
+
 	@Test
 	public void testNewAndClear() throws Exception {
 		btree.clear();
 	}
 
+	private static class ListRecordIterator implements RecordIterator {
+
+		private final Iterator<byte[]> values;
+
+		public ListRecordIterator(List<byte[]> values) {
+			this.values = values.iterator();
+		}
+
+		@Override
+		public byte[] next() {
+			return values.hasNext() ? values.next() : null;
+		}
+
+		@Override
+		public void set(byte[] value) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
 	/*
 	 * Test for SES-527 public void testRootNodeSplit() throws Exception { // Fill the root node for (int i = 0; i < 15;
 	 * i++) { btree.insert(TEST_VALUES.get(i)); } // Fire up an iterator RecordIterator iter = btree.iterateAll();
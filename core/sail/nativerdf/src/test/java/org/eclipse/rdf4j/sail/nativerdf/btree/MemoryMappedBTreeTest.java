@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf.btree;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MemoryMappedBTreeTest {
+
+	@Rule
+	public final TemporaryFolder tmpDir = new TemporaryFolder();
+
+	private File dataDir;
+
+	private BTree btree;
+
+	@Before
+	public void setUp() throws Exception {
+		dataDir = tmpDir.newFolder();
+		btree = new BTree(dataDir, "test", 85, 1, new DefaultRecordComparator(), false, true);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		btree.delete();
+	}
+
+	@Test
+	public void testIterateAfterReopen() throws Exception {
+		for (int i = 255; i >= 0; i--) {
+			btree.insert(new byte[] { (byte) i });
+		}
+		btree.close();
+
+		btree = new BTree(dataDir, "test", 85, 1, new DefaultRecordComparator(), false, true);
+		assertTrue(btree.isMemoryMapped());
+
+		try (RecordIterator iter = btree.iterateAll()) {
+			for (int i = 0; i < 256; i++) {
+				assertArrayEquals(new byte[] { (byte) i }, iter.next());
+			}
+			assertNull(iter.next());
+		}
+	}
+
+	@Test
+	public void testReadAfterGrowAndShrink() throws Exception {
+		for (int i = 0; i < 128; i++) {
+			btree.insert(new byte[] { (byte) i });
+		}
+		btree.sync();
+
+		// nodes written after the initial mapping must be visible as well
+		for (int i = 128; i < 256; i++) {
+			btree.insert(new byte[] { (byte) i });
+		}
+		btree.sync();
+
+		for (int i = 0; i < 256; i += 2) {
+			btree.remove(new byte[] { (byte) i });
+		}
+		btree.sync();
+
+		int count = 0;
+		try (RecordIterator iter = btree.iterateAll()) {
+			for (byte[] value = iter.next(); value != null; value = iter.next()) {
+				assertEquals(1, value[0] & 1);
+				count++;
+			}
+		}
+		assertEquals(128, count);
+	}
+
+	@Test
+	public void testReadAfterClear() throws Exception {
+		for (int i = 0; i < 256; i++) {
+			btree.insert(new byte[] { (byte) i });
+		}
+		btree.sync();
+		try (RecordIterator iter = btree.iterateAll()) {
+			assertArrayEquals(new byte[] { 0 }, iter.next());
+		}
+
+		// the mapping is released before the file is truncated
+		btree.clear();
+		assertEquals(BTree.HEADER_LENGTH, new File(dataDir, "test.dat").length());
+
+		btree.insert(new byte[] { 42 });
+		btree.sync();
+		try (RecordIterator iter = btree.iterateAll()) {
+			assertArrayEquals(new byte[] { 42 }, iter.next());
+			assertNull(iter.next());
+		}
+	}
+
+	@Test
+	public void testConcurrentReadsWhileGrowing() throws Exception {
+		btree.insert(new byte[] { 0 });
+		btree.sync();
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> readers = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				readers.add(executor.submit(() -> {
+					for (int round = 0; round < 200; round++) {
+						try (RecordIterator iter = btree.iterateAll()) {
+							// the smallest value never changes, whichever nodes have been written so far
+							assertArrayEquals(new byte[] { 0 }, iter.next());
+							while (iter.next() != null) {
+								;
+							}
+						}
+					}
+					return null;
+				}));
+			}
+
+			// the file grows while the readers extend the mapping and copy from replaced segments
+			for (int i = 1; i < 256; i++) {
+				btree.insert(new byte[] { (byte) i });
+				btree.sync();
+			}
+
+			for (Future<?> reader : readers) {
+				reader.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
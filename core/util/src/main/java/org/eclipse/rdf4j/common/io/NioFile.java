@@ -12,9 +12,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.channels.WritableByteChannel;
 
 /**
@@ -204,6 +206,27 @@ public final class NioFile implements Closeable {
 		}
 	}
 
+	/**
+	 * Performs a protected {@link FileChannel#map(MapMode, long, long)} call.
+	 *
+	 * @param mode     map mode
+	 * @param position position within the file at which the mapped region starts
+	 * @param size     size of the region to be mapped
+	 * @return mapped byte buffer
+	 * @throws IOException
+	 */
+	public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+		while (true) {
+			try {
+				return fc.map(mode, position, size);
+			} catch (ClosedByInterruptException e) {
+				throw e;
+			} catch (ClosedChannelException e) {
+				reopen(e);
+			}
+		}
+	}
+
 	/**
 	 * Performs a protected {@link FileChannel#write(ByteBuffer, long)} call.
 	 *
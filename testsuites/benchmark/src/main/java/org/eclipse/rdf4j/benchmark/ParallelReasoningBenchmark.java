@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.benchmark;
+
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.inferencer.fc.SchemaCachingRDFSInferencer;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Runs the {@link ReasoningBenchmark} with a varying number of threads that infer statements in the
+ * {@link SchemaCachingRDFSInferencer}. Use a benchmark filter such as
+ * <tt>ParallelReasoningBenchmark.forwardChainingSchemaCaching</tt> to only run the benchmarks of that inferencer.
+ */
+public class ParallelReasoningBenchmark extends ReasoningBenchmark {
+
+	@Param({ "1", "2", "4", "8" })
+	public int inferenceThreads;
+
+	@Override
+	SchemaCachingRDFSInferencer createSchemaCachingRDFSInferencer(SailRepository schema) {
+		SchemaCachingRDFSInferencer sail = super.createSchemaCachingRDFSInferencer(schema);
+		sail.setInferenceThreads(inferenceThreads);
+		return sail;
+	}
+
+}
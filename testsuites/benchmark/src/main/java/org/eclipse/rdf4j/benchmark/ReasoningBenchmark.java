@@ -116,7 +116,7 @@ public class ReasoningBenchmark {
 	@BenchmarkMode(Mode.AverageTime)
 	@OutputTimeUnit(TimeUnit.MILLISECONDS)
 	public void forwardChainingSchemaCachingRDFSInferencer() throws IOException {
-		SailRepository sail = new SailRepository(new SchemaCachingRDFSInferencer(new MemoryStore()));
+		SailRepository sail = new SailRepository(createSchemaCachingRDFSInferencer(null));
 
 		try (SailRepositoryConnection connection = sail.getConnection()) {
 			connection.begin();
@@ -151,7 +151,7 @@ public class ReasoningBenchmark {
 	@BenchmarkMode(Mode.AverageTime)
 	@OutputTimeUnit(TimeUnit.MILLISECONDS)
 	public void forwardChainingSchemaCachingRDFSInferencerMultipleTransactions() throws IOException {
-		SailRepository sail = new SailRepository(new SchemaCachingRDFSInferencer(new MemoryStore()));
+		SailRepository sail = new SailRepository(createSchemaCachingRDFSInferencer(null));
 
 		try (SailRepositoryConnection connection = sail.getConnection()) {
 
@@ -170,7 +170,7 @@ public class ReasoningBenchmark {
 	@BenchmarkMode(Mode.AverageTime)
 	@OutputTimeUnit(TimeUnit.MILLISECONDS)
 	public void forwardChainingSchemaCachingRDFSInferencerSchema() throws IOException {
-		SailRepository sail = new SailRepository(new SchemaCachingRDFSInferencer(new MemoryStore(), createSchema()));
+		SailRepository sail = new SailRepository(createSchemaCachingRDFSInferencer(createSchema()));
 
 		try (SailRepositoryConnection connection = sail.getConnection()) {
 			connection.begin();
@@ -185,7 +185,7 @@ public class ReasoningBenchmark {
 	@BenchmarkMode(Mode.AverageTime)
 	@OutputTimeUnit(TimeUnit.MILLISECONDS)
 	public void forwardChainingSchemaCachingRDFSInferencerMultipleTransactionsSchema() throws IOException {
-		SailRepository sail = new SailRepository(new SchemaCachingRDFSInferencer(new MemoryStore(), createSchema()));
+		SailRepository sail = new SailRepository(createSchemaCachingRDFSInferencer(createSchema()));
 
 		try (SailRepositoryConnection connection = sail.getConnection()) {
 			addAllDataMultipleTransactions(connection);
@@ -194,6 +194,13 @@ public class ReasoningBenchmark {
 
 	}
 
+	SchemaCachingRDFSInferencer createSchemaCachingRDFSInferencer(SailRepository schema) {
+		if (schema == null) {
+			return new SchemaCachingRDFSInferencer(new MemoryStore());
+		}
+		return new SchemaCachingRDFSInferencer(new MemoryStore(), schema);
+	}
+
 	private SailRepository createSchema() throws IOException {
 		SailRepository schema = new SailRepository(new MemoryStore());
 		schema.initialize();
@@ -8,7 +8,9 @@
 package org.eclipse.rdf4j.console.command;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.file.Path;
@@ -21,12 +23,23 @@ import org.eclipse.rdf4j.console.Util;
 import org.eclipse.rdf4j.console.setting.ConsoleSetting;
 import org.eclipse.rdf4j.console.setting.WorkDir;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryReadOnlyException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
+import org.eclipse.rdf4j.rio.RDFParser;
+import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.nativerdf.NativeBulkLoader;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStoreConnection;
 
 /**
  * Load command
@@ -46,10 +59,11 @@ public class Load extends ConsoleCommand {
 
 	@Override
 	public String getHelpLong() {
-		return PrintHelp.USAGE + "load <file-or-url> [from <base-uri>] [into <context-id>]\n"
+		return PrintHelp.USAGE + "load <file-or-url> [from <base-uri>] [into <context-id>] [bulk]\n"
 				+ "  <file-or-url>   The path or URL identifying the data file\n"
 				+ "  <base-uri>      The base URI to use for resolving relative references, defaults to <file-or-url>\n"
 				+ "  <context-id>    The ID of the context to add the data to, e.g. foo:bar or _:n123\n"
+				+ "  bulk            Build the indexes from sorted data, only for empty local native stores\n"
 				+ "Loads the specified data file into the current repository\n";
 	}
 
@@ -80,6 +94,7 @@ public class Load extends ConsoleCommand {
 			} else {
 				String baseURI = null;
 				String context = null;
+				boolean bulk = false;
 
 				int index = 2;
 				if (tokens.length >= index + 2 && tokens[index].equalsIgnoreCase("from")) {
@@ -87,13 +102,17 @@ public class Load extends ConsoleCommand {
 					index += 2;
 				}
 				if (tokens.length >= index + 2 && tokens[index].equalsIgnoreCase("into")) {
-					context = tokens[tokens.length - 1];
+					context = tokens[index + 1];
 					index += 2;
 				}
+				if (tokens.length >= index + 1 && tokens[index].equalsIgnoreCase("bulk")) {
+					bulk = true;
+					index++;
+				}
 				if (index < tokens.length) {
 					writeln(getHelpLong());
 				} else {
-					load(repository, baseURI, context, tokens);
+					load(repository, baseURI, context, bulk, tokens);
 				}
 			}
 		}
@@ -114,9 +133,10 @@ public class Load extends ConsoleCommand {
 	 * @param repository repository
 	 * @param baseURI
 	 * @param context
+	 * @param bulk       use the bulk loader of a native store
 	 * @param tokens
 	 */
-	private void load(Repository repository, String baseURI, String context, final String... tokens) {
+	private void load(Repository repository, String baseURI, String context, boolean bulk, final String... tokens) {
 		final String dataPath = tokens[1];
 		URL dataURL = null;
 		File dataFile = null;
@@ -133,7 +153,11 @@ public class Load extends ConsoleCommand {
 		}
 
 		try {
-			addData(repository, baseURI, context, dataURL, dataFile);
+			if (bulk) {
+				bulkLoadData(repository, baseURI, context, dataURL, dataFile);
+			} else {
+				addData(repository, baseURI, context, dataURL, dataFile);
+			}
 		} catch (RepositoryReadOnlyException e) {
 			handleReadOnlyException(repository, e, tokens);
 		} catch (MalformedURLException e) {
@@ -147,7 +171,7 @@ public class Load extends ConsoleCommand {
 			writeError("No parser available for this RDF format");
 		} catch (RDFParseException e) {
 			writeError("Malformed document", e);
-		} catch (RepositoryException e) {
+		} catch (RepositoryException | SailException e) {
 			writeError("Unable to add data to repository", e);
 		}
 	}
@@ -204,6 +228,62 @@ public class Load extends ConsoleCommand {
 		writeln("Data has been added to the repository (" + (endTime - startTime) / 1_000_000 + " ms)");
 	}
 
+	/**
+	 * Load data from a URL or local file into an empty native store, building its indexes from sorted data. If the
+	 * dataURL is null, then the datafile will be used.
+	 *
+	 * @param repository repository
+	 * @param baseURI    base URI
+	 * @param context    context (can be null)
+	 * @param dataURL    url of the data
+	 * @param dataFile   file containing data
+	 * @throws IOException
+	 * @throws RDFParseException
+	 */
+	private void bulkLoadData(Repository repository, String baseURI, String context, URL dataURL, File dataFile)
+			throws IOException, RDFParseException {
+		if (!(repository instanceof SailRepository)
+				|| !(((SailRepository) repository).getSail() instanceof NativeStore)) {
+			writeError("Bulk loading is only supported for local native stores");
+			return;
+		}
+		NativeStore store = (NativeStore) ((SailRepository) repository).getSail();
+
+		Resource[] contexts = getContexts(repository, context);
+		String fileName = dataURL == null ? dataFile.getName() : dataURL.getPath();
+		RDFFormat format = Rio.getParserFormatForFileName(fileName).orElseThrow(Rio.unsupportedFormat(fileName));
+		if (baseURI == null) {
+			baseURI = dataURL == null ? dataFile.toURI().toString() : dataURL.toExternalForm();
+		}
+		writeln("Loading data...");
+
+		final long startTime = System.nanoTime();
+		long count;
+		try (NativeStoreConnection con = (NativeStoreConnection) store.getConnection();
+				NativeBulkLoader loader = con.createBulkLoader();
+				InputStream in = dataURL == null ? new FileInputStream(dataFile) : dataURL.openStream()) {
+			RDFParser parser = Rio.createParser(format, store.getValueFactory());
+			parser.setRDFHandler(new AbstractRDFHandler() {
+
+				@Override
+				public void handleStatement(Statement st) throws RDFHandlerException {
+					if (contexts.length == 0) {
+						loader.add(st);
+					} else {
+						loader.add(st.getSubject(), st.getPredicate(), st.getObject(), contexts);
+					}
+				}
+			});
+			parser.parse(in, baseURI);
+
+			writeln("Building indexes...");
+			count = loader.load();
+		}
+		final long endTime = System.nanoTime();
+		writeln("Data has been bulk loaded into the repository, " + count + " statements ("
+				+ (endTime - startTime) / 1_000_000 + " ms)");
+	}
+
 	/**
 	 * Get context as resource
 	 *
@@ -21,6 +21,7 @@ import org.eclipse.rdf4j.query.MalformedQueryException;
 import org.eclipse.rdf4j.query.Operation;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.Update;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.sail.SailBooleanQuery;
 import org.eclipse.rdf4j.repository.sail.SailGraphQuery;
@@ -70,9 +71,10 @@ public class FedXRepositoryConnection extends SailRepositoryConnection {
 	}
 
 	@Override
-	public SailQuery prepareQuery(QueryLanguage ql, String queryString,
-			String baseURI) throws MalformedQueryException {
-		SailQuery q = super.prepareQuery(ql, queryString, baseURI);
+	public SailQuery prepareQuery(QueryLanguage ql, String queryString, String baseURI,
+			ParsedQuery parsedQuery) {
+		// prepareQuery(ql, queryString, baseURI) delegates to this method
+		SailQuery q = super.prepareQuery(ql, queryString, baseURI, parsedQuery);
 		if (q instanceof SailTupleQuery) {
 			insertOriginalQueryString(q, queryString, baseURI, QueryType.SELECT);
 			q = new FedXTupleQuery((SailTupleQuery) q);
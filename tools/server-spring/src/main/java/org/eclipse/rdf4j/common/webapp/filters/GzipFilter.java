@@ -0,0 +1,316 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.common.webapp.filters;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Compresses responses with gzip if the client accepts it. Unlike filters that finish the compressed stream when the
+ * filter chain returns, this filter supports asynchronous requests: if the request has been put into asynchronous mode,
+ * the stream is finished at the end of the dispatch that completes the request. The filter must therefore also be
+ * mapped to the <tt>ASYNC</tt> dispatcher.
+ * <p>
+ * Content types that should not be compressed, e.g. because they are compact binary formats, can be configured with the
+ * comma-separated <tt>excludeContentTypes</tt> init parameter.
+ */
+public class GzipFilter implements Filter {
+
+	private static final String RESPONSE_ATTRIBUTE = GzipFilter.class.getName() + ".response";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private Set<String> excludedContentTypes = Collections.emptySet();
+
+	@Override
+	public void init(FilterConfig filterConf) throws ServletException {
+		String excluded = filterConf.getInitParameter("excludeContentTypes");
+		if (excluded != null) {
+			excludedContentTypes = new HashSet<>();
+			for (String contentType : excluded.split(",")) {
+				if (!contentType.trim().isEmpty()) {
+					excludedContentTypes.add(contentType.trim().toLowerCase(Locale.ROOT));
+				}
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		// do nothing
+	}
+
+	@Override
+	public void doFilter(ServletRequest req, ServletResponse res, FilterChain filterChain)
+			throws IOException, ServletException {
+		if (!(req instanceof HttpServletRequest)) {
+			filterChain.doFilter(req, res);
+			return;
+		}
+		HttpServletRequest request = (HttpServletRequest) req;
+
+		// an asynchronous dispatch continues with the response of the request that started it
+		GzipResponseWrapper response = (GzipResponseWrapper) request.getAttribute(RESPONSE_ATTRIBUTE);
+		if (response == null) {
+			if (!acceptsGzip(request) || "HEAD".equals(request.getMethod())) {
+				filterChain.doFilter(req, res);
+				return;
+			}
+			response = new GzipResponseWrapper((HttpServletResponse) res);
+			request.setAttribute(RESPONSE_ATTRIBUTE, response);
+		}
+
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			if (!request.isAsyncStarted()) {
+				response.finish();
+			}
+		}
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader("Accept-Encoding");
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim();
+			if ("gzip".equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+				for (int i = 1; i < parts.length; i++) {
+					String param = parts[i].trim();
+					if (param.startsWith("q=")) {
+						try {
+							return Double.parseDouble(param.substring(2)) > 0;
+						} catch (NumberFormatException e) {
+							return false;
+						}
+					}
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Decides whether to compress once the body is first written, when the content type is known.
+	 */
+	private class GzipResponseWrapper extends HttpServletResponseWrapper {
+
+		private ServletOutputStream stream;
+
+		private PrintWriter writer;
+
+		private GZIPOutputStream gzip;
+
+		private boolean finished;
+
+		/**
+		 * The content length that was set before the body was written, which only applies if it is not compressed.
+		 */
+		private long contentLength = -1;
+
+		public GzipResponseWrapper(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (writer != null) {
+				throw new IllegalStateException("getWriter() has already been called");
+			}
+			if (stream == null) {
+				stream = createStream();
+			}
+			return stream;
+		}
+
+		@Override
+		public PrintWriter getWriter() throws IOException {
+			if (writer == null) {
+				if (stream != null) {
+					throw new IllegalStateException("getOutputStream() has already been called");
+				}
+				stream = createStream();
+				writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+			}
+			return writer;
+		}
+
+		private ServletOutputStream createStream() throws IOException {
+			if (!isCompressible()) {
+				if (contentLength >= 0) {
+					super.setContentLengthLong(contentLength);
+				}
+				return super.getOutputStream();
+			}
+			super.setHeader("Content-Encoding", "gzip");
+			super.addHeader("Vary", "Accept-Encoding");
+			// flush the compressor when a view flushes, so that results are streamed to the client
+			gzip = new GZIPOutputStream(super.getOutputStream(), BUFFER_SIZE, true);
+			return new GzipOutputStream();
+		}
+
+		private boolean isCompressible() {
+			if (getStatus() == SC_NO_CONTENT || getStatus() == SC_NOT_MODIFIED || containsHeader("Content-Encoding")) {
+				return false;
+			}
+			String contentType = getContentType();
+			if (contentType == null) {
+				return true;
+			}
+			int semicolon = contentType.indexOf(';');
+			String mimeType = semicolon < 0 ? contentType : contentType.substring(0, semicolon);
+			return !excludedContentTypes.contains(mimeType.trim().toLowerCase(Locale.ROOT));
+		}
+
+		@Override
+		public void setContentLength(int len) {
+			setContentLengthLong(len);
+		}
+
+		@Override
+		public void setContentLengthLong(long len) {
+			if (stream == null) {
+				contentLength = len;
+			} else if (gzip == null) {
+				super.setContentLengthLong(len);
+			}
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			} else {
+				super.setHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addHeader(String name, String value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthLong(Long.parseLong(value));
+			} else {
+				super.addHeader(name, value);
+			}
+		}
+
+		@Override
+		public void setIntHeader(String name, int value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthLong(value);
+			} else {
+				super.setIntHeader(name, value);
+			}
+		}
+
+		@Override
+		public void addIntHeader(String name, int value) {
+			if ("Content-Length".equalsIgnoreCase(name)) {
+				setContentLengthLong(value);
+			} else {
+				super.addIntHeader(name, value);
+			}
+		}
+
+		@Override
+		public void flushBuffer() throws IOException {
+			if (writer != null) {
+				writer.flush();
+			} else if (stream != null) {
+				stream.flush();
+			}
+			super.flushBuffer();
+		}
+
+		@Override
+		public void reset() {
+			super.reset();
+			// the headers and the buffered body are discarded, so the body is started again
+			stream = null;
+			writer = null;
+			gzip = null;
+			finished = false;
+			contentLength = -1;
+		}
+
+		/**
+		 * Writes the remaining compressed data, if the body was compressed. The underlying stream is left open for the
+		 * container.
+		 */
+		void finish() throws IOException {
+			if (stream == null && contentLength >= 0) {
+				super.setContentLengthLong(contentLength);
+			}
+			if (writer != null) {
+				writer.flush();
+			}
+			if (gzip != null && !finished) {
+				finished = true;
+				gzip.finish();
+			}
+		}
+
+		private class GzipOutputStream extends ServletOutputStream {
+
+			@Override
+			public void write(int b) throws IOException {
+				gzip.write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				gzip.write(b, off, len);
+			}
+
+			@Override
+			public void flush() throws IOException {
+				if (!finished) {
+					gzip.flush();
+				}
+			}
+
+			@Override
+			public void close() throws IOException {
+				finish();
+				GzipResponseWrapper.super.getOutputStream().close();
+			}
+
+			@Override
+			public boolean isReady() {
+				return true;
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				throw new UnsupportedOperationException("Non-blocking writes are not supported");
+			}
+		}
+	}
+}
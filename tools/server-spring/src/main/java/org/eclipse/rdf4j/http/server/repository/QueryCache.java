@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.Query;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheBuilderSpec;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+/**
+ * Caches parsed queries, so that a query string that is evaluated repeatedly, typically with different bindings for its
+ * variables, is parsed only once. The parsed query does not depend on the bindings or the dataset of a request, so it
+ * is shared by all requests with the same query string, query language and base URI.
+ * <p>
+ * Only the parsing of queries is cached, not their optimization. The optimized plan depends on the bindings, the
+ * dataset and the statistics of the store at the time of evaluation, so the optimizer pipeline still runs for every
+ * evaluation, on a copy of the cached algebra.
+ * <p>
+ * Only queries on a plain {@link SailRepositoryConnection} use the cache. Queries on other connections, including
+ * subclasses such as the FedX connection that customize how queries are prepared, are prepared as usual.
+ */
+public class QueryCache {
+
+	/**
+	 * The default {@link CacheBuilderSpec cache specification}.
+	 */
+	public static final String DEFAULT_CACHE_SPEC = "maximumSize=1000,recordStats";
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private final AtomicLong lookups = new AtomicLong();
+
+	private volatile Cache<QueryKey, ParsedQuery> cache = CacheBuilder.from(DEFAULT_CACHE_SPEC).build();
+
+	private volatile long statisticsInterval = 10000;
+
+	/**
+	 * Sets the Guava {@link CacheBuilderSpec cache specification}, e.g. {@code maximumSize=1000,recordStats}.
+	 * Statistics are only available if the specification includes {@code recordStats}. Replaces the cache, discarding
+	 * all cached queries.
+	 */
+	public void setCacheSpec(String cacheSpec) {
+		cache = CacheBuilder.from(CacheBuilderSpec.parse(cacheSpec)).build();
+	}
+
+	/**
+	 * Sets the number of lookups after which the cache statistics are logged. A value of 0 disables logging of the
+	 * statistics. Defaults to 10000.
+	 */
+	public void setStatisticsInterval(long statisticsInterval) {
+		this.statisticsInterval = statisticsInterval;
+	}
+
+	/**
+	 * Prepares the query on the given connection, reusing a cached parsed query if possible. The query is optimized
+	 * when it is evaluated, as usual.
+	 *
+	 * @param con         the connection to prepare the query on.
+	 * @param ql          the query language.
+	 * @param queryString the query string.
+	 * @param baseURI     the base URI, may be <tt>null</tt>.
+	 * @return the prepared query.
+	 * @throws MalformedQueryException if the query string could not be parsed.
+	 */
+	public Query prepareQuery(RepositoryConnection con, QueryLanguage ql, String queryString, String baseURI)
+			throws MalformedQueryException {
+		if (con.getClass() != SailRepositoryConnection.class) {
+			// subclasses may customize prepareQuery in ways the cache would bypass
+			return con.prepareQuery(ql, queryString, baseURI);
+		}
+
+		ParsedQuery parsedQuery;
+		try {
+			parsedQuery = cache.get(new QueryKey(ql, queryString, baseURI),
+					() -> QueryParserUtil.parseQuery(ql, queryString, baseURI));
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			Throwables.throwIfUnchecked(e.getCause());
+			throw new RepositoryException(e.getCause());
+		} finally {
+			long interval = statisticsInterval;
+			if (interval > 0 && lookups.incrementAndGet() % interval == 0) {
+				logger.info("Query cache statistics: {}", getStatistics());
+			}
+		}
+
+		return ((SailRepositoryConnection) con).prepareQuery(ql, queryString, baseURI, parsedQuery);
+	}
+
+	/**
+	 * Gets the statistics of the cache: hits, misses, evictions and the time spent parsing queries.
+	 */
+	public CacheStats getStatistics() {
+		return cache.stats();
+	}
+
+	/**
+	 * Gets the number of cached queries.
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	/**
+	 * Discards all cached queries.
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+	private static class QueryKey {
+
+		private final QueryLanguage ql;
+
+		private final String queryString;
+
+		private final String baseURI;
+
+		private final int hashCode;
+
+		private QueryKey(QueryLanguage ql, String queryString, String baseURI) {
+			this.ql = ql;
+			this.queryString = queryString;
+			this.baseURI = baseURI;
+			this.hashCode = Objects.hash(ql, queryString, baseURI);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof QueryKey)) {
+				return false;
+			}
+			QueryKey other = (QueryKey) o;
+			return hashCode == other.hashCode && ql.equals(other.ql) && queryString.equals(other.queryString)
+					&& Objects.equals(baseURI, other.baseURI);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates queries on a bounded pool of worker threads, decoupled from the threads of the servlet container.
+ * <p>
+ * Admission is controlled per repository: at most {@link #setMaxConcurrentQueries(int) maxConcurrentQueries} queries on
+ * the same repository are evaluated at the same time, and at most {@link #setMaxQueuedQueries(int) maxQueuedQueries}
+ * further queries wait for their turn. Any further query is rejected with a {@link RejectedExecutionException}, so that
+ * a burst of slow queries results in queueing and fast rejections instead of in exhaustion of the container's threads.
+ */
+public class QueryExecutor {
+
+	private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	private final ConcurrentMap<String, RepositoryQueue> queues = new ConcurrentHashMap<>();
+
+	private int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+	private int maxConcurrentQueries = 0;
+
+	private int maxQueuedQueries = 100;
+
+	private volatile ExecutorService executor;
+
+	/**
+	 * Gets the number of worker threads evaluating queries.
+	 */
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	/**
+	 * Sets the number of worker threads evaluating queries, shared by all repositories. Defaults to twice the number of
+	 * available processors. Must be set before the first query is submitted.
+	 */
+	public void setMaxThreads(int maxThreads) {
+		if (maxThreads < 1) {
+			throw new IllegalArgumentException("maxThreads must be positive: " + maxThreads);
+		}
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Gets the maximum number of queries evaluated concurrently on a single repository.
+	 */
+	public int getMaxConcurrentQueries() {
+		return maxConcurrentQueries > 0 ? maxConcurrentQueries : maxThreads;
+	}
+
+	/**
+	 * Sets the maximum number of queries evaluated concurrently on a single repository. A value of 0 (the default)
+	 * allows a single repository to use all worker threads.
+	 */
+	public void setMaxConcurrentQueries(int maxConcurrentQueries) {
+		if (maxConcurrentQueries < 0) {
+			throw new IllegalArgumentException("maxConcurrentQueries must not be negative: " + maxConcurrentQueries);
+		}
+		this.maxConcurrentQueries = maxConcurrentQueries;
+	}
+
+	/**
+	 * Gets the maximum number of queries waiting for evaluation on a single repository.
+	 */
+	public int getMaxQueuedQueries() {
+		return maxQueuedQueries;
+	}
+
+	/**
+	 * Sets the maximum number of queries waiting for evaluation on a single repository. Defaults to 100.
+	 */
+	public void setMaxQueuedQueries(int maxQueuedQueries) {
+		if (maxQueuedQueries < 0) {
+			throw new IllegalArgumentException("maxQueuedQueries must not be negative: " + maxQueuedQueries);
+		}
+		this.maxQueuedQueries = maxQueuedQueries;
+	}
+
+	/**
+	 * Submits a query for evaluation on the given repository.
+	 *
+	 * @param repositoryID the ID of the repository the query is evaluated on.
+	 * @param query        evaluates the query and writes its result.
+	 * @param onCancel     releases the resources held for the query if it is cancelled before its evaluation started.
+	 *                     Queries that are cancelled during their evaluation are interrupted instead.
+	 * @return the submitted task.
+	 * @throws RejectedExecutionException if too many queries are already waiting on the repository, or if this executor
+	 *                                    has been shut down.
+	 */
+	public QueryTask submit(String repositoryID, Runnable query, Runnable onCancel) throws RejectedExecutionException {
+		RepositoryQueue queue = queues.computeIfAbsent(repositoryID, RepositoryQueue::new);
+		QueryTask task = new QueryTask(queue, query, onCancel);
+
+		synchronized (queue) {
+			if (queue.running < getMaxConcurrentQueries()) {
+				start(task);
+				queue.running++;
+			} else if (queue.waiting.size() < maxQueuedQueries) {
+				queue.waiting.add(task);
+				logger.debug("Query queued for repository {}, {} queries waiting", repositoryID, queue.waiting.size());
+			} else {
+				throw new RejectedExecutionException("Too many queries on repository " + repositoryID);
+			}
+		}
+
+		return task;
+	}
+
+	/**
+	 * Shuts down this executor, interrupting all running queries. Queries that are waiting are cancelled.
+	 */
+	public void shutDown() {
+		ExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdownNow();
+			try {
+				if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+					logger.warn("Query evaluation threads did not terminate");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		for (RepositoryQueue queue : queues.values()) {
+			QueryTask task;
+			while ((task = queue.poll()) != null) {
+				task.abort();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of queries evaluated on the given repository at this moment.
+	 */
+	int getRunningQueries(String repositoryID) {
+		RepositoryQueue queue = queues.get(repositoryID);
+		if (queue == null) {
+			return 0;
+		}
+		synchronized (queue) {
+			return queue.running;
+		}
+	}
+
+	/**
+	 * Gets the number of queries waiting for evaluation on the given repository at this moment.
+	 */
+	int getQueuedQueries(String repositoryID) {
+		RepositoryQueue queue = queues.get(repositoryID);
+		if (queue == null) {
+			return 0;
+		}
+		synchronized (queue) {
+			return queue.waiting.size();
+		}
+	}
+
+	private void start(QueryTask task) {
+		getExecutor().execute(task::run);
+	}
+
+	private ExecutorService getExecutor() {
+		ExecutorService result = executor;
+		if (result == null) {
+			synchronized (this) {
+				result = executor;
+				if (result == null) {
+					executor = result = Executors.newFixedThreadPool(maxThreads, new QueryThreadFactory());
+				}
+			}
+		}
+		return result;
+	}
+
+	private void finished(RepositoryQueue queue) {
+		synchronized (queue) {
+			QueryTask next;
+			while ((next = queue.waiting.poll()) != null) {
+				try {
+					// the finished query hands over its slot to the next query
+					start(next);
+					return;
+				} catch (RejectedExecutionException e) {
+					next.abort();
+				}
+			}
+			queue.running--;
+		}
+	}
+
+	/**
+	 * A query submitted to a {@link QueryExecutor}.
+	 */
+	public class QueryTask {
+
+		private final RepositoryQueue queue;
+
+		private final Runnable query;
+
+		private final Runnable onCancel;
+
+		private Thread thread;
+
+		private boolean cancelled;
+
+		private boolean done;
+
+		private QueryTask(RepositoryQueue queue, Runnable query, Runnable onCancel) {
+			this.queue = queue;
+			this.query = query;
+			this.onCancel = onCancel;
+		}
+
+		/**
+		 * Cancels this query. A waiting query is removed from the queue, a running query is interrupted.
+		 */
+		public void cancel() {
+			boolean removed;
+			synchronized (queue) {
+				removed = queue.waiting.remove(this);
+			}
+			synchronized (this) {
+				if (done) {
+					return;
+				}
+				cancelled = true;
+				if (thread != null) {
+					thread.interrupt();
+					return;
+				}
+				if (!removed) {
+					// not yet started, but already handed to a worker thread
+					return;
+				}
+				done = true;
+				notifyAll();
+			}
+			onCancel.run();
+		}
+
+		private void abort() {
+			synchronized (this) {
+				if (done) {
+					return;
+				}
+				cancelled = true;
+				done = true;
+				notifyAll();
+			}
+			onCancel.run();
+		}
+
+		/**
+		 * Waits until this query is done. If the waiting thread is interrupted, the query is cancelled, and this method
+		 * still waits for the query to finish before returning.
+		 */
+		public void await() {
+			boolean interrupted = false;
+			synchronized (this) {
+				while (!done && !interrupted) {
+					try {
+						wait();
+					} catch (InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				// cancel outside of the monitor, as it needs the queue lock
+				cancel();
+				synchronized (this) {
+					while (!done) {
+						try {
+							wait();
+						} catch (InterruptedException e) {
+							// keep waiting, the query is interrupted already
+						}
+					}
+				}
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		/**
+		 * Checks whether this query is done, either because it has been evaluated or because it has been cancelled.
+		 */
+		public synchronized boolean isDone() {
+			return done;
+		}
+
+		/**
+		 * Checks whether this query has been cancelled.
+		 */
+		public synchronized boolean isCancelled() {
+			return cancelled;
+		}
+
+		private void run() {
+			boolean skip;
+			synchronized (this) {
+				skip = cancelled;
+				if (!skip) {
+					thread = Thread.currentThread();
+				}
+			}
+			try {
+				if (skip) {
+					onCancel.run();
+				} else {
+					query.run();
+				}
+			} catch (RuntimeException e) {
+				logger.error("Error while evaluating query", e);
+			} finally {
+				synchronized (this) {
+					thread = null;
+				}
+				// clear the interrupt of a cancelled query before the thread is reused
+				Thread.interrupted();
+				finished(queue);
+				synchronized (this) {
+					done = true;
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	private class RepositoryQueue {
+
+		private final String repositoryID;
+
+		private final Deque<QueryTask> waiting = new ArrayDeque<>();
+
+		private int running;
+
+		private RepositoryQueue(String repositoryID) {
+			this.repositoryID = repositoryID;
+		}
+
+		private synchronized QueryTask poll() {
+			return waiting.poll();
+		}
+
+		@Override
+		public String toString() {
+			return repositoryID;
+		}
+	}
+
+	private static class QueryThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "rdf4j-query-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -23,11 +23,13 @@ import java.io.IOException;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
 import org.eclipse.rdf4j.RDF4JException;
 import org.eclipse.rdf4j.common.lang.FileFormat;
@@ -73,6 +75,9 @@ import org.eclipse.rdf4j.rio.Rio;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationContextException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.servlet.ModelAndView;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.mvc.AbstractController;
@@ -89,9 +94,15 @@ public class RepositoryController extends AbstractController {
 
 	private RepositoryManager repositoryManager;
 
+	private QueryExecutor queryExecutor;
+
+	private QueryCache queryCache;
+
 	private static final String METHOD_DELETE = "DELETE";
 	private static final String METHOD_PUT = "PUT";
 
+	private static final int RETRY_AFTER_SECONDS = 1;
+
 	public RepositoryController() throws ApplicationContextException {
 		setSupportedMethods(new String[] { METHOD_GET, METHOD_POST, METHOD_PUT, METHOD_DELETE, METHOD_HEAD });
 	}
@@ -100,9 +111,36 @@ public class RepositoryController extends AbstractController {
 		repositoryManager = repMan;
 	}
 
+	/**
+	 * Sets the {@link QueryExecutor} on which queries are evaluated. If not set, queries are evaluated on the thread
+	 * handling the request.
+	 */
+	public void setQueryExecutor(QueryExecutor queryExecutor) {
+		this.queryExecutor = queryExecutor;
+	}
+
+	/**
+	 * Sets the {@link QueryCache} that is used to reuse parsed queries across requests. If not set, every query is
+	 * parsed.
+	 */
+	public void setQueryCache(QueryCache queryCache) {
+		this.queryCache = queryCache;
+	}
+
 	@Override
 	protected ModelAndView handleRequestInternal(HttpServletRequest request, HttpServletResponse response)
 			throws Exception {
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		if (asyncManager.hasConcurrentResult()) {
+			// dispatched again after a query has been evaluated on the query executor
+			Object outcome = asyncManager.getConcurrentResult();
+			asyncManager.clearConcurrentResult();
+			if (outcome instanceof Exception) {
+				throw (Exception) outcome;
+			}
+			return null;
+		}
+
 		String reqMethod = request.getMethod();
 		String queryStr = request.getParameter(QUERY_PARAM_NAME);
 
@@ -208,72 +246,31 @@ public class RepositoryController extends AbstractController {
 				Query query = getQuery(repository, repositoryCon, queryStr, request, response);
 
 				View view;
-				Object queryResult = null;
 				FileFormatServiceRegistry<? extends FileFormat, ?> registry;
 
-				try {
-					if (query instanceof TupleQuery) {
-						if (!headersOnly) {
-							TupleQuery tQuery = (TupleQuery) query;
-							long limit = ProtocolUtil.parseLongParam(request, Protocol.LIMIT_PARAM_NAME, 0);
-							long offset = ProtocolUtil.parseLongParam(request, Protocol.OFFSET_PARAM_NAME, 0);
-							boolean distinct = ProtocolUtil.parseBooleanParam(request, Protocol.DISTINCT_PARAM_NAME,
-									false);
-
-							final TupleQueryResult tqr = distinct ? QueryResults.distinctResults(tQuery.evaluate())
-									: tQuery.evaluate();
-							queryResult = QueryResults.limitResults(tqr, limit, offset);
-						}
-						registry = TupleQueryResultWriterRegistry.getInstance();
-						view = TupleQueryResultView.getInstance();
-					} else if (query instanceof GraphQuery) {
-						if (!headersOnly) {
-							GraphQuery gQuery = (GraphQuery) query;
-							long limit = ProtocolUtil.parseLongParam(request, Protocol.LIMIT_PARAM_NAME, 0);
-							long offset = ProtocolUtil.parseLongParam(request, Protocol.OFFSET_PARAM_NAME, 0);
-							boolean distinct = ProtocolUtil.parseBooleanParam(request, Protocol.DISTINCT_PARAM_NAME,
-									false);
-
-							final GraphQueryResult qqr = distinct ? QueryResults.distinctResults(gQuery.evaluate())
-									: gQuery.evaluate();
-							queryResult = QueryResults.limitResults(qqr, limit, offset);
-						}
-						registry = RDFWriterRegistry.getInstance();
-						view = GraphQueryResultView.getInstance();
-					} else if (query instanceof BooleanQuery) {
-						BooleanQuery bQuery = (BooleanQuery) query;
-
-						queryResult = headersOnly ? null : bQuery.evaluate();
-						registry = BooleanQueryResultWriterRegistry.getInstance();
-						view = BooleanQueryResultView.getInstance();
-					} else {
-						throw new ClientHTTPException(SC_BAD_REQUEST,
-								"Unsupported query type: " + query.getClass().getName());
-					}
-				} catch (QueryInterruptedException e) {
-					logger.info("Query interrupted", e);
-					throw new ServerHTTPException(SC_SERVICE_UNAVAILABLE, "Query evaluation took too long");
-				} catch (QueryEvaluationException e) {
-					logger.info("Query evaluation error", e);
-					if (e.getCause() != null && e.getCause() instanceof HTTPException) {
-						// custom signal from the backend, throw as HTTPException
-						// directly (see SES-1016).
-						throw (HTTPException) e.getCause();
-					} else {
-						throw new ServerHTTPException("Query evaluation error: " + e.getMessage());
-					}
+				if (query instanceof TupleQuery) {
+					registry = TupleQueryResultWriterRegistry.getInstance();
+					view = TupleQueryResultView.getInstance();
+				} else if (query instanceof GraphQuery) {
+					registry = RDFWriterRegistry.getInstance();
+					view = GraphQueryResultView.getInstance();
+				} else if (query instanceof BooleanQuery) {
+					registry = BooleanQueryResultWriterRegistry.getInstance();
+					view = BooleanQueryResultView.getInstance();
+				} else {
+					throw new ClientHTTPException(SC_BAD_REQUEST,
+							"Unsupported query type: " + query.getClass().getName());
 				}
 
 				Object factory = ProtocolUtil.getAcceptableService(request, response, registry);
 
-				Map<String, Object> model = new HashMap<>();
-				model.put(QueryResultView.FILENAME_HINT_KEY, "query-result");
-				model.put(QueryResultView.QUERY_RESULT_KEY, queryResult);
-				model.put(QueryResultView.FACTORY_KEY, factory);
-				model.put(QueryResultView.HEADERS_ONLY, headersOnly);
-				model.put(QueryResultView.CONNECTION_KEY, repositoryCon);
+				if (queryExecutor != null && !headersOnly) {
+					return evaluateInBackground(request, response, repositoryCon, query, view, factory);
+				}
+
+				Object queryResult = headersOnly ? null : evaluate(query, request);
 
-				return new ModelAndView(view, model);
+				return new ModelAndView(view, createModel(queryResult, factory, headersOnly, repositoryCon));
 			} catch (Exception e) {
 				// only close the connection when an exception occurs. Otherwise, the QueryResultView will take care of
 				// closing it.
@@ -285,6 +282,130 @@ public class RepositoryController extends AbstractController {
 		}
 	}
 
+	private Object evaluate(Query query, HttpServletRequest request) throws HTTPException {
+		try {
+			if (query instanceof TupleQuery) {
+				TupleQuery tQuery = (TupleQuery) query;
+				long limit = ProtocolUtil.parseLongParam(request, Protocol.LIMIT_PARAM_NAME, 0);
+				long offset = ProtocolUtil.parseLongParam(request, Protocol.OFFSET_PARAM_NAME, 0);
+				boolean distinct = ProtocolUtil.parseBooleanParam(request, Protocol.DISTINCT_PARAM_NAME, false);
+
+				final TupleQueryResult tqr = distinct ? QueryResults.distinctResults(tQuery.evaluate())
+						: tQuery.evaluate();
+				return QueryResults.limitResults(tqr, limit, offset);
+			} else if (query instanceof GraphQuery) {
+				GraphQuery gQuery = (GraphQuery) query;
+				long limit = ProtocolUtil.parseLongParam(request, Protocol.LIMIT_PARAM_NAME, 0);
+				long offset = ProtocolUtil.parseLongParam(request, Protocol.OFFSET_PARAM_NAME, 0);
+				boolean distinct = ProtocolUtil.parseBooleanParam(request, Protocol.DISTINCT_PARAM_NAME, false);
+
+				final GraphQueryResult qqr = distinct ? QueryResults.distinctResults(gQuery.evaluate())
+						: gQuery.evaluate();
+				return QueryResults.limitResults(qqr, limit, offset);
+			} else {
+				return ((BooleanQuery) query).evaluate();
+			}
+		} catch (QueryInterruptedException e) {
+			logger.info("Query interrupted", e);
+			throw new ServerHTTPException(SC_SERVICE_UNAVAILABLE, "Query evaluation took too long");
+		} catch (QueryEvaluationException e) {
+			logger.info("Query evaluation error", e);
+			if (e.getCause() != null && e.getCause() instanceof HTTPException) {
+				// custom signal from the backend, throw as HTTPException
+				// directly (see SES-1016).
+				throw (HTTPException) e.getCause();
+			} else {
+				throw new ServerHTTPException("Query evaluation error: " + e.getMessage());
+			}
+		}
+	}
+
+	private Map<String, Object> createModel(Object queryResult, Object factory, boolean headersOnly,
+			RepositoryConnection repositoryCon) {
+		Map<String, Object> model = new HashMap<>();
+		model.put(QueryResultView.FILENAME_HINT_KEY, "query-result");
+		model.put(QueryResultView.QUERY_RESULT_KEY, queryResult);
+		model.put(QueryResultView.FACTORY_KEY, factory);
+		model.put(QueryResultView.HEADERS_ONLY, headersOnly);
+		model.put(QueryResultView.CONNECTION_KEY, repositoryCon);
+		return model;
+	}
+
+	/**
+	 * Evaluates the query and renders its result on a thread of the {@link QueryExecutor}. If the request supports
+	 * asynchronous processing, the container thread is released immediately, and the query is cancelled when the client
+	 * disconnects. Once the result has been rendered, the request is dispatched to this controller again, so that
+	 * errors are resolved and the request is completed by Spring as usual. Otherwise the container thread waits for the
+	 * query, which still limits the number of queries that are evaluated concurrently.
+	 */
+	private ModelAndView evaluateInBackground(HttpServletRequest request, HttpServletResponse response,
+			RepositoryConnection repositoryCon, Query query, View view, Object factory) throws Exception {
+		String repId = RepositoryInterceptor.getRepositoryID(request);
+
+		// the outcome of the evaluation: null once the result has been rendered, or the exception to resolve.
+		// Queries are bounded by their own max execution time, so the request does not time out.
+		DeferredResult<Object> outcome = new DeferredResult<>(0L);
+		boolean async = request.isAsyncSupported();
+		if (async) {
+			WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+			asyncManager.setAsyncWebRequest(WebAsyncUtils.createAsyncWebRequest(request, response));
+			asyncManager.startDeferredResultProcessing(outcome);
+		}
+
+		QueryExecutor.QueryTask task;
+		try {
+			task = queryExecutor.submit(repId, () -> {
+				try {
+					Object queryResult;
+					try {
+						queryResult = evaluate(query, request);
+					} catch (Exception e) {
+						repositoryCon.close();
+						throw e;
+					}
+					view.render(createModel(queryResult, factory, false, repositoryCon), request, response);
+					outcome.setResult(null);
+				} catch (Exception e) {
+					if (response.isCommitted()) {
+						logger.error("Error while writing query result", e);
+						outcome.setResult(null);
+					} else {
+						outcome.setErrorResult(e);
+					}
+				}
+			}, () -> {
+				repositoryCon.close();
+				outcome.setErrorResult(new ServerHTTPException(SC_SERVICE_UNAVAILABLE, "Query evaluation cancelled"));
+			});
+		} catch (RejectedExecutionException e) {
+			logger.warn("Query on repository '{}' rejected: {}", repId, e.getMessage());
+			repositoryCon.close();
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+			ServerHTTPException rejected = new ServerHTTPException(SC_SERVICE_UNAVAILABLE,
+					"Too many queries on repository " + repId + ", please retry later");
+			if (!async) {
+				throw rejected;
+			}
+			outcome.setErrorResult(rejected);
+			return null;
+		}
+
+		if (async) {
+			outcome.onTimeout(task::cancel);
+			outcome.onError(e -> {
+				logger.debug("Cancelling query on repository '{}'", repId, e);
+				task.cancel();
+			});
+		} else {
+			task.await();
+			Object result = outcome.getResult();
+			if (result instanceof Exception) {
+				throw (Exception) result;
+			}
+		}
+		return null;
+	}
+
 	private Query getQuery(Repository repository, RepositoryConnection repositoryCon, String queryStr,
 			HttpServletRequest request, HttpServletResponse response) throws IOException, ClientHTTPException {
 		Query result = null;
@@ -343,7 +464,11 @@ public class RepositoryController extends AbstractController {
 		}
 
 		try {
-			result = repositoryCon.prepareQuery(queryLn, queryStr, baseURI);
+			if (queryCache != null) {
+				result = queryCache.prepareQuery(repositoryCon, queryLn, queryStr, baseURI);
+			} else {
+				result = repositoryCon.prepareQuery(queryLn, queryStr, baseURI);
+			}
 
 			result.setIncludeInferred(includeInferred);
 
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.changes;
+
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_GONE;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.http.server.ClientHTTPException;
+import org.eclipse.rdf4j.http.server.ProtocolUtil;
+import org.eclipse.rdf4j.http.server.ServerHTTPException;
+import org.eclipse.rdf4j.http.server.repository.RepositoryInterceptor;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.Sail;
+import org.eclipse.rdf4j.sail.StackableSail;
+import org.eclipse.rdf4j.sail.base.ChangeFeed;
+import org.eclipse.rdf4j.sail.base.ChangeFeedSail;
+import org.eclipse.rdf4j.sail.base.CommittedChangeset;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.AbstractController;
+
+/**
+ * Handles requests for the changesets that have been committed to a repository after a position of its change feed. If
+ * there are no such changesets yet, the request waits for a commit for at most the number of seconds given by the
+ * timeout parameter, limited to the {@link #setMaxTimeout(int) maximum timeout} of the server. If the request supports
+ * asynchronous processing, no container thread is held while waiting.
+ */
+public class ChangesController extends AbstractController {
+
+	/**
+	 * The number of changesets that is returned if the request does not specify a limit.
+	 */
+	private static final int DEFAULT_LIMIT = 100;
+
+	/**
+	 * The default maximum number of seconds that a request waits for changes.
+	 */
+	private static final int DEFAULT_MAX_TIMEOUT = 60;
+
+	private int maxTimeout = DEFAULT_MAX_TIMEOUT;
+
+	public ChangesController() throws ApplicationContextException {
+		setSupportedMethods(new String[] { METHOD_GET, METHOD_HEAD });
+	}
+
+	/**
+	 * Sets the maximum number of seconds that a request waits for changes, regardless of the timeout that it specifies.
+	 * Defaults to 60 seconds.
+	 */
+	public void setMaxTimeout(int maxTimeout) {
+		if (maxTimeout < 0) {
+			throw new IllegalArgumentException("maxTimeout must not be negative: " + maxTimeout);
+		}
+		this.maxTimeout = maxTimeout;
+	}
+
+	@Override
+	protected ModelAndView handleRequestInternal(HttpServletRequest request, HttpServletResponse response)
+			throws Exception {
+		ProtocolUtil.logRequestParameters(request);
+
+		Repository repository = RepositoryInterceptor.getRepository(request);
+		ChangeFeed feed = getChangeFeed(repository);
+		if (feed == null) {
+			throw new ClientHTTPException(SC_NOT_FOUND, "Repository does not provide a change feed");
+		}
+
+		long after = ProtocolUtil.parseLongParam(request, Protocol.AFTER_PARAM_NAME, 0);
+		long limit = ProtocolUtil.parseLongParam(request, Protocol.LIMIT_PARAM_NAME, DEFAULT_LIMIT);
+		if (after < 0 || limit < 1) {
+			throw new ClientHTTPException(SC_BAD_REQUEST, "Invalid change feed position or limit");
+		}
+		int timeout = ProtocolUtil.parseTimeoutParam(request);
+		String feedId = request.getParameter(Protocol.FEED_PARAM_NAME);
+		boolean headersOnly = METHOD_HEAD.equals(request.getMethod());
+
+		if ((feedId != null && !feedId.equals(feed.getId())) || !feed.isAvailable(after)) {
+			throw new ClientHTTPException(SC_GONE, "Changes after " + after + " are no longer available");
+		}
+
+		List<CommittedChangeset> changes = Collections.emptyList();
+		if (!headersOnly) {
+			int max = (int) Math.min(limit, Integer.MAX_VALUE);
+			changes = getChanges(feed, after, max);
+
+			WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+			int wait = Math.min(timeout, maxTimeout);
+			if (asyncManager.hasConcurrentResult()) {
+				// dispatched again after a commit, or once the timeout expired
+				asyncManager.clearConcurrentResult();
+			} else if (changes.isEmpty() && wait > 0) {
+				if (request.isAsyncSupported()) {
+					awaitInBackground(request, response, feed, after, wait);
+					return null;
+				}
+				try {
+					changes = feed.awaitChanges(after, max, wait, TimeUnit.SECONDS);
+				} catch (IllegalArgumentException e) {
+					throw new ClientHTTPException(SC_GONE, "Changes after " + after + " are no longer available");
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new ServerHTTPException("Interrupted while waiting for changes", e);
+				}
+			}
+		}
+
+		Map<String, Object> model = new HashMap<>();
+		model.put(ChangesView.FEED_ID_KEY, feed.getId());
+		model.put(ChangesView.CHANGES_KEY, changes);
+		model.put(ChangesView.HEADERS_ONLY, headersOnly);
+		return new ModelAndView(ChangesView.getInstance(), model);
+	}
+
+	private static List<CommittedChangeset> getChanges(ChangeFeed feed, long after, int max)
+			throws ClientHTTPException {
+		try {
+			return feed.getChanges(after, max);
+		} catch (IllegalArgumentException e) {
+			throw new ClientHTTPException(SC_GONE, "Changes after " + after + " are no longer available");
+		}
+	}
+
+	/**
+	 * Releases the container thread until a changeset is published after the position or the timeout expires. The
+	 * request is then dispatched to this controller again, which returns the changes that are available by then.
+	 */
+	private static void awaitInBackground(HttpServletRequest request, HttpServletResponse response, ChangeFeed feed,
+			long after, int timeout) throws Exception {
+		DeferredResult<Boolean> outcome = new DeferredResult<>(TimeUnit.SECONDS.toMillis(timeout), Boolean.FALSE);
+		Runnable listener = () -> outcome.setResult(Boolean.TRUE);
+		outcome.onCompletion(() -> feed.removeListener(listener));
+
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		asyncManager.setAsyncWebRequest(WebAsyncUtils.createAsyncWebRequest(request, response));
+		asyncManager.startDeferredResultProcessing(outcome);
+
+		feed.addListener(listener);
+		if (feed.getLastSequenceNumber() != after) {
+			// committed before the listener was registered
+			outcome.setResult(Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Finds the change feed of the Sail of a repository, which may be wrapped by other Sails.
+	 *
+	 * @return the change feed, or <tt>null</tt> if the repository does not provide one.
+	 */
+	static ChangeFeed getChangeFeed(Repository repository) {
+		if (!(repository instanceof SailRepository)) {
+			return null;
+		}
+		Sail sail = ((SailRepository) repository).getSail();
+		while (sail != null) {
+			if (sail instanceof ChangeFeedSail) {
+				return ((ChangeFeedSail) sail).getChangeFeed().orElse(null);
+			}
+			sail = sail instanceof StackableSail ? ((StackableSail) sail).getBaseSail() : null;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.changes;
+
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
+import org.eclipse.rdf4j.sail.base.CommittedChangeset;
+import org.springframework.web.servlet.View;
+
+/**
+ * View used to render changesets of a change feed in the RDF Patch format. Each changeset is a transaction that is
+ * preceded by the ID of the feed and its sequence number as headers, e.g.:
+ *
+ * <pre>
+ * H feed &lt;urn:uuid:...&gt; .
+ * H sequence "42"^^&lt;http://www.w3.org/2001/XMLSchema#long&gt; .
+ * TX .
+ * D &lt;urn:s&gt; &lt;urn:p&gt; "old" .
+ * A &lt;urn:s&gt; &lt;urn:p&gt; "new" &lt;urn:g&gt; .
+ * TC .
+ * </pre>
+ */
+public class ChangesView implements View {
+
+	public static final String FEED_ID_KEY = "feedId";
+
+	public static final String CHANGES_KEY = "changes";
+
+	public static final String HEADERS_ONLY = "headersOnly";
+
+	private static final ChangesView INSTANCE = new ChangesView();
+
+	public static ChangesView getInstance() {
+		return INSTANCE;
+	}
+
+	private ChangesView() {
+	}
+
+	@Override
+	public String getContentType() {
+		return Protocol.RDF_PATCH_MIME_TYPE;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Override
+	public void render(Map model, HttpServletRequest request, HttpServletResponse response) throws Exception {
+		String feedId = (String) model.get(FEED_ID_KEY);
+		List<CommittedChangeset> changes = (List<CommittedChangeset>) model.get(CHANGES_KEY);
+		boolean headersOnly = (Boolean) model.get(HEADERS_ONLY);
+
+		response.setStatus(SC_OK);
+		response.setContentType(Protocol.RDF_PATCH_MIME_TYPE + "; charset=UTF-8");
+		if (headersOnly) {
+			return;
+		}
+
+		try (Writer writer = new BufferedWriter(
+				new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8))) {
+			for (CommittedChangeset changeset : changes) {
+				writer.write("H feed <" + feedId + "> .\n");
+				writer.write("H sequence "
+						+ NTriplesUtil.toNTriplesString(
+								SimpleValueFactory.getInstance().createLiteral(changeset.getSequenceNumber()))
+						+ " .\n");
+				writer.write("TX .\n");
+				for (Statement st : changeset.getRemovedStatements()) {
+					writeRow(writer, 'D', st);
+				}
+				for (Statement st : changeset.getAddedStatements()) {
+					writeRow(writer, 'A', st);
+				}
+				writer.write("TC .\n");
+			}
+		}
+	}
+
+	private static void writeRow(Writer writer, char operation, Statement st) throws IOException {
+		writer.write(operation);
+		writer.write(' ');
+		writer.write(NTriplesUtil.toNTriplesString(st.getSubject()));
+		writer.write(' ');
+		writer.write(NTriplesUtil.toNTriplesString(st.getPredicate()));
+		writer.write(' ');
+		writer.write(NTriplesUtil.toNTriplesString(st.getObject()));
+		if (st.getContext() != null) {
+			writer.write(' ');
+			writer.write(NTriplesUtil.toNTriplesString(st.getContext()));
+		}
+		writer.write(" .\n");
+	}
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.common.webapp.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rdf4j.common.io.IOUtil;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class GzipFilterTest {
+
+	private static final String CONTENT = "<urn:s> <urn:p> <urn:o> .\n";
+
+	private final GzipFilter filter = new GzipFilter();
+
+	private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/repositories/test");
+
+	private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@Before
+	public void setUp() throws Exception {
+		MockFilterConfig config = new MockFilterConfig();
+		config.addInitParameter("excludeContentTypes", "application/x-binary-rdf, application/x-other");
+		filter.init(config);
+		request.addHeader("Accept-Encoding", "deflate, gzip;q=0.8");
+	}
+
+	@Test
+	public void testCompressesAcceptedResponse() throws Exception {
+		filter.doFilter(request, response, new MockFilterChain(servlet("application/n-triples")));
+
+		assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+		assertThat(response.containsHeader("Content-Length")).isFalse();
+		assertThat(decompress(response.getContentAsByteArray())).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void testDoesNotCompressUnlessAccepted() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/repositories/test");
+		request.addHeader("Accept-Encoding", "gzip;q=0, deflate");
+		filter.doFilter(request, response, new MockFilterChain(servlet("application/n-triples")));
+
+		assertThat(response.containsHeader("Content-Encoding")).isFalse();
+		assertThat(response.getContentLength()).isEqualTo(CONTENT.length());
+		assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void testDoesNotCompressExcludedContentType() throws Exception {
+		filter.doFilter(request, response, new MockFilterChain(servlet("application/x-binary-rdf")));
+
+		assertThat(response.containsHeader("Content-Encoding")).isFalse();
+		assertThat(response.getContentLength()).isEqualTo(CONTENT.length());
+		assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+	}
+
+	@Test
+	public void testFinishesAsyncResponseOnLastDispatch() throws Exception {
+		request.setAsyncSupported(true);
+		HttpServletResponse[] wrapped = new HttpServletResponse[1];
+		Servlet startAsync = new HttpServlet() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+				req.startAsync(req, resp);
+				wrapped[0] = resp;
+			}
+		};
+		filter.doFilter(request, response, new MockFilterChain(startAsync));
+
+		// the result is written on another thread once the request thread has returned
+		wrapped[0].setContentType("application/n-triples");
+		OutputStream out = wrapped[0].getOutputStream();
+		out.write(CONTENT.getBytes(StandardCharsets.UTF_8));
+		out.flush();
+		assertThatThrownBy(() -> decompress(response.getContentAsByteArray())).isInstanceOf(EOFException.class);
+
+		// the dispatch that completes the request writes nothing else
+		request.setAsyncStarted(false);
+		filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+		assertThat(decompress(response.getContentAsByteArray())).isEqualTo(CONTENT);
+	}
+
+	private static Servlet servlet(String contentType) {
+		return new HttpServlet() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+				resp.setContentType(contentType);
+				resp.setContentLength(CONTENT.length());
+				resp.getWriter().write(CONTENT);
+			}
+		};
+	}
+
+	private static String decompress(byte[] content) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			return new String(IOUtil.readBytes(in), StandardCharsets.UTF_8);
+		}
+	}
+}
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryCacheTest {
+
+	private static final String QUERY = "SELECT ?label WHERE { ?s <" + RDFS.LABEL + "> ?label }";
+
+	private SailRepository repository;
+
+	private QueryCache cache;
+
+	@Before
+	public void setUp() {
+		repository = new SailRepository(new MemoryStore());
+		cache = new QueryCache();
+	}
+
+	@After
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void parsedQueryIsReusedWithDifferentBindings() {
+		ValueFactory vf = repository.getValueFactory();
+		IRI a = vf.createIRI("urn:a");
+		IRI b = vf.createIRI("urn:b");
+
+		try (RepositoryConnection con = repository.getConnection()) {
+			con.add(a, RDFS.LABEL, vf.createLiteral("a"));
+			con.add(b, RDFS.LABEL, vf.createLiteral("b"));
+		}
+
+		try (RepositoryConnection con = repository.getConnection()) {
+			TupleQuery query = (TupleQuery) cache.prepareQuery(con, QueryLanguage.SPARQL, QUERY, null);
+			query.setBinding("s", a);
+			List<BindingSet> result = QueryResults.asList(query.evaluate());
+			assertThat(result).hasSize(1);
+			assertThat(result.get(0).getValue("label").stringValue()).isEqualTo("a");
+		}
+
+		try (RepositoryConnection con = repository.getConnection()) {
+			TupleQuery query = (TupleQuery) cache.prepareQuery(con, QueryLanguage.SPARQL, QUERY, null);
+			query.setBinding("s", b);
+			List<BindingSet> result = QueryResults.asList(query.evaluate());
+			assertThat(result).hasSize(1);
+			assertThat(result.get(0).getValue("label").stringValue()).isEqualTo("b");
+
+			// the cached query is not affected by the evaluations
+			assertThat(QueryResults.asList(
+					((TupleQuery) cache.prepareQuery(con, QueryLanguage.SPARQL, QUERY, null)).evaluate()))
+							.hasSize(2);
+		}
+
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.getStatistics().missCount()).isEqualTo(1);
+		assertThat(cache.getStatistics().hitCount()).isEqualTo(2);
+	}
+
+	@Test
+	public void baseURIIsPartOfKey() {
+		try (RepositoryConnection con = repository.getConnection()) {
+			cache.prepareQuery(con, QueryLanguage.SPARQL, "SELECT * WHERE { ?s <p> ?o }", "urn:base1/");
+			cache.prepareQuery(con, QueryLanguage.SPARQL, "SELECT * WHERE { ?s <p> ?o }", "urn:base2/");
+		}
+
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getStatistics().hitCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void subclassedConnectionIsNotCached() {
+		// subclasses such as the FedX connection customize how queries are prepared
+		try (RepositoryConnection con = new SailRepositoryConnection(repository, repository.getSail().getConnection()) {
+		}) {
+			assertThat(cache.prepareQuery(con, QueryLanguage.SPARQL, QUERY, null)).isInstanceOf(TupleQuery.class);
+		}
+
+		assertThat(cache.size()).isEqualTo(0);
+	}
+
+	@Test
+	public void malformedQueryIsNotCached() {
+		try (RepositoryConnection con = repository.getConnection()) {
+			cache.prepareQuery(con, QueryLanguage.SPARQL, "SELECT ?s WHERE {", null);
+			fail("expected MalformedQueryException");
+		} catch (MalformedQueryException e) {
+			// expected
+		}
+
+		assertThat(cache.size()).isEqualTo(0);
+	}
+}
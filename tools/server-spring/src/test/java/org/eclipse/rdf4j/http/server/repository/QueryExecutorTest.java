@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryExecutorTest {
+
+	private static final String REPOSITORY_ID = "test-repo";
+
+	private QueryExecutor executor;
+
+	private CountDownLatch release;
+
+	@Before
+	public void setUp() {
+		executor = new QueryExecutor();
+		executor.setMaxThreads(4);
+		executor.setMaxConcurrentQueries(1);
+		executor.setMaxQueuedQueries(1);
+		release = new CountDownLatch(1);
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		executor.shutDown();
+	}
+
+	@Test
+	public void queriesAreQueuedAndRejectedPerRepository() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		QueryExecutor.QueryTask running = executor.submit(REPOSITORY_ID, () -> {
+			started.countDown();
+			awaitRelease();
+		}, () -> {
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+		AtomicBoolean evaluated = new AtomicBoolean();
+		QueryExecutor.QueryTask queued = executor.submit(REPOSITORY_ID, () -> evaluated.set(true), () -> {
+		});
+		assertThat(executor.getRunningQueries(REPOSITORY_ID)).isEqualTo(1);
+		assertThat(executor.getQueuedQueries(REPOSITORY_ID)).isEqualTo(1);
+
+		try {
+			executor.submit(REPOSITORY_ID, () -> {
+			}, () -> {
+			});
+			fail("expected rejection");
+		} catch (RejectedExecutionException e) {
+			// expected
+		}
+
+		// other repositories are not affected
+		QueryExecutor.QueryTask other = executor.submit("other-repo", () -> {
+		}, () -> {
+		});
+		other.await();
+		assertThat(other.isDone()).isTrue();
+
+		release.countDown();
+		running.await();
+		queued.await();
+		assertThat(evaluated.get()).isTrue();
+		assertThat(executor.getRunningQueries(REPOSITORY_ID)).isEqualTo(0);
+		assertThat(executor.getQueuedQueries(REPOSITORY_ID)).isEqualTo(0);
+	}
+
+	@Test
+	public void cancelledQueryIsRemovedFromQueue() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		QueryExecutor.QueryTask running = executor.submit(REPOSITORY_ID, () -> {
+			started.countDown();
+			awaitRelease();
+		}, () -> {
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+		AtomicBoolean evaluated = new AtomicBoolean();
+		AtomicBoolean cancelled = new AtomicBoolean();
+		QueryExecutor.QueryTask queued = executor.submit(REPOSITORY_ID, () -> evaluated.set(true),
+				() -> cancelled.set(true));
+		queued.cancel();
+
+		assertThat(queued.isDone()).isTrue();
+		assertThat(queued.isCancelled()).isTrue();
+		assertThat(cancelled.get()).isTrue();
+		assertThat(executor.getQueuedQueries(REPOSITORY_ID)).isEqualTo(0);
+
+		release.countDown();
+		running.await();
+		assertThat(evaluated.get()).isFalse();
+		assertThat(executor.getRunningQueries(REPOSITORY_ID)).isEqualTo(0);
+	}
+
+	@Test
+	public void cancelledQueryIsInterrupted() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicBoolean interrupted = new AtomicBoolean();
+		QueryExecutor.QueryTask running = executor.submit(REPOSITORY_ID, () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				interrupted.set(true);
+			}
+		}, () -> {
+		});
+		assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+		running.cancel();
+		running.await();
+
+		assertThat(interrupted.get()).isTrue();
+		assertThat(executor.getRunningQueries(REPOSITORY_ID)).isEqualTo(0);
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2021 Eclipse RDF4J contributors.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.changes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.http.server.ClientHTTPException;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.ModelAndView;
+
+public class TestChangesController {
+
+	private final ChangesController controller = new ChangesController();
+
+	private SailRepository repository;
+
+	@Before
+	public void setUp() {
+		MemoryStore store = new MemoryStore();
+		store.setChangeFeedCapacity(100);
+		repository = new SailRepository(store);
+		repository.init();
+	}
+
+	@After
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testChangesAreWrittenAsRdfPatch() throws Exception {
+		ValueFactory vf = repository.getValueFactory();
+		try (RepositoryConnection con = repository.getConnection()) {
+			con.add(vf.createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+			con.remove(vf.createIRI("urn:s"), null, null);
+		}
+
+		MockHttpServletRequest request = createRequest("1");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		render(controller.handleRequest(request, response), request, response);
+
+		assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+		assertTrue(response.getContentType().startsWith(Protocol.RDF_PATCH_MIME_TYPE));
+		String patch = response.getContentAsString();
+		assertTrue(patch, patch.contains("H sequence \"2\"^^<http://www.w3.org/2001/XMLSchema#long> .\n"));
+		assertTrue(patch, patch.contains("TX .\nD <urn:s> <" + RDF.TYPE + "> <" + RDFS.RESOURCE + "> .\nTC .\n"));
+		assertTrue(patch, !patch.contains("\"1\"^^"));
+	}
+
+	@Test
+	public void testUnavailablePosition() throws Exception {
+		try {
+			controller.handleRequest(createRequest("1"), new MockHttpServletResponse());
+		} catch (ClientHTTPException e) {
+			assertEquals(HttpServletResponse.SC_GONE, e.getStatusCode());
+			return;
+		}
+		throw new AssertionError("expected the position to be unavailable");
+	}
+
+	@Test
+	public void testAsyncRequestWaitsForCommit() throws Exception {
+		MockHttpServletRequest request = createRequest("0");
+		request.addParameter(Protocol.TIMEOUT_PARAM_NAME, "100");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		assertNull(controller.handleRequest(request, response));
+		assertTrue(request.isAsyncStarted());
+		assertFalse(response.isCommitted());
+
+		try (RepositoryConnection con = repository.getConnection()) {
+			con.add(repository.getValueFactory().createIRI("urn:s"), RDF.TYPE, RDFS.RESOURCE);
+		}
+
+		// the commit dispatches the request again, which then returns the change
+		assertEquals(request.getRequestURI(), ((MockAsyncContext) request.getAsyncContext()).getDispatchedPath());
+		render(controller.handleRequest(request, response), request, response);
+		assertTrue(response.getContentAsString().contains("A <urn:s> <" + RDF.TYPE + "> <" + RDFS.RESOURCE + "> .\n"));
+	}
+
+	@Test
+	public void testTimeoutIsLimited() throws Exception {
+		controller.setMaxTimeout(1);
+		MockHttpServletRequest request = createRequest("0");
+		request.addParameter(Protocol.TIMEOUT_PARAM_NAME, String.valueOf(Integer.MAX_VALUE));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		long start = System.nanoTime();
+		render(controller.handleRequest(request, response), request, response);
+		assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(30));
+		assertEquals("", response.getContentAsString());
+	}
+
+	private static void render(ModelAndView result, MockHttpServletRequest request,
+			MockHttpServletResponse response) throws Exception {
+		result.getView().render(result.getModel(), request, response);
+	}
+
+	private MockHttpServletRequest createRequest(String after) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setMethod(HttpMethod.GET.name());
+		request.addParameter(Protocol.AFTER_PARAM_NAME, after);
+		// repository interceptor uses this attribute
+		request.setAttribute("repository", repository);
+		return request;
+	}
+}
@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.commons.io.Charsets;
 import org.apache.http.HttpEntity;
@@ -256,6 +257,31 @@ public class ProtocolIT {
 		}
 	}
 
+	/**
+	 * Checks that query results, which are written asynchronously, are compressed if the client accepts it.
+	 */
+	@Test
+	public void testQueryResultIsCompressed_GET() throws Exception {
+		String query = "SELECT ?x WHERE { VALUES ?x { 1 2 3 } }";
+		String location = TestServer.REPOSITORY_URL + "?query=" + URLEncoder.encode(query, "UTF-8");
+
+		HttpURLConnection conn = (HttpURLConnection) new URL(location).openConnection();
+		conn.setRequestProperty("Accept", TupleQueryResultFormat.SPARQL.getDefaultMIMEType());
+		conn.setRequestProperty("Accept-Encoding", "gzip");
+		conn.connect();
+
+		try {
+			assertEquals(HttpURLConnection.HTTP_OK, conn.getResponseCode());
+			assertEquals("gzip", conn.getHeaderField("Content-Encoding"));
+			try (InputStream in = new GZIPInputStream(conn.getInputStream());
+					TupleQueryResult result = QueryResultIO.parseTuple(in, TupleQueryResultFormat.SPARQL)) {
+				assertEquals(3, result.stream().count());
+			}
+		} finally {
+			conn.disconnect();
+		}
+	}
+
 	/**
 	 * Checks that a proper error (HTTP 406) is returned when accept header is set incorrectly on graph query.
 	 */